@@ -0,0 +1,69 @@
+package com.modulink;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Classe di configurazione dell'esecuzione asincrona e pianificata dell'applicazione.
+ * <p>
+ * Abilita il supporto a {@link org.springframework.scheduling.annotation.Async} e
+ * {@link org.springframework.scheduling.annotation.Scheduled} e definisce l'executor
+ * dedicato all'invio delle email (<code>mailExecutor</code>), così che il round-trip SMTP verso il relay
+ * non venga più eseguito sul thread della richiesta HTTP.
+ * </p>
+ * <p>
+ * L'executor è limitato sia nel numero di thread sia nella lunghezza della coda
+ * (proprietà <code>modulink.mail.executor.*</code>). Quando la coda è piena il task viene rifiutato
+ * ({@link ThreadPoolExecutor.AbortPolicy}) invece di essere eseguito sul thread chiamante: i task sono solo
+ * solleciti di consegna, i messaggi restano nell'outbox e vengono recapitati dalla consegna periodica,
+ * mentre la richiesta HTTP non resta mai bloccata sul relay SMTP.
+ * Essendo un {@link ThreadPoolTaskExecutor}, le sue metriche (<code>executor.queued</code>,
+ * <code>executor.active</code>, ...) sono esposte automaticamente da Spring Boot Actuator con tag
+ * <code>name=mailExecutor</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.2.0
+ * @since 3.7.0
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Costruisce l'executor limitato dedicato all'invio delle email.
+     * <p>
+     * Allo shutdown attende il completamento delle consegne in corso per il tempo configurato;
+     * i messaggi non ancora consegnati restano comunque nell'outbox e vengono recapitati al riavvio.
+     * </p>
+     *
+     * @param coreSize      Numero di thread sempre attivi.
+     * @param maxSize       Numero massimo di thread, raggiunto solo a coda piena.
+     * @param queueCapacity Numero massimo di messaggi in attesa.
+     * @param awaitSeconds  Secondi di attesa per lo svuotamento della coda allo shutdown.
+     * @return L'executor configurato.
+     * @since 3.7.0
+     */
+    @Bean("mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${modulink.mail.executor.core-size:2}") int coreSize,
+                                               @Value("${modulink.mail.executor.max-size:4}") int maxSize,
+                                               @Value("${modulink.mail.executor.queue-capacity:500}") int queueCapacity,
+                                               @Value("${modulink.mail.executor.await-termination-seconds:30}") int awaitSeconds) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-");
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(awaitSeconds);
+        return executor;
+    }
+}
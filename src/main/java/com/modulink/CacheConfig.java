@@ -0,0 +1,95 @@
+package com.modulink;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Classe di configurazione del provider di cache applicativo basato su <strong>Caffeine</strong>.
+ * <p>
+ * Sostituisce il provider di default di Spring (una {@code ConcurrentHashMap} illimitata per ogni cache)
+ * con cache limitate in dimensione e con scadenza temporale, configurate singolarmente tramite le
+ * proprietà <code>modulink.cache.&lt;nome-cache&gt;</code> in formato {@link CaffeineSpec}
+ * (es. <code>maximumSize=10000,expireAfterAccess=30m,recordStats</code>).
+ * </p>
+ * <p>
+ * Le cache che contengono liste (es. <code>usersByAzienda</code>) sono limitate
+ * per peso anziché per numero di entry: ogni entry pesa quanto il numero di elementi contenuti, così una
+ * singola azienda con migliaia di utenti non occupa lo stesso "posto" di un'azienda con tre dipendenti.
+ * Con <code>recordStats</code> attivo, hit, miss ed eviction vengono esposti automaticamente come metriche
+ * Micrometer (<code>cache.gets</code>, <code>cache.evictions</code>, ...) tramite Spring Boot Actuator.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Prefisso delle proprietà contenenti le specifiche delle singole cache.
+     */
+    private static final String PREFIX = "modulink.cache";
+
+    /**
+     * Nome della specifica applicata alle cache non configurate esplicitamente.
+     */
+    private static final String DEFAULT_SPEC = "default";
+
+    /**
+     * Costruisce il {@link CacheManager} registrando una cache Caffeine dedicata per ogni specifica configurata.
+     * <p>
+     * Le cache richieste a runtime senza una specifica dedicata vengono create con la specifica
+     * <code>modulink.cache.default</code>, così nessuna cache può tornare a crescere senza limiti.
+     * </p>
+     *
+     * @param environment L'ambiente Spring da cui leggere le proprietà.
+     * @return Il gestore delle cache configurato.
+     * @since 3.7.0
+     */
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        Map<String, String> specs = Binder.get(environment)
+                .bind(PREFIX, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(specs.getOrDefault(DEFAULT_SPEC, "maximumSize=1000,expireAfterAccess=10m,recordStats")));
+
+        specs.forEach((name, spec) -> {
+            if (!DEFAULT_SPEC.equals(name)) {
+                cacheManager.registerCustomCache(name, buildCache(spec).build());
+            }
+        });
+        return cacheManager;
+    }
+
+    /**
+     * Crea il builder Caffeine per una singola cache a partire dalla sua specifica testuale.
+     * <p>
+     * Se la specifica dichiara un <code>maximumWeight</code>, viene associato un weigher che pesa
+     * le collezioni in base al numero di elementi e ogni altro valore come 1.
+     * </p>
+     *
+     * @param spec La specifica in formato {@link CaffeineSpec}.
+     * @return Il builder configurato.
+     * @since 3.7.0
+     */
+    private Caffeine<Object, Object> buildCache(String spec) {
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (spec.contains("maximumWeight")) {
+            builder.weigher((key, value) -> value instanceof Collection<?> collection ? 1 + collection.size() : 1);
+        }
+        return builder;
+    }
+}
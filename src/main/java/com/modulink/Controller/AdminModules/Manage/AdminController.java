@@ -1,10 +1,10 @@
 package com.modulink.Controller.AdminModules.Manage;
 
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Azienda.AziendaService;
 import com.modulink.Model.Modulo.ModuloService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -32,20 +32,17 @@ import java.util.Optional;
 @RequestMapping("/dashboard/admin")
 public class AdminController extends ModuloController {
 
-    private final CustomUserDetailsService customUserDetailsService;
     private final AziendaService aziendaService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
      * @param moduloService            Servizio per la gestione dei moduli.
-     * @param customUserDetailsService Servizio per il recupero dettagli utente.
      * @param aziendaService           Servizio per la gestione delle aziende.
      * @since 1.0.0
      */
-    public AdminController(ModuloService moduloService, CustomUserDetailsService customUserDetailsService, AziendaService aziendaService) {
+    public AdminController(ModuloService moduloService, AziendaService aziendaService) {
         super(moduloService, -1);
-        this.customUserDetailsService = customUserDetailsService;
         this.aziendaService = aziendaService;
     }
 
@@ -57,17 +54,16 @@ public class AdminController extends ModuloController {
      * </p>
      *
      * @param principal L'oggetto Principal che rappresenta l'utente loggato.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Il modello UI per passare i dati alla vista Thymeleaf.
      * @return Il nome logico della vista "admin/adminPage" o un redirect in caso di accesso negato.
      * @since 1.0.0
      */
     @GetMapping({"/", ""})
-    public String index(Principal principal, Model model) {
+    public String index(Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt, Model model) {
         if (principal == null) {
             return "redirect:/login";
         }
-        String email = principal.getName();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(email);
         
         if (!isAccessibleModulo(currentUserOpt)) {
             return "redirect:/dashboard";
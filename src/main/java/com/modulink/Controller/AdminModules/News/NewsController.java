@@ -2,11 +2,11 @@ package com.modulink.Controller.AdminModules.News;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
 import com.modulink.Model.News.NewsEntity;
 import com.modulink.Model.News.NewsService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -36,20 +36,17 @@ import java.util.Optional;
 @Controller
 public class NewsController extends ModuloController {
     private final NewsService newsService;
-    private final CustomUserDetailsService customUserDetailsService;
 
     /**
      * Costruttore con iniezione delle dipendenze.
      *
      * @param moduloService            Servizio base gestione moduli.
      * @param newsService              Servizio specifico per entità News.
-     * @param customUserDetailsService Servizio recupero utenti.
      * @since 1.1.0
      */
-    public NewsController(ModuloService moduloService, NewsService newsService, CustomUserDetailsService customUserDetailsService) {
+    public NewsController(ModuloService moduloService, NewsService newsService) {
         super(moduloService, -3);
         this.newsService = newsService;
-        this.customUserDetailsService = customUserDetailsService;
     }
 
     /**
@@ -71,13 +68,12 @@ public class NewsController extends ModuloController {
      * Verifica i permessi di accesso al modulo prima di mostrare la pagina di gestione.
      *
      * @param model     Modello UI.
-     * @param principal Utente amministratore.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Vista di amministrazione news o redirect.
      * @since 1.1.0
      */
     @GetMapping({"/dashboard/news","/dashboard/news/"})
-    public String getNews(Model model, Principal principal) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String getNews(Model model, @UtenteLoggato Optional<UtenteEntity> utenteOpt) {
         if(isAccessibleModulo(utenteOpt)) {
             model.addAttribute("news",newsService.findAll());
             model.addAttribute("newsForm", new NewsForm());
@@ -94,15 +90,14 @@ public class NewsController extends ModuloController {
      * </p>
      *
      * @param model         Modello UI.
-     * @param principal     Utente amministratore.
+     * @param utenteOpt     Utente autenticato, risolto una sola volta per richiesta.
      * @param newsForm      DTO con i dati della news.
      * @param bindingResult Risultati della validazione.
      * @return Redirect con messaggio di successo o ricaricamento pagina in caso di errore.
      * @since 1.1.0
      */
     @PostMapping({"/dashboard/news","/dashboard/news/"})
-    public String addNews(Model model, Principal principal, @Valid @ModelAttribute("newsForm") NewsForm newsForm, BindingResult bindingResult) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String addNews(Model model, @UtenteLoggato Optional<UtenteEntity> utenteOpt, @Valid @ModelAttribute("newsForm") NewsForm newsForm, BindingResult bindingResult) {
         if(isAccessibleModulo(utenteOpt)) {
             if(newsForm.getData().isBefore(LocalDate.now().minusDays(1))) bindingResult.rejectValue("data","datanelpassato.error","La data inserita è nel passato");
             if(bindingResult.hasErrors()) {
@@ -119,15 +114,14 @@ public class NewsController extends ModuloController {
     /**
      * Gestisce la cancellazione di una news specifica.
      *
-     * @param principal Utente amministratore.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param idNews    ID della news da eliminare.
      * @return Redirect con messaggio di successo.
      * @since 1.1.0
      */
     @PostMapping({"/dashboard/remove-news","/dashboard/remove-news/"})
-    public String removeNews(Principal principal, Model model, @RequestParam int idNews) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String removeNews(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam int idNews) {
         if(isAccessibleModulo(utenteOpt)) {
             newsService.delete(idNews);
             return "redirect:/dashboard/news"+ Alert.success("News cancellata con successo");
@@ -2,11 +2,11 @@ package com.modulink.Controller.AdminModules.Support;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
 import com.modulink.Model.SupportForm.SupportFormEntity;
 import com.modulink.Model.SupportForm.SupportFormService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -17,7 +17,6 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
 import java.util.Optional;
 
 /**
@@ -35,20 +34,17 @@ import java.util.Optional;
 @Controller
 public class SupportController extends ModuloController {
     private final SupportFormService supportFormService;
-    private final CustomUserDetailsService customUserDetailsService;
 
     /**
      * Costruttore per l'iniezione dei servizi.
      *
      * @param moduloService            Servizio base gestione moduli.
      * @param supportFormService       Servizio gestione ticket di supporto.
-     * @param customUserDetailsService Servizio recupero utenti.
      * @since 1.2.0
      */
-    public SupportController(ModuloService moduloService, SupportFormService supportFormService, CustomUserDetailsService customUserDetailsService) {
+    public SupportController(ModuloService moduloService, SupportFormService supportFormService) {
         super(moduloService, -2);
         this.supportFormService = supportFormService;
-        this.customUserDetailsService = customUserDetailsService;
     }
 
     /**
@@ -79,14 +75,13 @@ public class SupportController extends ModuloController {
      * Visualizza la lista dei messaggi di supporto nel pannello di amministrazione.
      * Accessibile solo agli amministratori con permessi adeguati.
      *
-     * @param principal Utente amministratore.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista amministrazione supporto o redirect.
      * @since 1.2.0
      */
     @GetMapping({"/dashboard/support","/dashboard/support/"})
-    public String getMessaggi(Principal principal, Model model) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String getMessaggi(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if(isAccessibleModulo(utenteOpt)) {
             model.addAttribute("messages",supportFormService.findAll());
             return "admin/support/supportPage";
@@ -97,15 +92,14 @@ public class SupportController extends ModuloController {
     /**
      * Rimuove un messaggio di supporto dal sistema.
      *
-     * @param principal   Utente amministratore.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
      * @param model       Modello UI.
      * @param idMessaggio ID del ticket da cancellare.
      * @return Redirect alla pagina di supporto con messaggio di successo.
      * @since 1.2.0
      */
     @PostMapping({"/dashboard/remove-support","/dashboard/remove-support/"})
-    public String removeMessaggio(Principal principal, Model model, @RequestParam int idMessaggio) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String removeMessaggio(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam int idMessaggio) {
         if(isAccessibleModulo(utenteOpt)) {
             supportFormService.delete(idMessaggio);
             return "redirect:/dashboard/support"+ Alert.success("Messaggio cancellato con successo");
@@ -1,5 +1,6 @@
 package com.modulink.Controller.Dashboard;
 
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Controller;
@@ -50,17 +51,16 @@ public class DashboardController {
      *
      *
      * @param principal L'utente autenticato.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Il modello UI (non utilizzato direttamente qui ma disponibile per estensioni).
      * @return Il nome della vista ("user/firstlogin", "user/dashboard") o un redirect ("redirect:/...").
      * @since 1.0.0
      */
     @GetMapping({"/dashboard","/dashboard/"})
-    public String dashboardDispatcher(Principal principal, Model model) {
+    public String dashboardDispatcher(Principal principal, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if (principal == null) {
             return "redirect:/";
         }
-        String email = principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
         if (utenteOpt.isPresent()) {
             UtenteEntity utente = utenteOpt.get();
             if(customUserDetailsService.isThisaNewUtente(utente)) { //Se è un nuovo utente allora viene portato alla schermata del 1°login
@@ -1,15 +1,14 @@
 package com.modulink.Controller.Dashboard;
 
 
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Modulo.ModuloEntity;
 import com.modulink.Model.Modulo.ModuloService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ModelAttribute;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,56 +25,50 @@ import java.util.Optional;
  * </p>
  *
  * @author Modulink Team
- * @version 1.1.5
+ * @version 1.2.0
  * @since 1.0.0
  */
 @ControllerAdvice
 public class GlobalControllerAdvice {
 
-    private final CustomUserDetailsService customUserDetailsService;
     private final ModuloService moduloService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
-     * @param customUserDetailsService Servizio per recuperare i dettagli dell'utente.
-     * @param moduloService            Servizio per recuperare i moduli accessibili.
+     * @param moduloService Servizio per recuperare i moduli accessibili.
      * @since 1.0.0
      */
-    public GlobalControllerAdvice(CustomUserDetailsService customUserDetailsService, ModuloService moduloService) {
-        this.customUserDetailsService = customUserDetailsService;
+    public GlobalControllerAdvice(ModuloService moduloService) {
         this.moduloService = moduloService;
     }
 
     /**
      * Metodo annotato con {@link ModelAttribute} eseguito prima di ogni metodo di gestione richiesta (@RequestMapping).
      * <p>
-     * Se un utente è autenticato (Principal presente), recupera:
+     * Se un utente è autenticato, recupera:
      * <ul>
      *     <li>L'oggetto {@link UtenteEntity} completo.</li>
      *     <li>La lista di {@link ModuloEntity} abilitati per l'utente (basata su attivazioni azienda e permessi ruolo).</li>
      * </ul>
      * Questi dati vengono aggiunti al Model e resi disponibili alle viste Thymeleaf.
+     * L'utente è risolto tramite {@link UtenteLoggato}: la stessa istanza viene poi riutilizzata dal metodo
+     * del Controller, senza una seconda ricerca.
      *
      *
-     * @param principal L'utente autenticato.
+     * @param utenteOpt L'utente autenticato, se presente.
      * @param model     Il modello condiviso della richiesta.
      * @since 1.0.0
      */
     @ModelAttribute
-    public void addCommonAttributes(Principal principal, Model model) {
-        if (principal != null) {
-            String email = principal.getName();
-            Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public void addCommonAttributes(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
+        if (utenteOpt.isPresent()) {
+            UtenteEntity utente = utenteOpt.get();
+            model.addAttribute("loggedUser", utente); // Use a distinct name to avoid conflicts if needed, or stick to "utente"
+            model.addAttribute("utente", utente);     // Keeping "utente" for backward compatibility with existing templates
 
-            if (utenteOpt.isPresent()) {
-                UtenteEntity utente = utenteOpt.get();
-                model.addAttribute("loggedUser", utente); // Use a distinct name to avoid conflicts if needed, or stick to "utente"
-                model.addAttribute("utente", utente);     // Keeping "utente" for backward compatibility with existing templates
-
-                List<ModuloEntity> moduli = moduloService.findModuliByUtente(utente);
-                model.addAttribute("moduli", moduli);
-            }
+            List<ModuloEntity> moduli = moduloService.findModuliByUtente(utente);
+            model.addAttribute("moduli", moduli);
         }
     }
 }
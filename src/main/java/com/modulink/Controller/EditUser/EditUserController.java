@@ -1,5 +1,7 @@
 package com.modulink.Controller.EditUser;
 
+import com.modulink.Model.Immagine.CaricamentoImmaginiService;
+import com.modulink.Model.Immagine.ImmagineNonValidaException;
 import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.PasswordUtility;
 import com.modulink.Model.Utente.UtenteEntity;
@@ -10,11 +12,9 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.Principal;
 
 /**
@@ -26,21 +26,24 @@ import java.security.Principal;
  * </p>
  *
  * @author Modulink Team
- * @version 2.2.0
+ * @version 2.3.0
  * @since 1.2.0
  */
 @Controller
 public class EditUserController {
     private final CustomUserDetailsService customUserDetailsService;
+    private final CaricamentoImmaginiService caricamentoImmaginiService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
-     * @param customUserDetailsService Servizio per la gestione degli utenti.
+     * @param customUserDetailsService   Servizio per la gestione degli utenti.
+     * @param caricamentoImmaginiService Servizio di caricamento dell'immagine di profilo.
      * @since 1.2.0
      */
-    public EditUserController(CustomUserDetailsService customUserDetailsService) {
+    public EditUserController(CustomUserDetailsService customUserDetailsService, CaricamentoImmaginiService caricamentoImmaginiService) {
         this.customUserDetailsService=customUserDetailsService;
+        this.caricamentoImmaginiService=caricamentoImmaginiService;
     }
 
     /**
@@ -77,7 +80,7 @@ public class EditUserController {
      *     <li>Validazione dei campi obbligatori e del formato (telefono, lunghezza stringhe).</li>
      *     <li>Verifica della corrispondenza delle password se viene richiesto un cambio password.</li>
      *     <li>Controllo di integrità sull'email (non modificabile).</li>
-     *     <li>Gestione del filesystem per l'upload o la rimozione dell'immagine di profilo.</li>
+     *     <li>Gestione del filesystem per l'upload (validato in streaming) o la rimozione dell'immagine di profilo.</li>
      *     <li>Aggiornamento persistente dell'entità utente.</li>
      * </ul>
      *
@@ -105,20 +108,20 @@ public class EditUserController {
             return "user/edit-profile";
         }
         else if(editUserForm.isRemoveImageFlag()) {
-            if(utente.getPath_immagine_profilo()!=null && !utente.getPath_immagine_profilo().isEmpty()) Files.delete(Paths.get(utente.getPath_immagine_profilo()));
+            caricamentoImmaginiService.elimina(utente.getPath_immagine_profilo());
             utente.setPath_immagine_profilo(null);
         }
-        else if(editUserForm.getImmagineProfilo().getBytes().length!=0) { //Salva o modifica l'immagine di profilo dell'utente
-            String filename="";
-            if(utente.getPath_immagine_profilo()!=null && !utente.getPath_immagine_profilo().isEmpty()) Files.delete(Paths.get(utente.getPath_immagine_profilo()));
-            String logodir="user-logos/";
-            Path uploadPath = Paths.get(logodir);
-            if(!uploadPath.toFile().exists()) uploadPath.toFile().mkdirs();
-            filename=editUserForm.getEmail()+editUserForm.getImmagineProfilo().getOriginalFilename();
-            Path filePath=uploadPath.resolve(filename);
-            if(Files.exists(filePath)) Files.delete(filePath);
-            Files.write(filePath,editUserForm.getImmagineProfilo().getBytes());
-            filename=logodir+filename;
+        else if(editUserForm.getImmagineProfilo()!=null && !editUserForm.getImmagineProfilo().isEmpty()) { //Salva o modifica l'immagine di profilo dell'utente
+            MultipartFile immagine = editUserForm.getImmagineProfilo();
+            String filename;
+            try {
+                filename=caricamentoImmaginiService.salva(immagine, CaricamentoImmaginiService.CARTELLA_IMMAGINI_UTENTE, editUserForm.getEmail());
+            } catch (ImmagineNonValidaException e) {
+                bindingResult.rejectValue("immagineProfilo", e.getCodice("immagineProfilo"), e.getMessage());
+                return "user/edit-profile";
+            }
+            //La vecchia immagine viene eliminata solo dopo la pubblicazione della nuova (se con lo stesso nome è già stata sostituita)
+            if(!filename.equals(utente.getPath_immagine_profilo())) caricamentoImmaginiService.elimina(utente.getPath_immagine_profilo());
             utente.setPath_immagine_profilo(filename);
         }
         utente.setNome(editUserForm.getNome());
@@ -32,7 +32,7 @@ import java.util.regex.Pattern;
  *
  *
  * @author Modulink Team
- * @version 2.0.0
+ * @version 2.0.1
  * @since 1.0.0
  */
 @Controller
@@ -48,11 +48,12 @@ public class LoginController {
      * @param customUserDetailsService Servizio gestione utenti.
      * @param senderEmail              Indirizzo email mittente configurato nelle properties.
      * @param emailService             Servizio per l'invio di email.
+     * @param otpManager               Gestore condiviso dei codici OTP.
      * @since 1.0.0
      */
-    public LoginController(CustomUserDetailsService customUserDetailsService, @Value("${spring.mail.properties.mail.smtp.from}") String senderEmail, EmailService emailService) {
+    public LoginController(CustomUserDetailsService customUserDetailsService, @Value("${spring.mail.properties.mail.smtp.from}") String senderEmail, EmailService emailService, OTPManager otpManager) {
         this.customUserDetailsService=customUserDetailsService;
-        this.otpManager=new OTPManager();
+        this.otpManager=otpManager;
         this.senderEmail=senderEmail;
         this.emailService=emailService;
     }
@@ -193,9 +194,8 @@ public class LoginController {
                 bindingResult.rejectValue("confirmNewPassword", "error.confirmNewPassword","Le password non coincidono");
                 return "login/otp-check";
             }
-            String code=otpManager.getOTPEmail(confirmPasswordForm.getEmail());
-            if(!code.equals(confirmPasswordForm.getOtp())) {
-                bindingResult.rejectValue("otp","error.otp","L'OTP inserito è errato, controlla e riprova.");
+            if(!otpManager.verificaOTP(confirmPasswordForm.getEmail(),confirmPasswordForm.getOtp())) {
+                bindingResult.rejectValue("otp","error.otp","L'OTP inserito è errato o scaduto, controlla e riprova.");
                 return "login/otp-check";
             }
             Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(confirmPasswordForm.getEmail());
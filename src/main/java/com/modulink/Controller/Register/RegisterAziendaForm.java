@@ -5,6 +5,9 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.Serial;
+import java.io.Serializable;
+
 /**
  * Classe Form (DTO) per la gestione dei dati di registrazione di una nuova <strong>Azienda</strong>.
  * <p>
@@ -13,15 +16,21 @@ import org.springframework.web.multipart.MultipartFile;
  * i formati richiesti (es. lunghezza P.IVA, formato telefono) prima di essere passati al Service Layer.
  * </p>
  * <p>
- * Oltre ai campi di input utente, contiene campi ausiliari per la gestione del file di logo (bytes e nome file)
- * per facilitare il passaggio di dati o il ripristino della vista in caso di errori di validazione.
+ * Oltre ai campi di input utente, contiene campi ausiliari per la gestione del file di logo (file di appoggio
+ * e nome originale), che permettono di pubblicare al secondo step il logo già validato al primo.
+ * </p>
+ * <p>
+ * Il form è conservato in sessione tra i due step della registrazione, per cui è {@link Serializable}.
  * </p>
  *
  * @author Modulink Team
- * @version 1.2.0
+ * @version 1.4.0
  * @since 1.0.0
  */
-public class RegisterAziendaForm {
+public class RegisterAziendaForm implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
 
     /**
      * Il nome o la ragione sociale dell'azienda.
@@ -93,17 +102,20 @@ public class RegisterAziendaForm {
 
     /**
      * Il file del logo aziendale caricato dall'utente.
-     * Gestito come {@link MultipartFile}.
+     * Gestito come {@link MultipartFile}; escluso dalla serializzazione della sessione, dove sopravvivono
+     * solo {@link #logoTemporaneo} e {@link #logoFileName}.
      */
-    private MultipartFile logo;
+    private transient MultipartFile logo;
 
     /**
-     * Rappresentazione in array di byte del logo.
+     * Nome del file di appoggio in cui il logo è stato copiato e validato al primo step.
      * <p>
-     * Utile per mantenere i dati del file in memoria se necessario processarli
-     * o ricaricarli in caso di errore nel form, evitando che l'utente debba ricaricare il file.
+     * Il contenuto resta su disco e non in sessione; il file viene spostato nella cartella pubblica solo
+     * al completamento della registrazione.
+     *
+     * @since 3.7.0
      */
-    private byte[] logoBytes;
+    private String logoTemporaneo;
 
     /**
      * Il nome originale del file del logo.
@@ -224,19 +236,21 @@ public class RegisterAziendaForm {
     }
 
     /**
-     * Restituisce i byte grezzi del logo.
-     * @return L'array di byte.
+     * Restituisce il nome del file di appoggio del logo.
+     * @return Il nome del file di appoggio, o {@code null} se non è stato caricato alcun logo.
+     * @since 3.7.0
      */
-    public byte[] getLogoBytes() {
-        return logoBytes;
+    public String getLogoTemporaneo() {
+        return logoTemporaneo;
     }
 
     /**
-     * Imposta i byte del logo.
-     * @param logoBytes L'array di byte.
+     * Imposta il nome del file di appoggio del logo.
+     * @param logoTemporaneo Il nome restituito dal servizio di caricamento.
+     * @since 3.7.0
      */
-    public void setLogoBytes(byte[] logoBytes) {
-        this.logoBytes = logoBytes;
+    public void setLogoTemporaneo(String logoTemporaneo) {
+        this.logoTemporaneo = logoTemporaneo;
     }
 
     /**
@@ -2,6 +2,8 @@ package com.modulink.Controller.Register;
 
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Azienda.AziendaService;
+import com.modulink.Model.Immagine.CaricamentoImmaginiService;
+import com.modulink.Model.Immagine.ImmagineNonValidaException;
 import com.modulink.Model.Relazioni.Pertinenza.PertinenzaService;
 import com.modulink.Model.Relazioni.Associazione.AssociazioneService;
 import com.modulink.Model.Relazioni.Attivazione.AttivazioneService;
@@ -17,17 +19,13 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.support.SessionStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.Principal;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * Controller Spring MVC che gestisce il flusso di registrazione (Onboarding) di una nuova Azienda e del suo Responsabile.
@@ -40,10 +38,12 @@ import java.util.List;
  * <p>
  * La classe utilizza l'annotazione {@link SessionAttributes} per mantenere persistente l'oggetto
  * {@link RegisterAziendaForm} tra le varie richieste HTTP finché l'intero processo non viene completato.
+ * Il logo non viene conservato in sessione: al primo step viene validato e copiato in un file di appoggio
+ * dal {@link CaricamentoImmaginiService}, che lo pubblica al termine del secondo.
  * </p>
  *
  * @author Modulink Team
- * @version 3.1.0
+ * @version 3.2.0
  * @since 1.0.0
  */
 @Controller
@@ -55,7 +55,7 @@ public class RegisterController {
     private final AssociazioneService associazioneService;
     private final AttivazioneService attivazioneService;
     private final PertinenzaService pertinenzaService;
-    private final List<String> supportedImageTypes = Arrays.asList("image/jpeg", "image/png");
+    private final CaricamentoImmaginiService caricamentoImmaginiService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
@@ -66,15 +66,29 @@ public class RegisterController {
      * @param associazioneService    Servizio associazione utente-ruolo.
      * @param attivazioneService     Servizio attivazione moduli.
      * @param pertinenzaService      Servizio permessi moduli.
+     * @param caricamentoImmaginiService Servizio di caricamento di logo e immagine di profilo.
      * @since 1.0.0
      */
-    public RegisterController(CustomUserDetailsService userDetailsService, AziendaService aziendaService, RuoloService ruoloService, AssociazioneService associazioneService, AttivazioneService attivazioneService, PertinenzaService pertinenzaService) {
+    public RegisterController(CustomUserDetailsService userDetailsService, AziendaService aziendaService, RuoloService ruoloService, AssociazioneService associazioneService, AttivazioneService attivazioneService, PertinenzaService pertinenzaService, CaricamentoImmaginiService caricamentoImmaginiService) {
         this.userDetailsService = userDetailsService;
         this.aziendaService = aziendaService;
         this.ruoloService = ruoloService;
         this.associazioneService = associazioneService;
         this.attivazioneService = attivazioneService;
         this.pertinenzaService = pertinenzaService;
+        this.caricamentoImmaginiService = caricamentoImmaginiService;
+    }
+
+    /**
+     * Impedisce che i riferimenti al logo già caricato vengano impostati dai parametri della richiesta:
+     * sono valorizzati solo dal controller dopo la validazione del file.
+     *
+     * @param binder Il binder del form aziendale.
+     * @since 3.7.0
+     */
+    @InitBinder("registerAziendaForm")
+    public void initAziendaBinder(WebDataBinder binder) {
+        binder.setDisallowedFields("logoTemporaneo", "logoFileName");
     }
 
     /**
@@ -104,7 +118,7 @@ public class RegisterController {
      * <li>Validazione formale dei dati (JSR-380).</li>
      * <li>Verifica univocità della Partita IVA nel database.</li>
      * <li><strong>Normalizzazione del numero di telefono</strong> (rimozione spazi bianchi) e verifica della sua univocità nel sistema.</li>
-     * <li>Conversione temporanea del file Logo in array di byte per conservarlo in sessione.</li>
+     * <li>Validazione del file Logo (formato e dimensione) e copia in streaming in un file di appoggio.</li>
      * </ul>
      * Se tutto è corretto, prepara il model per il secondo step (Registrazione Utente).
      *
@@ -114,7 +128,7 @@ public class RegisterController {
      * @param registerAziendaForm Il DTO popolato con i dati dell'azienda.
      * @param bindingResult       Risultato della validazione.
      * @return La vista successiva (RegistraUtente) o la stessa in caso di errori.
-     * @throws IOException Se si verifica un errore nella lettura del file logo.
+     * @throws IOException Se si verifica un errore nella copia del file logo.
      * @since 1.0.0
      */
     @PostMapping("/register")
@@ -140,8 +154,16 @@ public class RegisterController {
                 }
                 MultipartFile file = registerAziendaForm.getLogo();
                 if(file!=null && !file.isEmpty()) {
-                    registerAziendaForm.setLogoBytes(file.getBytes());
-                    registerAziendaForm.setLogoFileName(file.getOriginalFilename());
+                    try {
+                        String logoTemporaneo = caricamentoImmaginiService.prepara(file);
+                        caricamentoImmaginiService.scarta(registerAziendaForm.getLogoTemporaneo());
+                        registerAziendaForm.setLogoTemporaneo(logoTemporaneo);
+                        registerAziendaForm.setLogoFileName(file.getOriginalFilename());
+                    } catch (ImmagineNonValidaException e) {
+                        bindingResult.rejectValue("logo", e.getCodice("logo"), e.getMessage());
+                        model.addAttribute("registerAziendaForm", registerAziendaForm);
+                        return "register/RegistraAzienda";
+                    }
                 }
                 model.addAttribute("registerUtenteForm", new RegisterResponsabileForm());
                 model.addAttribute("firstAccess", true);
@@ -173,9 +195,10 @@ public class RegisterController {
      * Flusso operativo:
      * <ol>
      * <li>Verifica congruenza password e univocità email.</li>
-     * <li>Salvataggio fisico del logo Azienda su filesystem.</li>
+     * <li>Validazione e copia in streaming della foto profilo Utente in un file di appoggio.</li>
+     * <li>Pubblicazione del logo Azienda validato al primo step.</li>
      * <li>Persistenza {@link AziendaEntity}.</li>
-     * <li>Salvataggio fisico foto profilo Utente su filesystem.</li>
+     * <li>Pubblicazione della foto profilo Utente.</li>
      * <li>Persistenza {@link UtenteEntity} (con password hashata).</li>
      * <li>Creazione e assegnazione automatica del ruolo "Responsabile".</li>
      * <li>Pulizia della sessione (rimozione attributi temporanei).</li>
@@ -189,7 +212,7 @@ public class RegisterController {
      * @param bindingResult       Risultati validazione utente.
      * @param sessionStatus       Oggetto per segnare la sessione come completata.
      * @return Redirect alla pagina di login in caso di successo.
-     * @throws IOException Se fallisce la scrittura dei file su disco.
+     * @throws IOException Se fallisce la copia o lo spostamento dei file su disco.
      * @since 1.0.0
      */
     @PostMapping("/register-utente")
@@ -200,18 +223,6 @@ public class RegisterController {
             return "redirect:/register";
         }
         else {
-            if (registerUtenteForm.getImmagineProfilo() != null && !registerUtenteForm.getImmagineProfilo().isEmpty()) {
-                if (!supportedImageTypes.contains(registerUtenteForm.getImmagineProfilo().getContentType())) {
-                    bindingResult.rejectValue("immagineProfilo", "error.immagineProfilo", "Il file caricato deve essere un'immagine (JPEG o PNG)");
-                    model.addAttribute("registerUtenteForm", registerUtenteForm);
-                    return "register/RegistraUtente";
-                }
-                if (registerUtenteForm.getImmagineProfilo().getSize() > 12 * 1024 * 1024) {
-                    bindingResult.rejectValue("immagineProfilo", "size.exceeded", "La dimensione dell’immagine supera 12MB");
-                    model.addAttribute("registerUtenteForm", registerUtenteForm);
-                    return "register/RegistraUtente";
-                }
-            }
             if(bindingResult.hasErrors()) {
                 model.addAttribute("registerUtenteForm", registerUtenteForm);
                 return "register/RegistraUtente";
@@ -230,31 +241,28 @@ public class RegisterController {
                     model.addAttribute("registerUtenteForm", registerUtenteForm);
                     return "register/RegistraUtente";
                 } catch (UsernameNotFoundException ignored) {}
+                MultipartFile immagineProfilo = registerUtenteForm.getImmagineProfilo();
+                String immagineTemporanea = null;
+                if(immagineProfilo!=null && !immagineProfilo.isEmpty()) { //Valida la foto del responsabile prima di scrivere sul database
+                    try {
+                        immagineTemporanea = caricamentoImmaginiService.prepara(immagineProfilo);
+                    } catch (ImmagineNonValidaException e) {
+                        bindingResult.rejectValue("immagineProfilo", e.getCodice("immagineProfilo"), e.getMessage());
+                        model.addAttribute("registerUtenteForm", registerUtenteForm);
+                        return "register/RegistraUtente";
+                    }
+                }
                 String filename="";
-                if(registerAziendaForm.getLogoBytes()!=null) { //Salva il logo dell'azienda
-                    String logodir="azienda-logos/";
-                    Path uploadPath = Paths.get(logodir);
-                    if(!uploadPath.toFile().exists()) uploadPath.toFile().mkdirs();
-                    filename=registerAziendaForm.getPiva()+registerAziendaForm.getLogoFileName();
-                    Path filePath=uploadPath.resolve(filename);
-                    if(Files.exists(filePath)) Files.delete(filePath);
-                    Files.write(filePath,registerAziendaForm.getLogoBytes());
-                    filename=logodir+filename;
+                if(registerAziendaForm.getLogoTemporaneo()!=null) { //Pubblica il logo dell'azienda
+                    filename=caricamentoImmaginiService.pubblica(registerAziendaForm.getLogoTemporaneo(), CaricamentoImmaginiService.CARTELLA_LOGHI_AZIENDA, registerAziendaForm.getPiva(), registerAziendaForm.getLogoFileName());
                 }
                 //Salva l'azienda
                 AziendaEntity aziendaEntity = new AziendaEntity(registerAziendaForm.getNomeAzienda(),registerAziendaForm.getPiva(),registerAziendaForm.getIndirizzo(),registerAziendaForm.getCitta(),registerAziendaForm.getCap(),registerAziendaForm.getTelefono(),filename);
                 aziendaEntity=aziendaService.registraAzienda(aziendaEntity);
 
                 filename="";
-                if(registerUtenteForm.getImmagineProfilo().getBytes().length!=0) { //Salva il logo del responsabile
-                    String logodir="user-logos/";
-                    Path uploadPath = Paths.get(logodir);
-                    if(!uploadPath.toFile().exists()) uploadPath.toFile().mkdirs();
-                    filename=registerUtenteForm.getEmail()+registerUtenteForm.getImmagineProfilo().getOriginalFilename();
-                    Path filePath=uploadPath.resolve(filename);
-                    if(Files.exists(filePath)) Files.delete(filePath);
-                    Files.write(filePath,registerUtenteForm.getImmagineProfilo().getBytes());
-                    filename=logodir+filename;
+                if(immagineTemporanea!=null) { //Pubblica la foto del responsabile
+                    filename=caricamentoImmaginiService.pubblica(immagineTemporanea, CaricamentoImmaginiService.CARTELLA_IMMAGINI_UTENTE, registerUtenteForm.getEmail(), immagineProfilo.getOriginalFilename());
                 }
                 //Salvo il responsabile
                 UtenteEntity utenteEntity = new UtenteEntity(aziendaEntity,registerUtenteForm.getEmail(), PasswordUtility.hashPassword(registerUtenteForm.getPassword()),registerUtenteForm.getNome(),registerUtenteForm.getCognome(),registerUtenteForm.getTelefonoutente(),filename);
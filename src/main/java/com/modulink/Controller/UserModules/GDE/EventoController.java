@@ -1,6 +1,7 @@
 package com.modulink.Controller.UserModules.GDE;
 import com.modulink.Controller.UserModules.GDU.UserRestApi.UserDTO;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Eventi.*;
 import com.modulink.Model.Modulo.ModuloService;
@@ -9,15 +10,18 @@ import com.modulink.Model.Relazioni.Partecipazione.PartecipazioneService;
 import com.modulink.Model.Task.TaskEntity;
 import com.modulink.Model.Task.TaskService;
 import com.modulink.Model.Utente.CustomUserDetailsService;
-import com.modulink.Model.Utente.UserNotFoundException;
 import com.modulink.Model.Utente.UserRepository;
 import com.modulink.Model.Utente.UtenteEntity;
+import com.modulink.Model.Utente.UtenteSintesi;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
@@ -30,9 +34,18 @@ import java.util.stream.Collectors;
  * e l'esposizione sincronizzata dei task assegnati. Implementa logiche di validazione stringenti sui periodi temporali
  * e garantisce l'integrità dei dati tra Utenti, Aziende ed Eventi.
  * </p>
+ * <p>
+ * Le API di lettura degli eventi accettano l'intervallo visualizzato (<code>start</code>, <code>end</code>)
+ * e restituiscono solo gli eventi che vi ricadono, così il payload dipende dal periodo mostrato e non dallo storico.
+ * La pagina del calendario usa <code>/feed</code>, che restituisce eventi e task assegnati in un'unica risposta.
+ * </p>
+ * <p>
+ * Dopo il caricamento iniziale il client si mantiene aggiornato con <code>/sync</code>, che restituisce solo gli eventi
+ * e i task assegnati modificati dopo l'ultimo token ricevuto (vedi {@link CalendarioSyncService}).
+ * </p>
  *
  * @author Modulink Team
- * @version 2.1.5
+ * @version 2.6.0
  * @since 1.2.0
  */
 @Controller
@@ -45,7 +58,12 @@ public class EventoController extends ModuloController {
     private final CustomUserDetailsService customUserDetailsService;
     private final UserRepository userRepository;
     private final AssegnazioneService assegnazioneService;
+    private final CalendarioSyncService calendarioSyncService;
 
+    /**
+     * Ampiezza massima, in giorni, dell'intervallo richiedibile alle API di lettura.
+     */
+    private static final long MAX_GIORNI_INTERVALLO = 366;
 
     /**
      * Inizializza il controller iniettando i servizi necessari per l'interazione con eventi, task e utenze.
@@ -57,9 +75,10 @@ public class EventoController extends ModuloController {
      * @param userRepository           Repository utenti.
      * @param moduloService            Servizio moduli.
      * @param assegnazioneService      Servizio assegnazioni task.
+     * @param calendarioSyncService    Servizio di sincronizzazione incrementale del calendario.
      * @since 1.2.0
      */
-    public EventoController(EventoService eventoService, EventoRepository eventoRepository, PartecipazioneService partecipazioneService, CustomUserDetailsService customUserDetailsService, UserRepository userRepository, ModuloService moduloService, AssegnazioneService assegnazioneService) {
+    public EventoController(EventoService eventoService, EventoRepository eventoRepository, PartecipazioneService partecipazioneService, CustomUserDetailsService customUserDetailsService, UserRepository userRepository, ModuloService moduloService, AssegnazioneService assegnazioneService, CalendarioSyncService calendarioSyncService) {
         super(moduloService, 4);
         this.eventoService = eventoService;
         this.eventoRepository = eventoRepository;
@@ -67,37 +86,82 @@ public class EventoController extends ModuloController {
         this.customUserDetailsService = customUserDetailsService;
         this.userRepository = userRepository;
         this.assegnazioneService = assegnazioneService;
+        this.calendarioSyncService = calendarioSyncService;
     }
 
     /**
-     * Recupera l'elenco di tutti gli eventi a cui partecipa l'utente corrente.
+     * Recupera gli eventi creati dall'utente corrente o a cui partecipa, limitati all'intervallo visualizzato.
+     * <p>
+     * Se l'intervallo non è indicato viene usato il mese corrente, esteso di una settimana per lato.
+     * </p>
      *
+     * @param start     Inizio dell'intervallo (ISO date-time, incluso), opzionale.
+     * @param end       Fine dell'intervallo (ISO date-time, escluso), opzionale.
      * @param principal Identità dell'utente autenticato.
-     * @return {@link ResponseEntity} contenente una lista di {@link EventoDTO} o stato FORBIDDEN.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return {@link ResponseEntity} contenente una lista di {@link EventoDTO}, stato BAD_REQUEST se l'intervallo non è valido o FORBIDDEN.
      * @since 1.2.0
      */
     @GetMapping("/get")
     @ResponseBody
-    public ResponseEntity<?> getEventi(Principal principal){
+    public ResponseEntity<?> getEventi(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                       Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt){
         if (principal==null){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
 
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if(!isAccessibleModulo(currentUserOpt)){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
 
         if (currentUserOpt.isEmpty()) return ResponseEntity.status(403).build();
         UtenteEntity currentUser = currentUserOpt.get();
-        AziendaEntity azienda = currentUser.getAzienda();
 
-        List<EventoEntity> eventi = eventoService.findAllByUtente(currentUser);
+        Intervallo intervallo;
+        try {
+            intervallo = Intervallo.di(start, end);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        List<EventoEntity> eventi = eventoService.findAllByUtente(currentUser, intervallo.inizio(), intervallo.fine());
 
         return  new ResponseEntity<>(parse(eventi), HttpStatus.OK);
     }
 
 
+    /**
+     * Recupera in un'unica risposta gli eventi e i task assegnati (non completati) dell'utente corrente nell'intervallo visualizzato.
+     * <p>
+     * Le voci sono proiettate dal database direttamente in {@link VoceCalendario}, distinte dal campo <code>type</code>.
+     * Se l'intervallo non è indicato viene usato il mese corrente, esteso di una settimana per lato.
+     * </p>
+     *
+     * @param start     Inizio dell'intervallo (ISO date-time, incluso), opzionale.
+     * @param end       Fine dell'intervallo (ISO date-time, escluso), opzionale.
+     * @param principal Identità dell'utente autenticato.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return {@link ResponseEntity} con la lista di {@link VoceCalendario}, stato BAD_REQUEST se l'intervallo non è valido o FORBIDDEN.
+     * @since 3.7.0
+     */
+    @GetMapping("/feed")
+    @ResponseBody
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                     Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
+        if (principal == null) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        if (!isAccessibleModulo(currentUserOpt)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        if (currentUserOpt.isEmpty()) return ResponseEntity.status(403).build();
+
+        Intervallo intervallo;
+        try {
+            intervallo = Intervallo.di(start, end);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        return ResponseEntity.ok(eventoService.findCalendario(currentUserOpt.get(), intervallo.inizio(), intervallo.fine()));
+    }
+
     /**
      * Recupera i task assegnati all'utente corrente, mappandoli come eventi di calendario.
      * <p>
@@ -106,16 +170,16 @@ public class EventoController extends ModuloController {
      * </p>
      *
      * @param principal Identità dell'utente.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return {@link ResponseEntity} con la lista di task trasformati in DTO.
      * @since 1.3.0
      */
     @GetMapping("/getet")
-    public ResponseEntity<?> getEventiAndTask(Principal principal){
+    public ResponseEntity<?> getEventiAndTask(Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt){
         if (principal==null){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
 
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if(!isAccessibleModulo(currentUserOpt)){
             return new ResponseEntity<>(HttpStatus.FORBIDDEN);
         }
@@ -129,6 +193,33 @@ public class EventoController extends ModuloController {
         return new ResponseEntity<>(tasksP, HttpStatus.OK);
     }
 
+    /**
+     * Restituisce le modifiche al calendario dell'utente corrente successive al token indicato.
+     * <p>
+     * Senza token, o con un token non più coperto dal registro delle modifiche, la risposta ha
+     * <code>reset=true</code>: il client ricarica eventi e task con <code>/get</code> e <code>/getet</code> e conserva
+     * il nuovo token. Altrimenti contiene gli eventi e i task modificati, nello stesso formato di quegli endpoint,
+     * e gli ID di quelli da rimuovere.
+     * </p>
+     *
+     * @param token     L'ultimo token ricevuto, opzionale.
+     * @param principal Identità dell'utente.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return {@link ResponseEntity} con un {@link SyncDTO}, o FORBIDDEN.
+     * @since 3.7.0
+     */
+    @GetMapping("/sync")
+    @ResponseBody
+    public ResponseEntity<?> sync(@RequestParam(required = false) Long token, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
+        if (principal == null) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        if (!isAccessibleModulo(currentUserOpt)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        if (currentUserOpt.isEmpty()) return ResponseEntity.status(403).build();
+
+        DeltaCalendario delta = calendarioSyncService.calcolaDelta(currentUserOpt.get(), token);
+        return ResponseEntity.ok(new SyncDTO(delta.token(), delta.reset(), parse(delta.eventi()), delta.eventiRimossi(),
+                parseTask(delta.task()), delta.taskRimossi()));
+    }
+
 
 
     /**
@@ -141,15 +232,15 @@ public class EventoController extends ModuloController {
      *
      * @param request   DTO contenente i dati dell'evento e i partecipanti.
      * @param principal Identità dell'utente creatore.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return JSON con lo stato dell'operazione e l'ID dell'evento creato.
      * @since 1.2.0
      */
     @PostMapping("/create")
     @ResponseBody
-    public ResponseEntity<?> createEvento(@RequestBody CreateEventoRequest request, Principal principal) {
+    public ResponseEntity<?> createEvento(@RequestBody CreateEventoRequest request, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) return ResponseEntity.status(401).build();
 
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if (currentUserOpt.isEmpty()) return ResponseEntity.status(403).build();
 
         // VALIDAZIONE
@@ -214,14 +305,14 @@ public class EventoController extends ModuloController {
      *
      * @param request   DTO con i dati aggiornati dell'evento.
      * @param principal Identità dell'utente loggato.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return JSON di conferma aggiornamento.
      * @since 1.2.0
      */
     @PostMapping("/update")
     @ResponseBody
-    public ResponseEntity<?> updateEvento(@RequestBody UpdateEventoRequest request, Principal principal) {
+    public ResponseEntity<?> updateEvento(@RequestBody UpdateEventoRequest request, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) return ResponseEntity.status(401).build();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if (currentUserOpt.isEmpty() || !isAccessibleModulo(currentUserOpt)) return ResponseEntity.status(403).build();
 
         UtenteEntity currentUser = currentUserOpt.get();
@@ -277,15 +368,13 @@ public class EventoController extends ModuloController {
         // Identifica chi aggiungere
         List<Integer> idsAttuali = attualiPartecipanti.stream().map(UtenteEntity::getId_utente).toList();
 
-        for (Integer userId : request.partecipanti()) {
-            // Se non è tra quelli attuali (e non è stato appena rimosso, logica implicita)
-            if (!idsAttuali.contains(userId)) {
-                try {
-                    UtenteEntity utente = customUserDetailsService.getByID(userId, currentUser.getAzienda().getId_azienda());
-                    partecipazioneService.Invita(evento, utente);
-                } catch (UserNotFoundException e) {
-                    // Ignora o logga
-                }
+        // Risolve i nuovi partecipanti con query IN a blocchi; gli ID inesistenti vengono ignorati
+        List<Integer> idsNuovi = request.partecipanti().stream().filter(userId -> !idsAttuali.contains(userId)).toList();
+        Map<Integer, UtenteEntity> nuoviPartecipanti = customUserDetailsService.findAllByIds(idsNuovi, currentUser.getAzienda().getId_azienda());
+        for (Integer userId : idsNuovi) {
+            UtenteEntity utente = nuoviPartecipanti.get(userId);
+            if (utente != null) {
+                partecipazioneService.Invita(evento, utente);
             }
         }
         return ResponseEntity.ok().body("{\"status\": \"updated\"}");
@@ -296,21 +385,20 @@ public class EventoController extends ModuloController {
      *
      * @param request   DTO contenente l'ID dell'evento da eliminare.
      * @param principal Identità dell'utente loggato.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return JSON di conferma cancellazione.
      * @since 1.2.0
      */
     @PostMapping("/delete")
     @ResponseBody
-    public ResponseEntity<?> deleteEvento(@RequestBody DeleteEventoRequest request, Principal principal) {
+    public ResponseEntity<?> deleteEvento(@RequestBody DeleteEventoRequest request, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) return ResponseEntity.status(401).build();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if (currentUserOpt.isEmpty()) return ResponseEntity.status(403).build();
 
         AziendaEntity azienda = currentUserOpt.get().getAzienda();
         EventoID eventoID = new EventoID(request.id(), azienda.getId_azienda());
 
-        if (eventoRepository.existsById(eventoID)) {
-            eventoRepository.deleteById(eventoID);
+        if (eventoService.delete(eventoID)) {
             return ResponseEntity.ok().body("{\"status\": \"deleted\"}");
         } else {
             return ResponseEntity.notFound().build();
@@ -326,53 +414,62 @@ public class EventoController extends ModuloController {
      *
      * @param id        ID opzionale di un evento specifico.
      * @param principal Identità utente.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Lista di {@link UserDTO}.
      * @since 1.4.0
      */
     @GetMapping("/users")
-    public ResponseEntity<?> getUsers(@RequestParam(required = false) Integer id, Principal principal) {
+    public ResponseEntity<?> getUsers(@RequestParam(required = false) Integer id, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) return ResponseEntity.status(401).build();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if (currentUserOpt.isEmpty() || !isAccessibleModulo(currentUserOpt)) return ResponseEntity.status(403).build();
 
-        List<UtenteEntity> resultUsers;
+        int idAzienda = currentUserOpt.get().getAzienda().getId_azienda();
+        List<UtenteSintesi> resultUsers;
 
         if (id == null) {
             // Caso 1: Ricerca utenti per autocomplete (Tutti gli utenti azienda)
-            resultUsers = userRepository.getAllByAziendaIs(currentUserOpt.get().getAzienda());
+            resultUsers = userRepository.findSintesiByAzienda(idAzienda);
         } else {
             // Caso 2: Partecipanti di un evento specifico
-            try {
-                EventoEntity evento = eventoService.findById(new EventoID(id, currentUserOpt.get().getAzienda().getId_azienda()));
-                resultUsers = partecipazioneService.getUtenteEntitiesByEvento(evento);
-            } catch (EventoNotFound e) {
-                return ResponseEntity.status(404).build();
-            }
+            if (!eventoRepository.existsById(new EventoID(id, idAzienda))) return ResponseEntity.status(404).build();
+            resultUsers = userRepository.findSintesiPartecipanti(idAzienda, id);
         }
 
-        // Mapping a DTO per evitare loop infiniti JSON
+        // Le righe sono già proiettate: nessuna entità utente viene caricata
         List<UserDTO> dtos = resultUsers.stream()
-                .map(u -> new UserDTO(u.getId_utente(), u.getNome(), u.getCognome(), u.getEmail()))
+                .map(u -> new UserDTO(u.id_utente(), u.nome(), u.cognome(), u.email()))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(dtos);
     }
 
     /**
-     * Recupera tutti gli eventi associati all'azienda del richiedente.
+     * Recupera gli eventi dell'azienda del richiedente, limitati all'intervallo indicato.
+     * <p>
+     * Se l'intervallo non è indicato viene usato il mese corrente, esteso di una settimana per lato.
+     * </p>
      *
+     * @param start     Inizio dell'intervallo (ISO date-time, incluso), opzionale.
+     * @param end       Fine dell'intervallo (ISO date-time, escluso), opzionale.
      * @param principal Identità utente.
-     * @return Lista di tutti gli eventi aziendali in formato DTO.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return Lista degli eventi aziendali dell'intervallo in formato DTO.
      * @since 1.5.0
      */
     @GetMapping("/all")
-    public ResponseEntity<?> getEventiAzienda(Principal principal) {
+    public ResponseEntity<?> getEventiAzienda(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                              Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) return ResponseEntity.status(401).build();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(principal.getName());
         if (currentUserOpt.isEmpty() || !isAccessibleModulo(currentUserOpt)) return ResponseEntity.status(403).build();
         AziendaEntity azienda = currentUserOpt.get().getAzienda();
-        List<EventoEntity> eventi = eventoRepository.findByAzienda(azienda);
-        List<EventoDTO> dtos = parse(eventi);
+        Intervallo intervallo;
+        try {
+            intervallo = Intervallo.di(start, end);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("{\"error\": \"" + e.getMessage() + "\"}");
+        }
+        List<EventoDTO> dtos = parse(eventoService.findByAzienda(azienda, intervallo.inizio(), intervallo.fine()));
         return ResponseEntity.ok(dtos);
     }
 
@@ -396,8 +493,8 @@ public class EventoController extends ModuloController {
      * @return Lista di DTO eventi.
      */
     public static List<EventoDTO> parseTask(List<TaskEntity> tasks) {
-        for(TaskEntity task : tasks) if(task.isCompletato()) tasks.remove(task);
         return tasks.stream()
+                .filter(t -> !t.isCompletato())
                 .map(e->new EventoDTO(e.getId_task(), e.getTitolo(), "Ufficio", e.getDataCreazione().atStartOfDay(), e.getScadenza().atTime(LocalTime.MAX)))
                 .collect(Collectors.toList());
     }
@@ -407,10 +504,42 @@ public class EventoController extends ModuloController {
         return;
     }
 
+    /**
+     * Intervallo temporale richiesto dalle API di lettura del calendario.
+     *
+     * @param inizio Inizio dell'intervallo (incluso).
+     * @param fine   Fine dell'intervallo (escluso).
+     */
+    private record Intervallo(LocalDateTime inizio, LocalDateTime fine) {
+
+        /**
+         * Risolve l'intervallo richiesto, applicando il mese corrente (esteso di una settimana per lato) se assente.
+         *
+         * @param start Inizio richiesto, o {@code null}.
+         * @param end   Fine richiesta, o {@code null}.
+         * @return L'intervallo da interrogare.
+         * @throws IllegalArgumentException se la fine non segue l'inizio o l'ampiezza supera il massimo consentito.
+         */
+        static Intervallo di(LocalDateTime start, LocalDateTime end) {
+            if (start == null || end == null) {
+                LocalDate primo = LocalDate.now().withDayOfMonth(1);
+                return new Intervallo(primo.minusWeeks(1).atStartOfDay(), primo.plusMonths(1).plusWeeks(1).atStartOfDay());
+            }
+            if (!end.isAfter(start)) throw new IllegalArgumentException("Fine intervallo antecedente all'inizio");
+            if (Duration.between(start, end).toDays() > MAX_GIORNI_INTERVALLO) throw new IllegalArgumentException("Intervallo troppo ampio");
+            return new Intervallo(start, end);
+        }
+    }
+
     /**
      * Data Transfer Object per la rappresentazione sintetica di un evento nel calendario.
      */
     public record EventoDTO(int id_evento, String nome, String luogo, LocalDateTime data_ora_inizio, LocalDateTime data_fine) {}
+
+    /**
+     * Risposta della sincronizzazione incrementale del calendario.
+     */
+    public record SyncDTO(long token, boolean reset, List<EventoDTO> eventi, Set<Integer> eventiRimossi, List<EventoDTO> task, Set<Integer> taskRimossi) {}
     
     /**
      * Oggetto di richiesta per l'aggiornamento di un evento.
@@ -0,0 +1,131 @@
+package com.modulink.Controller.UserModules.GDM;
+
+import com.modulink.Model.Prodotto.RigaProdotto;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Formato CSV del catalogo prodotti del modulo GDM.
+ * <p>
+ * Definisce le colonne condivise da esportazione e importazione: un file esportato può essere reimportato così com'è
+ * (la colonna <code>id_prodotto</code> viene ignorata in importazione, perché gli ID sono riassegnati).
+ * I valori numerici usano il punto come separatore decimale; i campi vengono racchiusi tra virgolette solo se
+ * contengono separatori, virgolette o a capo.
+ * </p>
+ * <p>
+ * <strong>Formula injection:</strong> i campi testuali che iniziano con un carattere interpretato come formula dai
+ * fogli di calcolo ({@link #INIZI_FORMULA}) vengono esportati preceduti da un apice ({@link #APICE}) e tra virgolette,
+ * così Excel o LibreOffice li mostrano come testo. L'apice viene aggiunto anche ai campi che iniziano già con un
+ * apice, in modo che {@link #rimuoviProtezione(String)} possa toglierlo in importazione senza ambiguità.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public final class CatalogoCsv {
+
+    public static final String ID_PRODOTTO = "id_prodotto";
+    public static final String NOME = "nome";
+    public static final String QUANTITA = "quantita";
+    public static final String PREZZO = "prezzo";
+    public static final String DESCRIZIONE = "descrizione";
+    public static final String CATEGORIA = "categoria";
+
+    /**
+     * Colonne del file esportato, nell'ordine in cui vengono scritte.
+     */
+    public static final List<String> COLONNE = List.of(ID_PRODOTTO, NOME, QUANTITA, PREZZO, DESCRIZIONE, CATEGORIA);
+
+    /**
+     * Separatore dei campi del file esportato.
+     */
+    public static final char SEPARATORE = ',';
+
+    /**
+     * Byte Order Mark UTF-8: permette a Excel di riconoscere la codifica del file esportato.
+     */
+    public static final char BOM = '\uFEFF';
+
+    /**
+     * Caratteri iniziali che un foglio di calcolo interpreta come inizio di una formula.
+     */
+    public static final String INIZI_FORMULA = "=+-@\t\r";
+
+    /**
+     * Prefisso che forza l'interpretazione di un campo come testo.
+     */
+    public static final char APICE = '\'';
+
+    private CatalogoCsv() {}
+
+    /**
+     * Scrive il BOM e la riga di intestazione.
+     *
+     * @param writer La destinazione.
+     * @throws IOException se la scrittura fallisce.
+     * @since 3.7.0
+     */
+    public static void scriviIntestazione(Writer writer) throws IOException {
+        writer.write(BOM);
+        writer.write(String.join(String.valueOf(SEPARATORE), COLONNE));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Scrive un prodotto come riga CSV.
+     *
+     * @param writer La destinazione.
+     * @param riga   Il prodotto da scrivere.
+     * @throws IOException se la scrittura fallisce.
+     * @since 3.7.0
+     */
+    public static void scriviRiga(Writer writer, RigaProdotto riga) throws IOException {
+        writer.write(Integer.toString(riga.idProdotto()));
+        writer.write(SEPARATORE);
+        writer.write(campo(riga.nome()));
+        writer.write(SEPARATORE);
+        writer.write(Integer.toString(riga.quantita()));
+        writer.write(SEPARATORE);
+        writer.write(Double.toString(riga.prezzo()));
+        writer.write(SEPARATORE);
+        writer.write(campo(riga.descrizione()));
+        writer.write(SEPARATORE);
+        writer.write(campo(riga.categoria()));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Rimuove l'apice aggiunto in esportazione ai campi testuali protetti dalla formula injection.
+     * <p>
+     * L'apice viene rimosso solo se seguito da un carattere di {@link #INIZI_FORMULA} o da un altro apice,
+     * cioè nei soli casi in cui è stato aggiunto da {@link #scriviRiga(Writer, RigaProdotto)}.
+     * </p>
+     *
+     * @param valore Il valore letto dal file, anche {@code null}.
+     * @return Il valore originale del campo.
+     * @since 3.7.0
+     */
+    public static String rimuoviProtezione(String valore) {
+        if (valore == null || valore.length() < 2 || valore.charAt(0) != APICE) return valore;
+        char successivo = valore.charAt(1);
+        return successivo == APICE || INIZI_FORMULA.indexOf(successivo) >= 0 ? valore.substring(1) : valore;
+    }
+
+    /**
+     * Formatta un campo testuale, proteggendolo dalla formula injection e racchiudendolo tra virgolette se necessario.
+     *
+     * @param valore Il valore del campo, anche {@code null}.
+     * @return Il campo pronto per la scrittura.
+     */
+    private static String campo(String valore) {
+        if (valore == null || valore.isEmpty()) return "";
+        char primo = valore.charAt(0);
+        boolean protetto = primo == APICE || INIZI_FORMULA.indexOf(primo) >= 0;
+        if (protetto) valore = APICE + valore;
+        if (!protetto && valore.indexOf(SEPARATORE) < 0 && valore.indexOf('"') < 0 && valore.indexOf('\n') < 0 && valore.indexOf('\r') < 0) return valore;
+        return '"' + valore.replace("\"", "\"\"") + '"';
+    }
+}
@@ -2,25 +2,52 @@ package com.modulink.Controller.UserModules.GDM;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
+import com.modulink.Model.Prodotto.AnalisiMagazzino;
+import com.modulink.Model.Prodotto.AnalisiMagazzinoService;
+import com.modulink.Model.Prodotto.FiltroProdotti;
+import com.modulink.Model.Prodotto.MagazzinoService;
+import com.modulink.Model.Prodotto.OrdinamentoProdotti;
 import com.modulink.Model.Prodotto.ProdottoEntity;
 import com.modulink.Model.Prodotto.ProdottoID;
 import com.modulink.Model.Prodotto.ProdottoNotFoundException;
 import com.modulink.Model.Prodotto.ProdottoService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Prodotto.RigaProdotto;
+import com.modulink.Model.Prodotto.ScortaInsufficienteException;
+import com.modulink.Model.Prodotto.VariazioneScorta;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -31,66 +58,143 @@ import java.util.Optional;
  * e la categorizzazione degli articoli.
  * </p>
  * <p>
+ * Il catalogo può essere importato ed esportato in blocco in formato CSV ({@link CatalogoCsv}): entrambe le operazioni
+ * lavorano in streaming, senza caricare in memoria né il file né l'intero catalogo.
+ * </p>
+ * <p>
+ * I totali di magazzino (valore delle scorte, prodotti sotto scorta, prodotti più movimentati) sono calcolati dal
+ * database e serviti dalla cache ({@link AnalisiMagazzinoService}), sia nella pagina sia tramite API JSON.
+ * </p>
+ * <p>
  * Estende {@link ModuloController} (ID Modulo: 6) per garantire che solo le aziende con il modulo attivo
  * e gli utenti con i permessi necessari possano accedere alle risorse.
  * </p>
  *
  * @author Modulink Team
- * @version 2.4.0
+ * @version 2.8.0
  * @since 1.3.0
  */
 @Controller
 public class GDMController extends ModuloController {
     private final ProdottoService prodottoService;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final MagazzinoService magazzinoService;
+    private final AnalisiMagazzinoService analisiMagazzinoService;
+    private final Validator validator;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
      * @param prodottoService          Servizio per la manipolazione dell'entità Prodotto.
-     * @param customUserDetailsService Servizio per il recupero dell'utente loggato.
+     * @param magazzinoService         Servizio per i movimenti di magazzino.
      * @param moduloService            Servizio base per la gestione dei moduli.
+     * @param analisiMagazzinoService  Servizio delle statistiche di magazzino.
+     * @param validator                Validatore Bean Validation, usato per le righe importate da CSV.
      * @since 1.3.0
      */
-    public GDMController(ProdottoService prodottoService, CustomUserDetailsService customUserDetailsService, ModuloService moduloService) {
+    public GDMController(ProdottoService prodottoService, MagazzinoService magazzinoService, ModuloService moduloService,
+                         AnalisiMagazzinoService analisiMagazzinoService, Validator validator) {
         super(moduloService, 6);
         this.prodottoService = prodottoService;
-        this.customUserDetailsService = customUserDetailsService;
+        this.magazzinoService = magazzinoService;
+        this.analisiMagazzinoService = analisiMagazzinoService;
+        this.validator = validator;
     }
 
     /**
      * Visualizza la pagina principale di gestione prodotti.
      * <p>
-     * Carica l'elenco completo dei prodotti appartenenti esclusivamente all'azienda dell'utente corrente.
+     * Carica una sola pagina del catalogo dell'azienda dell'utente corrente, filtrata e ordinata dal database
+     * secondo i parametri della richiesta, insieme all'elenco delle categorie e ai totali di magazzino (serviti dalla cache).
      * </p>
      *
-     * @param principal Identità dell'utente.
-     * @param model     Modello UI per il passaggio dei prodotti alla vista.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
+     * @param model       Modello UI per il passaggio dei prodotti alla vista.
+     * @param q           Prefisso del nome del prodotto.
+     * @param categoria   Categoria del prodotto.
+     * @param qtaOp       Operatore sulla giacenza (<code>gt</code>, <code>lt</code>, <code>eq</code>).
+     * @param qta         Valore di confronto della giacenza.
+     * @param prezzoMin   Prezzo minimo.
+     * @param prezzoMax   Prezzo massimo.
+     * @param sort        Campo di ordinamento (nome, categoria, prezzo, quantita).
+     * @param dir         Direzione dell'ordinamento (<code>asc</code> o <code>desc</code>).
+     * @param page        Numero della pagina, a partire da 0.
      * @return Nome della vista "moduli/gdm/GestioneProdotti" o redirect.
      * @since 1.3.0
      */
     @GetMapping({"/dashboard/gdm","/dashboard/gdm/"})
-    public String dashboardDispatcher(Principal principal, Model model) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String dashboardDispatcher(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model,
+                                      @RequestParam(required = false) String q, @RequestParam(required = false) String categoria,
+                                      @RequestParam(required = false) String qtaOp, @RequestParam(required = false) Integer qta,
+                                      @RequestParam(required = false) Double prezzoMin, @RequestParam(required = false) Double prezzoMax,
+                                      @RequestParam(required = false) String sort, @RequestParam(required = false) String dir,
+                                      @RequestParam(defaultValue = "0") int page) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            List<ProdottoEntity> prodotti=prodottoService.findAllByAzienda(utente.getAzienda());
-            model.addAttribute("prodotti",prodotti);
+            FiltroProdotti filtro;
+            try {
+                filtro=FiltroProdotti.of(q,categoria,qtaOp,qta,prezzoMin,prezzoMax);
+            } catch (IllegalArgumentException e) {
+                filtro=FiltroProdotti.NESSUNO;
+            }
+            OrdinamentoProdotti ordinamento=OrdinamentoProdotti.parse(sort);
+            boolean discendente="desc".equalsIgnoreCase(dir);
+            Page<ProdottoEntity> pagina=prodottoService.findPagina(utente.getAzienda(),filtro,ordinamento,discendente,page);
+            if(pagina.isEmpty() && page>0 && pagina.getTotalPages()>0) { //Pagina oltre la fine (es. dopo un'eliminazione): mostro l'ultima
+                pagina=prodottoService.findPagina(utente.getAzienda(),filtro,ordinamento,discendente,pagina.getTotalPages()-1);
+            }
+            model.addAttribute("prodotti",pagina.getContent());
+            model.addAttribute("pagina",pagina);
+            model.addAttribute("filtriAttivi",!filtro.isVuoto());
+            model.addAttribute("categorie",prodottoService.findAllCategoriesByAzienda(utente.getAzienda()));
+            model.addAttribute("analisi",analisiMagazzinoService.getAnalisi(utente.getAzienda().getId_azienda()));
             return "moduli/gdm/GestioneProdotti";
         }
         else return "redirect:/";
     }
 
+    /**
+     * Restituisce le statistiche di magazzino dell'azienda (API JSON).
+     * <p>
+     * Totali per categoria (prodotti, pezzi, valore, prodotti sotto scorta), totali complessivi e prodotti più movimentati
+     * nel periodo configurato, calcolati con query aggregate e serviti dalla cache.
+     * </p>
+     *
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return Le statistiche, o 403 se il modulo non è accessibile.
+     * @since 3.7.0
+     */
+    @GetMapping({"/dashboard/gdm/api/analisi","/dashboard/gdm/api/analisi/"})
+    @ResponseBody
+    public ResponseEntity<AnalisiMagazzino> getAnalisi(@UtenteLoggato Optional<UtenteEntity> utenteOpt) {
+        if(!isAccessibleModulo(utenteOpt)) return ResponseEntity.status(403).build();
+        return ResponseEntity.ok(analisiMagazzinoService.getAnalisi(utenteOpt.get().getAzienda().getId_azienda()));
+    }
+
+    /**
+     * Restituisce i prodotti con giacenza pari o inferiore alla soglia, dal meno fornito (API JSON).
+     *
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @param soglia    Soglia di giacenza; se assente si usa quella configurata.
+     * @return I prodotti sotto scorta, 400 se la soglia è negativa o 403 se il modulo non è accessibile.
+     * @since 3.7.0
+     */
+    @GetMapping({"/dashboard/gdm/api/sotto-scorta","/dashboard/gdm/api/sotto-scorta/"})
+    @ResponseBody
+    public ResponseEntity<List<RigaProdotto>> getSottoScorta(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestParam(required = false) Integer soglia) {
+        if(!isAccessibleModulo(utenteOpt)) return ResponseEntity.status(403).build();
+        if(soglia!=null && soglia<0) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(analisiMagazzinoService.findSottoScorta(utenteOpt.get().getAzienda().getId_azienda(),soglia));
+    }
+
     /**
      * Recupera l'elenco univoco delle categorie prodotti utilizzate dall'azienda.
      *
-     * @param principal Identità dell'utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Lista di stringhe rappresentanti le categorie o redirect.
      * @since 1.3.5
      */
     @PostMapping({"/dashboard/gdm/get-categories","/dashboard/gdm/get-categories/"})
-    public Object getCategories(Principal principal) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public Object getCategories(@UtenteLoggato Optional<UtenteEntity> utenteOpt) {
         if(isAccessibleModulo(utenteOpt)) return prodottoService.findAllCategoriesByAzienda(utenteOpt.get().getAzienda());
         else return "redirect:/";
     }
@@ -102,7 +206,7 @@ public class GDMController extends ModuloController {
      * prima di persistere l'entità.
      * </p>
      *
-     * @param principal       Identità dell'utente.
+     * @param utenteOpt       Utente autenticato, risolto una sola volta per richiesta.
      * @param model           Modello UI.
      * @param newProdottoForm DTO con i dati del nuovo prodotto.
      * @param bindingResult   Risultati della validazione.
@@ -110,8 +214,7 @@ public class GDMController extends ModuloController {
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gdm/add-product","/dashboard/gdm/add-product/"})
-    public String addProduct(Principal principal, Model model, @Valid @ModelAttribute("newProdottoForm") NewProdottoForm newProdottoForm, BindingResult bindingResult) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String addProduct(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute("newProdottoForm") NewProdottoForm newProdottoForm, BindingResult bindingResult) {
         if(isAccessibleModulo(utenteOpt)) {
             if(bindingResult.hasErrors()) {
                 model.addAttribute("newProdottoForm",newProdottoForm);
@@ -131,18 +234,80 @@ public class GDMController extends ModuloController {
         else return "redirect:/";
     }
 
+    /**
+     * Importa in blocco i prodotti descritti in un file CSV.
+     * <p>
+     * Il file viene letto in streaming e ogni riga è validata con le regole del form di inserimento; le righe valide
+     * sono scritte a lotti con batch JDBC. L'importazione è atomica: se anche una sola riga non è valida non viene
+     * importato nulla e l'utente riceve l'elenco delle righe da correggere.
+     * </p>
+     *
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @param file      Il file CSV caricato (UTF-8, con intestazione).
+     * @return Redirect alla dashboard GDM con il numero di prodotti importati o gli errori riscontrati.
+     * @since 3.7.0
+     */
+    @PostMapping({"/dashboard/gdm/import","/dashboard/gdm/import/"})
+    public String importaCsv(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestParam("file") MultipartFile file) {
+        if(isAccessibleModulo(utenteOpt)) {
+            if(file.isEmpty()) return "redirect:/dashboard/gdm"+Alert.error("Seleziona un file CSV da importare");
+            try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+                int importati=prodottoService.importa(utenteOpt.get().getAzienda(),new ImportazioneCsvProdotti(reader,validator));
+                return "redirect:/dashboard/gdm"+Alert.success("Importazione completata, prodotti importati: "+importati);
+            } catch (IllegalArgumentException e) {
+                return "redirect:/dashboard/gdm"+Alert.error(e.getMessage());
+            } catch (IOException | UncheckedIOException e) {
+                return "redirect:/dashboard/gdm"+Alert.error("Impossibile leggere il file caricato");
+            }
+        }
+        else return "redirect:/";
+    }
+
+    /**
+     * Esporta l'intero catalogo dell'azienda in formato CSV.
+     * <p>
+     * La risposta è scritta in streaming ({@link StreamingResponseBody}): il catalogo viene letto a blocchi in ordine
+     * di ID e ogni blocco è inviato al client prima di leggere il successivo, quindi la memoria occupata non dipende
+     * dalla dimensione del catalogo.
+     * </p>
+     *
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @return Il file <code>prodotti.csv</code>, o 403 se il modulo non è accessibile.
+     * @since 3.7.0
+     */
+    @GetMapping({"/dashboard/gdm/export","/dashboard/gdm/export/"})
+    public ResponseEntity<StreamingResponseBody> esportaCsv(@UtenteLoggato Optional<UtenteEntity> utenteOpt) {
+        if(!isAccessibleModulo(utenteOpt)) return ResponseEntity.status(403).build();
+        int idAzienda=utenteOpt.get().getAzienda().getId_azienda();
+        StreamingResponseBody corpo=out -> {
+            Writer writer=new BufferedWriter(new OutputStreamWriter(out,StandardCharsets.UTF_8));
+            CatalogoCsv.scriviIntestazione(writer);
+            List<RigaProdotto> blocco;
+            int dopo=-1;
+            do {
+                blocco=prodottoService.findRighe(idAzienda,dopo);
+                for(RigaProdotto riga : blocco) CatalogoCsv.scriviRiga(writer,riga);
+                if(!blocco.isEmpty()) dopo=blocco.get(blocco.size()-1).idProdotto();
+                writer.flush();
+            } while(!blocco.isEmpty() && blocco.size()==prodottoService.getDimensioneLotto());
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,ContentDisposition.attachment().filename("prodotti.csv").build().toString())
+                .contentType(new MediaType("text","csv",StandardCharsets.UTF_8))
+                .body(corpo);
+    }
+
     /**
      * Rimuove un prodotto dal magazzino.
      *
-     * @param principal   Identità dell'utente.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
      * @param model       Modello UI.
      * @param id_prodotto Identificativo del prodotto da eliminare.
      * @return Redirect alla dashboard GDM.
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gdm/remove-product","/dashboard/gdm/remove-product/"})
-    public String removeProduct(Principal principal, Model model, @RequestParam("id_prodotto") int id_prodotto) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String removeProduct(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam("id_prodotto") int id_prodotto) {
         if(isAccessibleModulo(utenteOpt)) {
             try {
                 prodottoService.delete(id_prodotto,utenteOpt.get().getAzienda());
@@ -157,7 +322,7 @@ public class GDMController extends ModuloController {
     /**
      * Aggiorna i dati anagrafici e tecnici di un prodotto esistente.
      *
-     * @param principal          Identità dell'utente.
+     * @param utenteOpt          Utente autenticato, risolto una sola volta per richiesta.
      * @param model              Modello UI.
      * @param updateProdottoForm DTO con i dati aggiornati del prodotto.
      * @param bindingResult      Risultati della validazione.
@@ -165,8 +330,7 @@ public class GDMController extends ModuloController {
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gdm/update-product","/dashboard/gdm/update-product/"})
-    public String updateProduct(Principal principal, Model model, @Valid @ModelAttribute("updateProdottoForm") UpdateProdottoForm updateProdottoForm, BindingResult bindingResult) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String updateProduct(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute("updateProdottoForm") UpdateProdottoForm updateProdottoForm, BindingResult bindingResult) {
         if(isAccessibleModulo(utenteOpt)) {
             if(bindingResult.hasErrors()) {
                 model.addAttribute("updateProdottoForm",updateProdottoForm);
@@ -196,25 +360,28 @@ public class GDMController extends ModuloController {
 
     /**
      * Incrementa la giacenza di un prodotto (operazione di carico/acquisto).
+     * <p>
+     * L'incremento è applicato dal database con un aggiornamento atomico e registrato nel registro dei movimenti.
+     * </p>
      *
-     * @param principal  Identità dell'utente.
+     * @param utenteOpt  Utente autenticato, risolto una sola volta per richiesta.
      * @param idProdotto Identificativo del prodotto.
      * @param quantita   Numero di unità da aggiungere.
      * @return Redirect alla dashboard GDM con riepilogo valore acquisto.
      * @since 1.4.0
      */
     @PostMapping({"/dashboard/gdm/buy","/dashboard/gdm/buy/"})
-    public String acquista(Principal principal, @RequestParam int idProdotto, @RequestParam int quantita) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String acquista(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestParam int idProdotto, @RequestParam int quantita) {
         if(isAccessibleModulo(utenteOpt)) {
             if(quantita<1) return "redirect:/dashboard/gdm"+Alert.error("La quantita di acquisto non può essere minore di 1");
+            UtenteEntity utente=utenteOpt.get();
             try {
-                ProdottoEntity prodotto=prodottoService.findById(new ProdottoID(idProdotto,utenteOpt.get().getAzienda().getId_azienda()));
-                prodotto.setQuantita(prodotto.getQuantita()+quantita);
-                prodottoService.updateProdotto(prodotto);
-                return "redirect:/dashboard/gdm"+Alert.success("Acquisto effettuato con successo, acquistato: "+quantita*prodotto.getPrezzo()+"€");
+                double valore=magazzinoService.registraMovimento(utente.getAzienda().getId_azienda(),idProdotto,quantita,utente.getId_utente());
+                return "redirect:/dashboard/gdm"+Alert.success("Acquisto effettuato con successo, acquistato: "+valore+"€");
             } catch (ProdottoNotFoundException e) {
                 return "redirect:/dashboard/gdm"+Alert.error("Prodotto non trovato");
+            } catch (ScortaInsufficienteException | IllegalStateException e) {
+                return "redirect:/dashboard/gdm"+Alert.error("Quantità non valida");
             }
         }
         else return "redirect:/";
@@ -223,36 +390,83 @@ public class GDMController extends ModuloController {
     /**
      * Decrementa la giacenza di un prodotto (operazione di scarico/vendita).
      * <p>
-     * Verifica preventivamente che la quantità disponibile sia sufficiente per coprire la vendita.
+     * La verifica della disponibilità e il decremento avvengono nella stessa istruzione <code>UPDATE</code> condizionale:
+     * vendite concorrenti dello stesso prodotto non possono portare la giacenza sotto zero.
      * </p>
      *
-     * @param principal  Identità dell'utente.
+     * @param utenteOpt  Utente autenticato, risolto una sola volta per richiesta.
      * @param idProdotto Identificativo del prodotto.
      * @param quantita   Numero di unità da rimuovere.
      * @return Redirect alla dashboard GDM con riepilogo valore vendita.
      * @since 1.4.0
      */
     @PostMapping({"/dashboard/gdm/sell","/dashboard/gdm/sell/"})
-    public String vendita(Principal principal, @RequestParam int idProdotto, @RequestParam int quantita) {
-        Optional<UtenteEntity> utenteOpt=customUserDetailsService.findByEmail(principal.getName());
+    public String vendita(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestParam int idProdotto, @RequestParam int quantita) {
         if(isAccessibleModulo(utenteOpt)) {
             if(quantita<1) return "redirect:/dashboard/gdm"+Alert.error("La quantita di acquisto non può essere minore di 1");
+            UtenteEntity utente=utenteOpt.get();
             try {
-                ProdottoEntity prodotto=prodottoService.findById(new ProdottoID(idProdotto,utenteOpt.get().getAzienda().getId_azienda()));
-                if(prodotto.getQuantita()<quantita) return "redirect:/dashboard/gdm"+Alert.error("Non hai abbastanza prodotti per effettuare questa vendita");
-                prodotto.setQuantita(prodotto.getQuantita()-quantita);
-                prodottoService.updateProdotto(prodotto);
-                return "redirect:/dashboard/gdm"+Alert.success("Vendita effettuata con successa, venduto: "+quantita*prodotto.getPrezzo()+"€");
+                double valore=magazzinoService.registraMovimento(utente.getAzienda().getId_azienda(),idProdotto,-quantita,utente.getId_utente());
+                return "redirect:/dashboard/gdm"+Alert.success("Vendita effettuata con successa, venduto: "+valore+"€");
             } catch (ProdottoNotFoundException e) {
                 return "redirect:/dashboard/gdm"+Alert.error("Prodotto non trovato");
+            } catch (ScortaInsufficienteException e) {
+                return "redirect:/dashboard/gdm"+Alert.error("Non hai abbastanza prodotti per effettuare questa vendita");
             }
         }
         else return "redirect:/";
     }
 
+    /**
+     * Applica più movimenti di magazzino in un'unica transazione (API JSON).
+     * <p>
+     * Il corpo è una lista di oggetti <code>{"idProdotto": 3, "delta": -2}</code>, con <code>delta</code> positivo per
+     * i carichi e negativo per gli scarichi. I movimenti sono applicati tutti o nessuno: se un prodotto non esiste
+     * o la sua giacenza non basta, la richiesta viene rifiutata senza modificare il magazzino.
+     * </p>
+     *
+     * @param utenteOpt  Utente autenticato, risolto una sola volta per richiesta.
+     * @param movimenti  I movimenti da applicare.
+     * @return 200 con il numero di movimenti applicati; 400 se la richiesta non è valida, 404 se un prodotto non esiste,
+     *         409 se la giacenza è insufficiente o supererebbe il massimo consentito, 403 se il modulo non è accessibile.
+     * @since 3.7.0
+     */
+    @PostMapping({"/dashboard/gdm/api/movimenti","/dashboard/gdm/api/movimenti/"})
+    @ResponseBody
+    public ResponseEntity<?> registraMovimenti(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestBody List<MovimentoRequest> movimenti) {
+        if(!isAccessibleModulo(utenteOpt)) return ResponseEntity.status(403).build();
+        UtenteEntity utente=utenteOpt.get();
+        List<VariazioneScorta> variazioni=new ArrayList<>(movimenti.size());
+        for(MovimentoRequest m : movimenti) {
+            if(m==null || m.idProdotto()==null || m.delta()==null) return ResponseEntity.badRequest().body(Map.of("error","Ogni movimento deve indicare idProdotto e delta"));
+            variazioni.add(new VariazioneScorta(m.idProdotto(),m.delta()));
+        }
+        try {
+            int applicati=magazzinoService.registraMovimenti(utente.getAzienda().getId_azienda(),variazioni,utente.getId_utente());
+            return ResponseEntity.ok(Map.of("applicati",applicati));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return ResponseEntity.badRequest().body(Map.of("error",e.getMessage()));
+        } catch (ProdottoNotFoundException e) {
+            return ResponseEntity.status(404).body(Map.of("error",e.getMessage()));
+        } catch (ScortaInsufficienteException e) {
+            return ResponseEntity.status(409).body(Map.of("error",e.getMessage(),"idProdotto",e.getIdProdotto()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error",e.getMessage()));
+        }
+    }
+
+    /**
+     * Movimento di magazzino richiesto tramite l'API JSON.
+     *
+     * @param idProdotto ID locale del prodotto.
+     * @param delta      Variazione della giacenza.
+     * @since 3.7.0
+     */
+    public record MovimentoRequest(Integer idProdotto, Integer delta) {}
+
     /**
      * Gestisce la pulizia dei dati in caso di disinstallazione del modulo GDM.
-     * Rimuove tutti i record della tabella Prodotti associati all'azienda specificata.
+     * Rimuove tutti i record della tabella Prodotti e del registro dei movimenti associati all'azienda specificata.
      *
      * @param azienda L'azienda che disinstalla il modulo.
      * @since 1.3.0
@@ -260,5 +474,6 @@ public class GDMController extends ModuloController {
     @Override
     public void disinstallaModulo(AziendaEntity azienda) {
         prodottoService.deleteAllByAzienda(azienda);
+        magazzinoService.deleteAllByAzienda(azienda.getId_azienda());
     }
 }
\ No newline at end of file
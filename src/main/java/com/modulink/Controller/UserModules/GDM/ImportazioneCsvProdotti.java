@@ -0,0 +1,230 @@
+package com.modulink.Controller.UserModules.GDM;
+
+import com.modulink.Model.Prodotto.RigaProdotto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorgente delle righe di un'importazione CSV del catalogo prodotti.
+ * <p>
+ * Legge il file un record alla volta con {@link LettoreCsv} e converte ogni record in un {@link NewProdottoForm},
+ * validato con le stesse regole del form di inserimento manuale (vincoli Bean Validation e quantità/prezzo non negativi).
+ * Le righe valide vengono restituite come {@link RigaProdotto} man mano che il consumatore le richiede,
+ * quindi il file non viene mai caricato per intero in memoria.
+ * </p>
+ * <p>
+ * Alla prima riga non valida l'iteratore smette di restituire righe e continua solo a validare, raccogliendo al più
+ * {@link #MAX_ERRORI} errori; a fine lettura {@link #hasNext()} solleva un'{@link IllegalArgumentException} con
+ * l'elenco degli errori, così la transazione di importazione viene annullata per intero.
+ * </p>
+ * <p>
+ * L'intestazione è obbligatoria: le colonne sono individuate per nome (<code>nome</code>, <code>quantita</code> e
+ * <code>prezzo</code> obbligatorie, <code>descrizione</code> e <code>categoria</code> facoltative, le altre ignorate),
+ * in qualunque ordine. Il separatore (<code>,</code> o <code>;</code>) viene dedotto dall'intestazione.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class ImportazioneCsvProdotti implements Iterator<RigaProdotto> {
+
+    /**
+     * Numero massimo di errori riportati.
+     */
+    public static final int MAX_ERRORI = 10;
+
+    /**
+     * Numero massimo di caratteri di un valore citato in un messaggio di errore.
+     */
+    public static final int MAX_LUNGHEZZA_VALORE = 50;
+
+    /**
+     * Lunghezza massima del messaggio con l'elenco degli errori: il messaggio viene riportato nell'URL
+     * di redirect, che non deve superare il limite di dimensione degli header.
+     */
+    public static final int MAX_LUNGHEZZA_MESSAGGIO = 1000;
+
+    private final LettoreCsv lettore;
+    private final Validator validator;
+    private final Map<String, Integer> colonne = new HashMap<>();
+    private final List<String> errori = new ArrayList<>();
+    private RigaProdotto prossima;
+    private boolean finito;
+    private boolean troncato;
+
+    /**
+     * Prepara l'importazione leggendo l'intestazione del file.
+     *
+     * @param reader    Il contenuto del file CSV.
+     * @param validator Il validatore Bean Validation dell'applicazione.
+     * @throws IOException              se la lettura dal flusso fallisce.
+     * @throws IllegalArgumentException se il file è vuoto o mancano colonne obbligatorie.
+     * @since 3.7.0
+     */
+    public ImportazioneCsvProdotti(Reader reader, Validator validator) throws IOException {
+        BufferedReader buffered = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        this.lettore = new LettoreCsv(buffered, separatore(buffered));
+        this.validator = validator;
+        List<String> intestazione = lettore.leggiRecord();
+        if (intestazione == null) throw new IllegalArgumentException("Il file CSV è vuoto");
+        for (int i = 0; i < intestazione.size(); i++) {
+            String nome = intestazione.get(i).replace(String.valueOf(CatalogoCsv.BOM), "").trim().toLowerCase(Locale.ROOT).replace('à', 'a');
+            colonne.putIfAbsent(nome, i);
+        }
+        for (String obbligatoria : List.of(CatalogoCsv.NOME, CatalogoCsv.QUANTITA, CatalogoCsv.PREZZO)) {
+            if (!colonne.containsKey(obbligatoria)) throw new IllegalArgumentException("Colonna obbligatoria mancante: " + obbligatoria);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException a fine file, se almeno una riga non era valida.
+     * @throws UncheckedIOException     se la lettura dal flusso fallisce.
+     */
+    @Override
+    public boolean hasNext() {
+        if (prossima == null && !finito) avanza();
+        if (prossima == null && !errori.isEmpty()) {
+            String messaggio = "Importazione annullata. " + String.join("; ", errori) + (troncato ? "; ..." : "");
+            if (messaggio.length() > MAX_LUNGHEZZA_MESSAGGIO) messaggio = messaggio.substring(0, MAX_LUNGHEZZA_MESSAGGIO - 3) + "...";
+            throw new IllegalArgumentException(messaggio);
+        }
+        return prossima != null;
+    }
+
+    @Override
+    public RigaProdotto next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        RigaProdotto riga = prossima;
+        prossima = null;
+        return riga;
+    }
+
+    /**
+     * Legge i record fino alla prossima riga valida da restituire o alla fine del file.
+     */
+    private void avanza() {
+        try {
+            List<String> record;
+            while ((record = lettore.leggiRecord()) != null) {
+                List<String> erroriRiga = new ArrayList<>();
+                RigaProdotto riga = converti(record, erroriRiga);
+                if (erroriRiga.isEmpty() && errori.isEmpty()) {
+                    prossima = riga;
+                    return;
+                }
+                for (String errore : erroriRiga) {
+                    if (errori.size() == MAX_ERRORI) {
+                        troncato = true;
+                        finito = true;
+                        return;
+                    }
+                    errori.add("Riga " + lettore.getNumeroRecord() + ": " + errore);
+                }
+            }
+            finito = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Converte e valida un record.
+     *
+     * @param record     I campi del record.
+     * @param erroriRiga Lista in cui raccogliere gli errori del record.
+     * @return La riga convertita, significativa solo se non sono stati registrati errori.
+     */
+    private RigaProdotto converti(List<String> record, List<String> erroriRiga) {
+        NewProdottoForm form = new NewProdottoForm();
+        form.setNome(valore(record, CatalogoCsv.NOME));
+        form.setDescrizione(valore(record, CatalogoCsv.DESCRIZIONE));
+        form.setCategoria(valore(record, CatalogoCsv.CATEGORIA));
+        String quantita = valore(record, CatalogoCsv.QUANTITA);
+        if (quantita != null) {
+            try {
+                form.setQuantita(Integer.parseInt(quantita));
+            } catch (NumberFormatException e) {
+                erroriRiga.add("quantità non valida (" + citato(quantita) + ")");
+            }
+        }
+        String prezzo = valore(record, CatalogoCsv.PREZZO);
+        if (prezzo != null) {
+            try {
+                double valore = Double.parseDouble(prezzo.replace(',', '.'));
+                if (Double.isFinite(valore)) form.setPrezzo(valore);
+                else erroriRiga.add("prezzo non valido (" + citato(prezzo) + ")");
+            } catch (NumberFormatException e) {
+                erroriRiga.add("prezzo non valido (" + citato(prezzo) + ")");
+            }
+        }
+        if (!erroriRiga.isEmpty()) return null;
+
+        for (ConstraintViolation<NewProdottoForm> violazione : validator.validate(form)) erroriRiga.add(violazione.getMessage());
+        if (form.getQuantita() != null && form.getQuantita() < 0) erroriRiga.add("La quantità deve essere positiva");
+        if (form.getPrezzo() != null && form.getPrezzo() < 0) erroriRiga.add("Il prezzo deve essere positivo");
+        if (!erroriRiga.isEmpty()) return null;
+        return new RigaProdotto(0, form.getNome(), form.getQuantita(), form.getPrezzo(), form.getDescrizione(), form.getCategoria());
+    }
+
+    /**
+     * Abbrevia un valore da citare in un messaggio di errore a {@link #MAX_LUNGHEZZA_VALORE} caratteri.
+     *
+     * @param valore Il valore del campo.
+     * @return Il valore, troncato e seguito da <code>...</code> se troppo lungo.
+     */
+    private static String citato(String valore) {
+        return valore.length() <= MAX_LUNGHEZZA_VALORE ? valore : valore.substring(0, MAX_LUNGHEZZA_VALORE) + "...";
+    }
+
+    /**
+     * Estrae il valore di una colonna dal record.
+     * <p>
+     * L'apice aggiunto in esportazione contro la formula injection viene rimosso
+     * ({@link CatalogoCsv#rimuoviProtezione(String)}).
+     * </p>
+     *
+     * @param record  I campi del record.
+     * @param colonna Il nome della colonna.
+     * @return Il valore senza spazi iniziali e finali, o {@code null} se la colonna è assente o vuota.
+     */
+    private String valore(List<String> record, String colonna) {
+        Integer indice = colonne.get(colonna);
+        if (indice == null || indice >= record.size()) return null;
+        String valore = record.get(indice).trim();
+        return valore.isEmpty() ? null : CatalogoCsv.rimuoviProtezione(valore);
+    }
+
+    /**
+     * Deduce il separatore dei campi dalla prima riga, senza consumarla.
+     *
+     * @param reader Il flusso bufferizzato.
+     * @return <code>;</code> se la prima riga contiene più punti e virgola che virgole, altrimenti <code>,</code>.
+     * @throws IOException se la lettura dal flusso fallisce.
+     */
+    private static char separatore(BufferedReader reader) throws IOException {
+        reader.mark(LettoreCsv.MAX_LUNGHEZZA_CAMPO);
+        int virgole = 0;
+        int puntiEVirgola = 0;
+        for (int i = 0, c; i < LettoreCsv.MAX_LUNGHEZZA_CAMPO - 1 && (c = reader.read()) != -1 && c != '\n' && c != '\r'; i++) {
+            if (c == ',') virgole++;
+            else if (c == ';') puntiEVirgola++;
+        }
+        reader.reset();
+        return puntiEVirgola > virgole ? ';' : CatalogoCsv.SEPARATORE;
+    }
+}
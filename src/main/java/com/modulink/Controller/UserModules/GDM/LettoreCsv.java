@@ -0,0 +1,110 @@
+package com.modulink.Controller.UserModules.GDM;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lettore CSV in streaming (RFC 4180).
+ * <p>
+ * Legge un record alla volta direttamente dal {@link Reader}, senza caricare il file in memoria: in ogni momento
+ * è presente solo il record corrente. Sono supportati i campi tra virgolette, le virgolette raddoppiate
+ * (<code>""</code>) e gli a capo all'interno dei campi tra virgolette; le righe vuote vengono ignorate.
+ * La lunghezza di ogni campo è limitata, così un file malformato non può far crescere la memoria senza limiti.
+ * </p>
+ * <p>
+ * Il {@link Reader} dovrebbe essere bufferizzato: la lettura avviene un carattere alla volta.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class LettoreCsv {
+
+    /**
+     * Lunghezza massima di un singolo campo, in caratteri.
+     */
+    public static final int MAX_LUNGHEZZA_CAMPO = 10_000;
+
+    private final Reader reader;
+    private final char separatore;
+    private int numeroRecord;
+
+    /**
+     * Crea il lettore sul flusso indicato.
+     *
+     * @param reader     Il flusso di caratteri da leggere.
+     * @param separatore Il separatore dei campi (tipicamente <code>,</code> o <code>;</code>).
+     * @since 3.7.0
+     */
+    public LettoreCsv(Reader reader, char separatore) {
+        this.reader = reader;
+        this.separatore = separatore;
+    }
+
+    /**
+     * Legge il record successivo.
+     *
+     * @return I campi del record, o {@code null} a fine file.
+     * @throws IOException              se la lettura dal flusso fallisce.
+     * @throws IllegalArgumentException se il record è malformato (virgolette non chiuse o campo troppo lungo).
+     * @since 3.7.0
+     */
+    public List<String> leggiRecord() throws IOException {
+        int c = reader.read();
+        while (c == '\r' || c == '\n') c = reader.read();
+        if (c == -1) return null;
+        numeroRecord++;
+
+        List<String> campi = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean traVirgolette = false;
+        while (true) {
+            if (traVirgolette) {
+                if (c == -1) throw new IllegalArgumentException("Riga " + numeroRecord + ": virgolette non chiuse");
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        traVirgolette = false;
+                        continue;
+                    }
+                }
+                aggiungi(campo, c);
+            } else if (c == '"' && campo.isEmpty()) {
+                traVirgolette = true;
+            } else if (c == separatore) {
+                campi.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                campi.add(campo.toString());
+                return campi;
+            } else {
+                aggiungi(campo, c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * @return Il numero progressivo dell'ultimo record letto, a partire da 1.
+     * @since 3.7.0
+     */
+    public int getNumeroRecord() {
+        return numeroRecord;
+    }
+
+    /**
+     * Aggiunge un carattere al campo corrente, verificandone la lunghezza massima.
+     *
+     * @param campo Il campo in costruzione.
+     * @param c     Il carattere letto.
+     */
+    private void aggiungi(StringBuilder campo, int c) {
+        if (campo.length() >= MAX_LUNGHEZZA_CAMPO) {
+            throw new IllegalArgumentException("Riga " + numeroRecord + ": campo più lungo di " + MAX_LUNGHEZZA_CAMPO + " caratteri");
+        }
+        campo.append((char) c);
+    }
+}
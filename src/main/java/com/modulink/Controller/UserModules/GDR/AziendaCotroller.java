@@ -1,10 +1,12 @@
 package com.modulink.Controller.UserModules.GDR;
 
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Azienda.AziendaService;
+import com.modulink.Model.Immagine.CaricamentoImmaginiService;
+import com.modulink.Model.Immagine.ImmagineNonValidaException;
 import com.modulink.Model.Modulo.ModuloService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.Valid;
 import org.springframework.stereotype.Controller;
@@ -17,9 +19,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.security.Principal;
 import java.util.Optional;
 
@@ -35,29 +34,29 @@ import java.util.Optional;
  * </p>
  *
  * @author Modulink Team
- * @version 1.8.3
+ * @version 1.9.0
  * @since 1.2.0
  */
 @Controller
 @RequestMapping("/dashboard/gdr")
 public class AziendaCotroller extends ModuloController {
-    private final CustomUserDetailsService customUserDetailsService;
     private final ModuloService moduloService;
     private final AziendaService aziendaService;
+    private final CaricamentoImmaginiService caricamentoImmaginiService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
-     * @param customUserDetailsService Servizio recupero utenti.
-     * @param moduloService            Servizio moduli.
-     * @param aziendaService           Servizio gestione aziende.
+     * @param moduloService              Servizio moduli.
+     * @param aziendaService             Servizio gestione aziende.
+     * @param caricamentoImmaginiService Servizio di caricamento del logo.
      * @since 1.2.0
      */
-    public AziendaCotroller(CustomUserDetailsService customUserDetailsService, ModuloService moduloService, AziendaService aziendaService) {
+    public AziendaCotroller(ModuloService moduloService, AziendaService aziendaService, CaricamentoImmaginiService caricamentoImmaginiService) {
         super(moduloService, 3);
-        this.customUserDetailsService = customUserDetailsService;
         this.moduloService = moduloService;
         this.aziendaService = aziendaService;
+        this.caricamentoImmaginiService = caricamentoImmaginiService;
     }
 
     /**
@@ -67,17 +66,16 @@ public class AziendaCotroller extends ModuloController {
      * </p>
      *
      * @param principal Identità dell'utente loggato.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista "moduli/gdr/editAzienda" o redirect se non autorizzato.
      * @since 1.2.0
      */
     @GetMapping("/")
-    public String DatiAzienda(Principal principal, Model model) {
+    public String DatiAzienda(Principal principal, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if (principal == null) {
             return "redirect:/";
         }
-        String email = principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             AziendaEntity azienda = utente.getAzienda();
@@ -106,11 +104,12 @@ public class AziendaCotroller extends ModuloController {
      * <ul>
      *     <li>Unicità della P.IVA rispetto ad altre aziende nel sistema.</li>
      *     <li>Unicità del numero di telefono (normalizzato).</li>
-     *     <li>Gestione del logo: cancellazione vecchio file e salvataggio nuovo upload.</li>
+     *     <li>Gestione del logo: validazione in streaming del nuovo upload, pubblicazione e cancellazione del vecchio file.</li>
      * </ul>
      *
      *
      * @param principal Identità dell'utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param form      DTO con i nuovi dati aziendali.
      * @param result    Risultati validazione form.
@@ -119,12 +118,10 @@ public class AziendaCotroller extends ModuloController {
      * @since 1.2.0
      */
     @PostMapping("/edit")
-    public String edit(Principal principal, Model model, @Valid @ModelAttribute("registerAziendaForm") EditAziendaForm form, BindingResult result) throws IOException {
+    public String edit(Principal principal, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute("registerAziendaForm") EditAziendaForm form, BindingResult result) throws IOException {
         if (principal == null) {
             return "redirect:/";
         }
-        String email = principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
 
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
@@ -148,6 +145,17 @@ public class AziendaCotroller extends ModuloController {
                 }
             }
 
+            // Il nuovo logo viene validato e pubblicato prima di modificare l'azienda
+            String nuovoLogo = null;
+            MultipartFile file = form.getLogo();
+            if (!result.hasErrors() && file != null && !file.isEmpty()) {
+                try {
+                    nuovoLogo = caricamentoImmaginiService.salva(file, CaricamentoImmaginiService.CARTELLA_LOGHI_AZIENDA, form.getPiva() + "_" + System.currentTimeMillis() + "_");
+                } catch (ImmagineNonValidaException e) {
+                    result.rejectValue("logo", e.getCodice("logo"), e.getMessage());
+                }
+            }
+
             if (result.hasErrors()) {
                 model.addAttribute("currentLogoPath", azienda.getLogo());
                 return "moduli/gdr/editAzienda";
@@ -161,30 +169,10 @@ public class AziendaCotroller extends ModuloController {
             azienda.setCap(form.getCap());
             azienda.setTelefono(form.getTelefono());
 
-            // Handle Logo
-            if (form.isDeleteFoto()){
-                if(azienda.getLogo()!=null && !azienda.getLogo().isEmpty()) {
-                    Files.deleteIfExists(Paths.get(azienda.getLogo()));
-                }
-                azienda.setLogo("");
-            }
-
-            MultipartFile file = form.getLogo();
-            if (file != null && !file.isEmpty()) {
-                String logodir = "azienda-logos/";
-                Path uploadPath = Paths.get(logodir);
-                if (!uploadPath.toFile().exists()) uploadPath.toFile().mkdirs();
-                
-                String filename = form.getPiva() + "_" + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                Path filePath = uploadPath.resolve(filename);
-                
-                // If we are replacing an existing logo, delete the old one
-                if (!form.isDeleteFoto() && azienda.getLogo() != null && !azienda.getLogo().isEmpty()) {
-                    Files.deleteIfExists(Paths.get(azienda.getLogo()));
-                }
-
-                Files.write(filePath, file.getBytes());
-                azienda.setLogo(logodir + filename);
+            // Handle Logo: the old file is removed when deleted or replaced
+            if (form.isDeleteFoto() || nuovoLogo != null) {
+                caricamentoImmaginiService.elimina(azienda.getLogo());
+                azienda.setLogo(nuovoLogo != null ? nuovoLogo : "");
             }
 
             aziendaService.updateAzienda(azienda);
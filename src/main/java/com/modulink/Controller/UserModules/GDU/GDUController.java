@@ -2,6 +2,7 @@ package com.modulink.Controller.UserModules.GDU;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Email.EmailService;
 import com.modulink.Model.Modulo.ModuloService;
@@ -10,10 +11,14 @@ import com.modulink.Model.Relazioni.Associazione.AssociazioneService;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Ruolo.RuoloService;
 import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.PaginaRubrica;
 import com.modulink.Model.Utente.PasswordUtility;
+import com.modulink.Model.Utente.RubricaService;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.NonNull;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -25,9 +30,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
-import java.security.Principal;
-import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
@@ -43,7 +47,7 @@ import java.util.concurrent.CompletableFuture;
  * </p>
  *
  * @author Modulink Team
- * @version 3.0.1
+ * @version 3.1.0
  * @since 1.3.0
  */
 @Controller
@@ -53,6 +57,7 @@ public class GDUController extends ModuloController {
     private final AssociazioneService associazioneService;
     private final String senderEmail;
     private final EmailService emailService;
+    private final RubricaService rubricaService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
@@ -63,24 +68,27 @@ public class GDUController extends ModuloController {
      * @param associazioneService      Servizio associazioni utente-ruolo.
      * @param senderEmail              Email mittente per notifiche.
      * @param emailService             Servizio invio email.
+     * @param rubricaService           Servizio della rubrica utenti paginata.
      * @since 1.3.0
      */
-    public GDUController(ModuloService moduloService, CustomUserDetailsService customUserDetailsService, RuoloService ruoloService, AssociazioneService associazioneService, @Value("${spring.mail.properties.mail.smtp.from}") String senderEmail, EmailService emailService) {
+    public GDUController(ModuloService moduloService, CustomUserDetailsService customUserDetailsService, RuoloService ruoloService, AssociazioneService associazioneService, @Value("${spring.mail.properties.mail.smtp.from}") String senderEmail, EmailService emailService, RubricaService rubricaService) {
         super(moduloService, 0);
         this.customUserDetailsService=customUserDetailsService;
         this.ruoloService=ruoloService;
         this.associazioneService=associazioneService;
         this.senderEmail=senderEmail;
         this.emailService=emailService;
+        this.rubricaService=rubricaService;
     }
 
     /**
      * Visualizza la dashboard di gestione utenti.
      * <p>
-     * Carica l'elenco di tutti gli utenti appartenenti all'azienda dell'utente loggato.
+     * La pagina riceve solo il numero di utenti dell'azienda: le card vengono caricate a pagine dal client
+     * tramite {@link #directory(Optional, Integer, String, Integer)}.
      * </p>
      *
-     * @param principal    Identità utente.
+     * @param utenteOpt    Utente autenticato, risolto una sola volta per richiesta.
      * @param model        Modello UI.
      * @param newUserForm  DTO per nuovo utente.
      * @param editUserForm DTO per modifica utente.
@@ -88,12 +96,10 @@ public class GDUController extends ModuloController {
      * @since 1.3.0
      */
     @GetMapping({"dashboard/gdu/","dashboard/gdu"})
-    public String dashboardDispatcher(Principal principal, Model model, @ModelAttribute NewUserForm newUserForm, @ModelAttribute EditUserForm editUserForm) {
-        String email =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public String dashboardDispatcher(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @ModelAttribute NewUserForm newUserForm, @ModelAttribute EditUserForm editUserForm) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
-            model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+            model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
             return "moduli/gdu/GestioneUtenti";
 
         }else  {
@@ -101,6 +107,30 @@ public class GDUController extends ModuloController {
         }
     }
 
+    /**
+     * Restituisce una pagina della rubrica utenti dell'azienda, in formato JSON.
+     * <p>
+     * La paginazione è keyset: la prima pagina si richiede senza <code>dopo</code>, le successive passando il
+     * valore di <code>prossimo</code> ricevuto, che è {@code null} sull'ultima pagina. Il parametro <code>q</code>
+     * filtra per nome, cognome, email o nome di un ruolo.
+     * </p>
+     *
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @param dopo      ID dell'ultimo utente della pagina precedente.
+     * @param q         Testo da cercare.
+     * @param size      Dimensione della pagina (predefinita <code>modulink.gdu.page-size</code>, massimo {@value RubricaService#DIMENSIONE_MASSIMA}).
+     * @return La pagina della rubrica, o 403 se il modulo non è accessibile.
+     * @since 3.7.0
+     */
+    @GetMapping("dashboard/gdu/api/directory")
+    @ResponseBody
+    public ResponseEntity<PaginaRubrica> directory(@UtenteLoggato Optional<UtenteEntity> utenteOpt, @RequestParam(required = false) Integer dopo, @RequestParam(required = false) String q, @RequestParam(required = false) Integer size) {
+        if (!isAccessibleModulo(utenteOpt)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(rubricaService.getPagina(utenteOpt.get().getAzienda().getId_azienda(), dopo, q, size));
+    }
+
     /**
      * Rimuove un utente dal sistema aziendale.
      * <p>
@@ -112,7 +142,7 @@ public class GDUController extends ModuloController {
      * La cancellazione è transazionale e rimuove a cascata le associazioni correlate.
      *
      *
-     * @param principal Identità richiedente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param email     Email dell'utente da eliminare.
      * @param newUserForm DTO placeholder.
@@ -122,16 +152,14 @@ public class GDUController extends ModuloController {
      */
     @Transactional
     @PostMapping("dashboard/gdu/remove-user")
-    public String removeUser(Principal principal, Model model, @RequestParam("email") String email, @ModelAttribute NewUserForm newUserForm, @ModelAttribute EditUserForm editUserForm) {
-        String emailLogged =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(emailLogged);
+    public String removeUser(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam("email") String email, @ModelAttribute NewUserForm newUserForm, @ModelAttribute EditUserForm editUserForm) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             Optional<UtenteEntity> userToDeleteOPT=customUserDetailsService.findByEmail(email);
             if(userToDeleteOPT.isEmpty()) {
                 model.addAttribute("error",true);
                 model.addAttribute("message","L'utente indicato non è stato trovato");
-                model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 return "moduli/gdu/GestioneUtenti";
             }
             UtenteEntity utenteToDelete=userToDeleteOPT.get();
@@ -142,13 +170,11 @@ public class GDUController extends ModuloController {
             else if(utenteToDelete.getId_utente()==utente.getId_utente()) {
                 model.addAttribute("error",true);
                 model.addAttribute("message","Sei un coglione");
-                model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 return "moduli/gdu/GestioneUtenti";
             }
-            List<UtenteEntity> utenti=customUserDetailsService.getAllByAzienda(utente.getAzienda());
-            utenti.remove(utenteToDelete);
             customUserDetailsService.rimuoviUtente(utenteToDelete); //Cancello l'utente e tutte le sue associazioni
-            model.addAttribute("utenti", utenti);
+            model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
             model.addAttribute("success",true);
             model.addAttribute("message","L'utente "+utenteToDelete.getNome()+" "+utenteToDelete.getCognome()+" è stato eliminato con successo");
             return "moduli/gdu/GestioneUtenti";
@@ -184,7 +210,7 @@ public class GDUController extends ModuloController {
      * </ol>
      *
      *
-     * @param principal      Identità amministratore.
+     * @param utenteOpt      Utente autenticato, risolto una sola volta per richiesta.
      * @param model          Modello UI.
      * @param newUserForm    DTO dati nuovo utente.
      * @param bindingResults Esito validazione.
@@ -194,23 +220,21 @@ public class GDUController extends ModuloController {
      */
     @Transactional
     @PostMapping("dashboard/gdu/add-user")
-    public String addUser(Principal principal, Model model, @Valid @ModelAttribute NewUserForm newUserForm, BindingResult bindingResults, @ModelAttribute EditUserForm editUserForm) {
-        String emailLogged =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(emailLogged);
+    public String addUser(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute NewUserForm newUserForm, BindingResult bindingResults, @ModelAttribute EditUserForm editUserForm) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             if(bindingResults.hasErrors()) {
-                model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 model.addAttribute("newUserForm",newUserForm);
                 return "moduli/gdu/GestioneUtenti";
             }
             try {
                 customUserDetailsService.loadUserByUsername(newUserForm.getEmail());
                 bindingResults.rejectValue("email","mail.found","La mail inserita risulta già registrata");
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 model.addAttribute("newUserForm", newUserForm);
                 return "moduli/gdu/GestioneUtenti";
             } catch (UsernameNotFoundException ignored) {}
-            List<UtenteEntity> utenti=customUserDetailsService.getAllByAzienda(utente.getAzienda());
             AziendaEntity azienda=utente.getAzienda();
             String tempPassword=generatePassword();
             //Creo l'utente
@@ -230,9 +254,8 @@ public class GDUController extends ModuloController {
             message.setText("Benvenuto "+newUserForm.getNome()+" "+newUserForm.getCognome()+" in "+azienda.getNome()+"!!!\nSei stato appena registrato alla piattaforma Modulink, per entrare utilizza questa password: "+tempPassword+"\n\nUna volta effettuato il 1°login potrai modificare la tua password con una tua personale");
             emailService.sendEmail(message);
 
-            //Aggiungo l'utente alla lista degli utenti salvati prima così da poterli mostrare in grafica post-richiesta (Altrimenti la persistence non ha il tempo di salvare, separando le richieste si risolve il problema)
-            utenti.add(newUser);
-            model.addAttribute("utenti", utenti);
+            //Le card vengono caricate dalla pagina tramite la rubrica, qui basta il conteggio aggiornato
+            model.addAttribute("totaleUtenti", rubricaService.contaUtenti(azienda.getId_azienda()));
             //Completo la richiesta
             model.addAttribute("success",true);
             return "moduli/gdu/GestioneUtenti";
@@ -249,7 +272,7 @@ public class GDUController extends ModuloController {
      * Include la possibilità di forzare un reset della password amministrativo.
      * </p>
      *
-     * @param principal      Identità amministratore.
+     * @param utenteOpt      Utente autenticato, risolto una sola volta per richiesta.
      * @param model          Modello UI.
      * @param editUserForm   DTO dati modificati.
      * @param bindingResults Esito validazione.
@@ -258,13 +281,11 @@ public class GDUController extends ModuloController {
      * @since 1.3.0
      */
     @PostMapping("dashboard/gdu/modify-user")
-    public String editUser(Principal principal, Model model, @Valid @ModelAttribute EditUserForm editUserForm, BindingResult bindingResults, @ModelAttribute NewUserForm newUserForm) {
-        String emailLogged =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(emailLogged);
+    public String editUser(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute EditUserForm editUserForm, BindingResult bindingResults, @ModelAttribute NewUserForm newUserForm) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             if(bindingResults.hasErrors()) {
-                model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 model.addAttribute("editUserForm",editUserForm);
                 return "moduli/gdu/GestioneUtenti";
             }
@@ -272,7 +293,7 @@ public class GDUController extends ModuloController {
             if(toUpdateUserOpt.isEmpty()) {
                 model.addAttribute("error",true);
                 model.addAttribute("message","L'utente indicato non è stato trovato");
-                model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                 return "moduli/gdu/GestioneUtenti";
             }
             UtenteEntity toUpdateUser = toUpdateUserOpt.get();
@@ -285,13 +306,13 @@ public class GDUController extends ModuloController {
                 if(!editUserForm.getNewPassword().equals(editUserForm.getConfirmNewPassword())) {
                     model.addAttribute("error",true);
                     model.addAttribute("message","Le password non coincidono, controlla e riprova");
-                    model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                    model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                     return "moduli/gdu/GestioneUtenti";
                 }
                 else if(editUserForm.getNewPassword().length()<8 || editUserForm.getNewPassword().length()>50) {
                     model.addAttribute("error",true);
                     model.addAttribute("message","La password dev'essere compresa tra gli 8 e i 50 caratteri");
-                    model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+                    model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
                     return "moduli/gdu/GestioneUtenti";
                 }
                 else {
@@ -305,7 +326,7 @@ public class GDUController extends ModuloController {
             customUserDetailsService.aggiornaUtente(toUpdateUser);
             model.addAttribute("success",true);
             model.addAttribute("message","L'utente "+toUpdateUser.getNome()+" "+toUpdateUser.getCognome()+" è stato aggiornato con successo");
-            model.addAttribute("utenti", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
+            model.addAttribute("totaleUtenti", rubricaService.contaUtenti(utente.getAzienda().getId_azienda()));
             return "moduli/gdu/GestioneUtenti";
         }
         else {
@@ -320,17 +341,16 @@ public class GDUController extends ModuloController {
      * completando l'attivazione dell'account.
      * </p>
      *
-     * @param principal       Identità utente.
+     * @param utenteOpt       Utente autenticato, risolto una sola volta per richiesta.
      * @param model           Modello UI.
      * @param password        Nuova password.
      * @param confirmPassword Conferma password.
      * @return Redirect alla dashboard o errore in pagina.
      * @since 1.3.0
      */
+    @Transactional
     @PostMapping("dashboard/gdu/firstlogin")
-    public String registerNewUser(Principal principal, Model model, @RequestParam String password, @RequestParam String confirmPassword) {
-        String emailLogged =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(emailLogged);
+    public String registerNewUser(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam String password, @RequestParam String confirmPassword) {
         if(utenteOpt.isPresent()) {
             UtenteEntity utente=utenteOpt.get();
             if(!customUserDetailsService.isThisaNewUtente(utente)) {
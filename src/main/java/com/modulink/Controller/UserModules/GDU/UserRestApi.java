@@ -1,15 +1,20 @@
 package com.modulink.Controller.UserModules.GDU;
 
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaService;
 import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.RubricaService;
 import com.modulink.Model.Utente.UtenteEntity;
+import com.modulink.Model.Utente.UtenteSintesi;
 import com.modulink.Model.Utente.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
@@ -23,10 +28,11 @@ import java.util.stream.Collectors;
  * Fornisce endpoint per il recupero asincrono delle informazioni di base degli utenti (nome, cognome, email),
  * filtrati rigorosamente per azienda di appartenenza.
  * Utilizzato principalmente da componenti frontend come campi di autocompletamento o liste dinamiche.
+ * I dati sono proiettati dal database ({@link UtenteSintesi}) senza caricare le entità utente.
  * </p>
  *
  * @author Modulink Team
- * @version 1.0.5
+ * @version 1.2.0
  * @since 1.4.0
  */
 @RestController
@@ -54,41 +60,38 @@ public class UserRestApi {
     /**
      * Recupera la lista di tutti gli utenti colleghi (stessa azienda) dell'utente richiedente.
      * <p>
-     * Esclude l'utente richiedente dalla lista risultante.
+     * Esclude l'utente richiedente dalla lista risultante. Se è indicato <code>size</code> la lista è paginata
+     * in modalità keyset: la pagina successiva si richiede passando in <code>dopo</code> l'ID dell'ultimo utente ricevuto.
      * </p>
      *
      * @param principal Identità dell'utente autenticato.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
+     * @param dopo      ID dell'ultimo utente della pagina precedente (solo con <code>size</code>).
+     * @param size      Dimensione della pagina, al massimo {@value RubricaService#DIMENSIONE_MASSIMA}; se assente restituisce tutti i colleghi.
      * @return Lista di {@link UserBasicInfo} in formato JSON.
      * @since 1.4.0
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserBasicInfo>> getUsers(Principal principal) {
+    public ResponseEntity<List<UserBasicInfo>> getUsers(Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt,
+                                                        @RequestParam(required = false) Integer dopo, @RequestParam(required = false) Integer size) {
         if (principal == null) {
             return ResponseEntity.status(401).build(); // Unauthorized
         }
 
-        String email = principal.getName();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(email);
-
         if (currentUserOpt.isEmpty()) {
             return ResponseEntity.status(403).build(); // Forbidden
         }
 
         UtenteEntity currentUser = currentUserOpt.get();
 
-        // Recupera tutti gli utenti della stessa azienda del richiedente
-        List<UtenteEntity> colleagues = userRepository.findAllByAziendaAndIdUtenteNot(currentUser.getAzienda(), currentUser.getId_utente());
-
-
-
-        // Mappa le entità in DTO leggeri
-        List<UserBasicInfo> response = colleagues.stream()
-                .map(u -> new UserBasicInfo(
-                        u.getId_utente(),
-                        u.getNome(),
-                        u.getCognome(),
-                        u.getEmail()
-                ))
+        // Proietta solo i dati dei colleghi della stessa azienda del richiedente
+        int idAzienda = currentUser.getAzienda().getId_azienda();
+        List<UtenteSintesi> colleghi = size == null
+                ? userRepository.findSintesiByAziendaEscluso(idAzienda, currentUser.getId_utente())
+                : userRepository.findSintesiByAziendaEscluso(idAzienda, currentUser.getId_utente(), dopo == null ? -1 : dopo,
+                        Limit.of(Math.max(1, Math.min(size, RubricaService.DIMENSIONE_MASSIMA))));
+        List<UserBasicInfo> response = colleghi.stream()
+                .map(u -> new UserBasicInfo(u.id_utente(), u.nome(), u.cognome(), u.email()))
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(response);
@@ -121,16 +124,15 @@ public class UserRestApi {
      *
      * @param id        ID dell'azienda target.
      * @param principal Identità richiedente.
+     * @param currentUserOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Lista utenti o stato Forbidden.
      * @since 1.4.0
      */
     @GetMapping("/admin/users/{id}")
-    public ResponseEntity<List<UserBasicInfo>> getUser(@PathVariable int id, Principal principal) {
+    public ResponseEntity<List<UserBasicInfo>> getUser(@PathVariable int id, Principal principal, @UtenteLoggato Optional<UtenteEntity> currentUserOpt) {
         if (principal == null) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
-        String email = principal.getName();
-        Optional<UtenteEntity> currentUserOpt = customUserDetailsService.findByEmail(email);
         if(currentUserOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
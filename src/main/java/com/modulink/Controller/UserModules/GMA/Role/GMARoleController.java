@@ -1,12 +1,13 @@
 package com.modulink.Controller.UserModules.GMA.Role;
 
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
+import com.modulink.Model.Relazioni.Pertinenza.PertinenzaService;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Ruolo.RuoloNotFoundException;
 import com.modulink.Model.Ruolo.RuoloService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,7 +15,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -28,45 +28,44 @@ import java.util.Optional;
  * </p>
  *
  * @author Modulink Team
- * @version 1.5.0
+ * @version 1.6.0
  * @since 1.2.5
  */
 @Controller
 public class GMARoleController extends ModuloController {
-    private final CustomUserDetailsService customUserDetailsService;
     private final ModuloService moduloService;
     private final RuoloService ruoloService;
+    private final PertinenzaService pertinenzaService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
-     * @param customUserDetailsService Servizio utenti.
      * @param moduloService            Servizio moduli.
      * @param ruoloService             Servizio ruoli.
+     * @param pertinenzaService        Servizio pertinenze, per i ruoli già autorizzati su ciascun modulo.
      * @since 1.2.5
      */
-    public GMARoleController(CustomUserDetailsService customUserDetailsService, ModuloService moduloService, RuoloService ruoloService) {
+    public GMARoleController(ModuloService moduloService, RuoloService ruoloService, PertinenzaService pertinenzaService) {
         super(moduloService,2);
-        this.customUserDetailsService = customUserDetailsService;
         this.moduloService = moduloService;
         this.ruoloService = ruoloService;
+        this.pertinenzaService = pertinenzaService;
     }
 
     /**
      * Visualizza la dashboard di configurazione dei permessi ruoli-moduli.
      *
-     * @param principal Identità dell'amministratore.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista "moduli/gma/role/RoleModuli" o redirect.
      * @since 1.2.5
      */
     @GetMapping({"dashboard/gma","dashboard/gma/"})
-    public String dashboardDispatcher(Principal principal, Model model) {
-        String email =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public String dashboardDispatcher(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             model.addAttribute("ruoli", ruoloService.getAllRolesByAzienda(utente.getAzienda()));
+            model.addAttribute("ruoliPerModulo", pertinenzaService.getRuoliPerModulo(utente.getAzienda()));
             return "moduli/gma/role/RoleModuli";
         }
         else {
@@ -82,7 +81,7 @@ public class GMARoleController extends ModuloController {
      * Implementa una logica di fallback per assicurare che il ruolo "Responsabile" mantenga sempre l'accesso.
      * </p>
      *
-     * @param principal Identità amministratore.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param idModulo  ID del modulo da configurare.
      * @param roleIds   Lista degli ID dei ruoli abilitati.
@@ -90,9 +89,7 @@ public class GMARoleController extends ModuloController {
      * @since 1.2.5
      */
     @PostMapping("dashboard/gma/edit-modulo")
-    public String editModulo(Principal principal, Model model, @RequestParam int idModulo, @RequestParam(required = false) List<Integer> roleIds) {
-        String email =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public String editModulo(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam int idModulo, @RequestParam(required = false) List<Integer> roleIds) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             List<RuoloEntity> ruoli;
@@ -104,6 +101,7 @@ public class GMARoleController extends ModuloController {
                     ruoli = ruoloService.getAllRolesFromIds(roleIds,utente.getAzienda().getId_azienda());
                 } catch (RuoloNotFoundException re) {
                     model.addAttribute("ruoli", ruoloService.getAllRolesByAzienda(utente.getAzienda()));
+                    model.addAttribute("ruoliPerModulo", pertinenzaService.getRuoliPerModulo(utente.getAzienda()));
                     model.addAttribute("error",true);
                     model.addAttribute("message","Uno dei ruoli selezionati non è stato trovato");
                     return "moduli/gma/role/RoleModuli";
@@ -113,6 +111,7 @@ public class GMARoleController extends ModuloController {
             model.addAttribute("success",true);
             model.addAttribute("message","Assegnazione completata con successo");
             model.addAttribute("ruoli", ruoloService.getAllRolesByAzienda(utente.getAzienda()));
+            model.addAttribute("ruoliPerModulo", pertinenzaService.getRuoliPerModulo(utente.getAzienda()));
             return "moduli/gma/role/RoleModuli";
         }
         else {
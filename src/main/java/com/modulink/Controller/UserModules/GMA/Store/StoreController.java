@@ -2,13 +2,13 @@ package com.modulink.Controller.UserModules.GMA.Store;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloEntity;
 import com.modulink.Model.Modulo.ModuloService;
 import com.modulink.Model.Relazioni.Attivazione.AttivazioneService;
 import com.modulink.Model.SupportForm.SupportFormEntity;
 import com.modulink.Model.SupportForm.SupportFormService;
-import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -16,7 +16,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,7 +32,6 @@ import java.util.Optional;
  */
 @Controller
 public class StoreController extends ModuloController {
-    private final CustomUserDetailsService customUserDetailsService;
     private final AttivazioneService attivazioneService;
     private final SupportFormService supportFormService;
     private final List<ModuloController> moduloControllers;
@@ -42,17 +40,15 @@ public class StoreController extends ModuloController {
     /**
      * Costruttore con iniezione delle dipendenze.
      * 
-     * @param customUserDetailsService Servizio utenti.
      * @param attivazioneService       Servizio gestione attivazioni/acquisti.
      * @param moduloService            Servizio moduli.
      * @param supportFormService       Servizio ticket supporto.
      * @param moduloControllers        Lista di tutti i controller dei moduli installati (per callback disinstallazione).
      * @since 1.3.0
      */
-    public StoreController(CustomUserDetailsService customUserDetailsService, AttivazioneService attivazioneService, ModuloService moduloService, SupportFormService supportFormService, List<ModuloController> moduloControllers) {
+    public StoreController(AttivazioneService attivazioneService, ModuloService moduloService, SupportFormService supportFormService, List<ModuloController> moduloControllers) {
         super(moduloService,9999);
         this.moduloService = moduloService;
-        this.customUserDetailsService = customUserDetailsService;
         this.attivazioneService = attivazioneService;
         this.supportFormService = supportFormService;
         this.moduloControllers = moduloControllers;
@@ -64,14 +60,13 @@ public class StoreController extends ModuloController {
      * Separa i moduli in due liste: acquistati e non acquistati, per una chiara presentazione all'utente.
      * </p>
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista "moduli/gma/store/StoreModuli" o redirect.
      * @since 1.3.0
      */
     @GetMapping({"/dashboard/store/", "/dashboard/store"})
-    public String Store(Principal principal, Model model) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String Store(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if(isAccessibleModulo(utenteOpt)) {
             List<ModuloEntity> moduliNonAcquistati = attivazioneService.getNotPurchased(utenteOpt.get().getAzienda());
             List<ModuloEntity> moduliAcquistati = attivazioneService.getAllPurchased(utenteOpt.get().getAzienda());
@@ -86,13 +81,12 @@ public class StoreController extends ModuloController {
      * Gestisce l'acquisto di un nuovo modulo.
      *
      * @param moduloId  ID del modulo da attivare.
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Redirect allo store con esito.
      * @since 1.3.0
      */
     @PostMapping("/dashboard/store/buy")
-    public String buyModule(@RequestParam("moduloId") int moduloId, Principal principal) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String buyModule(@RequestParam("moduloId") int moduloId, @UtenteLoggato Optional<UtenteEntity> utenteOpt) {
         if(isAccessibleModulo(utenteOpt)) {
             boolean success = attivazioneService.purchaseModulo(utenteOpt.get().getAzienda(), moduloId);
             if (success) return "redirect:/dashboard/store" + Alert.success("Modulo acquistato con successo!");
@@ -113,13 +107,12 @@ public class StoreController extends ModuloController {
      *
      *
      * @param moduloId  ID del modulo da rimuovere.
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return Redirect allo store con esito.
      * @since 1.3.0
      */
     @PostMapping("dashboard/store/uninstall")
-    public String uninstallModule(@RequestParam("moduloId") int moduloId, Principal principal) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String uninstallModule(@RequestParam("moduloId") int moduloId, @UtenteLoggato Optional<UtenteEntity> utenteOpt) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
             ModuloEntity modulo=moduloService.getModuloById(moduloId);
@@ -142,14 +135,13 @@ public class StoreController extends ModuloController {
     /**
      * Visualizza il form per richiedere nuovi moduli.
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista richiesta moduli.
      * @since 1.3.5
      */
     @GetMapping({"/dashboard/store/request","/dashboard/store/request/"})
-    public String requestModulePage(Principal principal, Model model) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String requestModulePage(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if(isAccessibleModulo(utenteOpt)) return "moduli/gma/store/RequestModuli";
         else return "redirect:/";
     }
@@ -157,15 +149,14 @@ public class StoreController extends ModuloController {
     /**
      * Invia una richiesta di sviluppo per un nuovo modulo.
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param messaggio Descrizione della richiesta.
      * @return Redirect con conferma invio.
      * @since 1.3.5
      */
     @PostMapping({"/dashboard/store/request","/dashboard/store/request/"})
-    public String requestModule(Principal principal, Model model, @RequestParam("messaggio") String messaggio) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String requestModule(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam("messaggio") String messaggio) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
             if(messaggio ==null || messaggio.isEmpty()) return "redirect:/dashboard/store/request"+Alert.error("Il messaggio non può essere vuoto");
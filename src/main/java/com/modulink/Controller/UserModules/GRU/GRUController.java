@@ -1,6 +1,7 @@
 package com.modulink.Controller.UserModules.GRU;
 
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
 import com.modulink.Model.Ruolo.RuoloEntity;
@@ -14,7 +15,6 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
-import java.security.Principal;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collections;
@@ -29,7 +29,7 @@ import java.util.Collections;
  * </p>
  *
  * @author Modulink Team
- * @version 2.1.0
+ * @version 2.2.1
  * @since 1.2.0
  */
 @Controller
@@ -59,18 +59,16 @@ public class GRUController extends ModuloController {
      * Carica l'elenco dei ruoli esistenti e la lista completa degli utenti per facilitare le operazioni di assegnazione.
      * </p>
      *
-     * @param principal Identità utente loggato.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista "moduli/gru/GestioneRuoli" o redirect.
      * @since 1.2.0
      */
     @GetMapping({"dashboard/gru/","dashboard/gru"})
-    public String dashboardDispatcher(Principal principal, Model model) {
-        String email =  principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public String dashboardDispatcher(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            model.addAttribute("ruoli", ruoloService.getAllRolesByAzienda(utente.getAzienda()));
+            model.addAttribute("ruoli", ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda()));
             
             // For assigning users
             model.addAttribute("allUsers", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
@@ -92,18 +90,16 @@ public class GRUController extends ModuloController {
      *
      * @param newRoleForm   DTO con i dati del nuovo ruolo (nome, colore, descrizione).
      * @param bindingResult Esito validazione.
-     * @param principal     Identità utente.
+     * @param utenteOpt     Utente autenticato, risolto una sola volta per richiesta.
      * @param model         Modello UI.
      * @return Redirect alla dashboard con esito.
      * @since 1.2.0
      */
     @PostMapping("dashboard/gru/add-role")
-    public String addRole(@ModelAttribute("newRoleForm") @Valid NewRoleForm newRoleForm, BindingResult bindingResult, Principal principal, Model model) {
-        String email = principal.getName();
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(email);
+    public String addRole(@ModelAttribute("newRoleForm") @Valid NewRoleForm newRoleForm, BindingResult bindingResult, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            List<RuoloEntity> ruoli=ruoloService.getAllRolesByAzienda(utente.getAzienda());
+            List<RuoloEntity> ruoli=ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda());
             model.addAttribute("allUsers", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
             if (bindingResult.hasErrors()) {
                 model.addAttribute("newRoleForm",newRoleForm);
@@ -131,18 +127,17 @@ public class GRUController extends ModuloController {
      * @param nome        Nuovo nome.
      * @param colore      Nuovo colore (esadecimale).
      * @param descrizione Nuova descrizione.
-     * @param principal   Identità utente.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
      * @param model       Modello UI.
      * @param newRoleForm DTO placeholder.
      * @return Redirect alla dashboard con esito.
      * @since 1.2.0
      */
     @PostMapping("dashboard/gru/modify-role")
-    public String modifyRole(@RequestParam int idRuolo, @RequestParam String nome, @RequestParam String colore, @RequestParam String descrizione, Principal principal, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String modifyRole(@RequestParam int idRuolo, @RequestParam String nome, @RequestParam String colore, @RequestParam String descrizione, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            List<RuoloEntity> ruoli=ruoloService.getAllRolesByAzienda(utente.getAzienda());
+            List<RuoloEntity> ruoli=ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda());
             model.addAttribute("allUsers", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
             if(nome.length()<2 || nome.length()>50) {
                 model.addAttribute("error",true);
@@ -177,18 +172,17 @@ public class GRUController extends ModuloController {
      * </p>
      *
      * @param idRuolo     ID del ruolo.
-     * @param principal   Identità utente.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
      * @param model       Modello UI.
      * @param newRoleForm DTO placeholder.
      * @return Redirect con esito operazione.
      * @since 1.2.0
      */
     @PostMapping("dashboard/gru/delete-role")
-    public String deleteRole(@RequestParam int idRuolo, Principal principal, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String deleteRole(@RequestParam int idRuolo, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            List<RuoloEntity> ruoli=ruoloService.getAllRolesByAzienda(utente.getAzienda());
+            List<RuoloEntity> ruoli=ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda());
             model.addAttribute("allUsers", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
             RuoloEntity ruolo=ruoloService.getRoleById(idRuolo,utente.getAzienda());
             try {
@@ -218,18 +212,17 @@ public class GRUController extends ModuloController {
      *
      * @param idRuolo     ID del ruolo target.
      * @param userIds     Lista degli ID degli utenti da assegnare.
-     * @param principal   Identità utente.
+     * @param utenteOpt   Utente autenticato, risolto una sola volta per richiesta.
      * @param model       Modello UI.
      * @param newRoleForm DTO placeholder.
      * @return Redirect con esito.
      * @since 1.2.5
      */
     @PostMapping("dashboard/gru/assign-role")
-    public String assignRole(@RequestParam int idRuolo, @RequestParam(required = false) List<Integer> userIds, Principal principal, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String assignRole(@RequestParam int idRuolo, @RequestParam(required = false) List<Integer> userIds, @UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @ModelAttribute("newRoleForm") NewRoleForm newRoleForm) {
         if (isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente=utenteOpt.get();
-            model.addAttribute("ruoli",ruoloService.getAllRolesByAzienda(utente.getAzienda()));
+            model.addAttribute("ruoli",ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda()));
             List<UtenteEntity> usersToAssign;
             if (userIds == null || userIds.isEmpty()) {
                 usersToAssign = Collections.emptyList();
@@ -244,6 +237,7 @@ public class GRUController extends ModuloController {
                 }
             }
             ruoloService.updateRoleAssociations(utente.getAzienda(), idRuolo, usersToAssign);
+            model.addAttribute("ruoli",ruoloService.getAllRolesWithMembersByAzienda(utente.getAzienda()));
             model.addAttribute("success",true);
             model.addAttribute("message","Assegnazione completata con successo");
             model.addAttribute("allUsers", customUserDetailsService.getAllByAzienda(utente.getAzienda()));
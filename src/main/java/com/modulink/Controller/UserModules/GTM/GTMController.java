@@ -2,19 +2,22 @@ package com.modulink.Controller.UserModules.GTM;
 
 import com.modulink.Alert;
 import com.modulink.Controller.ModuloController;
+import com.modulink.Controller.UtenteLoggato;
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Modulo.ModuloService;
 import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneEntity;
 import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneService;
 import com.modulink.Model.Relazioni.Associazione.AssociazioneService;
-import com.modulink.Model.Ruolo.RuoloEntity;
+import com.modulink.Model.Ruolo.RuoloNotFoundException;
 import com.modulink.Model.Ruolo.RuoloService;
+import com.modulink.Model.Ruolo.RuoloSintesi;
 import com.modulink.Model.Task.TaskEntity;
 import com.modulink.Model.Task.TaskID;
 import com.modulink.Model.Task.TaskService;
 import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UserNotFoundException;
 import com.modulink.Model.Utente.UtenteEntity;
+import com.modulink.Model.Utente.UtenteSintesi;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -25,7 +28,6 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.security.Principal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -46,7 +48,7 @@ import java.util.Set;
  * </p>
  *
  * @author Modulink Team
- * @version 3.2.1
+ * @version 3.4.0
  * @since 1.3.0
  */
 @Controller
@@ -84,14 +86,13 @@ public class GTMController extends ModuloController {
      * sia i task assegnati all'utente (da completare).
      * </p>
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @return Vista "moduli/gtm/GestioneTask" o redirect.
      * @since 1.3.0
      */
     @GetMapping({"/dashboard/gtm","/dashboard/gtm/"})
-    public String getGTM(Principal principal, Model model) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String getGTM(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = (UtenteEntity) model.getAttribute("utente");
             model.addAttribute("taskCreate",taskService.findByCreatore(utente));
@@ -107,23 +108,21 @@ public class GTMController extends ModuloController {
      * API per recuperare la lista di possibili assegnatari (Utenti e Ruoli).
      * <p>
      * Utilizzato dal frontend per popolare il selettore di assegnazione.
-     * Restituisce una lista eterogenea di oggetti {@link GTMMessage} normalizzati.
+     * Restituisce una lista eterogenea di oggetti {@link GTMMessage} normalizzati, costruiti dalle sole colonne
+     * necessarie senza caricare entità utente o ruolo.
      * </p>
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @return JSON List di GTMMessage o BadRequest.
      * @since 1.3.5
      */
     @PostMapping("/dashboard/gtm/getusers")
-    public Object getUsers(Principal principal) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public Object getUsers(@UtenteLoggato Optional<UtenteEntity> utenteOpt) {
         if(isAccessibleModulo(utenteOpt)) {
-            UtenteEntity utente = utenteOpt.get();
+            int idAzienda = utenteOpt.get().getAzienda().getId_azienda();
             List<GTMMessage> messages = new ArrayList<>();
-            List<UtenteEntity> utenti = customUserDetailsService.getAllByAzienda(utente.getAzienda());
-            for(UtenteEntity u : utenti) messages.add(new GTMMessage(u.getEmail(),"utente",u.getId_utente(),u.getAzienda().getId_azienda(),"#4287f5"));
-            List<RuoloEntity> ruoli = ruoloService.getAllRolesByAzienda(utente.getAzienda());
-            for (RuoloEntity r : ruoli) messages.add(new GTMMessage(r.getNome(),"ruolo",r.getId_ruolo(),r.getAzienda().getId_azienda(),r.getColore()));
+            for (UtenteSintesi u : customUserDetailsService.getSintesiByAzienda(idAzienda)) messages.add(new GTMMessage(u.email(),"utente",u.id_utente(),idAzienda,"#4287f5"));
+            for (RuoloSintesi r : ruoloService.getSintesiByAzienda(idAzienda)) messages.add(new GTMMessage(r.nome(),"ruolo",r.id_ruolo(),idAzienda,r.colore()));
             return ResponseEntity.ok(messages);
         }
         else return ResponseEntity.badRequest().build();
@@ -137,7 +136,7 @@ public class GTMController extends ModuloController {
      * Esegue validazioni sulle date (scadenza futura).
      * </p>
      *
-     * @param principal     Identità creatore.
+     * @param utenteOpt     Utente autenticato, risolto una sola volta per richiesta.
      * @param model         Modello UI.
      * @param form          DTO dati task.
      * @param bindingResult Esito validazione.
@@ -145,8 +144,7 @@ public class GTMController extends ModuloController {
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gtm","/dashboard/gtm/"})
-    public String createNewTask(Principal principal, Model model, @Valid @ModelAttribute("form") GTMForm form, BindingResult bindingResult) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String createNewTask(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute("form") GTMForm form, BindingResult bindingResult) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             if(form.getScadenza() != null && form.getScadenza().isBefore(LocalDate.now().minusDays(1))) bindingResult.rejectValue("scadenza","datanelpassato.error","La data di scadenza non può essere nel passato");
@@ -161,24 +159,15 @@ public class GTMController extends ModuloController {
                 return "moduli/gtm/GestioneTask";
             }
             TaskEntity task=new TaskEntity(utente.getAzienda(),utente,form.getTitolo(),form.getPriorita(),form.getScadenza(), LocalDate.now(),null);
-            Set<AssegnazioneEntity> assegnazioniSet=new HashSet<>();
-            if(form.getMessaggi()!=null) {
-                for(GTMMessage msg:form.getMessaggi()) {
-                    if(msg.getType().equals("utente")) {
-                        try {
-                            assegnazioniSet.add(new AssegnazioneEntity(task, customUserDetailsService.getByID(msg.getId(),msg.getAzienda())));
-                        } catch (UserNotFoundException e) {
-                            return "redirect:/dashboard/gtm"+Alert.error("Utente non trovato");
-                        }
-                    }
-                    else if(msg.getType().equals("ruolo")) {
-                        List<UtenteEntity> utentiFromRole=associazioneService.getAllByRole(ruoloService.getRoleById(msg.getId(),utente.getAzienda()));
-                        for(UtenteEntity u:utentiFromRole) assegnazioniSet.add(new AssegnazioneEntity(task,u));
-                    }
-                    else {
-                        return "redirect:/dashboard/gtm"+Alert.error("Messaggio non valido");
-                    }
-                }
+            Set<AssegnazioneEntity> assegnazioniSet;
+            try {
+                assegnazioniSet=espandiAssegnazioni(task, form.getMessaggi(), utente.getAzienda().getId_azienda());
+            } catch (UserNotFoundException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Utente non trovato");
+            } catch (RuoloNotFoundException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Ruolo non trovato");
+            } catch (IllegalArgumentException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Messaggio non valido");
             }
             task.setAssegnazioni(new ArrayList<>(assegnazioniSet));
             taskService.save(task);
@@ -193,15 +182,14 @@ public class GTMController extends ModuloController {
      * Permesso solo all'utente che ha creato il task (Owner).
      * </p>
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param idTask    ID del task.
      * @return Redirect con esito.
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gtm/delete-task","/dashboard/gtm/delete-task/"})
-    public String removeTask(Principal principal, Model model, @RequestParam int idTask) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String removeTask(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam int idTask) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             TaskEntity task=taskService.findById(new TaskID(idTask,utente.getAzienda().getId_azienda()));
@@ -221,15 +209,14 @@ public class GTMController extends ModuloController {
      * Imposta la data di completamento al momento attuale.
      * </p>
      *
-     * @param principal Identità utente.
+     * @param utenteOpt Utente autenticato, risolto una sola volta per richiesta.
      * @param model     Modello UI.
      * @param idTask    ID del task.
      * @return Redirect con esito.
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gtm/set-as-completato","/dashboard/gtm/set-as-completato/"})
-    public String setAsCompletato(Principal principal, Model model, @RequestParam int idTask) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String setAsCompletato(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @RequestParam int idTask) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             TaskEntity task=taskService.findById(new TaskID(idTask,utente.getAzienda().getId_azienda()));
@@ -247,7 +234,7 @@ public class GTMController extends ModuloController {
      * Aggiorna le relazioni di assegnazione nel database.
      * </p>
      *
-     * @param principal     Identità creatore.
+     * @param utenteOpt     Utente autenticato, risolto una sola volta per richiesta.
      * @param model         Modello UI.
      * @param form          DTO modifiche.
      * @param bindingResult Esito validazione.
@@ -255,8 +242,7 @@ public class GTMController extends ModuloController {
      * @since 1.3.0
      */
     @PostMapping({"/dashboard/gtm/edit-task","/dashboard/gtm/edit-task/"})
-    public String editTask(Principal principal, Model model, @Valid @ModelAttribute("editForm") GTMEditForm form, BindingResult bindingResult) {
-        Optional<UtenteEntity> utenteOpt = customUserDetailsService.findByEmail(principal.getName());
+    public String editTask(@UtenteLoggato Optional<UtenteEntity> utenteOpt, Model model, @Valid @ModelAttribute("editForm") GTMEditForm form, BindingResult bindingResult) {
         if(isAccessibleModulo(utenteOpt)) {
             UtenteEntity utente = utenteOpt.get();
             TaskEntity task=taskService.findById(new TaskID(form.getIdTask(),utente.getAzienda().getId_azienda()));
@@ -280,24 +266,15 @@ public class GTMController extends ModuloController {
             else {
                 if(task.isCompletato()) task.setCompletato(null);
             }
-            Set<AssegnazioneEntity> assegnazioniSet=new HashSet<>();
-            if(form.getMessaggi()!=null) {
-                for(GTMMessage msg:form.getMessaggi()) {
-                    if(msg.getType().equals("utente")) {
-                        try {
-                            assegnazioniSet.add(new AssegnazioneEntity(task, customUserDetailsService.getByID(msg.getId(),utente.getAzienda().getId_azienda())));
-                        } catch (UserNotFoundException e) {
-                            return "redirect:/dashboard/gtm"+Alert.error("Utente non trovato");
-                        }
-                    }
-                    else if(msg.getType().equals("ruolo")) {
-                        List<UtenteEntity> utentiFromRole=associazioneService.getAllByRole(ruoloService.getRoleById(msg.getId(),utente.getAzienda()));
-                        for(UtenteEntity u:utentiFromRole) assegnazioniSet.add(new AssegnazioneEntity(task,u));
-                    }
-                    else {
-                        return "redirect:/dashboard/gtm"+Alert.error("Messaggio non valido");
-                    }
-                }
+            Set<AssegnazioneEntity> assegnazioniSet;
+            try {
+                assegnazioniSet=espandiAssegnazioni(task, form.getMessaggi(), utente.getAzienda().getId_azienda());
+            } catch (UserNotFoundException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Utente non trovato");
+            } catch (RuoloNotFoundException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Ruolo non trovato");
+            } catch (IllegalArgumentException e) {
+                return "redirect:/dashboard/gtm"+Alert.error("Messaggio non valido");
             }
             List<AssegnazioneEntity> newAssignments = new ArrayList<>(assegnazioniSet);
             taskService.update(task.getId_task(), task, newAssignments);
@@ -306,6 +283,38 @@ public class GTMController extends ModuloController {
         else return "redirect:/";
     }
 
+    /**
+     * Risolve gli assegnatari indicati nel form in assegnazioni del task.
+     * <p>
+     * Gli ID utente e gli ID ruolo vengono raccolti e risolti con poche query <code>IN</code>
+     * (una per gli utenti, una per verificare i ruoli, una per i loro membri) invece di una query per messaggio.
+     * Tutte le ricerche sono limitate all'azienda dell'utente autenticato.
+     * </p>
+     *
+     * @param task      Il task a cui assegnare gli utenti.
+     * @param messaggi  Gli assegnatari selezionati (può essere {@code null}).
+     * @param idAzienda L'ID dell'azienda dell'utente autenticato.
+     * @return L'insieme delle assegnazioni, senza duplicati.
+     * @throws UserNotFoundException    Se un utente indicato non esiste nell'azienda.
+     * @throws RuoloNotFoundException   Se un ruolo indicato non esiste nell'azienda.
+     * @throws IllegalArgumentException Se un messaggio ha un tipo non riconosciuto.
+     */
+    private Set<AssegnazioneEntity> espandiAssegnazioni(TaskEntity task, List<GTMMessage> messaggi, int idAzienda) throws UserNotFoundException, RuoloNotFoundException {
+        Set<AssegnazioneEntity> assegnazioniSet=new HashSet<>();
+        if(messaggi==null) return assegnazioniSet;
+        List<Integer> idUtenti=new ArrayList<>();
+        List<Integer> idRuoli=new ArrayList<>();
+        for(GTMMessage msg:messaggi) {
+            if(msg.getType().equals("utente")) idUtenti.add(msg.getId());
+            else if(msg.getType().equals("ruolo")) idRuoli.add(msg.getId());
+            else throw new IllegalArgumentException("Messaggio non valido");
+        }
+        for(UtenteEntity u:customUserDetailsService.getAllUsersFromIDs(idUtenti, idAzienda)) assegnazioniSet.add(new AssegnazioneEntity(task,u));
+        ruoloService.getAllRolesFromIds(idRuoli, idAzienda);
+        for(UtenteEntity u:associazioneService.getAllByRoleIds(idRuoli, idAzienda)) assegnazioniSet.add(new AssegnazioneEntity(task,u));
+        return assegnazioniSet;
+    }
+
     /**
      * Disinstalla il modulo GTM rimuovendo tutti i task associati all'azienda.
      *
@@ -0,0 +1,26 @@
+package com.modulink.Controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotazione per i parametri dei metodi dei Controller che richiedono l'utente autenticato.
+ * <p>
+ * Un parametro di tipo <code>Optional&lt;UtenteEntity&gt;</code> annotato con {@code @UtenteLoggato} viene
+ * valorizzato da {@link UtenteLoggatoResolver} con l'entità dell'utente corrente, risolta una sola volta per
+ * richiesta HTTP e condivisa con {@code GlobalControllerAdvice}. Se la richiesta non è autenticata, o l'utente
+ * non esiste più, il parametro riceve un {@link java.util.Optional#empty()}.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UtenteLoggato {
+}
@@ -0,0 +1,81 @@
+package com.modulink.Controller;
+
+import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * Risolutore degli argomenti annotati con {@link UtenteLoggato}.
+ * <p>
+ * Recupera l'{@link UtenteEntity} dell'utente autenticato tramite {@link CustomUserDetailsService#findByEmail(String)}
+ * alla prima richiesta e lo memorizza come attributo della richiesta HTTP: l'advice globale e il metodo del Controller
+ * condividono così la stessa istanza, con un'unica ricerca per richiesta.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class UtenteLoggatoResolver implements HandlerMethodArgumentResolver {
+
+    /**
+     * Nome dell'attributo di richiesta in cui viene memorizzato l'utente risolto.
+     */
+    private static final String ATTRIBUTE = UtenteLoggatoResolver.class.getName() + ".UTENTE";
+
+    private final CustomUserDetailsService customUserDetailsService;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param customUserDetailsService Servizio per il recupero degli utenti.
+     * @since 3.7.0
+     */
+    public UtenteLoggatoResolver(CustomUserDetailsService customUserDetailsService) {
+        this.customUserDetailsService = customUserDetailsService;
+    }
+
+    /**
+     * Supporta i parametri di tipo {@link Optional} annotati con {@link UtenteLoggato}.
+     *
+     * @param parameter Il parametro del metodo.
+     * @return {@code true} se il parametro è gestito da questo risolutore.
+     * @since 3.7.0
+     */
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(UtenteLoggato.class) && Optional.class.equals(parameter.getParameterType());
+    }
+
+    /**
+     * Restituisce l'utente autenticato della richiesta corrente, riutilizzando il valore già risolto
+     * nella stessa richiesta se presente.
+     *
+     * @param parameter     Il parametro del metodo.
+     * @param mavContainer  Il contenitore model/view.
+     * @param webRequest    La richiesta corrente.
+     * @param binderFactory La factory dei binder.
+     * @return Un {@link Optional} contenente l'utente, vuoto se non autenticato.
+     * @since 3.7.0
+     */
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached != null) return cached;
+
+        Principal principal = webRequest.getUserPrincipal();
+        Optional<UtenteEntity> utente = principal == null ? Optional.empty() : customUserDetailsService.findByEmail(principal.getName());
+        webRequest.setAttribute(ATTRIBUTE, utente, RequestAttributes.SCOPE_REQUEST);
+        return utente;
+    }
+}
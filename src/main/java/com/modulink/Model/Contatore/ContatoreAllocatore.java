@@ -0,0 +1,78 @@
+package com.modulink.Model.Contatore;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Componente che riserva blocchi di identificativi aggiornando la tabella dei contatori.
+ * <p>
+ * Ogni riserva viene eseguita in una transazione dedicata ({@link Propagation#REQUIRES_NEW}) e committata subito:
+ * il lock sulla riga del contatore resta attivo solo per la durata dell'incremento e un eventuale rollback della
+ * transazione chiamante non può rimettere in circolo ID già consegnati (al più produce buchi nella numerazione).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class ContatoreAllocatore {
+
+    private final ContatoreRepository contatoreRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param contatoreRepository Repository dei contatori.
+     * @since 3.7.0
+     */
+    public ContatoreAllocatore(ContatoreRepository contatoreRepository) {
+        this.contatoreRepository = contatoreRepository;
+    }
+
+    /**
+     * Riserva un blocco di ID consecutivi per l'azienda e il tipo indicati.
+     * <p>
+     * Se il contatore non esiste ancora viene creato partendo dall'ID massimo già presente nella tabella
+     * dell'entità (query {@link TipoContatore#getQueryMax()}), così i record preesistenti non vengono mai sovrascritti.
+     * </p>
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param tipo       Il tipo di entità.
+     * @param dimensione Il numero di ID da riservare.
+     * @return Il primo ID del blocco riservato; il blocco copre l'intervallo <code>[inizio, inizio + dimensione)</code>.
+     * @since 3.7.0
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int riservaBlocco(int idAzienda, TipoContatore tipo, int dimensione) {
+        ContatoreEntity contatore = contatoreRepository.findForUpdate(idAzienda, tipo).orElse(null);
+        if (contatore == null) {
+            int inizio = primoIdLibero(idAzienda, tipo);
+            contatoreRepository.saveAndFlush(new ContatoreEntity(idAzienda, tipo, inizio + dimensione));
+            return inizio;
+        }
+        int inizio = contatore.getProssimoId();
+        contatore.setProssimoId(inizio + dimensione);
+        return inizio;
+    }
+
+    /**
+     * Calcola il primo ID libero a partire dai record già presenti per l'azienda.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param tipo      Il tipo di entità.
+     * @return Il primo ID assegnabile.
+     */
+    private int primoIdLibero(int idAzienda, TipoContatore tipo) {
+        Integer max = entityManager.createQuery(tipo.getQueryMax(), Integer.class)
+                .setParameter("idAzienda", idAzienda)
+                .getSingleResult();
+        return max == null ? tipo.getPrimoId() : Math.max(max + 1, tipo.getPrimoId());
+    }
+}
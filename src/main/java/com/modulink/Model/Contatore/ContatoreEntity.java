@@ -0,0 +1,110 @@
+package com.modulink.Model.Contatore;
+
+import jakarta.persistence.*;
+
+/**
+ * Rappresenta l'entità di persistenza dei contatori di identificativi per tenant.
+ * <p>
+ * Questa classe mappa la tabella <code>contatore_id</code>: per ogni coppia (azienda, tipo di entità) memorizza
+ * il primo ID non ancora riservato. Il {@link ContatoreService} incrementa il valore a blocchi (strategia hi/lo),
+ * per cui la riga viene letta e aggiornata solo una volta ogni {@code dimensione blocco} inserimenti.
+ * </p>
+ * <p>
+ * La tabella non ha vincoli di Foreign Key verso l'azienda: la riga viene creata in una transazione separata,
+ * che potrebbe non vedere un'azienda appena inserita e non ancora committata.
+ * </p>
+ *
+ * @see ContatoreID
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Entity
+@IdClass(ContatoreID.class)
+@Table(name = "contatore_id", schema = "modulink")
+public class ContatoreEntity {
+
+    /**
+     * Identificativo dell'azienda a cui appartiene la sequenza.
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @Column(name = "id_azienda", nullable = false)
+    private int id_azienda;
+
+    /**
+     * Tipo di entità numerata dalla sequenza.
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 20)
+    private TipoContatore tipo;
+
+    /**
+     * Primo ID non ancora riservato da alcun blocco.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "prossimo_id", nullable = false)
+    private int prossimoId;
+
+    /**
+     * Costruttore vuoto richiesto da JPA.
+     *
+     * @since 3.7.0
+     */
+    public ContatoreEntity() {}
+
+    /**
+     * Costruttore completo.
+     *
+     * @param id_azienda ID dell'azienda.
+     * @param tipo       Tipo di entità.
+     * @param prossimoId Primo ID non ancora riservato.
+     * @since 3.7.0
+     */
+    public ContatoreEntity(int id_azienda, TipoContatore tipo, int prossimoId) {
+        this.id_azienda = id_azienda;
+        this.tipo = tipo;
+        this.prossimoId = prossimoId;
+    }
+
+    /**
+     * Restituisce l'ID dell'azienda.
+     * @return ID azienda.
+     * @since 3.7.0
+     */
+    public int getId_azienda() {
+        return id_azienda;
+    }
+
+    /**
+     * Restituisce il tipo di entità.
+     * @return Tipo di contatore.
+     * @since 3.7.0
+     */
+    public TipoContatore getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Restituisce il primo ID non ancora riservato.
+     * @return Prossimo ID.
+     * @since 3.7.0
+     */
+    public int getProssimoId() {
+        return prossimoId;
+    }
+
+    /**
+     * Imposta il primo ID non ancora riservato.
+     * @param prossimoId Nuovo valore.
+     * @since 3.7.0
+     */
+    public void setProssimoId(int prossimoId) {
+        this.prossimoId = prossimoId;
+    }
+}
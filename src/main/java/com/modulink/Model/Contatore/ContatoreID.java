@@ -0,0 +1,113 @@
+package com.modulink.Model.Contatore;
+
+import java.util.Objects;
+
+/**
+ * Classe che definisce la struttura della chiave primaria composta per l'entità {@link ContatoreEntity}.
+ * <p>
+ * Combina l'identificativo dell'azienda e il tipo di entità numerata, così ogni tenant dispone di una
+ * sequenza indipendente per ciascun tipo.
+ * </p>
+ *
+ * @see ContatoreEntity
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class ContatoreID {
+
+    /**
+     * Identificativo dell'azienda.
+     *
+     * @since 3.7.0
+     */
+    private int id_azienda;
+
+    /**
+     * Tipo di entità numerata.
+     *
+     * @since 3.7.0
+     */
+    private TipoContatore tipo;
+
+    /**
+     * Costruttore di default.
+     * Necessario per l'istanziazione tramite reflection da parte del provider di persistenza.
+     *
+     * @since 3.7.0
+     */
+    public ContatoreID() {}
+
+    /**
+     * Costruttore completo per la creazione di istanze della chiave.
+     *
+     * @param id_azienda ID numerico dell'azienda.
+     * @param tipo       Tipo di entità numerata.
+     * @since 3.7.0
+     */
+    public ContatoreID(int id_azienda, TipoContatore tipo) {
+        this.id_azienda = id_azienda;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Recupera l'ID dell'azienda.
+     * @return Intero ID azienda.
+     * @since 3.7.0
+     */
+    public int getId_azienda() {
+        return id_azienda;
+    }
+
+    /**
+     * Imposta l'ID dell'azienda.
+     * @param id_azienda Nuovo ID azienda.
+     * @since 3.7.0
+     */
+    public void setId_azienda(int id_azienda) {
+        this.id_azienda = id_azienda;
+    }
+
+    /**
+     * Recupera il tipo di entità numerata.
+     * @return Il tipo di contatore.
+     * @since 3.7.0
+     */
+    public TipoContatore getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Imposta il tipo di entità numerata.
+     * @param tipo Nuovo tipo.
+     * @since 3.7.0
+     */
+    public void setTipo(TipoContatore tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Verifica l'uguaglianza logica tra due chiavi composte.
+     *
+     * @param o L'oggetto da confrontare.
+     * @return <code>true</code> se azienda e tipo coincidono, <code>false</code> altrimenti.
+     * @since 3.7.0
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        ContatoreID that = (ContatoreID) o;
+        return id_azienda == that.id_azienda && tipo == that.tipo;
+    }
+
+    /**
+     * Calcola l'hash code della chiave composta.
+     *
+     * @return Valore intero dell'hash.
+     * @since 3.7.0
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id_azienda, tipo);
+    }
+}
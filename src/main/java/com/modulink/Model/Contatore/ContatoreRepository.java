@@ -0,0 +1,35 @@
+package com.modulink.Model.Contatore;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+/**
+ * Repository JPA per la gestione dell'entità {@link ContatoreEntity}.
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface ContatoreRepository extends JpaRepository<ContatoreEntity, ContatoreID> {
+
+    /**
+     * Legge il contatore acquisendo un lock esclusivo sulla riga (<code>SELECT ... FOR UPDATE</code>).
+     * <p>
+     * Il lock serializza le riserve di blocchi concorrenti (anche tra più istanze dell'applicazione)
+     * fino al commit della transazione chiamante.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param tipo      Il tipo di entità.
+     * @return Il contatore, se già inizializzato.
+     * @since 3.7.0
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContatoreEntity c WHERE c.id_azienda = :idAzienda AND c.tipo = :tipo")
+    Optional<ContatoreEntity> findForUpdate(@Param("idAzienda") int idAzienda, @Param("tipo") TipoContatore tipo);
+}
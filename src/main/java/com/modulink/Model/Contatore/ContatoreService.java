@@ -0,0 +1,120 @@
+package com.modulink.Model.Contatore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service Layer per l'assegnazione degli identificativi locali delle entità multi-tenant.
+ * <p>
+ * Sostituisce il calcolo <code>MAX(id) + 1</code> eseguito a ogni inserimento, che scandiva i record dell'azienda
+ * e consentiva a due inserimenti concorrenti di ottenere lo stesso ID. Gli ID vengono ora distribuiti da una
+ * sequenza per coppia (azienda, {@link TipoContatore}) persistita nella tabella <code>contatore_id</code>,
+ * secondo la strategia <strong>hi/lo</strong>: il {@link ContatoreAllocatore} riserva un blocco di ID alla volta
+ * e il blocco viene consumato in memoria, per cui la maggior parte degli inserimenti non accede al database.
+ * </p>
+ * <p>
+ * La dimensione del blocco è configurabile con la proprietà <code>modulink.id.block-size</code>. Gli ID riservati
+ * e non consumati (es. al riavvio dell'applicazione) vengono scartati: la numerazione resta univoca e crescente,
+ * ma può presentare buchi.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.1.0
+ * @since 3.7.0
+ */
+@Service
+public class ContatoreService {
+
+    private final ContatoreAllocatore contatoreAllocatore;
+    private final int dimensioneBlocco;
+
+    /**
+     * Blocchi di ID in corso di consumo, uno per coppia (azienda, tipo).
+     */
+    private final Map<ContatoreID, Blocco> blocchi = new ConcurrentHashMap<>();
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param contatoreAllocatore Componente che riserva i blocchi sul database.
+     * @param dimensioneBlocco    Numero di ID riservati a ogni accesso al database.
+     * @since 3.7.0
+     */
+    public ContatoreService(ContatoreAllocatore contatoreAllocatore, @Value("${modulink.id.block-size:20}") int dimensioneBlocco) {
+        if (dimensioneBlocco < 1) throw new IllegalArgumentException("La dimensione del blocco deve essere positiva");
+        this.contatoreAllocatore = contatoreAllocatore;
+        this.dimensioneBlocco = dimensioneBlocco;
+    }
+
+    /**
+     * Restituisce il prossimo ID libero per l'azienda e il tipo indicati.
+     * <p>
+     * Thread-safe: le richieste sulla stessa coppia (azienda, tipo) sono serializzate sul relativo blocco,
+     * mentre aziende e tipi diversi procedono in parallelo.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param tipo      Il tipo di entità da numerare.
+     * @return Un ID mai assegnato in precedenza.
+     * @since 3.7.0
+     */
+    public int prossimoId(int idAzienda, TipoContatore tipo) {
+        Blocco blocco = blocchi.computeIfAbsent(new ContatoreID(idAzienda, tipo), k -> new Blocco());
+        synchronized (blocco) {
+            if (blocco.prossimo >= blocco.limite) {
+                int inizio = riservaBlocco(idAzienda, tipo, dimensioneBlocco);
+                blocco.prossimo = inizio;
+                blocco.limite = inizio + dimensioneBlocco;
+            }
+            return blocco.prossimo++;
+        }
+    }
+
+    /**
+     * Riserva un intervallo di ID consecutivi per un inserimento massivo.
+     * <p>
+     * L'intervallo viene preso direttamente dal contatore sul database, senza passare dal blocco in memoria:
+     * un'importazione di migliaia di record richiede un solo accesso al contatore per lotto e non consuma
+     * gli ID destinati agli inserimenti singoli.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param tipo      Il tipo di entità da numerare.
+     * @param quantita  Il numero di ID da riservare.
+     * @return Il primo ID dell'intervallo <code>[inizio, inizio + quantita)</code>.
+     * @throws IllegalArgumentException se la quantità non è positiva.
+     * @since 3.7.0
+     */
+    public int riservaIntervallo(int idAzienda, TipoContatore tipo, int quantita) {
+        if (quantita < 1) throw new IllegalArgumentException("Il numero di ID da riservare deve essere positivo");
+        return riservaBlocco(idAzienda, tipo, quantita);
+    }
+
+    /**
+     * Riserva un nuovo blocco, ritentando una volta se un'altra istanza ha creato il contatore in concorrenza.
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param tipo       Il tipo di entità.
+     * @param dimensione Il numero di ID da riservare.
+     * @return Il primo ID del blocco.
+     */
+    private int riservaBlocco(int idAzienda, TipoContatore tipo, int dimensione) {
+        try {
+            return contatoreAllocatore.riservaBlocco(idAzienda, tipo, dimensione);
+        } catch (DataIntegrityViolationException e) {
+            return contatoreAllocatore.riservaBlocco(idAzienda, tipo, dimensione);
+        }
+    }
+
+    /**
+     * Intervallo di ID riservato e non ancora consumato: <code>[prossimo, limite)</code>.
+     */
+    private static final class Blocco {
+        private int prossimo;
+        private int limite;
+    }
+}
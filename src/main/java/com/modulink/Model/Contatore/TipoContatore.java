@@ -0,0 +1,69 @@
+package com.modulink.Model.Contatore;
+
+/**
+ * Enumerazione delle entità multi-tenant i cui identificativi locali vengono assegnati dal {@link ContatoreService}.
+ * <p>
+ * Ogni tipo dichiara il primo ID assegnabile in un'azienda priva di record e la query JPQL usata, una sola volta
+ * per coppia (azienda, tipo), per inizializzare il contatore a partire dai dati già presenti (es. record inseriti
+ * dal populator o antecedenti all'introduzione dei contatori).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public enum TipoContatore {
+
+    /**
+     * Utenti: la numerazione parte da 1.
+     */
+    UTENTE(1, "SELECT MAX(u.id_utente) FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda"),
+
+    /**
+     * Ruoli: gli ID 0-2 sono riservati ai ruoli di sistema creati da <code>RuoloService.attivazioneDefault</code>.
+     */
+    RUOLO(3, "SELECT MAX(r.id_ruolo) FROM RuoloEntity r WHERE r.azienda.id_azienda = :idAzienda"),
+
+    /**
+     * Task: la numerazione parte da 0.
+     */
+    TASK(0, "SELECT MAX(t.id_task) FROM TaskEntity t WHERE t.azienda.id_azienda = :idAzienda"),
+
+    /**
+     * Eventi del calendario: la numerazione parte da 0.
+     */
+    EVENTO(0, "SELECT MAX(e.id_evento) FROM EventoEntity e WHERE e.azienda.id_azienda = :idAzienda"),
+
+    /**
+     * Prodotti di magazzino: la numerazione parte da 0.
+     */
+    PRODOTTO(0, "SELECT MAX(p.id_prodotto) FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda");
+
+    private final int primoId;
+    private final String queryMax;
+
+    TipoContatore(int primoId, String queryMax) {
+        this.primoId = primoId;
+        this.queryMax = queryMax;
+    }
+
+    /**
+     * Restituisce il primo ID assegnabile quando l'azienda non possiede ancora record di questo tipo.
+     *
+     * @return Il primo ID.
+     * @since 3.7.0
+     */
+    public int getPrimoId() {
+        return primoId;
+    }
+
+    /**
+     * Restituisce la query JPQL (parametro <code>idAzienda</code>) che calcola l'ID massimo già in uso.
+     *
+     * @return La query di inizializzazione.
+     * @since 3.7.0
+     */
+    public String getQueryMax() {
+        return queryMax;
+    }
+}
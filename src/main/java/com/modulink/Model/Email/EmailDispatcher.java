@@ -0,0 +1,239 @@
+package com.modulink.Model.Email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Componente responsabile della consegna dei messaggi accodati nella tabella <code>email_outbox</code>.
+ * <p>
+ * I messaggi vengono estratti a blocchi (<code>modulink.mail.outbox.batch-size</code>) e consegnati con una singola
+ * chiamata {@link JavaMailSenderImpl#send(SimpleMailMessage...)}, che riutilizza la stessa connessione SMTP
+ * (e la stessa sessione TLS) per tutto il blocco. I messaggi consegnati vengono rimossi dall'outbox, quelli
+ * rifiutati vengono ripianificati con backoff esponenziale fino a <code>modulink.mail.retry.max-attempts</code>.
+ * </p>
+ * <p>
+ * La consegna parte subito dopo il commit di ogni nuovo messaggio ({@link #sollecita()}, eseguita sull'executor
+ * <code>mailExecutor</code>) e, come rete di sicurezza, periodicamente: così anche i messaggi rimasti in coda
+ * a un riavvio o a un disservizio del relay vengono consegnati. Una sola consegna alla volta è attiva per istanza;
+ * tra istanze diverse ogni blocco viene prima riservato tramite {@link EmailOutboxPrenotazione}, così nessun
+ * messaggio viene estratto e inviato da due istanze.
+ * </p>
+ * <p>
+ * I messaggi abbandonati, già privati del corpo, vengono eliminati periodicamente dopo
+ * <code>modulink.mail.outbox.retention</code> ({@link #pulisciAbbandonati()}).
+ * </p>
+ * <p>
+ * Metriche Micrometer pubblicate: <code>modulink.mail.batch</code> (durata di ogni blocco),
+ * <code>modulink.mail.delivered</code>, <code>modulink.mail.failures</code> e
+ * <code>modulink.mail.outbox.pending</code> (messaggi in attesa).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class EmailDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxPrenotazione emailOutboxPrenotazione;
+    private final JavaMailSenderImpl mailSender;
+    private final Executor mailExecutor;
+    private final int dimensioneBatch;
+    private final int maxTentativi;
+    private final long backoffMs;
+    private final Duration conservazione;
+
+    /**
+     * Garantisce che una sola consegna alla volta sia attiva.
+     */
+    private final ReentrantLock consegnaInCorso = new ReentrantLock();
+
+    /**
+     * Indica che sono stati accodati nuovi messaggi dopo l'ultima estrazione.
+     */
+    private final AtomicBoolean sollecitato = new AtomicBoolean();
+
+    private final Timer durataBatch;
+    private final Counter consegnati;
+    private final Counter falliti;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param emailOutboxRepository Repository dell'outbox.
+     * @param emailOutboxPrenotazione Componente che riserva i messaggi da consegnare.
+     * @param mailSender            Il client SMTP.
+     * @param mailExecutor          Executor su cui eseguire le consegne sollecitate.
+     * @param meterRegistry         Il registro delle metriche applicative.
+     * @param dimensioneBatch       Numero massimo di messaggi consegnati per connessione.
+     * @param maxTentativi          Numero massimo di tentativi per messaggio.
+     * @param backoffMs             Attesa dopo il primo fallimento, in millisecondi.
+     * @param conservazione         Tempo per cui i messaggi abbandonati restano in outbox a fini di diagnosi.
+     * @throws IllegalArgumentException se i parametri di consegna non sono validi.
+     * @since 3.7.0
+     */
+    public EmailDispatcher(EmailOutboxRepository emailOutboxRepository, EmailOutboxPrenotazione emailOutboxPrenotazione,
+                           JavaMailSenderImpl mailSender,
+                           @Qualifier("mailExecutor") Executor mailExecutor, MeterRegistry meterRegistry,
+                           @Value("${modulink.mail.outbox.batch-size:50}") int dimensioneBatch,
+                           @Value("${modulink.mail.retry.max-attempts:8}") int maxTentativi,
+                           @Value("${modulink.mail.retry.backoff-ms:30000}") long backoffMs,
+                           @Value("${modulink.mail.outbox.retention:7d}") Duration conservazione) {
+        if (dimensioneBatch < 1 || maxTentativi < 1 || backoffMs < 0 || conservazione.isNegative()) {
+            throw new IllegalArgumentException("Parametri di consegna email non validi");
+        }
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxPrenotazione = emailOutboxPrenotazione;
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.dimensioneBatch = dimensioneBatch;
+        this.maxTentativi = maxTentativi;
+        this.backoffMs = backoffMs;
+        this.conservazione = conservazione;
+        this.durataBatch = Timer.builder("modulink.mail.batch").register(meterRegistry);
+        this.consegnati = Counter.builder("modulink.mail.delivered").register(meterRegistry);
+        this.falliti = Counter.builder("modulink.mail.failures").register(meterRegistry);
+        Gauge.builder("modulink.mail.outbox.pending", emailOutboxRepository, EmailOutboxRepository::countInAttesa)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Richiede una consegna asincrona dei messaggi in outbox.
+     * <p>
+     * Le richieste ravvicinate vengono accorpate: finché una consegna sollecitata è in attesa di esecuzione
+     * non ne viene pianificata un'altra. Se l'executor rifiuta il task il sollecito viene scartato:
+     * i messaggi restano in outbox e vengono consegnati dalla consegna periodica.
+     * </p>
+     *
+     * @since 3.7.0
+     */
+    public void sollecita() {
+        if (sollecitato.compareAndSet(false, true)) {
+            try {
+                mailExecutor.execute(this::consegna);
+            } catch (RejectedExecutionException e) {
+                sollecitato.set(false);
+                System.err.println("Sollecito di consegna email scartato (executor saturo): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Consegna periodica dei messaggi in attesa, inclusi quelli rimasti in coda a un riavvio.
+     *
+     * @since 3.7.0
+     */
+    @Scheduled(fixedDelayString = "${modulink.mail.outbox.poll-interval-ms:30000}", initialDelayString = "${modulink.mail.outbox.poll-interval-ms:30000}")
+    public void consegnaPeriodica() {
+        consegna();
+    }
+
+    /**
+     * Elimina i messaggi abbandonati da più di <code>modulink.mail.outbox.retention</code>.
+     *
+     * @since 3.7.0
+     */
+    @Scheduled(fixedDelayString = "${modulink.mail.outbox.cleanup-interval-ms:3600000}", initialDelayString = "${modulink.mail.outbox.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void pulisciAbbandonati() {
+        int eliminati = emailOutboxRepository.deleteAbbandonatiPrimaDi(LocalDateTime.now().minus(conservazione));
+        if (eliminati > 0) System.err.println("Eliminate dall'outbox " + eliminati + " email abbandonate");
+    }
+
+    /**
+     * Consegna tutti i messaggi dovuti, un blocco alla volta.
+     * <p>
+     * Se un'altra consegna è già in corso il metodo ritorna subito: sarà quella consegna a estrarre
+     * anche i messaggi accodati nel frattempo.
+     * </p>
+     *
+     * @since 3.7.0
+     */
+    public void consegna() {
+        while (consegnaInCorso.tryLock()) {
+            try {
+                sollecitato.set(false);
+                while (consegnaBatch()) {
+                    // prosegue finché i blocchi sono pieni e consegnati senza errori
+                }
+            } finally {
+                consegnaInCorso.unlock();
+            }
+            if (!sollecitato.get()) return;
+        }
+    }
+
+    /**
+     * Riserva e consegna un singolo blocco di messaggi su un'unica connessione SMTP.
+     * <p>
+     * Solo i messaggi riservati da questa istanza vengono inviati; gli esiti vengono registrati dopo l'invio,
+     * sostituendo la prenotazione (rimozione o ripianificazione).
+     * </p>
+     *
+     * @return {@code true} se il blocco era pieno e interamente consegnato, quindi potrebbero esserci altri messaggi.
+     */
+    private boolean consegnaBatch() {
+        List<EmailOutboxEntity> batch = emailOutboxPrenotazione.prenota(dimensioneBatch);
+        if (batch.isEmpty()) return false;
+
+        SimpleMailMessage[] messaggi = batch.stream().map(EmailOutboxEntity::toMessage).toArray(SimpleMailMessage[]::new);
+        Map<Object, Exception> errori;
+        MailException erroreGlobale = null;
+        long inizio = System.nanoTime();
+        try {
+            mailSender.send(messaggi);
+            errori = Map.of();
+        } catch (MailSendException e) {
+            errori = e.getFailedMessages();
+            if (errori.isEmpty()) erroreGlobale = e;
+        } catch (MailException e) {
+            errori = Map.of();
+            erroreGlobale = e;
+        }
+        durataBatch.record(System.nanoTime() - inizio, TimeUnit.NANOSECONDS);
+
+        List<EmailOutboxEntity> inviati = new ArrayList<>();
+        List<EmailOutboxEntity> respinti = new ArrayList<>();
+        for (int i = 0; i < messaggi.length; i++) {
+            Exception errore = erroreGlobale != null ? erroreGlobale : errori.get(messaggi[i]);
+            EmailOutboxEntity riga = batch.get(i);
+            if (errore == null) {
+                inviati.add(riga);
+            } else {
+                riga.registraFallimento(errore.getMessage(), maxTentativi, backoffMs);
+                if (riga.getProssimo_tentativo() == null) {
+                    System.err.println("Email " + riga.getId() + " abbandonata dopo " + riga.getTentativi() + " tentativi: " + errore.getMessage());
+                }
+                respinti.add(riga);
+            }
+        }
+        if (!inviati.isEmpty()) emailOutboxRepository.deleteAllInBatch(inviati);
+        if (!respinti.isEmpty()) emailOutboxRepository.saveAll(respinti);
+        consegnati.increment(inviati.size());
+        falliti.increment(respinti.size());
+        return respinti.isEmpty() && batch.size() == dimensioneBatch;
+    }
+}
@@ -0,0 +1,238 @@
+package com.modulink.Model.Email;
+
+import jakarta.persistence.*;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Rappresenta un messaggio email in attesa di consegna (pattern <strong>Transactional Outbox</strong>).
+ * <p>
+ * Questa entità mappa la tabella <code>email_outbox</code>: ogni email transazionale (OTP, credenziali di benvenuto,
+ * conferma di registrazione) viene prima scritta qui, nella stessa transazione che modifica l'utente, e solo
+ * successivamente consegnata dall'{@link EmailDispatcher}. In questo modo un riavvio dell'applicazione o un
+ * disservizio del relay SMTP non comportano la perdita del messaggio.
+ * </p>
+ * <p>
+ * Le righe consegnate vengono eliminate. Le righe che esauriscono i tentativi restano in tabella con
+ * <code>prossimo_tentativo</code> a {@code null} e l'ultimo errore ricevuto, a fini di diagnosi, per
+ * <code>modulink.mail.outbox.retention</code>. Il corpo, che può contenere credenziali temporanee o codici OTP,
+ * viene cancellato nel momento in cui il messaggio è abbandonato: restano solo destinatari, oggetto ed errore.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Entity
+@Table(name = "email_outbox", schema = "modulink", indexes = @Index(name = "idx_email_outbox_prossimo_tentativo", columnList = "prossimo_tentativo"))
+public class EmailOutboxEntity {
+
+    /**
+     * Separatore dei destinatari multipli nella colonna <code>destinatari</code>.
+     */
+    private static final String SEPARATORE = ",";
+
+    /**
+     * Identificativo univoco del messaggio, crescente nell'ordine di accodamento.
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private long id;
+
+    /**
+     * Indirizzo del mittente.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "mittente", length = 320)
+    private String mittente;
+
+    /**
+     * Indirizzi dei destinatari, separati da virgola.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "destinatari", nullable = false, length = 2000)
+    private String destinatari;
+
+    /**
+     * Oggetto del messaggio.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "oggetto", length = 500)
+    private String oggetto;
+
+    /**
+     * Corpo testuale del messaggio.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "corpo", length = 10000)
+    private String corpo;
+
+    /**
+     * Numero di tentativi di consegna falliti.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "tentativi", nullable = false)
+    private int tentativi;
+
+    /**
+     * Istante a partire dal quale il messaggio può essere (ri)consegnato; {@code null} se abbandonato.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "prossimo_tentativo")
+    private LocalDateTime prossimo_tentativo;
+
+    /**
+     * Descrizione dell'ultimo errore di consegna.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "ultimo_errore", length = 1000)
+    private String ultimo_errore;
+
+    /**
+     * Istante in cui il messaggio è stato abbandonato, {@code null} finché è in coda.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "abbandonato_il")
+    private LocalDateTime abbandonato_il;
+
+    /**
+     * Costruttore predefinito (No-Args) necessario per la riflessione JPA.
+     *
+     * @since 3.7.0
+     */
+    public EmailOutboxEntity() {}
+
+    /**
+     * Costruisce la riga di outbox a partire da un messaggio da inviare, pronto per la consegna immediata.
+     *
+     * @param message Il messaggio da accodare.
+     * @throws IllegalArgumentException se il messaggio non ha destinatari.
+     * @since 3.7.0
+     */
+    public EmailOutboxEntity(SimpleMailMessage message) {
+        if (message.getTo() == null || message.getTo().length == 0) {
+            throw new IllegalArgumentException("Il messaggio non ha destinatari");
+        }
+        this.mittente = message.getFrom();
+        this.destinatari = String.join(SEPARATORE, message.getTo());
+        this.oggetto = message.getSubject();
+        this.corpo = message.getText();
+        this.tentativi = 0;
+        this.prossimo_tentativo = LocalDateTime.now();
+    }
+
+    /**
+     * Ricostruisce il messaggio SMTP da consegnare.
+     *
+     * @return Un nuovo {@link SimpleMailMessage} con i dati della riga.
+     * @since 3.7.0
+     */
+    public SimpleMailMessage toMessage() {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(mittente);
+        message.setTo(destinatari.split(SEPARATORE));
+        message.setSubject(oggetto);
+        message.setText(corpo);
+        return message;
+    }
+
+    /**
+     * Riserva il messaggio per la consegna da parte dell'istanza corrente.
+     * <p>
+     * Il prossimo tentativo viene spostato alla scadenza della prenotazione: finché non scade, il messaggio non è
+     * visibile alle altre istanze. Se l'istanza si arresta prima di consegnarlo, il messaggio torna disponibile
+     * alla scadenza.
+     * </p>
+     *
+     * @param scadenza Istante fino al quale il messaggio resta riservato.
+     * @since 3.7.0
+     */
+    public void prenota(LocalDateTime scadenza) {
+        this.prossimo_tentativo = scadenza;
+    }
+
+    /**
+     * Registra un tentativo di consegna fallito.
+     * <p>
+     * Se i tentativi raggiungono il massimo il messaggio viene abbandonato e il suo corpo cancellato,
+     * altrimenti viene ripianificato con un'attesa che raddoppia a ogni fallimento.
+     * </p>
+     *
+     * @param errore       Descrizione dell'errore ricevuto.
+     * @param maxTentativi Numero massimo di tentativi.
+     * @param backoffMs    Attesa dopo il primo fallimento, in millisecondi.
+     * @since 3.7.0
+     */
+    public void registraFallimento(String errore, int maxTentativi, long backoffMs) {
+        this.tentativi++;
+        this.ultimo_errore = errore == null || errore.length() <= 1000 ? errore : errore.substring(0, 1000);
+        if (tentativi >= maxTentativi) {
+            this.prossimo_tentativo = null;
+            this.abbandonato_il = LocalDateTime.now();
+            this.corpo = null;
+        } else {
+            this.prossimo_tentativo = LocalDateTime.now().plus(Duration.ofMillis(backoffMs).multipliedBy(1L << Math.min(tentativi - 1, 16)));
+        }
+    }
+
+    /**
+     * @return L'ID del messaggio.
+     * @since 3.7.0
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return Il numero di tentativi falliti.
+     * @since 3.7.0
+     */
+    public int getTentativi() {
+        return tentativi;
+    }
+
+    /**
+     * @return L'istante del prossimo tentativo, o {@code null} se il messaggio è stato abbandonato.
+     * @since 3.7.0
+     */
+    public LocalDateTime getProssimo_tentativo() {
+        return prossimo_tentativo;
+    }
+
+    /**
+     * @return L'ultimo errore di consegna.
+     * @since 3.7.0
+     */
+    public String getUltimo_errore() {
+        return ultimo_errore;
+    }
+
+    /**
+     * @return Il corpo del messaggio, {@code null} se il messaggio è stato abbandonato.
+     * @since 3.7.0
+     */
+    public String getCorpo() {
+        return corpo;
+    }
+
+    /**
+     * @return L'istante in cui il messaggio è stato abbandonato, o {@code null} se è ancora in coda.
+     * @since 3.7.0
+     */
+    public LocalDateTime getAbbandonato_il() {
+        return abbandonato_il;
+    }
+}
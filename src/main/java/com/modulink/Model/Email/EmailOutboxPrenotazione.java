@@ -0,0 +1,66 @@
+package com.modulink.Model.Email;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Componente che riserva i messaggi dell'outbox prima della consegna.
+ * <p>
+ * La consegna periodica è attiva su ogni istanza dell'applicazione: senza una prenotazione due istanze (o due
+ * consegne sovrapposte sulla stessa istanza) potrebbero estrarre le stesse righe e inviare due volte lo stesso
+ * messaggio. Ogni prenotazione viene eseguita in una transazione dedicata ({@link Propagation#REQUIRES_NEW}) e
+ * committata subito: le righe dovute vengono bloccate (saltando quelle già bloccate da altre istanze) e il loro
+ * prossimo tentativo viene spostato di <code>modulink.mail.outbox.lease</code>, così restano riservate all'istanza
+ * corrente per tutta la durata dell'invio SMTP senza tenere aperti lock sul database.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class EmailOutboxPrenotazione {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final Duration durataPrenotazione;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param emailOutboxRepository Repository dell'outbox.
+     * @param durataPrenotazione    Tempo per cui un messaggio resta riservato all'istanza che lo consegna.
+     * @throws IllegalArgumentException se la durata non è positiva.
+     * @since 3.7.0
+     */
+    public EmailOutboxPrenotazione(EmailOutboxRepository emailOutboxRepository,
+                                   @Value("${modulink.mail.outbox.lease:5m}") Duration durataPrenotazione) {
+        if (durataPrenotazione.isNegative() || durataPrenotazione.isZero()) {
+            throw new IllegalArgumentException("La durata della prenotazione dei messaggi deve essere positiva");
+        }
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.durataPrenotazione = durataPrenotazione;
+    }
+
+    /**
+     * Riserva fino a {@code limite} messaggi dovuti, in ordine di accodamento.
+     *
+     * @param limite Numero massimo di messaggi da riservare.
+     * @return I messaggi riservati all'istanza corrente.
+     * @since 3.7.0
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<EmailOutboxEntity> prenota(int limite) {
+        LocalDateTime adesso = LocalDateTime.now();
+        List<EmailOutboxEntity> righe = emailOutboxRepository.findDaConsegnare(adesso, Limit.of(limite));
+        LocalDateTime scadenza = adesso.plus(durataPrenotazione);
+        righe.forEach(riga -> riga.prenota(scadenza));
+        return righe;
+    }
+}
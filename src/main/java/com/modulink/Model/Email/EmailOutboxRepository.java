@@ -0,0 +1,66 @@
+package com.modulink.Model.Email;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaccia DAO per la gestione della persistenza dei messaggi in outbox.
+ * <p>
+ * Estende {@link JpaRepository} per le operazioni CRUD sull'entità {@link EmailOutboxEntity} e aggiunge
+ * l'estrazione ordinata dei messaggi pronti per la consegna, servita dall'indice su <code>prossimo_tentativo</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, Long> {
+
+    /**
+     * Recupera e blocca i messaggi la cui consegna è dovuta, in ordine di accodamento.
+     * <p>
+     * I messaggi abbandonati (<code>prossimo_tentativo</code> nullo) sono esclusi. Le righe vengono lette con
+     * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>: le righe già bloccate da un'altra istanza vengono saltate
+     * invece di attenderne il rilascio. Va invocato in una transazione ({@link EmailOutboxPrenotazione}).
+     * </p>
+     *
+     * @param adesso L'istante di riferimento.
+     * @param limit  Numero massimo di messaggi da restituire (dimensione del batch).
+     * @return Lista dei messaggi da consegnare.
+     * @since 3.7.0
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutboxEntity e WHERE e.prossimo_tentativo <= :adesso ORDER BY e.id")
+    List<EmailOutboxEntity> findDaConsegnare(@Param("adesso") LocalDateTime adesso, Limit limit);
+
+    /**
+     * Conta i messaggi ancora in attesa di consegna (esclusi quelli abbandonati).
+     *
+     * @return Numero di messaggi in coda.
+     * @since 3.7.0
+     */
+    @Query("SELECT COUNT(e) FROM EmailOutboxEntity e WHERE e.prossimo_tentativo IS NOT NULL")
+    long countInAttesa();
+
+    /**
+     * Elimina i messaggi abbandonati prima dell'istante indicato.
+     *
+     * @param istante L'istante limite.
+     * @return Il numero di righe eliminate.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutboxEntity e WHERE e.prossimo_tentativo IS NULL AND e.abbandonato_il < :istante")
+    int deleteAbbandonatiPrimaDi(@Param("istante") LocalDateTime istante);
+}
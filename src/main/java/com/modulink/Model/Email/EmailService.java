@@ -1,77 +1,76 @@
 package com.modulink.Model.Email;
 
+import com.modulink.TransazioniUtil;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-
-import java.util.Arrays;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service Component responsabile della gestione e dell'invio delle comunicazioni via posta elettronica.
  * <p>
- * Questa classe agisce come wrapper attorno all'infrastruttura di invio mail di Spring Framework ({@link JavaMailSenderImpl}),
- * fornendo un'interfaccia semplificata per il dispatching di messaggi di testo semplice (MIME type text/plain).
+ * Questa classe costituisce il punto di ingresso per l'invio dei messaggi di testo semplice (MIME type text/plain)
+ * generati dall'applicazione (OTP, credenziali di benvenuto, conferme di registrazione).
  * </p>
  * <p>
- * L'architettura del servizio sfrutta l'elaborazione asincrona per disaccoppiare l'operazione di I/O (invio rete SMTP)
- * dal thread principale dell'applicazione, migliorando la reattività del sistema e riducendo la latenza percepita dall'utente.
+ * L'architettura del servizio segue il pattern <strong>Transactional Outbox</strong>: il messaggio non viene inviato
+ * sul thread chiamante ma scritto nella tabella <code>email_outbox</code> ({@link EmailOutboxEntity}) all'interno
+ * della transazione corrente, così che venga persistito se e solo se la modifica all'utente che lo ha generato
+ * viene confermata. La consegna SMTP è demandata all'{@link EmailDispatcher}, che viene sollecitato dopo il commit
+ * e recapita i messaggi a blocchi su un'unica connessione, sopravvivendo a riavvii e disservizi del relay.
  * </p>
  *
  * @author Modulink Team
- * @version 1.3.4
+ * @version 1.5.0
  * @since 1.0.0
  */
 @Service
 public class EmailService {
 
     /**
-     * Implementazione concreta del client SMTP fornito da Spring.
-     * <p>
-     * Gestisce la connessione al server di posta, l'autenticazione e il trasporto dei pacchetti MIME.
-     * La configurazione avviene tipicamente tramite properties (host, port, username, password).
-     * </p>
+     * Repository dell'outbox in cui vengono accodati i messaggi.
      *
-     * @since 1.0.0
+     * @since 3.7.0
+     */
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    /**
+     * Componente che consegna i messaggi accodati al relay SMTP.
+     *
+     * @since 3.7.0
      */
-    private final JavaMailSenderImpl mailSender;
+    private final EmailDispatcher emailDispatcher;
 
     /**
      * Costruttore per la Dependency Injection.
-     * <p>
-     * Inizializza il servizio iniettando l'istanza configurata di {@link JavaMailSenderImpl}.
-     * </p>
      *
-     * @param mailSender L'istanza del sender SMTP pronta all'uso.
+     * @param emailOutboxRepository Repository dell'outbox.
+     * @param emailDispatcher       Componente di consegna dei messaggi.
      * @since 1.0.0
      */
-    public EmailService(JavaMailSenderImpl mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxRepository emailOutboxRepository, EmailDispatcher emailDispatcher) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailDispatcher = emailDispatcher;
     }
 
     /**
-     * Esegue l'invio asincrono di un messaggio email semplice.
+     * Accoda un messaggio email semplice per la consegna.
      * <p>
-     * Questo metodo è annotato con {@link Async}, istruendo il framework a eseguirlo in un thread separato
-     * (pool gestito da Spring TaskExecutor). Ciò impedisce che ritardi nella comunicazione SMTP
-     * blocchino il flusso di esecuzione chiamante (es. controller HTTP).
+     * Il messaggio viene scritto nell'outbox partecipando alla transazione del chiamante, se presente
+     * (es. la registrazione di un nuovo utente), oppure in una transazione dedicata. Dopo il commit
+     * viene sollecitata la consegna asincrona, per cui la latenza della richiesta non dipende dal relay SMTP.
      * </p>
      * <p>
-     * <strong>Gestione Errori:</strong> Poiché l'esecuzione è asincrona, le eccezioni sollevate durante l'invio
-     * non possono risalire allo stack del chiamante. Vengono invece intercettate localmente e loggate
-     * sullo standard error stream per scopi di diagnosi e auditing.
+     * <strong>Gestione Errori:</strong> gli errori di consegna non risalgono al chiamante: il messaggio
+     * resta in outbox e viene ritentato dall'{@link EmailDispatcher} con backoff esponenziale.
      * </p>
      *
      * @param message Oggetto {@link SimpleMailMessage} contenente mittente, destinatari, oggetto e corpo del testo.
+     * @throws IllegalArgumentException se il messaggio non ha destinatari.
      * @since 1.1.0
      */
-    @Async
+    @Transactional
     public void sendEmail(SimpleMailMessage message) {
-        try {
-            mailSender.send(message);
-        } catch (Exception e) {
-            // È importante loggare qui perché l'utente non vedrà l'errore a video
-            System.err.println("Errore invio email a " + Arrays.toString(message.getTo()) + ": " + e.getMessage());
-        }
+        emailOutboxRepository.save(new EmailOutboxEntity(message));
+        TransazioniUtil.dopoCommit(emailDispatcher::sollecita);
     }
 }
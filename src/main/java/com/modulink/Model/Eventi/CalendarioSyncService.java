@@ -0,0 +1,191 @@
+package com.modulink.Model.Eventi;
+
+import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneRepository;
+import com.modulink.Model.Task.TaskEntity;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service per la sincronizzazione incrementale del calendario.
+ * <p>
+ * I service che scrivono eventi, partecipazioni, task e assegnazioni registrano, nella stessa transazione,
+ * quale oggetto è stato toccato ({@link ModificaCalendarioEntity}). Il client conserva l'ultimo token ricevuto e
+ * chiede solo le modifiche successive: gli oggetti toccati vengono riletti nel loro stato corrente e filtrati per
+ * l'utente, quindi il costo di una sincronizzazione dipende dal numero di modifiche e non dalla dimensione del calendario.
+ * </p>
+ * <p>
+ * Gli ID del registro sono assegnati all'inserimento ma diventano visibili al commit, quindi non in ordine stretto.
+ * Per non perdere modifiche di transazioni ancora aperte, il token restituito avanza solo fino all'ultima modifica
+ * più vecchia di <code>modulink.calendar.sync.margin</code>: le modifiche più recenti vengono riproposte alla
+ * sincronizzazione successiva, e applicarle due volte è innocuo.
+ * </p>
+ * <p>
+ * Il client riceve un reset (ricaricamento completo) quando il token manca, è più vecchio del periodo di
+ * conservazione (<code>modulink.calendar.sync.retention</code>), è successivo all'ultima modifica registrata
+ * (database ricreato), le modifiche superano <code>modulink.calendar.sync.max-changes</code>
+ * oppure l'azienda ha eseguito una cancellazione massiva.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Service
+public class CalendarioSyncService {
+
+    private final ModificaCalendarioRepository modificaCalendarioRepository;
+    private final EventoRepository eventoRepository;
+    private final AssegnazioneRepository assegnazioneRepository;
+    private final Duration conservazione;
+    private final int maxModifiche;
+    private final Duration margine;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param modificaCalendarioRepository Repository del registro delle modifiche.
+     * @param eventoRepository             Repository degli eventi, per rileggere quelli modificati.
+     * @param assegnazioneRepository       Repository delle assegnazioni, per rileggere i task modificati.
+     * @param conservazione                Periodo di conservazione del registro.
+     * @param maxModifiche                 Numero massimo di modifiche restituite prima di imporre un reset.
+     * @param margine                      Ritardo con cui il token segue le modifiche, per le transazioni ancora aperte.
+     * @throws IllegalArgumentException se i parametri non sono validi.
+     * @since 3.7.0
+     */
+    public CalendarioSyncService(ModificaCalendarioRepository modificaCalendarioRepository, EventoRepository eventoRepository,
+                                 AssegnazioneRepository assegnazioneRepository,
+                                 @Value("${modulink.calendar.sync.retention:7d}") Duration conservazione,
+                                 @Value("${modulink.calendar.sync.max-changes:500}") int maxModifiche,
+                                 @Value("${modulink.calendar.sync.margin:10s}") Duration margine) {
+        if (conservazione.isNegative() || conservazione.isZero() || maxModifiche < 1 || margine.isNegative()) {
+            throw new IllegalArgumentException("Parametri di sincronizzazione del calendario non validi");
+        }
+        this.modificaCalendarioRepository = modificaCalendarioRepository;
+        this.eventoRepository = eventoRepository;
+        this.assegnazioneRepository = assegnazioneRepository;
+        this.conservazione = conservazione;
+        this.maxModifiche = maxModifiche;
+        this.margine = margine;
+    }
+
+    /**
+     * Registra la modifica di un evento o dei suoi partecipanti.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idEvento  L'ID locale dell'evento.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void registraEvento(int idAzienda, int idEvento) {
+        modificaCalendarioRepository.save(new ModificaCalendarioEntity(idAzienda, TipoModificaCalendario.EVENTO, idEvento));
+    }
+
+    /**
+     * Registra la modifica di un task o delle sue assegnazioni.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idTask    L'ID locale del task.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void registraTask(int idAzienda, int idTask) {
+        modificaCalendarioRepository.save(new ModificaCalendarioEntity(idAzienda, TipoModificaCalendario.TASK, idTask));
+    }
+
+    /**
+     * Registra una modifica massiva: tutti i client dell'azienda ricaricheranno il calendario.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void registraReset(int idAzienda) {
+        modificaCalendarioRepository.save(new ModificaCalendarioEntity(idAzienda, TipoModificaCalendario.RESET, 0));
+    }
+
+    /**
+     * Calcola le modifiche del calendario di un utente successive al token indicato.
+     *
+     * @param utente L'utente che sincronizza.
+     * @param token  L'ultimo token ricevuto dal client, o {@code null} alla prima sincronizzazione.
+     * @return Il delta da applicare, oppure un reset.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public DeltaCalendario calcolaDelta(UtenteEntity utente, Long token) {
+        Long stabile = modificaCalendarioRepository.findUltimoIdEntro(LocalDateTime.now().minus(margine));
+        long tokenStabile = stabile == null ? 0 : stabile;
+        if (token == null || !coperto(token)) return DeltaCalendario.reset(tokenStabile);
+
+        int idAzienda = utente.getAzienda().getId_azienda();
+        List<ModificaCalendarioEntity> modifiche = modificaCalendarioRepository.findDopo(idAzienda, token, Limit.of(maxModifiche + 1));
+        if (modifiche.size() > maxModifiche || modifiche.stream().anyMatch(m -> m.getTipo() == TipoModificaCalendario.RESET)) {
+            return DeltaCalendario.reset(tokenStabile);
+        }
+
+        Set<Integer> idEventi = idOggetti(modifiche, TipoModificaCalendario.EVENTO);
+        List<EventoEntity> eventi = idEventi.isEmpty() ? List.of() : eventoRepository.findAllByUtenteAndIdIn(utente, idEventi);
+        Set<Integer> eventiRimossi = new HashSet<>(idEventi);
+        eventi.forEach(e -> eventiRimossi.remove(e.getId_evento()));
+
+        Set<Integer> idTask = idOggetti(modifiche, TipoModificaCalendario.TASK);
+        List<TaskEntity> task = idTask.isEmpty() ? List.of()
+                : assegnazioneRepository.findTaskByUtenteAndIdIn(utente.getId_utente(), idAzienda, idTask).stream()
+                        .filter(t -> !t.isCompletato())
+                        .toList();
+        Set<Integer> taskRimossi = new HashSet<>(idTask);
+        task.forEach(t -> taskRimossi.remove(t.getId_task()));
+
+        return new DeltaCalendario(Math.max(token, tokenStabile), false, eventi, eventiRimossi, task, taskRimossi);
+    }
+
+    /**
+     * Elimina periodicamente le modifiche più vecchie del periodo di conservazione.
+     *
+     * @since 3.7.0
+     */
+    @Scheduled(fixedDelayString = "${modulink.calendar.sync.cleanup-interval-ms:3600000}", initialDelayString = "${modulink.calendar.sync.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void pulisci() {
+        modificaCalendarioRepository.deleteAllPrimaDi(LocalDateTime.now().minus(conservazione));
+    }
+
+    /**
+     * Verifica che il registro contenga ancora tutte le modifiche successive al token.
+     *
+     * @param token Il token del client.
+     * @return {@code true} se il delta può essere calcolato dal registro.
+     */
+    private boolean coperto(long token) {
+        if (token < 0) return false;
+        Long ultimo = modificaCalendarioRepository.findUltimoId();
+        if (ultimo == null) return token == 0;
+        Long primo = modificaCalendarioRepository.findPrimoId();
+        return token <= ultimo && token >= primo - 1;
+    }
+
+    /**
+     * Estrae gli ID degli oggetti di un tipo dalle modifiche.
+     *
+     * @param modifiche Le modifiche registrate.
+     * @param tipo      Il tipo di oggetto.
+     * @return Gli ID distinti degli oggetti toccati.
+     */
+    private static Set<Integer> idOggetti(List<ModificaCalendarioEntity> modifiche, TipoModificaCalendario tipo) {
+        return modifiche.stream()
+                .filter(m -> m.getTipo() == tipo)
+                .map(ModificaCalendarioEntity::getId_oggetto)
+                .collect(Collectors.toSet());
+    }
+}
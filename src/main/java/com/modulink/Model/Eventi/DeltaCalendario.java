@@ -0,0 +1,38 @@
+package com.modulink.Model.Eventi;
+
+import com.modulink.Model.Task.TaskEntity;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Risultato di una sincronizzazione incrementale del calendario, calcolato da {@link CalendarioSyncService}.
+ * <p>
+ * Se {@code reset} è {@code true} il registro non copre più il token del client (token assente, scaduto o troppe
+ * modifiche): le liste sono vuote e il client deve ricaricare il calendario per intero, conservando il nuovo token.
+ * </p>
+ *
+ * @param token        Il token da presentare alla sincronizzazione successiva.
+ * @param reset        {@code true} se il client deve ricaricare tutto.
+ * @param eventi       Eventi creati o modificati, visibili all'utente, nel loro stato corrente.
+ * @param eventiRimossi ID degli eventi eliminati o non più visibili all'utente.
+ * @param task         Task assegnati all'utente creati o modificati, non completati.
+ * @param taskRimossi  ID dei task eliminati, completati o non più assegnati all'utente.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record DeltaCalendario(long token, boolean reset, List<EventoEntity> eventi, Set<Integer> eventiRimossi,
+                              List<TaskEntity> task, Set<Integer> taskRimossi) {
+
+    /**
+     * Crea un risultato che impone al client il ricaricamento completo.
+     *
+     * @param token Il token da cui ripartire dopo il ricaricamento.
+     * @return Il delta di reset.
+     * @since 3.7.0
+     */
+    public static DeltaCalendario reset(long token) {
+        return new DeltaCalendario(token, true, List.of(), Set.of(), List.of(), Set.of());
+    }
+}
@@ -21,14 +21,21 @@ import java.time.LocalDateTime;
  * con policy di cancellazione a cascata ({@code ON DELETE CASCADE}), garantendo che l'eliminazione
  * di un'azienda comporti la rimozione di tutti i suoi eventi associati.
  * </p>
+ * <p>
+ * Gli indici <code>(id_azienda, data_ora_inizio)</code> e <code>(id_azienda, data_fine)</code> servono le query
+ * del calendario limitate a un intervallo temporale ({@link EventoRepository#findByAziendaInIntervallo}).
+ * </p>
  *
  * @see EventoID
  * @author Modulink Team
- * @version 2.0.3
+ * @version 2.1.0
  * @since 1.2.0
  */
 @Entity
-@Table(name="evento", schema="modulink")
+@Table(name="evento", schema="modulink", indexes = {
+        @Index(name = "idx_evento_azienda_inizio", columnList = "id_azienda, data_ora_inizio"),
+        @Index(name = "idx_evento_azienda_fine", columnList = "id_azienda, data_fine")
+})
 @IdClass(EventoID.class)
 public class EventoEntity {
 
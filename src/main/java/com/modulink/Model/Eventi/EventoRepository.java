@@ -7,6 +7,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +18,18 @@ import java.util.Optional;
  * Estende {@link JpaRepository} tipizzato con la chiave composta {@link EventoID}.
  * Fornisce query custom JPQL per la gestione di partecipazioni e lookup specifici per tenant (Azienda).
  * </p>
+ * <p>
+ * Le query del calendario sono limitate a un intervallo temporale. Un evento ricade nell'intervallo
+ * <code>[inizio, fine)</code> se comincia al suo interno oppure se è cominciato prima ed è ancora in corso: i due casi
+ * sono espressi come rami di una <code>UNION</code>, serviti rispettivamente dagli indici
+ * <code>(id_azienda, data_ora_inizio)</code> e <code>(id_azienda, data_fine)</code> di {@link EventoEntity},
+ * così il costo resta proporzionale agli eventi del periodo e non allo storico.
+ * </p>
  *
  * @see EventoEntity
  * @see EventoID
  * @author Modulink Team
- * @version 1.5.0
+ * @version 1.8.0
  * @since 1.2.0
  */
 @Repository
@@ -57,18 +66,82 @@ public interface EventoRepository extends JpaRepository<EventoEntity, EventoID>
     List<EventoEntity> findAllByUtente(@Param("utente") UtenteEntity utente);
 
     /**
-     * Recupera l'entità evento con l'identificativo locale {@code id_evento} più alto per una data azienda.
+     * Recupera gli eventi di un'azienda che ricadono nell'intervallo indicato.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param inizio    Inizio dell'intervallo (incluso).
+     * @param fine      Fine dell'intervallo (escluso).
+     * @return Gli eventi dell'azienda visibili nell'intervallo.
+     * @since 3.7.0
+     */
+    @Query("SELECT e FROM EventoEntity e WHERE e.azienda.id_azienda = :idAzienda AND e.data_ora_inizio >= :inizio AND e.data_ora_inizio < :fine " +
+            "UNION " +
+            "SELECT e FROM EventoEntity e WHERE e.azienda.id_azienda = :idAzienda AND e.data_fine >= :inizio AND e.data_ora_inizio < :inizio")
+    List<EventoEntity> findByAziendaInIntervallo(@Param("idAzienda") int idAzienda, @Param("inizio") LocalDateTime inizio, @Param("fine") LocalDateTime fine);
+
+    /**
+     * Recupera gli eventi creati dall'utente o a cui partecipa che ricadono nell'intervallo indicato.
      * <p>
-     * Utilizzato per determinare il prossimo ID disponibile nella sequenza locale.
-     * La query annidata seleziona il MAX(id_evento) e la query esterna recupera l'intera entità corrispondente.
+     * Sostituisce l'{@code OR} tra creatore e partecipante di {@link #findAllByUtente(UtenteEntity)} con una
+     * <code>UNION</code>: ogni ramo può usare il proprio indice e la <code>UNION</code> rimuove i duplicati
+     * (utente sia creatore sia partecipante).
      * </p>
      *
-     * @param azienda L'azienda contesto della query.
-     * @return L'entità {@link EventoEntity} con ID massimo, oppure {@code null} se nessun evento esiste per l'azienda.
-     * @since 1.2.0
+     * @param utente L'utente per cui cercare gli eventi.
+     * @param inizio Inizio dell'intervallo (incluso).
+     * @param fine   Fine dell'intervallo (escluso).
+     * @return Gli eventi dell'utente visibili nell'intervallo.
+     * @since 3.7.0
+     */
+    @Query("SELECT e FROM EventoEntity e WHERE e.creatore = :utente AND e.data_ora_inizio >= :inizio AND e.data_ora_inizio < :fine " +
+            "UNION " +
+            "SELECT e FROM EventoEntity e WHERE e.creatore = :utente AND e.data_fine >= :inizio AND e.data_ora_inizio < :inizio " +
+            "UNION " +
+            "SELECT e FROM PartecipazioneEntity p JOIN p.evento e WHERE p.utente = :utente AND e.data_ora_inizio >= :inizio AND e.data_ora_inizio < :fine " +
+            "UNION " +
+            "SELECT e FROM PartecipazioneEntity p JOIN p.evento e WHERE p.utente = :utente AND e.data_fine >= :inizio AND e.data_ora_inizio < :inizio")
+    List<EventoEntity> findAllByUtenteInIntervallo(@Param("utente") UtenteEntity utente, @Param("inizio") LocalDateTime inizio, @Param("fine") LocalDateTime fine);
+
+    /**
+     * Proietta gli eventi creati dall'utente o a cui partecipa che ricadono nell'intervallo indicato.
+     * <p>
+     * Stessi rami di {@link #findAllByUtenteInIntervallo(UtenteEntity, LocalDateTime, LocalDateTime)}, ma ogni riga
+     * viene costruita direttamente come {@link VoceCalendario}, senza istanziare entità.
+     * </p>
+     *
+     * @param idUtente  L'ID dell'utente.
+     * @param idAzienda L'ID dell'azienda dell'utente.
+     * @param inizio    Inizio dell'intervallo (incluso).
+     * @param fine      Fine dell'intervallo (escluso).
+     * @return Le voci degli eventi dell'utente visibili nell'intervallo.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Eventi.VoceCalendario(e.id_evento, e.nome, e.luogo, e.data_ora_inizio, e.data_fine) FROM EventoEntity e WHERE e.creatore.id_utente = :idUtente AND e.azienda.id_azienda = :idAzienda AND e.data_ora_inizio >= :inizio AND e.data_ora_inizio < :fine " +
+            "UNION " +
+            "SELECT new com.modulink.Model.Eventi.VoceCalendario(e.id_evento, e.nome, e.luogo, e.data_ora_inizio, e.data_fine) FROM EventoEntity e WHERE e.creatore.id_utente = :idUtente AND e.azienda.id_azienda = :idAzienda AND e.data_fine >= :inizio AND e.data_ora_inizio < :inizio " +
+            "UNION " +
+            "SELECT new com.modulink.Model.Eventi.VoceCalendario(e.id_evento, e.nome, e.luogo, e.data_ora_inizio, e.data_fine) FROM PartecipazioneEntity p JOIN p.evento e WHERE p.id_utente = :idUtente AND p.id_azienda = :idAzienda AND e.data_ora_inizio >= :inizio AND e.data_ora_inizio < :fine " +
+            "UNION " +
+            "SELECT new com.modulink.Model.Eventi.VoceCalendario(e.id_evento, e.nome, e.luogo, e.data_ora_inizio, e.data_fine) FROM PartecipazioneEntity p JOIN p.evento e WHERE p.id_utente = :idUtente AND p.id_azienda = :idAzienda AND e.data_fine >= :inizio AND e.data_ora_inizio < :inizio")
+    List<VoceCalendario> findVociByUtenteInIntervallo(@Param("idUtente") int idUtente, @Param("idAzienda") int idAzienda,
+                                                      @Param("inizio") LocalDateTime inizio, @Param("fine") LocalDateTime fine);
+
+    /**
+     * Rilegge, tra gli eventi indicati, quelli creati dall'utente o a cui partecipa.
+     * <p>
+     * Usata dalla sincronizzazione incrementale: gli ID assenti dal risultato corrispondono a eventi eliminati
+     * o non più visibili all'utente.
+     * </p>
+     *
+     * @param utente   L'utente per cui cercare gli eventi.
+     * @param idEventi Gli ID locali degli eventi modificati, nell'azienda dell'utente.
+     * @return Gli eventi indicati visibili all'utente.
+     * @since 3.7.0
      */
-    @Query("SELECT e FROM EventoEntity e WHERE e.azienda = :azienda AND e.id_evento = (SELECT MAX(e2.id_evento) FROM EventoEntity e2 WHERE e2.azienda = :azienda)")
-    EventoEntity findMaxIdByAzienda(@Param("azienda") AziendaEntity azienda);
+    @Query("SELECT e FROM EventoEntity e WHERE e.creatore = :utente AND e.id_evento IN :idEventi " +
+            "UNION " +
+            "SELECT e FROM PartecipazioneEntity p JOIN p.evento e WHERE p.utente = :utente AND e.id_evento IN :idEventi")
+    List<EventoEntity> findAllByUtenteAndIdIn(@Param("utente") UtenteEntity utente, @Param("idEventi") Collection<Integer> idEventi);
 
     /**
      * Elimina massivamente tutti gli eventi di un'azienda.
@@ -1,10 +1,15 @@
 package com.modulink.Model.Eventi;
 import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneRepository;
 import com.modulink.Model.Utente.UtenteEntity;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,36 +24,47 @@ import java.util.Optional;
  * Integra la gestione delle eccezioni custom come {@link EventoNotFound} per fornire feedback
  * semantici ai layer superiori.
  * </p>
+ * <p>
+ * Ogni scrittura viene registrata tramite {@link CalendarioSyncService} nella stessa transazione,
+ * così i client del calendario ricevono la modifica alla sincronizzazione incrementale successiva.
+ * </p>
  *
  * @author Modulink Team
- * @version 1.8.2
+ * @version 2.1.0
  * @since 1.2.0
  */
 @Service
 public class EventoService {
 
     private final EventoRepository eventoRepository;
+    private final ContatoreService contatoreService;
+    private final CalendarioSyncService calendarioSyncService;
+    private final AssegnazioneRepository assegnazioneRepository;
 
     /**
      * Costruttore per Dependency Injection.
      *
-     * @param eventoRepository Repository per l'accesso ai dati degli eventi.
+     * @param eventoRepository       Repository per l'accesso ai dati degli eventi.
+     * @param contatoreService       Service che assegna gli ID locali per azienda.
+     * @param calendarioSyncService  Service che registra le modifiche per la sincronizzazione incrementale.
+     * @param assegnazioneRepository Repository delle assegnazioni, per i task mostrati nel calendario.
      * @since 1.2.0
      */
-    public EventoService(EventoRepository eventoRepository) {
+    public EventoService(EventoRepository eventoRepository, ContatoreService contatoreService, CalendarioSyncService calendarioSyncService,
+                         AssegnazioneRepository assegnazioneRepository) {
         this.eventoRepository = eventoRepository;
+        this.contatoreService = contatoreService;
+        this.calendarioSyncService = calendarioSyncService;
+        this.assegnazioneRepository = assegnazioneRepository;
     }
 
     /**
      * Persiste un nuovo evento nel database, gestendo la generazione manuale dell'ID.
      * <p>
-     * Questo metodo calcola il prossimo identificativo locale disponibile per l'azienda
-     * interrogando il repository per l'evento con ID massimo ({@link EventoRepository#findMaxIdByAzienda(AziendaEntity)}).
+     * Questo metodo assegna il prossimo identificativo locale disponibile per l'azienda
+     * tramite la sequenza per tenant di {@link ContatoreService}, senza scandire gli eventi esistenti.
      * Se non esistono eventi, l'ID parte da 0.
      * </p>
-     * <p>
-     * L'operazione è transazionale per garantire che il calcolo e il salvataggio avvengano atomicamente.
-     * </p>
      *
      * @param eventoEntity L'entità evento da salvare (senza ID impostato).
      * @return L'entità evento persistita, completa di ID assegnato.
@@ -56,12 +72,10 @@ public class EventoService {
      */
     @Transactional
     public EventoEntity create(EventoEntity eventoEntity) {
-        EventoEntity e=eventoRepository.findMaxIdByAzienda(eventoEntity.getAzienda());
-        int maxId;
-        if(e==null) maxId=0;
-        else maxId=e.getId_evento()+1;
-        eventoEntity.setId_evento(maxId);
-        return eventoRepository.save(eventoEntity);
+        eventoEntity.setId_evento(contatoreService.prossimoId(eventoEntity.getAzienda().getId_azienda(), TipoContatore.EVENTO));
+        EventoEntity salvato = eventoRepository.save(eventoEntity);
+        calendarioSyncService.registraEvento(salvato.getAzienda().getId_azienda(), salvato.getId_evento());
+        return salvato;
     }
 
     /**
@@ -80,6 +94,65 @@ public class EventoService {
         return eventoRepository.findAllByUtente(utente);
     }
 
+    /**
+     * Recupera gli eventi pertinenti a un utente che ricadono in un intervallo temporale.
+     * <p>
+     * Un evento ricade nell'intervallo se inizia al suo interno o se è iniziato prima e termina dopo il suo inizio.
+     * </p>
+     *
+     * @param utente L'utente per cui filtrare gli eventi.
+     * @param inizio Inizio dell'intervallo (incluso).
+     * @param fine   Fine dell'intervallo (escluso).
+     * @return Lista di eventi correlati visibili nell'intervallo.
+     * @throws IllegalArgumentException se l'intervallo è vuoto o invertito.
+     * @see EventoRepository#findAllByUtenteInIntervallo(UtenteEntity, LocalDateTime, LocalDateTime)
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public List<EventoEntity> findAllByUtente(UtenteEntity utente, LocalDateTime inizio, LocalDateTime fine) {
+        verificaIntervallo(inizio, fine);
+        return eventoRepository.findAllByUtenteInIntervallo(utente, inizio, fine);
+    }
+
+    /**
+     * Recupera il calendario di un utente in un intervallo: eventi creati o a cui partecipa e task assegnati non completati.
+     * <p>
+     * Entrambe le query proiettano direttamente in {@link VoceCalendario} e filtrano periodo e completamento nel database;
+     * vengono eseguite sulla stessa connessione, in un'unica transazione di sola lettura.
+     * </p>
+     *
+     * @param utente L'utente per cui comporre il calendario.
+     * @param inizio Inizio dell'intervallo (incluso).
+     * @param fine   Fine dell'intervallo (escluso).
+     * @return Le voci del calendario, prima gli eventi e poi i task.
+     * @throws IllegalArgumentException se l'intervallo è vuoto o invertito.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public List<VoceCalendario> findCalendario(UtenteEntity utente, LocalDateTime inizio, LocalDateTime fine) {
+        verificaIntervallo(inizio, fine);
+        int idUtente = utente.getId_utente();
+        int idAzienda = utente.getAzienda().getId_azienda();
+        List<VoceCalendario> voci = new ArrayList<>(eventoRepository.findVociByUtenteInIntervallo(idUtente, idAzienda, inizio, fine));
+        voci.addAll(assegnazioneRepository.findVociTaskByUtenteInPeriodo(idUtente, idAzienda, inizio.toLocalDate(), fine.toLocalDate()));
+        return voci;
+    }
+
+    /**
+     * Recupera gli eventi di un'azienda che ricadono in un intervallo temporale.
+     *
+     * @param aziendaEntity L'azienda target.
+     * @param inizio        Inizio dell'intervallo (incluso).
+     * @param fine          Fine dell'intervallo (escluso).
+     * @return Lista di eventi dell'azienda visibili nell'intervallo.
+     * @throws IllegalArgumentException se l'intervallo è vuoto o invertito.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public List<EventoEntity> findByAzienda(AziendaEntity aziendaEntity, LocalDateTime inizio, LocalDateTime fine) {
+        verificaIntervallo(inizio, fine);
+        return eventoRepository.findByAziendaInIntervallo(aziendaEntity.getId_azienda(), inizio, fine);
+    }
 
     /**
      * Recupera tutti gli eventi associati a una determinata azienda.
@@ -123,8 +196,25 @@ public class EventoService {
      * @param evento L'entità con i dati aggiornati.
      * @since 1.3.0
      */
+    @Transactional
     public void update(EventoEntity evento) {
         eventoRepository.save(evento);
+        calendarioSyncService.registraEvento(evento.getAzienda().getId_azienda(), evento.getId_evento());
+    }
+
+    /**
+     * Elimina un evento, se esiste.
+     *
+     * @param eventoID Chiave primaria composta dell'evento.
+     * @return {@code true} se l'evento esisteva ed è stato eliminato.
+     * @since 3.7.0
+     */
+    @Transactional
+    public boolean delete(EventoID eventoID) {
+        if (!eventoRepository.existsById(eventoID)) return false;
+        eventoRepository.deleteById(eventoID);
+        calendarioSyncService.registraEvento(eventoID.getAzienda(), eventoID.getId_evento());
+        return true;
     }
 
     /**
@@ -141,5 +231,19 @@ public class EventoService {
     public void deleteAllByAzienda(AziendaEntity aziendaEntity) {
         eventoRepository.deleteAllByAzienda(aziendaEntity);
         eventoRepository.flush();
+        calendarioSyncService.registraReset(aziendaEntity.getId_azienda());
+    }
+
+    /**
+     * Verifica che l'intervallo richiesto sia valido.
+     *
+     * @param inizio Inizio dell'intervallo.
+     * @param fine   Fine dell'intervallo.
+     * @throws IllegalArgumentException se un estremo manca o se la fine non segue l'inizio.
+     */
+    private static void verificaIntervallo(LocalDateTime inizio, LocalDateTime fine) {
+        if (inizio == null || fine == null || !fine.isAfter(inizio)) {
+            throw new IllegalArgumentException("Intervallo temporale non valido");
+        }
     }
 }
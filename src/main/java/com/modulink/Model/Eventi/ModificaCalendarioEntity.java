@@ -0,0 +1,133 @@
+package com.modulink.Model.Eventi;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rappresenta una riga del registro delle modifiche del calendario, usato per la sincronizzazione incrementale.
+ * <p>
+ * Questa entità mappa la tabella <code>modifica_calendario</code>: ogni scrittura su eventi, partecipazioni, task o
+ * assegnazioni aggiunge una riga che indica l'oggetto toccato, senza descriverne il contenuto. L'identificativo,
+ * assegnato dal database in ordine di inserimento, funge da token di sincronizzazione: un client che conosce il token
+ * <code>n</code> riceve solo gli oggetti con modifiche successive, riletti nel loro stato corrente.
+ * </p>
+ * <p>
+ * Le righe più vecchie del periodo di conservazione vengono eliminate da {@link CalendarioSyncService}.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Entity
+@Table(name = "modifica_calendario", schema = "modulink", indexes = {
+        @Index(name = "idx_modifica_calendario_azienda", columnList = "id_azienda, id"),
+        @Index(name = "idx_modifica_calendario_istante", columnList = "istante")
+})
+public class ModificaCalendarioEntity {
+
+    /**
+     * Identificativo crescente della modifica, usato come token di sincronizzazione.
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    /**
+     * Azienda a cui appartiene l'oggetto modificato.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_azienda", nullable = false)
+    private int id_azienda;
+
+    /**
+     * Tipo dell'oggetto modificato.
+     *
+     * @since 3.7.0
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 10)
+    private TipoModificaCalendario tipo;
+
+    /**
+     * ID locale dell'evento o del task modificato (0 per {@link TipoModificaCalendario#RESET}).
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_oggetto", nullable = false)
+    private int id_oggetto;
+
+    /**
+     * Istante di registrazione della modifica.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "istante", nullable = false)
+    private LocalDateTime istante;
+
+    /**
+     * Costruttore predefinito (No-Args) necessario per la riflessione JPA.
+     *
+     * @since 3.7.0
+     */
+    public ModificaCalendarioEntity() {}
+
+    /**
+     * Crea una nuova riga del registro con l'istante corrente.
+     *
+     * @param id_azienda L'ID dell'azienda.
+     * @param tipo       Il tipo dell'oggetto modificato.
+     * @param id_oggetto L'ID locale dell'oggetto modificato.
+     * @since 3.7.0
+     */
+    public ModificaCalendarioEntity(int id_azienda, TipoModificaCalendario tipo, int id_oggetto) {
+        this.id_azienda = id_azienda;
+        this.tipo = tipo;
+        this.id_oggetto = id_oggetto;
+        this.istante = LocalDateTime.now();
+    }
+
+    /**
+     * @return L'ID (token) della modifica.
+     * @since 3.7.0
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    public int getId_azienda() {
+        return id_azienda;
+    }
+
+    /**
+     * @return Il tipo dell'oggetto modificato.
+     * @since 3.7.0
+     */
+    public TipoModificaCalendario getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return L'ID locale dell'oggetto modificato.
+     * @since 3.7.0
+     */
+    public int getId_oggetto() {
+        return id_oggetto;
+    }
+
+    /**
+     * @return L'istante di registrazione.
+     * @since 3.7.0
+     */
+    public LocalDateTime getIstante() {
+        return istante;
+    }
+}
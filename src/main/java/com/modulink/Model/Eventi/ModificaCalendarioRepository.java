@@ -0,0 +1,71 @@
+package com.modulink.Model.Eventi;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaccia DAO per il registro delle modifiche del calendario ({@link ModificaCalendarioEntity}).
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface ModificaCalendarioRepository extends JpaRepository<ModificaCalendarioEntity, Long> {
+
+    /**
+     * Recupera le modifiche di un'azienda successive al token indicato, in ordine di registrazione.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param token     L'ultimo token noto al client.
+     * @param limit     Numero massimo di righe restituite.
+     * @return Le modifiche successive al token.
+     * @since 3.7.0
+     */
+    @Query("SELECT m FROM ModificaCalendarioEntity m WHERE m.id_azienda = :idAzienda AND m.id > :token ORDER BY m.id")
+    List<ModificaCalendarioEntity> findDopo(@Param("idAzienda") int idAzienda, @Param("token") long token, Limit limit);
+
+    /**
+     * Restituisce il token più alto tra le modifiche registrate entro l'istante indicato.
+     *
+     * @param istante L'istante limite.
+     * @return Il token più alto, o {@code null} se non ci sono righe.
+     * @since 3.7.0
+     */
+    @Query("SELECT MAX(m.id) FROM ModificaCalendarioEntity m WHERE m.istante <= :istante")
+    Long findUltimoIdEntro(@Param("istante") LocalDateTime istante);
+
+    /**
+     * Restituisce il token più basso ancora conservato.
+     *
+     * @return Il token più basso, o {@code null} se il registro è vuoto.
+     * @since 3.7.0
+     */
+    @Query("SELECT MIN(m.id) FROM ModificaCalendarioEntity m")
+    Long findPrimoId();
+
+    /**
+     * Restituisce il token più alto registrato.
+     *
+     * @return Il token più alto, o {@code null} se il registro è vuoto.
+     * @since 3.7.0
+     */
+    @Query("SELECT MAX(m.id) FROM ModificaCalendarioEntity m")
+    Long findUltimoId();
+
+    /**
+     * Elimina le modifiche registrate prima dell'istante indicato.
+     *
+     * @param istante L'istante limite.
+     * @return Il numero di righe eliminate.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("DELETE FROM ModificaCalendarioEntity m WHERE m.istante < :istante")
+    int deleteAllPrimaDi(@Param("istante") LocalDateTime istante);
+}
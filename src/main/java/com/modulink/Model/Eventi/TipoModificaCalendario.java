@@ -0,0 +1,26 @@
+package com.modulink.Model.Eventi;
+
+/**
+ * Enumerazione dei tipi di modifica registrati nel registro del calendario ({@link ModificaCalendarioEntity}).
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public enum TipoModificaCalendario {
+
+    /**
+     * Evento creato, modificato o eliminato, oppure partecipanti invitati o rimossi.
+     */
+    EVENTO,
+
+    /**
+     * Task creato, modificato, completato o eliminato, oppure assegnatari cambiati.
+     */
+    TASK,
+
+    /**
+     * Modifica massiva (es. disinstallazione del modulo): i client devono ricaricare il calendario.
+     */
+    RESET
+}
@@ -0,0 +1,68 @@
+package com.modulink.Model.Eventi;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Voce del calendario (evento o task assegnato) proiettata direttamente dalle query.
+ * <p>
+ * Viene costruita con una <em>constructor expression</em> JPQL (<code>SELECT new ...</code>): Hibernate legge solo
+ * le colonne necessarie e non istanzia entità, contesti di persistenza o associazioni lazy. I nomi dei campi
+ * coincidono con quelli dell'<code>EventoDTO</code> del modulo GDE, più il tipo della voce.
+ * </p>
+ *
+ * @param id_evento       ID locale dell'evento o del task.
+ * @param nome            Nome dell'evento o titolo del task.
+ * @param luogo           Luogo dell'evento ("Ufficio" per i task).
+ * @param data_ora_inizio Inizio (per i task, l'inizio del giorno di creazione).
+ * @param data_fine       Fine (per i task, la fine del giorno di scadenza).
+ * @param type            {@value #EVENTO} o {@value #TASK}.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record VoceCalendario(int id_evento, String nome, String luogo, LocalDateTime data_ora_inizio, LocalDateTime data_fine, String type) {
+
+    /**
+     * Tipo delle voci che rappresentano eventi.
+     */
+    public static final String EVENTO = "event";
+
+    /**
+     * Tipo delle voci che rappresentano task assegnati.
+     */
+    public static final String TASK = "task";
+
+    /**
+     * Luogo mostrato per i task.
+     */
+    public static final String LUOGO_TASK = "Ufficio";
+
+    /**
+     * Costruisce la voce di un evento.
+     *
+     * @param idEvento ID locale dell'evento.
+     * @param nome     Nome dell'evento.
+     * @param luogo    Luogo dell'evento.
+     * @param inizio   Data e ora di inizio.
+     * @param fine     Data e ora di fine.
+     * @since 3.7.0
+     */
+    public VoceCalendario(int idEvento, String nome, String luogo, LocalDateTime inizio, LocalDateTime fine) {
+        this(idEvento, nome, luogo, inizio, fine, EVENTO);
+    }
+
+    /**
+     * Costruisce la voce di un task, esteso dall'inizio del giorno di creazione alla fine del giorno di scadenza.
+     *
+     * @param idTask    ID locale del task.
+     * @param titolo    Titolo del task.
+     * @param creazione Data di creazione.
+     * @param scadenza  Data di scadenza, o {@code null}.
+     * @since 3.7.0
+     */
+    public VoceCalendario(int idTask, String titolo, LocalDate creazione, LocalDate scadenza) {
+        this(idTask, titolo, LUOGO_TASK, creazione.atStartOfDay(), scadenza == null ? null : scadenza.atTime(LocalTime.MAX), TASK);
+    }
+}
@@ -0,0 +1,294 @@
+package com.modulink.Model.Immagine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Service che gestisce il caricamento su filesystem dei loghi aziendali e delle immagini di profilo.
+ * <p>
+ * Il file inviato non viene mai caricato interamente in memoria: il contenuto della richiesta multipart viene
+ * copiato in streaming ({@link FileChannel#transferFrom}) in un file temporaneo della cartella di appoggio
+ * (<code>modulink.upload.staging-dir</code>). Durante la copia vengono verificati i magic bytes
+ * ({@link FormatoImmagine}) e la dimensione massima (<code>modulink.upload.max-bytes</code>): un file non valido
+ * viene scartato senza mai comparire nelle cartelle pubbliche.
+ * </p>
+ * <p>
+ * Il file validato viene poi spostato con una rinomina atomica nella cartella di destinazione
+ * (<code>azienda-logos</code> o <code>user-logos</code>), così chi serve le immagini non vede mai un file scritto
+ * a metà. La cartella di appoggio deve quindi trovarsi sullo stesso filesystem delle cartelle di destinazione;
+ * in caso contrario lo spostamento ripiega su una copia non atomica. Accanto all'originale vengono poi generate
+ * le miniature ({@link MiniatureService}), eliminate insieme all'immagine.
+ * </p>
+ * <p>
+ * I due passaggi sono esposti anche separatamente ({@link #prepara(MultipartFile)} e
+ * {@link #pubblica(String, String, String, String)}): la registrazione valida il logo al primo step e lo pubblica
+ * solo al termine del secondo. I file di appoggio mai pubblicati (es. registrazioni abbandonate) vengono rimossi
+ * periodicamente dopo <code>modulink.upload.staging-ttl</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.1.0
+ * @since 3.7.0
+ */
+@Service
+public class CaricamentoImmaginiService {
+
+    /**
+     * Cartella pubblica dei loghi aziendali.
+     */
+    public static final String CARTELLA_LOGHI_AZIENDA = "azienda-logos";
+
+    /**
+     * Cartella pubblica delle immagini di profilo degli utenti.
+     */
+    public static final String CARTELLA_IMMAGINI_UTENTE = "user-logos";
+
+    /**
+     * Prefisso dei file nella cartella di appoggio.
+     */
+    private static final String PREFISSO_TEMPORANEO = "upload-";
+
+    /**
+     * Forma dei nomi generati da {@link Files#createTempFile}: impedisce di riferire file esterni alla cartella di appoggio.
+     */
+    private static final Pattern NOME_TEMPORANEO = Pattern.compile(Pattern.quote(PREFISSO_TEMPORANEO) + "\\d+\\.([a-z]+)");
+
+    /**
+     * Caratteri non ammessi nei nomi dei file pubblicati.
+     */
+    private static final Pattern CARATTERI_NON_AMMESSI = Pattern.compile("[^A-Za-z0-9@._-]");
+
+    /**
+     * Lunghezza massima del nome originale conservato nel nome del file pubblicato.
+     */
+    private static final int MAX_LUNGHEZZA_NOME = 100;
+
+    private final MiniatureService miniatureService;
+    private final Path cartellaTemporanea;
+    private final long dimensioneMassima;
+    private final Duration durataTemporanei;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param miniatureService   Service che genera le miniature delle immagini pubblicate.
+     * @param cartellaTemporanea Cartella di appoggio per i file in caricamento.
+     * @param dimensioneMassima  Dimensione massima, in byte, di un'immagine caricata.
+     * @param durataTemporanei   Tempo dopo il quale un file di appoggio non pubblicato viene rimosso.
+     * @throws IllegalArgumentException se la dimensione massima o la durata non sono positive.
+     * @since 3.7.0
+     */
+    public CaricamentoImmaginiService(MiniatureService miniatureService,
+                                      @Value("${modulink.upload.staging-dir:upload-tmp}") String cartellaTemporanea,
+                                      @Value("${modulink.upload.max-bytes:10485760}") long dimensioneMassima,
+                                      @Value("${modulink.upload.staging-ttl:2h}") Duration durataTemporanei) {
+        if (dimensioneMassima < 1) throw new IllegalArgumentException("La dimensione massima delle immagini deve essere positiva");
+        if (durataTemporanei.isNegative() || durataTemporanei.isZero()) throw new IllegalArgumentException("La durata dei file di appoggio deve essere positiva");
+        this.miniatureService = miniatureService;
+        this.cartellaTemporanea = Paths.get(cartellaTemporanea);
+        this.dimensioneMassima = dimensioneMassima;
+        this.durataTemporanei = durataTemporanei;
+    }
+
+    /**
+     * Valida e pubblica un'immagine in un unico passaggio.
+     *
+     * @param file     Il file inviato dal client.
+     * @param cartella La cartella di destinazione (es. {@link #CARTELLA_LOGHI_AZIENDA}).
+     * @param prefisso Prefisso del nome del file pubblicato (es. P.IVA o email).
+     * @return Il percorso relativo del file pubblicato, da memorizzare nell'entità.
+     * @throws ImmagineNonValidaException se il file non è un'immagine supportata o è troppo grande.
+     * @throws IOException                se la scrittura su disco fallisce.
+     * @since 3.7.0
+     */
+    public String salva(MultipartFile file, String cartella, String prefisso) throws ImmagineNonValidaException, IOException {
+        return pubblica(prepara(file), cartella, prefisso, file.getOriginalFilename());
+    }
+
+    /**
+     * Copia in streaming il file nella cartella di appoggio, verificandone formato e dimensione.
+     *
+     * @param file Il file inviato dal client.
+     * @return Il nome del file di appoggio, da passare a {@link #pubblica(String, String, String, String)}.
+     * @throws ImmagineNonValidaException se il file non è un'immagine supportata o è troppo grande.
+     * @throws IOException                se la scrittura su disco fallisce.
+     * @since 3.7.0
+     */
+    public String prepara(MultipartFile file) throws ImmagineNonValidaException, IOException {
+        if (file.getSize() > dimensioneMassima) throw dimensioneEccessiva();
+        try (InputStream in = file.getInputStream()) {
+            byte[] intestazione = in.readNBytes(FormatoImmagine.LUNGHEZZA_INTESTAZIONE);
+            FormatoImmagine formato = FormatoImmagine.riconosci(intestazione).orElseThrow(() -> new ImmagineNonValidaException(
+                    ImmagineNonValidaException.Motivo.FORMATO, "Il file caricato deve essere un'immagine (JPEG, PNG, GIF o WebP)"));
+
+            Files.createDirectories(cartellaTemporanea);
+            Path temporaneo = Files.createTempFile(cartellaTemporanea, PREFISSO_TEMPORANEO, "." + formato.getEstensione());
+            boolean completato = false;
+            try (FileChannel out = FileChannel.open(temporaneo, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.wrap(intestazione));
+                // Un byte oltre il limite basta a riconoscere un file troppo grande senza copiarlo tutto
+                ReadableByteChannel sorgente = Channels.newChannel(in);
+                long limite = dimensioneMassima + 1;
+                long scritti = intestazione.length;
+                long trasferiti;
+                while (scritti < limite && (trasferiti = out.transferFrom(sorgente, scritti, limite - scritti)) > 0) {
+                    scritti += trasferiti;
+                }
+                if (scritti > dimensioneMassima) throw dimensioneEccessiva();
+                completato = true;
+            } finally {
+                if (!completato) Files.deleteIfExists(temporaneo);
+            }
+            return temporaneo.getFileName().toString();
+        }
+    }
+
+    /**
+     * Sposta atomicamente un file di appoggio nella cartella di destinazione.
+     * <p>
+     * Il nome pubblicato è composto dal prefisso e dal nome originale privato dell'estensione, ripuliti dai caratteri
+     * non ammessi, seguiti dall'estensione del formato riconosciuto. Un file con lo stesso nome viene sostituito,
+     * insieme alle sue miniature. Se le miniature non possono essere generate l'immagine resta comunque pubblicata
+     * e i template mostrano l'originale.
+     * </p>
+     *
+     * @param nomeTemporaneo Il nome restituito da {@link #prepara(MultipartFile)}.
+     * @param cartella       La cartella di destinazione.
+     * @param prefisso       Prefisso del nome del file pubblicato.
+     * @param nomeOriginale  Il nome del file dichiarato dal client (può essere {@code null}).
+     * @return Il percorso relativo del file pubblicato.
+     * @throws IllegalArgumentException se il nome non identifica un file di appoggio.
+     * @throws IOException              se il file di appoggio non esiste più o lo spostamento fallisce.
+     * @since 3.7.0
+     */
+    public String pubblica(String nomeTemporaneo, String cartella, String prefisso, String nomeOriginale) throws IOException {
+        Path sorgente = risolviTemporaneo(nomeTemporaneo);
+        String nome = nomeFile(prefisso, nomeOriginale) + "." + estensione(nomeTemporaneo);
+        Path destinazione = Paths.get(cartella).resolve(nome);
+        Files.createDirectories(destinazione.getParent());
+        try {
+            Files.move(sorgente, destinazione, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(sorgente, destinazione, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try {
+            miniatureService.genera(destinazione);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Miniature non generate per " + destinazione + ": " + e.getMessage());
+        }
+        return cartella + "/" + nome;
+    }
+
+    /**
+     * Elimina un file di appoggio non più necessario. Eventuali errori vengono solo registrati.
+     *
+     * @param nomeTemporaneo Il nome restituito da {@link #prepara(MultipartFile)}; {@code null} è ignorato.
+     * @since 3.7.0
+     */
+    public void scarta(String nomeTemporaneo) {
+        if (nomeTemporaneo == null) return;
+        try {
+            Files.deleteIfExists(risolviTemporaneo(nomeTemporaneo));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Impossibile eliminare il file di appoggio " + nomeTemporaneo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Elimina un'immagine pubblicata e le sue miniature, se presenti.
+     *
+     * @param percorso Il percorso relativo memorizzato nell'entità; {@code null} o vuoto è ignorato.
+     * @throws IOException se l'eliminazione fallisce.
+     * @since 3.7.0
+     */
+    public void elimina(String percorso) throws IOException {
+        if (percorso == null || percorso.isEmpty()) return;
+        Files.deleteIfExists(Paths.get(percorso));
+        miniatureService.elimina(percorso);
+    }
+
+    /**
+     * Rimuove i file di appoggio più vecchi di <code>modulink.upload.staging-ttl</code>.
+     *
+     * @since 3.7.0
+     */
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void pulisciTemporanei() {
+        if (!Files.isDirectory(cartellaTemporanea)) return;
+        FileTime soglia = FileTime.from(Instant.now().minus(durataTemporanei));
+        try (DirectoryStream<Path> file = Files.newDirectoryStream(cartellaTemporanea, PREFISSO_TEMPORANEO + "*")) {
+            for (Path temporaneo : file) {
+                if (Files.getLastModifiedTime(temporaneo).compareTo(soglia) < 0) Files.deleteIfExists(temporaneo);
+            }
+        } catch (IOException e) {
+            System.err.println("Pulizia dei file di appoggio non riuscita: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return La dimensione massima, in byte, di un'immagine caricata.
+     * @since 3.7.0
+     */
+    public long getDimensioneMassima() {
+        return dimensioneMassima;
+    }
+
+    /**
+     * Risolve il nome di un file di appoggio, accettando solo nomi generati da {@link #prepara(MultipartFile)}.
+     */
+    private Path risolviTemporaneo(String nomeTemporaneo) {
+        if (nomeTemporaneo == null || !NOME_TEMPORANEO.matcher(nomeTemporaneo).matches()) {
+            throw new IllegalArgumentException("File di appoggio non valido: " + nomeTemporaneo);
+        }
+        return cartellaTemporanea.resolve(nomeTemporaneo);
+    }
+
+    /**
+     * Restituisce l'estensione di un file di appoggio, verificando che corrisponda a un formato supportato.
+     */
+    private static String estensione(String nomeTemporaneo) {
+        String estensione = nomeTemporaneo.substring(nomeTemporaneo.lastIndexOf('.') + 1);
+        return FormatoImmagine.daEstensione(estensione)
+                .orElseThrow(() -> new IllegalArgumentException("File di appoggio non valido: " + nomeTemporaneo))
+                .getEstensione();
+    }
+
+    /**
+     * Compone il nome del file pubblicato, senza estensione, rimuovendo percorsi e caratteri non ammessi.
+     */
+    private static String nomeFile(String prefisso, String nomeOriginale) {
+        String base = nomeOriginale == null ? "" : nomeOriginale.substring(Math.max(nomeOriginale.lastIndexOf('/'), nomeOriginale.lastIndexOf('\\')) + 1);
+        int punto = base.lastIndexOf('.');
+        if (punto >= 0) base = base.substring(0, punto);
+        if (base.length() > MAX_LUNGHEZZA_NOME) base = base.substring(0, MAX_LUNGHEZZA_NOME);
+        String nome = CARATTERI_NON_AMMESSI.matcher(prefisso + base).replaceAll("_");
+        // Nomi composti da soli punti risolverebbero alla cartella stessa o a quella superiore
+        return nome.replace(".", "").isEmpty() ? "immagine" : nome;
+    }
+
+    private ImmagineNonValidaException dimensioneEccessiva() {
+        return new ImmagineNonValidaException(ImmagineNonValidaException.Motivo.DIMENSIONE,
+                "La dimensione dell’immagine supera " + (dimensioneMassima / (1024 * 1024)) + "MB");
+    }
+}
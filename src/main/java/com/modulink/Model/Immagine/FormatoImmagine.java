@@ -0,0 +1,113 @@
+package com.modulink.Model.Immagine;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formati di immagine accettati per loghi aziendali e immagini di profilo.
+ * <p>
+ * Il formato è riconosciuto dai primi byte del file (<em>magic bytes</em>) e non dal <code>Content-Type</code>
+ * o dall'estensione dichiarati dal client: l'estensione del file salvato è sempre quella del formato riconosciuto.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public enum FormatoImmagine {
+    PNG("png", "image/png") {
+        @Override
+        boolean corrisponde(byte[] intestazione) {
+            return iniziaCon(intestazione, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A);
+        }
+    },
+    JPEG("jpg", "image/jpeg") {
+        @Override
+        boolean corrisponde(byte[] intestazione) {
+            return iniziaCon(intestazione, 0, 0xFF, 0xD8, 0xFF);
+        }
+    },
+    GIF("gif", "image/gif") {
+        @Override
+        boolean corrisponde(byte[] intestazione) {
+            return iniziaCon(intestazione, 0, 'G', 'I', 'F', '8', '7', 'a')
+                    || iniziaCon(intestazione, 0, 'G', 'I', 'F', '8', '9', 'a');
+        }
+    },
+    WEBP("webp", "image/webp") {
+        @Override
+        boolean corrisponde(byte[] intestazione) {
+            return iniziaCon(intestazione, 0, 'R', 'I', 'F', 'F') && iniziaCon(intestazione, 8, 'W', 'E', 'B', 'P');
+        }
+    };
+
+    /**
+     * Numero di byte iniziali sufficienti a riconoscere tutti i formati.
+     */
+    public static final int LUNGHEZZA_INTESTAZIONE = 12;
+
+    private final String estensione;
+    private final String contentType;
+
+    FormatoImmagine(String estensione, String contentType) {
+        this.estensione = estensione;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Verifica se l'intestazione del file corrisponde al formato.
+     *
+     * @param intestazione I primi byte del file (al più {@link #LUNGHEZZA_INTESTAZIONE}).
+     * @return {@code true} se i magic bytes corrispondono.
+     */
+    abstract boolean corrisponde(byte[] intestazione);
+
+    /**
+     * Riconosce il formato a partire dai primi byte del file.
+     *
+     * @param intestazione I primi byte del file.
+     * @return Il formato riconosciuto, o vuoto se il file non è un'immagine supportata.
+     * @since 3.7.0
+     */
+    public static Optional<FormatoImmagine> riconosci(byte[] intestazione) {
+        return Arrays.stream(values()).filter(formato -> formato.corrisponde(intestazione)).findFirst();
+    }
+
+    /**
+     * Restituisce il formato associato a un'estensione.
+     *
+     * @param estensione L'estensione, senza punto.
+     * @return Il formato corrispondente, o vuoto se l'estensione non è supportata.
+     * @since 3.7.0
+     */
+    public static Optional<FormatoImmagine> daEstensione(String estensione) {
+        return Arrays.stream(values()).filter(formato -> formato.estensione.equals(estensione)).findFirst();
+    }
+
+    /**
+     * @return L'estensione dei file salvati in questo formato, senza punto.
+     * @since 3.7.0
+     */
+    public String getEstensione() {
+        return estensione;
+    }
+
+    /**
+     * @return Il MIME type del formato.
+     * @since 3.7.0
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Verifica che l'intestazione contenga la sequenza attesa a partire dalla posizione indicata.
+     */
+    private static boolean iniziaCon(byte[] intestazione, int offset, int... attesi) {
+        if (intestazione.length < offset + attesi.length) return false;
+        for (int i = 0; i < attesi.length; i++) {
+            if ((intestazione[offset + i] & 0xFF) != attesi[i]) return false;
+        }
+        return true;
+    }
+}
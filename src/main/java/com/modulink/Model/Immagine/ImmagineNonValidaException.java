@@ -0,0 +1,57 @@
+package com.modulink.Model.Immagine;
+
+/**
+ * Eccezione controllata (Checked Exception) sollevata quando un file caricato non è un'immagine supportata
+ * o supera la dimensione massima consentita.
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class ImmagineNonValidaException extends Exception {
+
+    /**
+     * Motivo del rifiuto del file.
+     *
+     * @since 3.7.0
+     */
+    public enum Motivo {
+        /** Il contenuto del file non corrisponde a nessun {@link FormatoImmagine} supportato. */
+        FORMATO,
+        /** Il file supera la dimensione massima consentita. */
+        DIMENSIONE
+    }
+
+    private final Motivo motivo;
+
+    /**
+     * Costruisce l'eccezione con il motivo e il messaggio da mostrare all'utente.
+     *
+     * @param motivo    Il motivo del rifiuto.
+     * @param messaggio Il messaggio da mostrare all'utente.
+     * @since 3.7.0
+     */
+    public ImmagineNonValidaException(Motivo motivo, String messaggio) {
+        super(messaggio);
+        this.motivo = motivo;
+    }
+
+    /**
+     * @return Il motivo del rifiuto.
+     * @since 3.7.0
+     */
+    public Motivo getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * Restituisce il codice di errore da registrare nel {@code BindingResult} per il campo indicato.
+     *
+     * @param campo Il nome del campo del form che contiene il file.
+     * @return <code>size.exceeded</code> per i file troppo grandi, <code>error.&lt;campo&gt;</code> altrimenti.
+     * @since 3.7.0
+     */
+    public String getCodice(String campo) {
+        return motivo == Motivo.DIMENSIONE ? "size.exceeded" : "error." + campo;
+    }
+}
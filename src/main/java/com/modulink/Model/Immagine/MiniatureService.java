@@ -0,0 +1,247 @@
+package com.modulink.Model.Immagine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Service che produce e risolve le miniature dei loghi aziendali e delle immagini di profilo.
+ * <p>
+ * Per ogni immagine pubblicata vengono generate, accanto all'originale, le varianti con lato maggiore pari a
+ * {@link #LATI} pixel (es. <code>azienda-logos/123logo.png</code> &rarr; <code>azienda-logos/123logo_128.png</code>),
+ * così le pagine della dashboard, che mostrano logo e avatar nella sidebar, scaricano pochi KB invece
+ * dell'originale (fino a <code>modulink.upload.max-bytes</code>). Le varianti dei JPEG sono JPEG
+ * (qualità <code>modulink.upload.thumbnail-quality</code>); quelle degli altri formati, che possono avere
+ * trasparenza, sono PNG.
+ * </p>
+ * <p>
+ * Le immagini molto grandi vengono decodificate con sottocampionamento, così la memoria usata dipende dalla
+ * dimensione delle miniature e non da quella dell'originale. I formati non decodificabili da ImageIO (es. WebP)
+ * e le immagini caricate prima dell'introduzione delle miniature non hanno varianti:
+ * {@link #variante(String, int)} restituisce in quel caso il percorso originale.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Service
+public class MiniatureService {
+
+    /**
+     * Lato maggiore, in pixel, delle varianti generate.
+     */
+    public static final List<Integer> LATI = List.of(64, 128, 512);
+
+    /**
+     * Lato maggiore minimo dell'immagine decodificata: il sottocampionamento non scende sotto il doppio
+     * della variante più grande, così il ridimensionamento finale conserva la qualità.
+     */
+    private static final int LATO_DECODIFICA = 2 * LATI.get(LATI.size() - 1);
+
+    private final float qualitaJpeg;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param qualitaJpeg Qualità di compressione delle varianti JPEG, tra 0 e 1.
+     * @throws IllegalArgumentException se la qualità non è compresa tra 0 e 1.
+     * @since 3.7.0
+     */
+    public MiniatureService(@Value("${modulink.upload.thumbnail-quality:0.85}") float qualitaJpeg) {
+        if (qualitaJpeg <= 0 || qualitaJpeg > 1) throw new IllegalArgumentException("La qualità delle miniature deve essere compresa tra 0 e 1");
+        this.qualitaJpeg = qualitaJpeg;
+    }
+
+    /**
+     * Genera le varianti di un'immagine pubblicata, sostituendo quelle eventualmente già presenti.
+     * <p>
+     * Un'immagine che ImageIO non sa decodificare viene lasciata senza varianti.
+     * </p>
+     *
+     * @param originale Il file dell'immagine originale.
+     * @throws IOException se la scrittura delle varianti fallisce.
+     * @since 3.7.0
+     */
+    public void genera(Path originale) throws IOException {
+        BufferedImage immagine = leggi(originale);
+        if (immagine == null) {
+            System.err.println("Miniature non generate per " + originale + ": formato non supportato da ImageIO");
+            return;
+        }
+        boolean jpeg = isJpeg(originale.getFileName().toString());
+        for (int lato : LATI) {
+            Path variante = originale.resolveSibling(nomeVariante(originale.getFileName().toString(), lato));
+            Path temporaneo = Files.createTempFile(originale.getParent(), ".miniatura-", ".tmp");
+            try {
+                scrivi(ridimensiona(immagine, lato, jpeg), jpeg, temporaneo);
+                try {
+                    Files.move(temporaneo, variante, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporaneo, variante, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temporaneo);
+            }
+        }
+    }
+
+    /**
+     * Restituisce il percorso della variante da mostrare, o l'originale se la variante non esiste.
+     * <p>
+     * Pensato per i template Thymeleaf (<code>${@miniatureService.variante(utente.azienda.logo, 128)}</code>).
+     * </p>
+     *
+     * @param percorso Il percorso relativo dell'immagine originale.
+     * @param lato     Il lato della variante, uno di {@link #LATI}.
+     * @return Il percorso relativo della variante, o {@code percorso} se non disponibile.
+     * @since 3.7.0
+     */
+    public String variante(String percorso, int lato) {
+        if (percorso == null || percorso.isEmpty() || !LATI.contains(lato)) return percorso;
+        String variante = percorsoVariante(percorso, lato);
+        return Files.isRegularFile(Paths.get(variante)) ? variante : percorso;
+    }
+
+    /**
+     * Elimina le varianti di un'immagine, se presenti.
+     *
+     * @param percorso Il percorso relativo dell'immagine originale; {@code null} o vuoto è ignorato.
+     * @throws IOException se l'eliminazione fallisce.
+     * @since 3.7.0
+     */
+    public void elimina(String percorso) throws IOException {
+        if (percorso == null || percorso.isEmpty()) return;
+        for (int lato : LATI) {
+            Files.deleteIfExists(Paths.get(percorsoVariante(percorso, lato)));
+        }
+    }
+
+    /**
+     * Calcola il percorso di una variante a partire da quello dell'originale.
+     *
+     * @param percorso Il percorso relativo dell'immagine originale.
+     * @param lato     Il lato della variante.
+     * @return Il percorso relativo della variante.
+     * @since 3.7.0
+     */
+    public static String percorsoVariante(String percorso, int lato) {
+        int separatore = percorso.lastIndexOf('/') + 1;
+        return percorso.substring(0, separatore) + nomeVariante(percorso.substring(separatore), lato);
+    }
+
+    /**
+     * Calcola il nome del file di una variante: nome dell'originale senza estensione, lato ed estensione
+     * del formato della variante.
+     */
+    private static String nomeVariante(String nome, int lato) {
+        int punto = nome.lastIndexOf('.');
+        String base = punto > 0 ? nome.substring(0, punto) : nome;
+        return base + "_" + lato + "." + (isJpeg(nome) ? FormatoImmagine.JPEG.getEstensione() : FormatoImmagine.PNG.getEstensione());
+    }
+
+    private static boolean isJpeg(String nome) {
+        String minuscolo = nome.toLowerCase();
+        return minuscolo.endsWith(".jpg") || minuscolo.endsWith(".jpeg");
+    }
+
+    /**
+     * Decodifica l'immagine, sottocampionandola se molto più grande della variante maggiore.
+     *
+     * @return L'immagine decodificata, o {@code null} se nessun lettore ImageIO supporta il formato.
+     */
+    private static BufferedImage leggi(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> lettori = in == null ? null : ImageIO.getImageReaders(in);
+            if (lettori == null || !lettori.hasNext()) return null;
+            ImageReader lettore = lettori.next();
+            try {
+                lettore.setInput(in, true, true);
+                int latoMaggiore = Math.max(lettore.getWidth(0), lettore.getHeight(0));
+                ImageReadParam parametri = lettore.getDefaultReadParam();
+                int passo = Math.max(1, latoMaggiore / LATO_DECODIFICA);
+                parametri.setSourceSubsampling(passo, passo, 0, 0);
+                return lettore.read(0, parametri);
+            } finally {
+                lettore.dispose();
+            }
+        }
+    }
+
+    /**
+     * Riduce l'immagine in modo che il lato maggiore non superi {@code lato}, dimezzandola progressivamente
+     * per evitare l'aliasing di un'unica interpolazione bilineare. Le immagini già più piccole non vengono ingrandite.
+     */
+    private static BufferedImage ridimensiona(BufferedImage sorgente, int lato, boolean jpeg) {
+        double scala = Math.min(1.0, (double) lato / Math.max(sorgente.getWidth(), sorgente.getHeight()));
+        int larghezza = Math.max(1, (int) Math.round(sorgente.getWidth() * scala));
+        int altezza = Math.max(1, (int) Math.round(sorgente.getHeight() * scala));
+        int tipo = jpeg ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage corrente = sorgente;
+        int w = sorgente.getWidth();
+        int h = sorgente.getHeight();
+        do {
+            w = Math.max(larghezza, w / 2);
+            h = Math.max(altezza, h / 2);
+            BufferedImage passo = new BufferedImage(w, h, tipo);
+            Graphics2D g = passo.createGraphics();
+            try {
+                if (jpeg) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                } else {
+                    g.setComposite(AlphaComposite.Src);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(corrente, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            corrente = passo;
+        } while (w != larghezza || h != altezza);
+        return corrente;
+    }
+
+    /**
+     * Codifica la variante in JPEG, con la qualità configurata, o in PNG.
+     */
+    private void scrivi(BufferedImage immagine, boolean jpeg, Path destinazione) throws IOException {
+        if (!jpeg) {
+            ImageIO.write(immagine, "png", destinazione.toFile());
+            return;
+        }
+        ImageWriter scrittore = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(destinazione.toFile())) {
+            ImageWriteParam parametri = scrittore.getDefaultWriteParam();
+            parametri.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            parametri.setCompressionQuality(qualitaJpeg);
+            scrittore.setOutput(out);
+            scrittore.write(null, new IIOImage(immagine, null, null), parametri);
+        } finally {
+            scrittore.dispose();
+        }
+    }
+}
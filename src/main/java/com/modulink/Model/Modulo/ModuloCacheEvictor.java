@@ -0,0 +1,111 @@
+package com.modulink.Model.Modulo;
+
+import com.modulink.TransazioniUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Componente responsabile dell'invalidazione mirata delle cache dei permessi sui moduli.
+ * <p>
+ * Sostituisce l'invalidazione globale ({@code allEntries = true}) con un'invalidazione per azienda:
+ * quando un tenant acquista, dismette o riconfigura un modulo, o modifica i propri ruoli, vengono rimosse soltanto
+ * le entry di <code>permessiUtente</code> appartenenti a quel tenant (chiavi {@link TenantCacheKey})
+ * e, se indicato, la sola entry del modulo coinvolto nella cache <code>modulo</code>.
+ * </p>
+ * <p>
+ * Se invocata all'interno di una transazione, l'invalidazione viene posticipata al commit, evitando che
+ * una richiesta concorrente ripopoli la cache con i permessi non ancora aggiornati.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class ModuloCacheEvictor {
+
+    /**
+     * Cache dei permessi con chiavi partizionate per azienda.
+     */
+    private static final String[] TENANT_CACHES = {"permessiUtente"};
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param cacheManager Il gestore delle cache applicative.
+     * @since 3.7.0
+     */
+    public ModuloCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Invalida i permessi in cache di un'azienda e i metadati del modulo modificato.
+     *
+     * @param idAzienda L'ID dell'azienda i cui permessi sono cambiati.
+     * @param idModulo  L'ID del modulo coinvolto.
+     * @since 3.7.0
+     */
+    public void evictAzienda(int idAzienda, int idModulo) {
+        TransazioniUtil.dopoCommit(() -> {
+            evictTenantEntries(idAzienda);
+            Cache moduloCache = cacheManager.getCache("modulo");
+            if (moduloCache != null) moduloCache.evict(idModulo);
+        });
+    }
+
+    /**
+     * Invalida i permessi in cache di un'azienda, ad esempio dopo una modifica ai ruoli o alle loro associazioni.
+     *
+     * @param idAzienda L'ID dell'azienda i cui permessi sono cambiati.
+     * @since 3.7.0
+     */
+    public void evictAzienda(int idAzienda) {
+        TransazioniUtil.dopoCommit(() -> evictTenantEntries(idAzienda));
+    }
+
+    /**
+     * Rimuove dalle cache partizionate tutte le entry del tenant indicato.
+     * <p>
+     * Per cache il cui storage nativo non è una {@link Map} (provider non Caffeine) ripiega su una
+     * pulizia completa, mantenendo comunque la correttezza.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     */
+    private void evictTenantEntries(int idAzienda) {
+        for (String name : TENANT_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null) continue;
+            Map<Object, Object> entries = nativeMap(cache);
+            if (entries == null) {
+                cache.clear();
+            } else {
+                entries.keySet().removeIf(key -> key instanceof TenantCacheKey tenantKey && tenantKey.idAzienda() == idAzienda);
+            }
+        }
+    }
+
+    /**
+     * Restituisce la vista {@link Map} dello storage nativo della cache, se disponibile.
+     *
+     * @param cache La cache Spring.
+     * @return La mappa sottostante o {@code null} se il provider non la espone.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> nativeMap(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (Map<Object, Object>) caffeine.asMap();
+        }
+        if (nativeCache instanceof Map<?, ?> map) {
+            return (Map<Object, Object>) map;
+        }
+        return null;
+    }
+}
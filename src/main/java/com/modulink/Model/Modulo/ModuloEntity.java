@@ -18,7 +18,7 @@ import java.util.Set;
  * </p>
  *
  * @author Modulink Team
- * @version 2.1.0
+ * @version 2.2.0
  * @since 1.0.0
  */
 @Entity
@@ -88,13 +88,14 @@ public class ModuloEntity {
     /**
      * Insieme delle relazioni di pertinenza che legano il modulo alle aziende.
      * <p>
-     * Relazione 1-N gestita con fetch EAGER per ottimizzare il caricamento delle dashboard.
+     * Relazione 1-N gestita con fetch LAZY: contiene le pertinenze di tutte le aziende, quindi le pagine
+     * leggono solo quelle del proprio tenant tramite {@code PertinenzaService#getRuoliPerModulo}.
      * La cancellazione a cascata assicura l'integrità referenziale.
      * </p>
      *
      * @since 1.0.0
      */
-    @OneToMany(mappedBy = "id_modulo", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "id_modulo", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<PertinenzaEntity> affiliazioni = new HashSet<>();
 
 
@@ -1,6 +1,5 @@
 package com.modulink.Model.Modulo;
 
-import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,42 +15,26 @@ import java.util.List;
  * </p>
  *
  * @author Modulink Team
- * @version 1.4.2
+ * @version 1.5.0
  * @since 1.0.0
  */
 public interface ModuloRepository extends JpaRepository<ModuloEntity, Integer> {
 
     /**
-     * Recupera l'elenco dei moduli a cui un determinato utente ha accesso.
+     * Recupera gli ID dei moduli a cui un determinato utente ha accesso.
      * <p>
-     * La query attraversa la catena di relazioni:
-     * <code>Pertinenza (Modulo-Ruolo) -> Associazione (Ruolo-Utente)</code>.
-     * Restituisce solo i moduli per i quali l'utente possiede un ruolo attivo che ne prevede l'utilizzo (pertinenza).
+     * La query attraversa la catena di relazioni
+     * <code>Associazione (Utente-Ruolo) -> Pertinenza (Ruolo-Modulo)</code> lavorando solo sulle colonne
+     * delle chiavi, senza caricare entità: il risultato alimenta la bitmap dei permessi {@link PermessiModuli}.
      * </p>
      *
-     * @param utente L'entità utente per cui verificare gli accessi.
-     * @return Lista di {@link ModuloEntity} accessibili.
-     * @since 1.2.0
+     * @param idUtente  L'ID dell'utente.
+     * @param idAzienda L'ID dell'azienda dell'utente.
+     * @return Lista degli ID dei moduli accessibili (senza duplicati).
+     * @since 3.7.0
      */
-    @Query("SELECT DISTINCT aff.attivazione.modulo FROM PertinenzaEntity aff " +
-           "JOIN AssociazioneEntity ass ON aff.ruolo = ass.ruolo " +
-           "WHERE ass.utente = :utente")
-    List<ModuloEntity> findModuliByUtente(@Param("utente") UtenteEntity utente);
-
-    /**
-     * Verifica puntuale se uno specifico modulo è accessibile da un utente.
-     * <p>
-     * Esegue un controllo di intersezione tra i moduli abilitati per i ruoli dell'utente
-     * e l'ID del modulo richiesto. Se la lista restituita non è vuota, l'accesso è consentito.
-     * </p>
-     *
-     * @param id     L'ID del modulo da verificare.
-     * @param utente L'utente che richiede l'accesso.
-     * @return Lista contenente il modulo se accessibile, altrimenti vuota.
-     * @since 1.2.5
-     */
-    @Query("SELECT DISTINCT aff.attivazione.modulo FROM PertinenzaEntity aff " +
-            "JOIN AssociazioneEntity ass ON aff.ruolo = ass.ruolo " +
-            "WHERE ass.utente = :utente AND aff.id_modulo= :id")
-    List<ModuloEntity> isModuloAccessible(@Param("id") int id, @Param("utente") UtenteEntity utente);
+    @Query("SELECT DISTINCT aff.id_modulo FROM PertinenzaEntity aff, AssociazioneEntity ass " +
+           "WHERE ass.id_utente = :idUtente AND ass.id_azienda = :idAzienda " +
+           "AND aff.id_azienda = ass.id_azienda AND aff.id_ruolo = ass.id_ruolo")
+    List<Integer> findIdModuliByUtente(@Param("idUtente") int idUtente, @Param("idAzienda") int idAzienda);
 }
@@ -8,7 +8,6 @@ import com.modulink.Model.Relazioni.Attivazione.AttivazioneID;
 import com.modulink.Model.Relazioni.Attivazione.AttivazioneService;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Utente.UtenteEntity;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,8 +24,8 @@ import java.util.stream.Collectors;
  * relazioni di pertinenza tra Aziende e Ruoli.
  * </p>
  * <p>
- * Fa ampio uso delle astrazioni di Caching di Spring ({@link Cacheable}, {@link CacheEvict})
- * per ridurre il carico sul database durante i frequenti controlli di autorizzazione.
+ * Fa ampio uso delle astrazioni di Caching di Spring ({@link Cacheable}) per ridurre il carico sul database
+ * durante i frequenti controlli di autorizzazione; l'invalidazione è delegata a {@link ModuloCacheEvictor}.
  * </p>
  *
  * @author Modulink Team
@@ -38,6 +37,8 @@ public class ModuloService {
     private final ModuloRepository moduloRepository;
     private final PertinenzaService pertinenzaService;
     private final AttivazioneService attivazioneService;
+    private final ModuloCacheEvictor moduloCacheEvictor;
+    private final PermessiModuliService permessiModuliService;
 
     /**
      * Costruttore per Dependency Injection.
@@ -45,35 +46,38 @@ public class ModuloService {
      * @param moduloRepository   Repository principale Moduli.
      * @param pertinenzaService  Service per gestione pertinenze.
      * @param attivazioneService Service per gestione attivazioni.
+     * @param moduloCacheEvictor Componente per l'invalidazione delle cache dei permessi per azienda.
+     * @param permessiModuliService Service per la bitmap dei permessi sui moduli.
      * @since 1.0.0
      */
-    public ModuloService(ModuloRepository moduloRepository, PertinenzaService pertinenzaService, AttivazioneService attivazioneService) {
+    public ModuloService(ModuloRepository moduloRepository, PertinenzaService pertinenzaService, AttivazioneService attivazioneService, ModuloCacheEvictor moduloCacheEvictor, PermessiModuliService permessiModuliService) {
         this.moduloRepository = moduloRepository;
         this.pertinenzaService = pertinenzaService;
         this.attivazioneService = attivazioneService;
+        this.moduloCacheEvictor = moduloCacheEvictor;
+        this.permessiModuliService = permessiModuliService;
     }
 
     /**
-     * Recupera la lista dei moduli accessibili da un utente, con supporto caching.
+     * Recupera la lista dei moduli accessibili da un utente.
      * <p>
-     * Il risultato viene memorizzato nella cache <code>moduliByUtente</code> indicizzata dall'email utente.
-     * Questo evita di rieseguire la complessa query di join ad ogni visualizzazione della dashboard.
+     * La lista è derivata dalla bitmap dei permessi dell'utente ({@link PermessiModuliService}), materializzata
+     * una sola volta e mantenuta nella cache <code>permessiUtente</code> partizionata per azienda.
      * </p>
      *
      * @param utente L'utente richiedente.
-     * @return Lista di moduli abilitati.
+     * @return Lista immutabile di moduli abilitati.
      * @since 1.2.0
      */
-    @Cacheable(value = "moduliByUtente", key = "#utente.email")
     public List<ModuloEntity> findModuliByUtente(UtenteEntity utente) {
-        return moduloRepository.findModuliByUtente(utente);
+        return permessiModuliService.getPermessi(utente).getModuli();
     }
 
     /**
-     * Verifica l'accessibilità puntuale di un modulo, con caching.
+     * Verifica l'accessibilità puntuale di un modulo.
      * <p>
-     * Metodo ad alta frequenza di chiamata (es. nei filtri di sicurezza web).
-     * Il risultato booleano è cachato in <code>moduloAccess</code> con chiave composta {idModulo, email}.
+     * Metodo ad alta frequenza di chiamata (es. nei filtri di sicurezza web): si riduce alla lettura di un bit
+     * nella bitmap dei permessi dell'utente, senza query né entry di cache dedicate per ogni coppia modulo/utente.
      * </p>
      *
      * @param id     ID del modulo.
@@ -81,9 +85,8 @@ public class ModuloService {
      * @return <code>true</code> se l'accesso è consentito, <code>false</code> altrimenti.
      * @since 1.2.5
      */
-    @Cacheable(value = "moduloAccess", key = "{#id, #utente.email}")
     public boolean isAccessibleModulo(int id, UtenteEntity utente) {
-        return !moduloRepository.isModuloAccessible(id, utente).isEmpty();
+        return permessiModuliService.getPermessi(utente).contiene(id);
     }
 
     /**
@@ -113,9 +116,10 @@ public class ModuloService {
      * 3. Aggiunge le nuove associazioni mancanti.
      * </p>
      * <p>
-     * <strong>Gestione Cache:</strong> Essendo un'operazione che modifica i permessi, annotata con {@link CacheEvict}
-     * per invalidare tutte le entry delle cache correlate (<code>moduliByUtente</code>, <code>moduloAccess</code>, <code>modulo</code>),
-     * forzando il ricalcolo dei permessi al prossimo accesso.
+     * <strong>Gestione Cache:</strong> Essendo un'operazione che modifica i permessi, al commit vengono invalidate
+     * tramite {@link ModuloCacheEvictor} le sole entry di <code>permessiUtente</code>
+     * appartenenti all'azienda e la entry del modulo in <code>modulo</code>, forzando il ricalcolo dei permessi
+     * al prossimo accesso senza penalizzare gli altri tenant.
      * </p>
      *
      * @param azienda   L'azienda contesto dell'operazione.
@@ -124,7 +128,6 @@ public class ModuloService {
      * @since 1.5.0
      */
     @Transactional
-    @CacheEvict(value = {"moduliByUtente", "moduloAccess", "modulo"}, allEntries = true)
     public void updateModuloAffiliations(AziendaEntity azienda, int idModulo, List<RuoloEntity> ruoli) {
         ModuloEntity modulo = getModuloById(idModulo);
 
@@ -153,5 +156,6 @@ public class ModuloService {
             }
         }
         moduloRepository.save(modulo);
+        moduloCacheEvictor.evictAzienda(azienda.getId_azienda(), idModulo);
     }
 }
@@ -0,0 +1,85 @@
+package com.modulink.Model.Modulo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insieme compatto e immutabile dei moduli accessibili da un utente.
+ * <p>
+ * I permessi sono memorizzati come {@link BitSet} indicizzato sulla posizione del modulo all'interno di un
+ * catalogo condiviso (istantanea ordinata di tutti i moduli): il controllo di accesso a un modulo costa una
+ * lookup nella mappa degli indici più la lettura di un bit, indipendentemente dal numero di ruoli dell'utente.
+ * La lista dei moduli accessibili (usata dalla sidebar) è derivata dalla stessa struttura.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public final class PermessiModuli {
+
+    /**
+     * Moduli del catalogo, nell'ordine corrispondente ai bit.
+     */
+    private final List<ModuloEntity> catalogo;
+
+    /**
+     * Posizione di ogni modulo (per ID) all'interno del catalogo.
+     */
+    private final Map<Integer, Integer> indici;
+
+    /**
+     * Bit impostati in corrispondenza dei moduli accessibili.
+     */
+    private final BitSet bits;
+
+    /**
+     * Costruisce l'insieme dei permessi a partire dagli ID dei moduli accessibili.
+     * <p>
+     * Gli ID non presenti nel catalogo vengono ignorati.
+     * </p>
+     *
+     * @param catalogo  Moduli del catalogo, ordinati.
+     * @param indici    Posizione di ogni ID modulo nel catalogo.
+     * @param idModuli  ID dei moduli accessibili dall'utente.
+     * @since 3.7.0
+     */
+    PermessiModuli(List<ModuloEntity> catalogo, Map<Integer, Integer> indici, Iterable<Integer> idModuli) {
+        this.catalogo = catalogo;
+        this.indici = indici;
+        this.bits = new BitSet(catalogo.size());
+        for (Integer idModulo : idModuli) {
+            Integer indice = indici.get(idModulo);
+            if (indice != null) bits.set(indice);
+        }
+    }
+
+    /**
+     * Verifica se il modulo indicato è accessibile.
+     *
+     * @param idModulo L'ID del modulo.
+     * @return {@code true} se l'utente possiede un ruolo con pertinenza sul modulo.
+     * @since 3.7.0
+     */
+    public boolean contiene(int idModulo) {
+        Integer indice = indici.get(idModulo);
+        return indice != null && bits.get(indice);
+    }
+
+    /**
+     * Restituisce la lista dei moduli accessibili, derivata dai bit impostati.
+     *
+     * @return Lista immutabile di {@link ModuloEntity}, ordinata per posizione nel catalogo.
+     * @since 3.7.0
+     */
+    public List<ModuloEntity> getModuli() {
+        List<ModuloEntity> moduli = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            moduli.add(catalogo.get(i));
+        }
+        return Collections.unmodifiableList(moduli);
+    }
+}
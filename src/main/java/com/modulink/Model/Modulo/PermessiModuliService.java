@@ -0,0 +1,92 @@
+package com.modulink.Model.Modulo;
+
+import com.modulink.Model.Utente.UtenteEntity;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service Layer che materializza e mantiene in memoria i permessi di accesso ai moduli di ogni utente.
+ * <p>
+ * Per ogni utente viene eseguita una sola query che restituisce gli ID dei moduli raggiungibili tramite la catena
+ * <code>Associazione (Utente-Ruolo) -&gt; Pertinenza (Ruolo-Modulo)</code>; il risultato viene compattato in un
+ * {@link PermessiModuli} e memorizzato nella cache <code>permessiUtente</code>, partizionata per azienda
+ * ({@link TenantKeyGenerator}). La entry viene ricalcolata solo quando {@link ModuloCacheEvictor} la invalida,
+ * ovvero a seguito di modifiche ai ruoli o alle attivazioni dell'azienda.
+ * </p>
+ * <p>
+ * Il catalogo dei moduli (indice ID -&gt; bit) è un'istantanea condivisa tra tutti gli utenti, caricata alla prima
+ * richiesta e ricaricata automaticamente se compare un modulo non ancora noto.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Service
+public class PermessiModuliService {
+
+    private final ModuloRepository moduloRepository;
+
+    /**
+     * Istantanea corrente del catalogo moduli.
+     */
+    private volatile Catalogo catalogo;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param moduloRepository Repository dei moduli.
+     * @since 3.7.0
+     */
+    public PermessiModuliService(ModuloRepository moduloRepository) {
+        this.moduloRepository = moduloRepository;
+    }
+
+    /**
+     * Restituisce i permessi sui moduli dell'utente, materializzandoli al primo accesso.
+     *
+     * @param utente L'utente di cui calcolare i permessi.
+     * @return L'insieme immutabile dei moduli accessibili.
+     * @since 3.7.0
+     */
+    @Cacheable(value = "permessiUtente", keyGenerator = "tenantKeyGenerator")
+    public PermessiModuli getPermessi(UtenteEntity utente) {
+        List<Integer> idModuli = moduloRepository.findIdModuliByUtente(utente.getId_utente(), utente.getAzienda().getId_azienda());
+        Catalogo corrente = catalogo;
+        if (corrente == null || !corrente.indici().keySet().containsAll(idModuli)) {
+            corrente = caricaCatalogo();
+        }
+        return new PermessiModuli(corrente.moduli(), corrente.indici(), idModuli);
+    }
+
+    /**
+     * Ricarica l'istantanea del catalogo moduli dal database.
+     *
+     * @return Il nuovo catalogo.
+     */
+    private synchronized Catalogo caricaCatalogo() {
+        List<ModuloEntity> moduli = moduloRepository.findAll().stream()
+                .sorted(Comparator.comparingInt(ModuloEntity::getId_modulo))
+                .toList();
+        Map<Integer, Integer> indici = new HashMap<>();
+        for (int i = 0; i < moduli.size(); i++) {
+            indici.put(moduli.get(i).getId_modulo(), i);
+        }
+        catalogo = new Catalogo(moduli, Map.copyOf(indici));
+        return catalogo;
+    }
+
+    /**
+     * Istantanea immutabile del catalogo moduli.
+     *
+     * @param moduli Moduli ordinati per ID.
+     * @param indici Posizione di ogni ID modulo nella lista.
+     */
+    private record Catalogo(List<ModuloEntity> moduli, Map<Integer, Integer> indici) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.modulink.Model.Modulo;
+
+/**
+ * Chiave di cache partizionata per azienda (tenant).
+ * <p>
+ * Incapsula la chiave logica della entry insieme all'ID dell'azienda di appartenenza, così che le entry
+ * di un singolo tenant possano essere individuate e invalidate senza toccare quelle degli altri.
+ * </p>
+ *
+ * @param idAzienda L'ID dell'azienda a cui appartiene la entry.
+ * @param key       La chiave logica della entry (es. email utente o coppia modulo-email).
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record TenantCacheKey(int idAzienda, Object key) {
+}
@@ -0,0 +1,53 @@
+package com.modulink.Model.Modulo;
+
+import com.modulink.Model.Utente.UtenteEntity;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Generatore di chiavi di cache per i metodi che ricevono un {@link UtenteEntity} tra i parametri.
+ * <p>
+ * Produce una {@link TenantCacheKey} in cui l'azienda dell'utente fa da partizione e la chiave logica
+ * è composta dagli altri parametri più l'email dell'utente. In questo modo le cache dei permessi
+ * (<code>permessiUtente</code>) possono essere invalidate per singola azienda
+ * tramite {@link ModuloCacheEvictor}.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component("tenantKeyGenerator")
+public class TenantKeyGenerator implements KeyGenerator {
+
+    /**
+     * Genera la chiave partizionata per azienda.
+     *
+     * @param target L'istanza su cui è invocato il metodo.
+     * @param method Il metodo invocato.
+     * @param params I parametri dell'invocazione; deve contenere un {@link UtenteEntity}.
+     * @return La {@link TenantCacheKey} corrispondente.
+     * @throws IllegalArgumentException se tra i parametri non è presente alcun utente.
+     * @since 3.7.0
+     */
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Object[] keyParts = new Object[params.length];
+        UtenteEntity utente = null;
+        for (int i = 0; i < params.length; i++) {
+            if (params[i] instanceof UtenteEntity u) {
+                utente = u;
+                keyParts[i] = u.getEmail();
+            } else {
+                keyParts[i] = params[i];
+            }
+        }
+        if (utente == null || utente.getAzienda() == null) {
+            throw new IllegalArgumentException("Il metodo " + method.getName() + " non riceve un utente con azienda");
+        }
+        return new TenantCacheKey(utente.getAzienda().getId_azienda(), SimpleKeyGenerator.generateKey(keyParts));
+    }
+}
@@ -0,0 +1,90 @@
+package com.modulink.Model.OTP;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Implementazione in memoria di {@link OTPStore}, valida per installazioni a nodo singolo.
+ * <p>
+ * I codici sono mantenuti in una cache Caffeine concorrente e limitata in dimensione
+ * (<code>modulink.otp.max-size</code>): ogni entry scade individualmente al raggiungimento della propria
+ * {@link OTPEntry#scadenza()} e, superato il limite, le entry meno recenti vengono scartate, così che
+ * richieste abbandonate non possano far crescere la memoria senza limiti.
+ * </p>
+ * <p>
+ * È il backend predefinito; viene disattivato impostando <code>modulink.otp.store</code> a un valore diverso
+ * da <code>memory</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+@ConditionalOnProperty(name = "modulink.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOTPStore implements OTPStore {
+
+    private final Cache<String, OTPEntry> codici;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param maxSize Numero massimo di codici attivi contemporaneamente.
+     * @since 3.7.0
+     */
+    public InMemoryOTPStore(@Value("${modulink.otp.max-size:10000}") long maxSize) {
+        this.codici = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ScadenzaEntry())
+                .build();
+    }
+
+    @Override
+    public void salva(String email, OTPEntry entry) {
+        codici.put(email, entry);
+    }
+
+    @Override
+    public Optional<OTPEntry> trova(String email) {
+        return Optional.ofNullable(codici.getIfPresent(email));
+    }
+
+    @Override
+    public void rimuovi(String email) {
+        codici.invalidate(email);
+    }
+
+    @Override
+    public void purga() {
+        codici.cleanUp();
+    }
+
+    /**
+     * Politica di scadenza che fa coincidere la durata di ogni entry con la sua {@link OTPEntry#scadenza()}.
+     */
+    private static final class ScadenzaEntry implements Expiry<String, OTPEntry> {
+
+        @Override
+        public long expireAfterCreate(String email, OTPEntry entry, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), entry.scadenza()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String email, OTPEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(email, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String email, OTPEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.modulink.Model.OTP;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Implementazione di {@link OTPStore} sul database dell'applicazione, per installazioni a più nodi.
+ * <p>
+ * I codici sono persistiti nella tabella <code>otp_code</code> ({@link OTPEntity}), così che qualsiasi istanza
+ * dietro al load balancer possa verificare un codice generato da un'altra e che i codici sopravvivano
+ * al riavvio di un nodo. La pulizia periodica elimina le righe scadute con una singola DELETE.
+ * </p>
+ * <p>
+ * Viene attivata impostando <code>modulink.otp.store=jdbc</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+@ConditionalOnProperty(name = "modulink.otp.store", havingValue = "jdbc")
+public class JdbcOTPStore implements OTPStore {
+
+    private final OTPRepository otpRepository;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param otpRepository Repository dei codici OTP.
+     * @since 3.7.0
+     */
+    public JdbcOTPStore(OTPRepository otpRepository) {
+        this.otpRepository = otpRepository;
+    }
+
+    @Override
+    @Transactional
+    public void salva(String email, OTPEntry entry) {
+        otpRepository.save(new OTPEntity(email, entry));
+    }
+
+    @Override
+    public Optional<OTPEntry> trova(String email) {
+        return otpRepository.findById(email).map(OTPEntity::toEntry);
+    }
+
+    @Override
+    @Transactional
+    public void rimuovi(String email) {
+        otpRepository.deleteById(email);
+    }
+
+    @Override
+    @Transactional
+    public void purga() {
+        otpRepository.deleteScaduti(Instant.now());
+    }
+}
@@ -0,0 +1,96 @@
+package com.modulink.Model.OTP;
+
+import com.modulink.Model.Utente.UtenteID;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Rappresenta un codice OTP attivo persistito sul database condiviso.
+ * <p>
+ * Questa entità mappa la tabella <code>otp_code</code>, utilizzata da {@link JdbcOTPStore} quando più istanze
+ * dell'applicazione devono vedere gli stessi codici (es. richiesta del codice servita da un nodo e verifica
+ * servita da un altro). Dell'utente viene memorizzata soltanto la chiave composta.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Entity
+@Table(name = "otp_code", schema = "modulink", indexes = @Index(name = "idx_otp_code_scadenza", columnList = "scadenza"))
+public class OTPEntity {
+
+    /**
+     * Indirizzo email a cui è stato inviato il codice (chiave primaria).
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @Column(name = "email", length = 320)
+    private String email;
+
+    /**
+     * Il codice OTP.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "codice", nullable = false, length = 16)
+    private String codice;
+
+    /**
+     * ID locale dell'utente che ha richiesto il codice.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_utente", nullable = false)
+    private int id_utente;
+
+    /**
+     * ID dell'azienda dell'utente.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_azienda", nullable = false)
+    private int id_azienda;
+
+    /**
+     * Istante di scadenza del codice.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "scadenza", nullable = false)
+    private Instant scadenza;
+
+    /**
+     * Costruttore predefinito (No-Args) necessario per la riflessione JPA.
+     *
+     * @since 3.7.0
+     */
+    public OTPEntity() {}
+
+    /**
+     * Costruisce la riga a partire da una entry OTP.
+     *
+     * @param email L'indirizzo email.
+     * @param entry Il codice da persistere.
+     * @since 3.7.0
+     */
+    public OTPEntity(String email, OTPEntry entry) {
+        this.email = email;
+        this.codice = entry.codice();
+        this.id_utente = entry.utente().getId_utente();
+        this.id_azienda = entry.utente().getAzienda();
+        this.scadenza = entry.scadenza();
+    }
+
+    /**
+     * Converte la riga nella entry OTP corrispondente.
+     *
+     * @return La {@link OTPEntry} rappresentata dalla riga.
+     * @since 3.7.0
+     */
+    public OTPEntry toEntry() {
+        return new OTPEntry(codice, new UtenteID(id_utente, id_azienda), scadenza);
+    }
+}
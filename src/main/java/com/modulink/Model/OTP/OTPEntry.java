@@ -0,0 +1,35 @@
+package com.modulink.Model.OTP;
+
+import com.modulink.Model.Utente.UtenteID;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Codice OTP attivo per un indirizzo email.
+ * <p>
+ * Contiene soltanto la chiave dell'utente ({@link UtenteID}) e non l'entità completa, così che il
+ * grafo JPA dell'utente non resti referenziato in memoria e che la entry possa essere serializzata
+ * da backend condivisi tra più nodi.
+ * </p>
+ *
+ * @param codice   Il codice OTP generato.
+ * @param utente   La chiave composta dell'utente che ha richiesto il codice.
+ * @param scadenza Istante oltre il quale il codice non è più valido.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record OTPEntry(String codice, UtenteID utente, Instant scadenza) implements Serializable {
+
+    /**
+     * Verifica se il codice è scaduto.
+     *
+     * @param adesso L'istante di riferimento.
+     * @return {@code true} se l'istante indicato è successivo alla scadenza.
+     * @since 3.7.0
+     */
+    public boolean isScaduto(Instant adesso) {
+        return adesso.isAfter(scadenza);
+    }
+}
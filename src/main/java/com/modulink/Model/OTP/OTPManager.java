@@ -1,68 +1,108 @@
 package com.modulink.Model.OTP;
 
 import com.modulink.Model.Utente.UtenteEntity;
+import com.modulink.Model.Utente.UtenteID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 /**
  * Gestore globale per la generazione, memorizzazione e validazione dei codici One-Time Password (OTP).
  * <p>
- * Questa classe implementa un meccanismo di storage in-memory basato su {@link HashMap} per associare temporaneamente
- * codici di sicurezza univoci e oggetti {@link UtenteEntity} all'indirizzo email dell'utente.
- * Viene utilizzata prevalentemente nei flussi di autenticazione a due fattori (2FA) e nel recupero credenziali.
+ * Questa classe associa temporaneamente a ogni indirizzo email un codice di sicurezza univoco e la chiave
+ * ({@link UtenteID}) dell'utente che lo ha richiesto. Viene utilizzata prevalentemente nei flussi
+ * di autenticazione a due fattori (2FA) e nel recupero credenziali.
  * </p>
  * <p>
- * <strong>Nota Tecnica:</strong> La memorizzazione è volatile; il riavvio dell'applicazione comporta
- * la perdita di tutti i codici OTP attivi.
+ * I codici sono conservati in un {@link OTPStore} thread-safe e scadono dopo <code>modulink.otp.ttl</code>;
+ * le entry scadute vengono eliminate periodicamente (<code>modulink.otp.purge-interval-ms</code>).
+ * I codici sono generati da un unico {@link SecureRandom} condiviso.
+ * </p>
+ * <p>
+ * <strong>Nota Tecnica:</strong> con il backend {@link InMemoryOTPStore} la memorizzazione è volatile e locale
+ * al nodo; con {@link JdbcOTPStore} i codici sono condivisi tra le istanze e sopravvivono ai riavvii.
  * </p>
  *
  * @author Modulink Team
- * @version 1.2.7
+ * @version 2.1.0
  * @since 1.0.0
  */
+@Component
 public class OTPManager {
 
     /**
-     * Mappa di associazione tra l'indirizzo email dell'utente e il codice OTP generato.
-     * <p>
-     * La chiave è la stringa email, il valore è la stringa alfanumerica dell'OTP.
-     * </p>
+     * Alfabeto dei codici: lettere maiuscole (A-Z) e cifre (0-9).
      */
-    private static final HashMap<String, String> otpMap = new HashMap<>();
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
 
     /**
-     * Mappa di associazione tra l'indirizzo email dell'utente e l'entità utente completa.
-     * <p>
-     * Memorizza lo stato dell'utente durante il processo di verifica per permettere
-     * operazioni post-validazione senza ulteriori query al database.
-     * </p>
+     * Lunghezza dei codici generati.
+     */
+    private static final int LUNGHEZZA_OTP = 6;
+
+    /**
+     * Durata di validità predefinita di un codice.
      */
-    private static final HashMap<String, UtenteEntity> otpUserEntityMap = new HashMap<>();
+    private static final Duration TTL_PREDEFINITO = Duration.ofMinutes(10);
+
+    /**
+     * Generatore crittograficamente sicuro condiviso (thread-safe).
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final OTPStore otpStore;
+    private final Duration ttl;
 
     /**
      * Costruttore predefinito della classe.
+     * <p>
+     * Crea un gestore autonomo su un {@link InMemoryOTPStore} privato con durata di validità predefinita,
+     * utile al di fuori del contesto Spring.
+     * </p>
      *
      * @since 1.0.0
      */
-    public OTPManager() {}
+    public OTPManager() {
+        this(new InMemoryOTPStore(10_000), TTL_PREDEFINITO);
+    }
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param otpStore Il backend in cui memorizzare i codici.
+     * @param ttl      Durata di validità di ogni codice.
+     * @throws IllegalArgumentException se la durata non è positiva.
+     * @since 3.7.0
+     */
+    @Autowired
+    public OTPManager(OTPStore otpStore, @Value("${modulink.otp.ttl:10m}") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("La durata degli OTP deve essere positiva");
+        this.otpStore = otpStore;
+        this.ttl = ttl;
+    }
 
     /**
      * Genera internamente un codice alfanumerico casuale di 6 caratteri.
      * <p>
      * Utilizza un set di caratteri comprendente lettere maiuscole (A-Z) e cifre (0-9).
-     * La casualità è garantita dall'istanza di {@link Random}.
+     * La casualità è garantita dall'istanza condivisa di {@link SecureRandom}.
      * </p>
      *
      * @return Una stringa di 6 caratteri rappresentante l'OTP.
      * @since 1.0.0
      */
-    private String generateOTP() { //Generatore codice casuale
-        String characters = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder sb = new StringBuilder();
-        Random rnd = new Random();
-        for (int i = 0; i < 6; i++) {
-            sb.append(characters.charAt(rnd.nextInt(characters.length())));
+    private String generateOTP() {
+        StringBuilder sb = new StringBuilder(LUNGHEZZA_OTP);
+        for (int i = 0; i < LUNGHEZZA_OTP; i++) {
+            sb.append(CHARACTERS.charAt(RANDOM.nextInt(CHARACTERS.length())));
         }
         return sb.toString();
     }
@@ -70,8 +110,8 @@ public class OTPManager {
     /**
      * Genera e registra un nuovo codice OTP per una specifica email utente.
      * <p>
-     * Se per l'email fornita esiste già un codice attivo, questo viene invalidato e rimosso
-     * prima di inserire il nuovo identificativo. Associa inoltre l'entità utente per persistenza temporanea.
+     * Se per l'email fornita esiste già un codice attivo, questo viene sostituito dal nuovo.
+     * Dell'utente viene memorizzata soltanto la chiave composta.
      * </p>
      *
      * @param email  L'indirizzo email del destinatario.
@@ -79,21 +119,44 @@ public class OTPManager {
      * @since 1.0.0
      */
     public void addOTP(String email, UtenteEntity utente) {
-        otpMap.remove(email);
-        otpUserEntityMap.remove(email);
-        otpMap.put(email, generateOTP());
-        otpUserEntityMap.put(email, utente);
+        int idAzienda = utente.getAzienda() != null ? utente.getAzienda().getId_azienda() : 0;
+        UtenteID chiave = new UtenteID(utente.getId_utente(), idAzienda);
+        otpStore.salva(email, new OTPEntry(generateOTP(), chiave, Instant.now().plus(ttl)));
+    }
+
+    /**
+     * Recupera la entry ancora valida associata a un'email.
+     *
+     * @param email L'email utente.
+     * @return La entry, se presente e non scaduta.
+     */
+    private Optional<OTPEntry> entryValida(String email) {
+        return otpStore.trova(email).filter(entry -> !entry.isScaduto(Instant.now()));
     }
 
     /**
      * Recupera il codice OTP associato a un'email.
      *
      * @param email La chiave di ricerca (email utente).
-     * @return La stringa del codice OTP se presente, altrimenti {@code null}.
+     * @return La stringa del codice OTP se presente e non scaduto, altrimenti {@code null}.
      * @since 1.0.0
      */
     public String getOTPEmail(String email) {
-        return otpMap.get(email);
+        return entryValida(email).map(OTPEntry::codice).orElse(null);
+    }
+
+    /**
+     * Verifica il codice fornito dall'utente con un confronto a tempo costante.
+     *
+     * @param email  L'email dell'utente.
+     * @param codice Il codice inserito.
+     * @return {@code true} se esiste un codice valido e non scaduto uguale a quello fornito.
+     * @since 3.7.0
+     */
+    public boolean verificaOTP(String email, String codice) {
+        String atteso = getOTPEmail(email);
+        return atteso != null && codice != null
+                && MessageDigest.isEqual(atteso.getBytes(StandardCharsets.UTF_8), codice.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -106,27 +169,27 @@ public class OTPManager {
      * @since 1.1.0
      */
     public void removeOTPEmail(String email) {
-        otpMap.remove(email);
+        otpStore.rimuovi(email);
     }
 
     /**
-     * Recupera l'entità utente associata a una sessione OTP attiva.
+     * Recupera la chiave dell'utente associato a una sessione OTP attiva.
      *
      * @param email L'email associata all'utente.
-     * @return L'istanza di {@link UtenteEntity} salvata nel manager.
-     * @since 1.0.0
+     * @return La chiave composta dell'utente, se il codice è presente e non scaduto.
+     * @since 3.7.0
      */
-    public UtenteEntity getOTPUser(String email) {
-        return otpUserEntityMap.get(email);
+    public Optional<UtenteID> getOTPUserId(String email) {
+        return entryValida(email).map(OTPEntry::utente);
     }
 
     /**
-     * Rimuove l'associazione dell'entità utente per un'email specifica.
+     * Elimina periodicamente dal backend i codici scaduti.
      *
-     * @param email L'email da ripulire.
-     * @since 1.1.0
+     * @since 3.7.0
      */
-    public void removeOTPUser(String email) {
-        otpUserEntityMap.remove(email);
+    @Scheduled(fixedDelayString = "${modulink.otp.purge-interval-ms:60000}", initialDelayString = "${modulink.otp.purge-interval-ms:60000}")
+    public void purgaScaduti() {
+        otpStore.purga();
     }
 }
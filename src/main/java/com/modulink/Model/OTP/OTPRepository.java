@@ -0,0 +1,33 @@
+package com.modulink.Model.OTP;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+/**
+ * Interfaccia DAO per la gestione della persistenza dei codici OTP condivisi.
+ * <p>
+ * Estende {@link JpaRepository} per le operazioni CRUD sull'entità {@link OTPEntity}, indicizzata per email,
+ * e aggiunge la cancellazione massiva dei codici scaduti.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface OTPRepository extends JpaRepository<OTPEntity, String> {
+
+    /**
+     * Elimina in un'unica istruzione tutti i codici scaduti.
+     *
+     * @param adesso L'istante di riferimento.
+     * @return Numero di codici eliminati.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("DELETE FROM OTPEntity o WHERE o.scadenza < :adesso")
+    int deleteScaduti(@Param("adesso") Instant adesso);
+}
@@ -0,0 +1,55 @@
+package com.modulink.Model.OTP;
+
+import java.util.Optional;
+
+/**
+ * Backend di memorizzazione dei codici OTP attivi, indicizzati per email.
+ * <p>
+ * Astrae il luogo in cui vivono i codici, così che {@link OTPManager} possa funzionare sia su un singolo nodo
+ * ({@link InMemoryOTPStore}) sia su più nodi dietro un load balancer ({@link JdbcOTPStore}); il backend viene
+ * selezionato con la proprietà <code>modulink.otp.store</code>. Le implementazioni devono essere thread-safe.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface OTPStore {
+
+    /**
+     * Memorizza il codice per l'email indicata, sostituendo quello eventualmente presente.
+     *
+     * @param email L'indirizzo email del richiedente.
+     * @param entry Il codice con la relativa scadenza.
+     * @since 3.7.0
+     */
+    void salva(String email, OTPEntry entry);
+
+    /**
+     * Recupera il codice attivo per l'email indicata.
+     * <p>
+     * Può restituire anche entry già scadute ma non ancora purgate: la verifica della scadenza
+     * è responsabilità di {@link OTPManager}.
+     * </p>
+     *
+     * @param email L'indirizzo email.
+     * @return Il codice, se presente.
+     * @since 3.7.0
+     */
+    Optional<OTPEntry> trova(String email);
+
+    /**
+     * Rimuove il codice associato all'email indicata.
+     *
+     * @param email L'indirizzo email.
+     * @since 3.7.0
+     */
+    void rimuovi(String email);
+
+    /**
+     * Elimina le entry scadute.
+     *
+     * @since 3.7.0
+     */
+    void purga();
+}
@@ -0,0 +1,52 @@
+package com.modulink.Model.Prodotto;
+
+import java.util.List;
+
+/**
+ * Istantanea delle statistiche di magazzino di un'azienda, conservata nella cache <code>analisiMagazzino</code>.
+ * <p>
+ * I totali complessivi sono ricavati in memoria dalle righe per categoria, senza ulteriori query.
+ * </p>
+ *
+ * @param categorie     I totali per categoria, in ordine alfabetico.
+ * @param piuMovimentati I prodotti con più unità movimentate nel periodo di osservazione.
+ * @param sogliaScorta  La soglia usata per il conteggio dei prodotti sotto scorta.
+ * @param giorni        Il periodo di osservazione dei movimenti, in giorni.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record AnalisiMagazzino(List<RiepilogoCategoria> categorie, List<ProdottoMovimentato> piuMovimentati, int sogliaScorta, int giorni) {
+
+    /**
+     * @return Il numero totale di prodotti a catalogo.
+     * @since 3.7.0
+     */
+    public long getProdotti() {
+        return categorie.stream().mapToLong(RiepilogoCategoria::prodotti).sum();
+    }
+
+    /**
+     * @return La giacenza totale, in unità.
+     * @since 3.7.0
+     */
+    public long getPezzi() {
+        return categorie.stream().mapToLong(RiepilogoCategoria::pezzi).sum();
+    }
+
+    /**
+     * @return Il valore totale della giacenza.
+     * @since 3.7.0
+     */
+    public double getValore() {
+        return categorie.stream().mapToDouble(RiepilogoCategoria::valore).sum();
+    }
+
+    /**
+     * @return Il numero di prodotti sotto la soglia di scorta minima.
+     * @since 3.7.0
+     */
+    public long getSottoScorta() {
+        return categorie.stream().mapToLong(RiepilogoCategoria::sottoScorta).sum();
+    }
+}
@@ -0,0 +1,125 @@
+package com.modulink.Model.Prodotto;
+
+import com.modulink.TransazioniUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service delle statistiche di magazzino del modulo GDM (valore delle scorte, prodotti sotto scorta, prodotti più movimentati).
+ * <p>
+ * Le statistiche sono calcolate dal database con query aggregate (<code>GROUP BY</code>): al client arrivano
+ * solo i totali, mai l'intero catalogo. L'istantanea per azienda ({@link AnalisiMagazzino}) è conservata nella cache
+ * <code>analisiMagazzino</code> e invalidata da {@link ProdottoService} e {@link MagazzinoService} a ogni modifica
+ * del catalogo o delle giacenze; come per {@link CategorieProdottoCache}, l'invalidazione avviene al commit.
+ * </p>
+ * <p>
+ * L'elenco dei prodotti sotto una soglia arbitraria ({@link #findSottoScorta}) non è in cache: è una lettura limitata
+ * servita dall'indice <code>(id_azienda, quantita)</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Service
+public class AnalisiMagazzinoService {
+
+    /**
+     * Nome della cache delle statistiche, indicizzata per ID azienda.
+     */
+    public static final String CACHE = "analisiMagazzino";
+
+    private final CacheManager cacheManager;
+    private final ProdottoRepository prodottoRepository;
+    private final MovimentoMagazzinoRepository movimentoMagazzinoRepository;
+    private final int sogliaScorta;
+    private final int giorni;
+    private final int maxRighe;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param cacheManager                 Il gestore delle cache applicative.
+     * @param prodottoRepository           Repository dei prodotti.
+     * @param movimentoMagazzinoRepository Repository del registro dei movimenti.
+     * @param sogliaScorta                 Giacenza pari o inferiore alla quale un prodotto è considerato sotto scorta.
+     * @param giorni                       Periodo di osservazione dei movimenti, in giorni.
+     * @param maxRighe                     Numero massimo di prodotti restituiti dagli elenchi.
+     * @throws IllegalArgumentException se i parametri non sono validi.
+     * @since 3.7.0
+     */
+    public AnalisiMagazzinoService(CacheManager cacheManager, ProdottoRepository prodottoRepository, MovimentoMagazzinoRepository movimentoMagazzinoRepository,
+                                   @Value("${modulink.gdm.analytics.low-stock-threshold:5}") int sogliaScorta,
+                                   @Value("${modulink.gdm.analytics.movers-days:30}") int giorni,
+                                   @Value("${modulink.gdm.analytics.max-rows:10}") int maxRighe) {
+        if (sogliaScorta < 0 || giorni < 1 || maxRighe < 1) throw new IllegalArgumentException("Parametri delle statistiche di magazzino non validi");
+        this.cacheManager = cacheManager;
+        this.prodottoRepository = prodottoRepository;
+        this.movimentoMagazzinoRepository = movimentoMagazzinoRepository;
+        this.sogliaScorta = sogliaScorta;
+        this.giorni = giorni;
+        this.maxRighe = maxRighe;
+    }
+
+    /**
+     * Restituisce le statistiche di magazzino di un'azienda, calcolandole se non sono in cache.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return L'istantanea delle statistiche.
+     * @since 3.7.0
+     */
+    public AnalisiMagazzino getAnalisi(int idAzienda) {
+        Cache cache = cacheManager.getCache(CACHE);
+        if (cache == null) return calcola(idAzienda);
+        return cache.get(idAzienda, () -> calcola(idAzienda));
+    }
+
+    /**
+     * Recupera i prodotti con giacenza pari o inferiore alla soglia, dal meno fornito.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param soglia    La soglia; {@code null} per quella configurata.
+     * @return Al più <code>modulink.gdm.analytics.max-rows</code> prodotti.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public List<RigaProdotto> findSottoScorta(int idAzienda, Integer soglia) {
+        return prodottoRepository.findSottoScorta(idAzienda, soglia == null ? sogliaScorta : soglia, Limit.of(maxRighe));
+    }
+
+    /**
+     * Invalida le statistiche di un'azienda dopo una modifica del catalogo o delle giacenze.
+     * <p>
+     * Se invocato all'interno di una transazione, l'invalidazione avviene al commit: una lettura concorrente
+     * non può ripopolare la cache con i dati precedenti alla modifica.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    public void invalida(int idAzienda) {
+        TransazioniUtil.dopoCommit(() -> {
+            Cache cache = cacheManager.getCache(CACHE);
+            if (cache != null) cache.evict(idAzienda);
+        });
+    }
+
+    /**
+     * Calcola le statistiche con due query aggregate: totali per categoria e prodotti più movimentati.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return La nuova istantanea.
+     */
+    private AnalisiMagazzino calcola(int idAzienda) {
+        List<RiepilogoCategoria> categorie = prodottoRepository.findRiepilogoCategorie(idAzienda, sogliaScorta);
+        List<ProdottoMovimentato> piuMovimentati = movimentoMagazzinoRepository.findPiuMovimentati(idAzienda, LocalDateTime.now().minusDays(giorni), Limit.of(maxRighe));
+        return new AnalisiMagazzino(List.copyOf(categorie), List.copyOf(piuMovimentati), sogliaScorta, giorni);
+    }
+}
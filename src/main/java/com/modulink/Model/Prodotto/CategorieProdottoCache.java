@@ -0,0 +1,116 @@
+package com.modulink.Model.Prodotto;
+
+import com.modulink.TransazioniUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Elenco in cache delle categorie prodotto di ogni azienda (cache <code>categorieProdotti</code>).
+ * <p>
+ * L'elenco viene letto dal database una volta per azienda e conservato come lista immutabile, così l'apertura
+ * del modulo GDM non ripete una scansione <code>DISTINCT</code> del catalogo. Le modifiche al catalogo non
+ * aggiornano la lista in cache ma la invalidano: la lettura successiva la ricarica dal database. L'invalidazione
+ * viene saltata solo quando un prodotto usa una categoria già presente nell'elenco, che resta quindi corretto.
+ * </p>
+ * <p>
+ * Se invocata all'interno di una transazione, l'invalidazione avviene al commit
+ * ({@link com.modulink.TransazioniUtil#dopoCommit(Runnable)}). La cache è locale a ogni istanza: sulle altre
+ * istanze l'elenco si aggiorna alla scadenza dell'entry (<code>expireAfterWrite</code> in
+ * <code>modulink.cache.categorieProdotti</code>).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class CategorieProdottoCache {
+
+    /**
+     * Nome della cache delle categorie, indicizzata per ID azienda.
+     */
+    public static final String CACHE = "categorieProdotti";
+
+    private final CacheManager cacheManager;
+    private final ProdottoRepository prodottoRepository;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param cacheManager       Il gestore delle cache applicative.
+     * @param prodottoRepository Repository dei prodotti, usato per il caricamento dell'elenco.
+     * @since 3.7.0
+     */
+    public CategorieProdottoCache(CacheManager cacheManager, ProdottoRepository prodottoRepository) {
+        this.cacheManager = cacheManager;
+        this.prodottoRepository = prodottoRepository;
+    }
+
+    /**
+     * Restituisce le categorie di un'azienda in ordine alfabetico, caricandole dal database se non sono in cache.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Le categorie non vuote usate dai prodotti dell'azienda.
+     * @since 3.7.0
+     */
+    public List<String> getCategorie(int idAzienda) {
+        Cache cache = cacheManager.getCache(CACHE);
+        if (cache == null) return carica(idAzienda);
+        return cache.get(idAzienda, () -> carica(idAzienda));
+    }
+
+    /**
+     * Invalida l'elenco di un'azienda se i prodotti creati o modificati usano una categoria che non vi compare.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param categorie Le categorie dei prodotti scritti.
+     * @since 3.7.0
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidaSeNuove(int idAzienda, Collection<String> categorie) {
+        TransazioniUtil.dopoCommit(() -> {
+            Cache cache = cacheManager.getCache(CACHE);
+            if (cache == null) return;
+            List<String> presenti = cache.get(idAzienda, List.class);
+            if (presenti == null) return;
+            for (String categoria : categorie) {
+                if (categoria != null && !categoria.isBlank() && !presenti.contains(categoria)) {
+                    cache.evict(idAzienda);
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     * Invalida l'elenco di un'azienda (es. dopo l'eliminazione di un prodotto o un cambio di categoria).
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    public void invalida(int idAzienda) {
+        TransazioniUtil.dopoCommit(() -> {
+            Cache cache = cacheManager.getCache(CACHE);
+            if (cache != null) cache.evict(idAzienda);
+        });
+    }
+
+    /**
+     * Legge le categorie dal database.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Le categorie non vuote, ordinate e senza duplicati.
+     */
+    private List<String> carica(int idAzienda) {
+        TreeSet<String> categorie = new TreeSet<>();
+        for (String categoria : prodottoRepository.findCategorieByIdAzienda(idAzienda)) {
+            if (categoria != null && !categoria.isBlank()) categorie.add(categoria);
+        }
+        return List.copyOf(categorie);
+    }
+}
@@ -0,0 +1,94 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Criteri di ricerca del catalogo prodotti del modulo GDM.
+ * <p>
+ * Ogni criterio {@code null} non viene applicato. I limiti di quantità e prezzo sono inclusivi.
+ * </p>
+ *
+ * @param nome        Prefisso del nome del prodotto.
+ * @param categoria   Categoria esatta.
+ * @param quantitaMin Giacenza minima.
+ * @param quantitaMax Giacenza massima (es. soglia di scorta bassa).
+ * @param prezzoMin   Prezzo minimo.
+ * @param prezzoMax   Prezzo massimo.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record FiltroProdotti(String nome, String categoria, Integer quantitaMin, Integer quantitaMax,
+                             Double prezzoMin, Double prezzoMax) {
+
+    /**
+     * Filtro che non esclude alcun prodotto.
+     *
+     * @since 3.7.0
+     */
+    public static final FiltroProdotti NESSUNO = new FiltroProdotti(null, null, null, null, null, null);
+
+    /**
+     * Normalizza i criteri: testi vuoti diventano {@code null}.
+     *
+     * @since 3.7.0
+     */
+    public FiltroProdotti {
+        nome = nome == null || nome.isBlank() ? null : nome.trim();
+        categoria = categoria == null || categoria.isBlank() ? null : categoria.trim();
+    }
+
+    /**
+     * Costruisce il filtro a partire dai controlli della pagina GDM, dove la giacenza è espressa
+     * come operatore di confronto e valore.
+     * <p>
+     * Un confronto che nessuna giacenza può soddisfare (maggiore di {@link Integer#MAX_VALUE} o minore di
+     * {@link Integer#MIN_VALUE}) produce un intervallo vuoto, senza overflow.
+     * </p>
+     *
+     * @param nome      Prefisso del nome.
+     * @param categoria Categoria.
+     * @param operatore Operatore sulla giacenza: <code>gt</code> (maggiore), <code>lt</code> (minore) o <code>eq</code> (uguale).
+     * @param quantita  Valore di confronto della giacenza, o {@code null}.
+     * @param prezzoMin Prezzo minimo.
+     * @param prezzoMax Prezzo massimo.
+     * @return Il filtro corrispondente.
+     * @throws IllegalArgumentException se l'operatore non è riconosciuto.
+     * @since 3.7.0
+     */
+    public static FiltroProdotti of(String nome, String categoria, String operatore, Integer quantita, Double prezzoMin, Double prezzoMax) {
+        Integer min = null;
+        Integer max = null;
+        if (quantita != null) {
+            switch (operatore == null ? "gt" : operatore) {
+                case "gt" -> {
+                    if (quantita == Integer.MAX_VALUE) { min = 0; max = -1; }
+                    else min = quantita + 1;
+                }
+                case "lt" -> {
+                    if (quantita == Integer.MIN_VALUE) { min = 0; max = -1; }
+                    else max = quantita - 1;
+                }
+                case "eq" -> { min = quantita; max = quantita; }
+                default -> throw new IllegalArgumentException("Operatore di quantità non valido: " + operatore);
+            }
+        }
+        return new FiltroProdotti(nome, categoria, min, max, prezzoMin, prezzoMax);
+    }
+
+    /**
+     * @return {@code true} se nessun criterio è impostato.
+     * @since 3.7.0
+     */
+    public boolean isVuoto() {
+        return nome == null && categoria == null && quantitaMin == null && quantitaMax == null && prezzoMin == null && prezzoMax == null;
+    }
+
+    /**
+     * @return Il pattern <code>LIKE</code> per il prefisso del nome, con i caratteri speciali protetti da <code>!</code>,
+     * o {@code null} se il nome non è filtrato.
+     * @since 3.7.0
+     */
+    public String patternNome() {
+        if (nome == null) return null;
+        return nome.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
@@ -0,0 +1,153 @@
+package com.modulink.Model.Prodotto;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service responsabile dei movimenti di magazzino (carichi e scarichi) del modulo GDM.
+ * <p>
+ * Ogni movimento aggiorna la giacenza con una singola istruzione condizionale
+ * (<code>UPDATE ... SET quantita = quantita + delta WHERE ... AND quantita + delta &gt;= 0</code>): non c'è lettura
+ * preventiva in Java, quindi due vendite concorrenti non possono perdere un aggiornamento né portare la giacenza sotto
+ * zero, e il lock sulla riga dura solo il tempo dell'istruzione. Nella stessa transazione viene aggiunta una riga al
+ * registro {@link MovimentoMagazzinoEntity}.
+ * </p>
+ * <p>
+ * I movimenti massivi ({@link #registraMovimenti}) sono applicati in un'unica transazione, tutti o nessuno:
+ * le variazioni vengono sommate per prodotto e applicate in ordine di ID, così due batch concorrenti acquisiscono
+ * i lock nello stesso ordine e non possono andare in deadlock. La giacenza viene quindi verificata sull'effetto netto
+ * del batch per ogni prodotto; il registro conserva comunque una riga per ogni movimento richiesto.
+ * </p>
+ * <p>
+ * Ogni movimento confermato invalida le statistiche in cache dell'azienda ({@link AnalisiMagazzinoService}).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.1.0
+ * @since 3.7.0
+ */
+@Service
+public class MagazzinoService {
+
+    private final ProdottoRepository prodottoRepository;
+    private final MovimentoMagazzinoRepository movimentoMagazzinoRepository;
+    private final AnalisiMagazzinoService analisiMagazzinoService;
+    private final int maxMovimentiBatch;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param prodottoRepository           Repository dei prodotti.
+     * @param movimentoMagazzinoRepository Repository del registro dei movimenti.
+     * @param analisiMagazzinoService      Il service delle statistiche di magazzino, da invalidare a ogni movimento.
+     * @param maxMovimentiBatch            Numero massimo di movimenti accettati in una richiesta massiva.
+     * @throws IllegalArgumentException se il limite non è positivo.
+     * @since 3.7.0
+     */
+    public MagazzinoService(ProdottoRepository prodottoRepository, MovimentoMagazzinoRepository movimentoMagazzinoRepository,
+                            AnalisiMagazzinoService analisiMagazzinoService,
+                            @Value("${modulink.gdm.movements.max-batch:1000}") int maxMovimentiBatch) {
+        if (maxMovimentiBatch < 1) throw new IllegalArgumentException("Il numero massimo di movimenti per batch deve essere positivo");
+        this.prodottoRepository = prodottoRepository;
+        this.movimentoMagazzinoRepository = movimentoMagazzinoRepository;
+        this.analisiMagazzinoService = analisiMagazzinoService;
+        this.maxMovimentiBatch = maxMovimentiBatch;
+    }
+
+    /**
+     * Registra un singolo carico o scarico.
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param idProdotto L'ID locale del prodotto.
+     * @param delta      La variazione: positiva per un carico, negativa per uno scarico.
+     * @param idUtente   L'ID dell'utente che registra il movimento.
+     * @return Il valore del movimento (prezzo unitario per quantità movimentata).
+     * @throws ProdottoNotFoundException   se il prodotto non esiste.
+     * @throws ScortaInsufficienteException se lo scarico supera la giacenza.
+     * @throws IllegalArgumentException    se la variazione è nulla.
+     * @throws IllegalStateException       se il carico porterebbe la giacenza oltre {@link Integer#MAX_VALUE}.
+     * @since 3.7.0
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public double registraMovimento(int idAzienda, int idProdotto, int delta, Integer idUtente) throws ProdottoNotFoundException, ScortaInsufficienteException {
+        if (delta == 0) throw new IllegalArgumentException("La variazione di giacenza non può essere nulla");
+        applica(idAzienda, idProdotto, delta);
+        movimentoMagazzinoRepository.save(new MovimentoMagazzinoEntity(idAzienda, idProdotto, delta, idUtente));
+        analisiMagazzinoService.invalida(idAzienda);
+        double prezzo = prodottoRepository.findPrezzoById(idProdotto, idAzienda).orElse(0.0);
+        return prezzo * Math.abs(delta);
+    }
+
+    /**
+     * Registra più movimenti in un'unica transazione: se uno solo non è applicabile, nessuno viene applicato.
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param variazioni I movimenti da registrare.
+     * @param idUtente   L'ID dell'utente che registra i movimenti.
+     * @return Il numero di movimenti registrati.
+     * @throws ProdottoNotFoundException   se un prodotto non esiste.
+     * @throws ScortaInsufficienteException se l'effetto netto su un prodotto supera la sua giacenza.
+     * @throws IllegalArgumentException    se la lista è vuota, supera il limite o contiene variazioni nulle.
+     * @throws IllegalStateException       se l'effetto netto su un prodotto porterebbe la giacenza oltre {@link Integer#MAX_VALUE}.
+     * @since 3.7.0
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int registraMovimenti(int idAzienda, List<VariazioneScorta> variazioni, Integer idUtente) throws ProdottoNotFoundException, ScortaInsufficienteException {
+        if (variazioni == null || variazioni.isEmpty()) throw new IllegalArgumentException("Nessun movimento indicato");
+        if (variazioni.size() > maxMovimentiBatch) throw new IllegalArgumentException("Sono ammessi al massimo " + maxMovimentiBatch + " movimenti per richiesta");
+
+        Map<Integer, Integer> nette = new TreeMap<>();
+        List<MovimentoMagazzinoEntity> registro = new ArrayList<>(variazioni.size());
+        for (VariazioneScorta v : variazioni) {
+            if (v.delta() == 0) throw new IllegalArgumentException("La variazione di giacenza non può essere nulla");
+            nette.merge(v.idProdotto(), v.delta(), Math::addExact);
+            registro.add(new MovimentoMagazzinoEntity(idAzienda, v.idProdotto(), v.delta(), idUtente));
+        }
+        for (Map.Entry<Integer, Integer> netta : nette.entrySet()) {
+            if (netta.getValue() != 0) {
+                applica(idAzienda, netta.getKey(), netta.getValue());
+            } else if (!prodottoRepository.existsById(new ProdottoID(netta.getKey(), idAzienda))) {
+                throw new ProdottoNotFoundException();
+            }
+        }
+        movimentoMagazzinoRepository.saveAll(registro);
+        analisiMagazzinoService.invalida(idAzienda);
+        return registro.size();
+    }
+
+    /**
+     * Elimina il registro dei movimenti di un'azienda (disinstallazione del modulo GDM).
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void deleteAllByAzienda(int idAzienda) {
+        movimentoMagazzinoRepository.deleteAllByIdAzienda(idAzienda);
+        analisiMagazzinoService.invalida(idAzienda);
+    }
+
+    /**
+     * Applica una variazione con l'aggiornamento condizionale e ne interpreta l'esito.
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param idProdotto L'ID locale del prodotto.
+     * @param delta      La variazione.
+     * @throws ProdottoNotFoundException   se il prodotto non esiste.
+     * @throws ScortaInsufficienteException se la giacenza risultante sarebbe negativa.
+     * @throws IllegalStateException       se la giacenza risultante supererebbe {@link Integer#MAX_VALUE}.
+     */
+    private void applica(int idAzienda, int idProdotto, int delta) throws ProdottoNotFoundException, ScortaInsufficienteException {
+        if (prodottoRepository.applicaVariazione(idProdotto, idAzienda, delta) == 0) {
+            if (!prodottoRepository.existsById(new ProdottoID(idProdotto, idAzienda))) throw new ProdottoNotFoundException();
+            if (delta > 0) throw new IllegalStateException("La giacenza del prodotto " + idProdotto + " supererebbe il massimo consentito");
+            throw new ScortaInsufficienteException(idProdotto);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.modulink.Model.Prodotto;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rappresenta una riga del registro dei movimenti di magazzino (carichi e scarichi).
+ * <p>
+ * Questa entità mappa la tabella <code>movimento_magazzino</code>, usata in sola aggiunta: ogni variazione di giacenza
+ * applicata da {@link MagazzinoService} scrive una riga con il prodotto, la variazione con segno, l'utente e l'istante,
+ * nella stessa transazione dell'aggiornamento della giacenza. Le righe non vengono mai modificate.
+ * </p>
+ * <p>
+ * L'identificativo è assegnato da una sequenza (come per l'outbox delle email) invece che dalla colonna
+ * auto-incrementale, così Hibernate può inserire in un unico batch JDBC i movimenti di una richiesta massiva.
+ * </p>
+ * <p>
+ * L'indice su <code>(id_azienda, istante)</code> serve le statistiche sui prodotti più movimentati in un periodo.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.1.0
+ * @since 3.7.0
+ */
+@Entity
+@Table(name = "movimento_magazzino", schema = "modulink", indexes = {
+        @Index(name = "idx_movimento_magazzino_prodotto", columnList = "id_azienda, id_prodotto, id"),
+        @Index(name = "idx_movimento_magazzino_istante", columnList = "id_azienda, istante")
+})
+public class MovimentoMagazzinoEntity {
+
+    /**
+     * Identificativo del movimento, crescente nell'ordine di registrazione.
+     *
+     * @since 3.7.0
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimento_magazzino_seq")
+    @SequenceGenerator(name = "movimento_magazzino_seq", sequenceName = "movimento_magazzino_seq", allocationSize = 50)
+    private long id;
+
+    /**
+     * Azienda proprietaria del prodotto.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_azienda", nullable = false)
+    private int id_azienda;
+
+    /**
+     * ID locale del prodotto movimentato.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_prodotto", nullable = false)
+    private int id_prodotto;
+
+    /**
+     * Variazione della giacenza: positiva per i carichi, negativa per gli scarichi.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "delta", nullable = false)
+    private int delta;
+
+    /**
+     * ID locale dell'utente che ha registrato il movimento.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "id_utente")
+    private Integer id_utente;
+
+    /**
+     * Istante di registrazione.
+     *
+     * @since 3.7.0
+     */
+    @Column(name = "istante", nullable = false)
+    private LocalDateTime istante;
+
+    /**
+     * Costruttore predefinito (No-Args) necessario per la riflessione JPA.
+     *
+     * @since 3.7.0
+     */
+    public MovimentoMagazzinoEntity() {}
+
+    /**
+     * Costruisce un movimento registrato in questo istante.
+     *
+     * @param id_azienda  L'ID dell'azienda.
+     * @param id_prodotto L'ID locale del prodotto.
+     * @param delta       La variazione della giacenza.
+     * @param id_utente   L'ID dell'utente, o {@code null} se non disponibile.
+     * @since 3.7.0
+     */
+    public MovimentoMagazzinoEntity(int id_azienda, int id_prodotto, int delta, Integer id_utente) {
+        this.id_azienda = id_azienda;
+        this.id_prodotto = id_prodotto;
+        this.delta = delta;
+        this.id_utente = id_utente;
+        this.istante = LocalDateTime.now();
+    }
+
+    /**
+     * @return L'ID del movimento.
+     * @since 3.7.0
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return L'ID dell'azienda.
+     * @since 3.7.0
+     */
+    public int getId_azienda() {
+        return id_azienda;
+    }
+
+    /**
+     * @return L'ID locale del prodotto.
+     * @since 3.7.0
+     */
+    public int getId_prodotto() {
+        return id_prodotto;
+    }
+
+    /**
+     * @return La variazione della giacenza.
+     * @since 3.7.0
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * @return L'ID dell'utente, o {@code null}.
+     * @since 3.7.0
+     */
+    public Integer getId_utente() {
+        return id_utente;
+    }
+
+    /**
+     * @return L'istante di registrazione.
+     * @since 3.7.0
+     */
+    public LocalDateTime getIstante() {
+        return istante;
+    }
+}
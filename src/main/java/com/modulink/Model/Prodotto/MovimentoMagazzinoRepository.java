@@ -0,0 +1,54 @@
+package com.modulink.Model.Prodotto;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Interfaccia DAO per il registro dei movimenti di magazzino.
+ * <p>
+ * Il registro è in sola aggiunta: oltre agli inserimenti è prevista soltanto la cancellazione massiva dei movimenti
+ * di un'azienda alla disinstallazione del modulo GDM. Le letture sono aggregate (statistiche di magazzino).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.1.0
+ * @since 3.7.0
+ */
+public interface MovimentoMagazzinoRepository extends JpaRepository<MovimentoMagazzinoEntity, Long> {
+
+    /**
+     * Aggrega i movimenti di un periodo per prodotto, ordinando per unità movimentate (carichi più scarichi).
+     * <p>
+     * I movimenti di prodotti eliminati sono esclusi dal join con il catalogo.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param da        Inizio del periodo.
+     * @param limit     Il numero massimo di prodotti.
+     * @return I prodotti più movimentati nel periodo.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Prodotto.ProdottoMovimentato(m.id_prodotto, p.nome, " +
+            "SUM(CASE WHEN m.delta > 0 THEN m.delta ELSE 0 END), SUM(CASE WHEN m.delta < 0 THEN -m.delta ELSE 0 END), COUNT(m)) " +
+            "FROM MovimentoMagazzinoEntity m JOIN ProdottoEntity p ON p.id_prodotto = m.id_prodotto AND p.azienda.id_azienda = m.id_azienda " +
+            "WHERE m.id_azienda = :idAzienda AND m.istante >= :da " +
+            "GROUP BY m.id_prodotto, p.nome ORDER BY SUM(ABS(m.delta)) DESC, m.id_prodotto")
+    List<ProdottoMovimentato> findPiuMovimentati(@Param("idAzienda") int idAzienda, @Param("da") LocalDateTime da, Limit limit);
+
+    /**
+     * Elimina tutti i movimenti di un'azienda.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Il numero di movimenti eliminati.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("DELETE FROM MovimentoMagazzinoEntity m WHERE m.id_azienda = :idAzienda")
+    int deleteAllByIdAzienda(@Param("idAzienda") int idAzienda);
+}
@@ -0,0 +1,53 @@
+package com.modulink.Model.Prodotto;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Ordinamenti consentiti per il catalogo prodotti del modulo GDM.
+ * <p>
+ * Ogni ordinamento è servito da un indice composto su <code>(id_azienda, campo)</code> della tabella
+ * <code>prodotti</code> e termina con l'ID del prodotto, così le pagine restano stabili a parità di valore.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public enum OrdinamentoProdotti {
+    NOME("nome"),
+    CATEGORIA("categoria"),
+    PREZZO("prezzo"),
+    QUANTITA("quantita");
+
+    private final String campo;
+
+    OrdinamentoProdotti(String campo) {
+        this.campo = campo;
+    }
+
+    /**
+     * Restituisce l'ordinamento corrispondente al parametro della richiesta.
+     *
+     * @param valore Il nome dell'ordinamento, senza distinzione tra maiuscole e minuscole.
+     * @return L'ordinamento, o {@link #NOME} se il valore è assente o non riconosciuto.
+     * @since 3.7.0
+     */
+    public static OrdinamentoProdotti parse(String valore) {
+        if (valore != null) {
+            for (OrdinamentoProdotti o : values()) {
+                if (o.name().equalsIgnoreCase(valore)) return o;
+            }
+        }
+        return NOME;
+    }
+
+    /**
+     * @param discendente {@code true} per l'ordine decrescente.
+     * @return Il {@link Sort} da applicare alla query.
+     * @since 3.7.0
+     */
+    public Sort toSort(boolean discendente) {
+        Sort.Direction direzione = discendente ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direzione, campo).and(Sort.by(direzione, "id_prodotto"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.modulink.Model.Prodotto;
+
+import java.util.List;
+
+/**
+ * Frammento di repository per la scrittura massiva dei prodotti.
+ * <p>
+ * Viene composto in {@link ProdottoRepository} da Spring Data, che ne individua l'implementazione
+ * ({@link ProdottoBatchRepositoryImpl}) tramite il suffisso <code>Impl</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface ProdottoBatchRepository {
+
+    /**
+     * Inserisce più prodotti di un'azienda con un unico batch JDBC.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param righe     I prodotti da inserire, con l'ID locale già assegnato.
+     * @since 3.7.0
+     */
+    void insertAll(int idAzienda, List<RigaProdotto> righe);
+}
@@ -0,0 +1,47 @@
+package com.modulink.Model.Prodotto;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Implementazione JDBC di {@link ProdottoBatchRepository}.
+ * <p>
+ * Le righe vengono inviate con {@link JdbcTemplate#batchUpdate(String, List)}: un solo statement preparato
+ * e un solo round-trip per lotto. Passando da JPA ogni prodotto (chiave composta assegnata) richiederebbe
+ * invece una <code>SELECT</code> di verifica prima dell'<code>INSERT</code>.
+ * </p>
+ * <p>
+ * Lo statement usa la connessione della transazione in corso, quindi gli inserimenti vengono confermati
+ * o annullati insieme al resto dell'importazione.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class ProdottoBatchRepositoryImpl implements ProdottoBatchRepository {
+
+    private static final String INSERT = "INSERT INTO modulink.prodotti (id_prodotto, id_azienda, nome, quantita, prezzo, descrizione, categoria) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param jdbcTemplate Il template JDBC sul datasource dell'applicazione.
+     * @since 3.7.0
+     */
+    public ProdottoBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(int idAzienda, List<RigaProdotto> righe) {
+        if (righe.isEmpty()) return;
+        List<Object[]> parametri = righe.stream()
+                .map(r -> new Object[]{r.idProdotto(), idAzienda, r.nome(), r.quantita(), r.prezzo(), r.descrizione(), r.categoria()})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT, parametri);
+    }
+}
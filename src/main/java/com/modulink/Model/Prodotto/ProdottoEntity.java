@@ -17,15 +17,26 @@ import org.hibernate.annotations.OnDeleteAction;
  * La gestione della concorrenza e dell'integrità referenziale verso l'azienda è garantita da vincoli Foreign Key
  * con clausola <code>ON DELETE CASCADE</code>.
  * </p>
+ * <p>
+ * Gli indici composti con prefisso <code>id_azienda</code> servono i filtri e gli ordinamenti del catalogo paginato
+ * del modulo GDM (nome, categoria, prezzo, giacenza); quello su <code>(id_azienda, id_prodotto)</code> serve
+ * la lettura a blocchi dell'esportazione CSV.
+ * </p>
  *
  * @see ProdottoID
  * @author Modulink Team
- * @version 2.0.1
+ * @version 2.2.0
  * @since 1.2.0
  */
 @Entity
 @IdClass(ProdottoID.class)
-@Table(name = "prodotti", schema = "modulink")
+@Table(name = "prodotti", schema = "modulink", indexes = {
+        @Index(name = "idx_prodotti_azienda_id", columnList = "id_azienda, id_prodotto"),
+        @Index(name = "idx_prodotti_azienda_nome", columnList = "id_azienda, nome"),
+        @Index(name = "idx_prodotti_azienda_categoria_nome", columnList = "id_azienda, categoria, nome"),
+        @Index(name = "idx_prodotti_azienda_prezzo", columnList = "id_azienda, prezzo"),
+        @Index(name = "idx_prodotti_azienda_quantita", columnList = "id_azienda, quantita")
+})
 public class ProdottoEntity {
 
     /**
@@ -0,0 +1,16 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Prodotto con i totali dei movimenti di magazzino registrati in un periodo.
+ *
+ * @param idProdotto L'ID locale del prodotto.
+ * @param nome       Il nome del prodotto.
+ * @param caricati   Le unità caricate (acquisti).
+ * @param scaricati  Le unità scaricate (vendite).
+ * @param movimenti  Il numero di movimenti registrati.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record ProdottoMovimentato(int idProdotto, String nome, long caricati, long scaricati, long movimenti) {
+}
@@ -1,41 +1,36 @@
 package com.modulink.Model.Prodotto;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Interfaccia DAO per la gestione della persistenza dei prodotti.
  * <p>
  * Estende {@link JpaRepository} utilizzando la chiave composta {@link ProdottoID}.
  * Fornisce metodi per le operazioni CRUD standard e query personalizzate per la gestione multi-tenant,
- * filtrando i dati in base all'azienda di appartenenza.
+ * filtrando i dati in base all'azienda di appartenenza. L'inserimento massivo è fornito dal frammento
+ * {@link ProdottoBatchRepository}.
  * </p>
  *
  * @see ProdottoEntity
  * @see ProdottoID
  * @author Modulink Team
- * @version 1.3.3
+ * @version 1.7.0
  * @since 1.2.0
  */
-public interface ProdottoRepository extends JpaRepository<ProdottoEntity, ProdottoID> {
-
-    /**
-     * Recupera il prodotto con l'ID locale più alto per una specifica azienda.
-     * <p>
-     * Questa query è fondamentale per implementare la strategia di auto-incremento manuale "per tenant".
-     * Seleziona l'entità prodotto dove l'ID corrisponde al valore massimo presente per quell'azienda.
-     * </p>
-     *
-     * @param azienda L'azienda per cui calcolare il massimo ID.
-     * @return L'entità {@link ProdottoEntity} con l'ID più alto, o <code>null</code> se nessun prodotto è presente.
-     * @since 1.2.0
-     */
-    @Query("SELECT p FROM ProdottoEntity p WHERE p.azienda = :azienda AND p.id_prodotto = (SELECT MAX(p.id_prodotto) FROM ProdottoEntity p2 WHERE p2.azienda = :azienda)")
-    ProdottoEntity findMaxByAzienda(@Param("azienda") AziendaEntity azienda);
+public interface ProdottoRepository extends JpaRepository<ProdottoEntity, ProdottoID>, ProdottoBatchRepository {
 
     /**
      * Restituisce la lista completa dei prodotti appartenenti a un'azienda.
@@ -64,6 +59,140 @@ public interface ProdottoRepository extends JpaRepository<ProdottoEntity, Prodot
     @Query("SELECT DISTINCT p.categoria FROM ProdottoEntity p WHERE p.azienda = :azienda")
     List<String> findAllCategoriesByAzienda(AziendaEntity azienda);
 
+    /**
+     * Estrae le categorie distinte di un'azienda, servita dall'indice <code>(id_azienda, categoria, nome)</code>.
+     * <p>
+     * Usata per il caricamento di {@link CategorieProdottoCache}.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Le categorie distinte, incluso l'eventuale valore {@code null}.
+     * @since 3.7.0
+     */
+    @Query("SELECT DISTINCT p.categoria FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda")
+    List<String> findCategorieByIdAzienda(@Param("idAzienda") int idAzienda);
+
+    /**
+     * Legge la categoria attualmente memorizzata di un prodotto.
+     * <p>
+     * La query non forza il flush del contesto di persistenza: restituisce il valore salvato nel database anche se
+     * l'entità, ancora gestita (Open Session in View), è già stata modificata e non è stata ancora salvata.
+     * </p>
+     *
+     * @param idProdotto L'ID locale del prodotto.
+     * @param idAzienda  L'ID dell'azienda.
+     * @return La categoria, vuota se il prodotto non esiste o non ha categoria.
+     * @since 3.7.0
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("SELECT p.categoria FROM ProdottoEntity p WHERE p.id_prodotto = :idProdotto AND p.azienda.id_azienda = :idAzienda")
+    Optional<String> findCategoriaById(@Param("idProdotto") int idProdotto, @Param("idAzienda") int idAzienda);
+
+    /**
+     * Recupera un blocco del catalogo di un'azienda in ordine di ID, a partire dall'ID indicato (paginazione keyset).
+     * <p>
+     * Le righe sono proiettate direttamente in {@link RigaProdotto}: l'esportazione non carica entità né l'azienda
+     * associata, e ogni blocco è servito dall'indice <code>(id_azienda, id_prodotto)</code>.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param dopo      L'ultimo ID già letto; {@code -1} per partire dall'inizio.
+     * @param limit     La dimensione del blocco.
+     * @return Le righe successive a <code>dopo</code>.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Prodotto.RigaProdotto(p.id_prodotto, p.nome, p.quantita, p.prezzo, p.descrizione, p.categoria) " +
+            "FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda AND p.id_prodotto > :dopo ORDER BY p.id_prodotto")
+    List<RigaProdotto> findRighe(@Param("idAzienda") int idAzienda, @Param("dopo") int dopo, Limit limit);
+
+    /**
+     * Calcola i totali di magazzino per categoria con un'unica aggregazione.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param soglia    La giacenza pari o inferiore alla quale un prodotto è conteggiato come sotto scorta.
+     * @return Una riga per categoria (inclusa quella nulla), in ordine alfabetico.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Prodotto.RiepilogoCategoria(p.categoria, COUNT(p), SUM(p.quantita), SUM(p.quantita * p.prezzo), " +
+            "SUM(CASE WHEN p.quantita <= :soglia THEN 1 ELSE 0 END)) " +
+            "FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda GROUP BY p.categoria ORDER BY p.categoria")
+    List<RiepilogoCategoria> findRiepilogoCategorie(@Param("idAzienda") int idAzienda, @Param("soglia") int soglia);
+
+    /**
+     * Recupera i prodotti con giacenza pari o inferiore alla soglia, dal meno fornito (servita dall'indice su quantità).
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param soglia    La soglia di giacenza.
+     * @param limit     Il numero massimo di righe.
+     * @return I prodotti sotto scorta.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Prodotto.RigaProdotto(p.id_prodotto, p.nome, p.quantita, p.prezzo, p.descrizione, p.categoria) " +
+            "FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda AND p.quantita <= :soglia ORDER BY p.quantita, p.id_prodotto")
+    List<RigaProdotto> findSottoScorta(@Param("idAzienda") int idAzienda, @Param("soglia") int soglia, Limit limit);
+
+    /**
+     * Legge il prezzo unitario di un prodotto.
+     *
+     * @param idProdotto L'ID locale del prodotto.
+     * @param idAzienda  L'ID dell'azienda.
+     * @return Il prezzo, vuoto se il prodotto non esiste.
+     * @since 3.7.0
+     */
+    @Query("SELECT p.prezzo FROM ProdottoEntity p WHERE p.id_prodotto = :idProdotto AND p.azienda.id_azienda = :idAzienda")
+    Optional<Double> findPrezzoById(@Param("idProdotto") int idProdotto, @Param("idAzienda") int idAzienda);
+
+    /**
+     * Applica atomicamente una variazione alla giacenza di un prodotto, solo se il risultato non è negativo.
+     * <p>
+     * Lettura, verifica e scrittura avvengono nella stessa istruzione <code>UPDATE</code>: aggiornamenti concorrenti
+     * sulla stessa riga vengono serializzati dal database e nessuno può essere perso. La giacenza risultante è
+     * calcolata su 64 bit e deve restare tra 0 e {@link Integer#MAX_VALUE}: un carico che la porterebbe oltre
+     * il massimo rappresentabile non modifica la riga.
+     * </p>
+     *
+     * @param idProdotto L'ID locale del prodotto.
+     * @param idAzienda  L'ID dell'azienda.
+     * @param delta      La variazione: positiva per un carico, negativa per uno scarico.
+     * @return 1 se la giacenza è stata aggiornata, 0 se il prodotto non esiste o la giacenza risultante sarebbe
+     *         negativa o superiore a {@link Integer#MAX_VALUE}.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("UPDATE ProdottoEntity p SET p.quantita = p.quantita + :delta " +
+            "WHERE p.id_prodotto = :idProdotto AND p.azienda.id_azienda = :idAzienda " +
+            "AND CAST(p.quantita AS Long) + :delta BETWEEN 0 AND 2147483647")
+    int applicaVariazione(@Param("idProdotto") int idProdotto, @Param("idAzienda") int idAzienda, @Param("delta") int delta);
+
+    /**
+     * Legge una pagina del catalogo di un'azienda applicando i filtri indicati.
+     * <p>
+     * Ogni filtro {@code null} viene ignorato. Il prefisso del nome è un pattern <code>LIKE</code> ancorato all'inizio
+     * (<code>abc%</code>), quindi utilizzabile dall'indice <code>(id_azienda, nome)</code>; con la collation predefinita
+     * di MySQL il confronto non distingue maiuscole e minuscole. L'ordinamento è quello del {@link Pageable}, limitato ai
+     * campi di {@link OrdinamentoProdotti}.
+     * </p>
+     *
+     * @param idAzienda   L'ID dell'azienda.
+     * @param nome        Pattern del prefisso del nome, con <code>!</code> come carattere di escape.
+     * @param categoria   Categoria esatta.
+     * @param quantitaMin Giacenza minima.
+     * @param quantitaMax Giacenza massima.
+     * @param prezzoMin   Prezzo minimo.
+     * @param prezzoMax   Prezzo massimo.
+     * @param pageable    Pagina e ordinamento richiesti.
+     * @return La pagina di prodotti, con il totale dei risultati.
+     * @since 3.7.0
+     */
+    @Query("SELECT p FROM ProdottoEntity p WHERE p.azienda.id_azienda = :idAzienda " +
+            "AND (:nome IS NULL OR p.nome LIKE :nome ESCAPE '!') " +
+            "AND (:categoria IS NULL OR p.categoria = :categoria) " +
+            "AND (:quantitaMin IS NULL OR p.quantita >= :quantitaMin) AND (:quantitaMax IS NULL OR p.quantita <= :quantitaMax) " +
+            "AND (:prezzoMin IS NULL OR p.prezzo >= :prezzoMin) AND (:prezzoMax IS NULL OR p.prezzo <= :prezzoMax)")
+    Page<ProdottoEntity> findPagina(@Param("idAzienda") int idAzienda, @Param("nome") String nome, @Param("categoria") String categoria,
+                                    @Param("quantitaMin") Integer quantitaMin, @Param("quantitaMax") Integer quantitaMax,
+                                    @Param("prezzoMin") Double prezzoMin, @Param("prezzoMax") Double prezzoMax, Pageable pageable);
+
     /**
      * Elimina massivamente tutti i prodotti associati a un'azienda.
      * <p>
@@ -1,11 +1,24 @@
 package com.modulink.Model.Prodotto;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service Layer responsabile della logica di business relativa alla gestione del magazzino prodotti.
@@ -14,9 +27,21 @@ import java.util.Optional;
  * per il multi-tenancy, come la generazione sequenziale degli ID per singola azienda
  * e la validazione dell'appartenenza delle risorse.
  * </p>
+ * <p>
+ * Il catalogo viene consultato a pagine filtrate e ordinate dal database ({@link #findPagina}); l'elenco delle categorie
+ * è servito da {@link CategorieProdottoCache}, invalidata quando una creazione, modifica o eliminazione può cambiarlo.
+ * </p>
+ * <p>
+ * L'importazione massiva ({@link #importa}) consuma le righe una alla volta e le scrive a lotti con un batch JDBC,
+ * riservando gli ID di ogni lotto con un solo accesso al contatore; l'esportazione legge il catalogo a blocchi
+ * ({@link #findRighe}). La dimensione dei lotti e dei blocchi è <code>modulink.gdm.csv.batch-size</code>.
+ * </p>
+ * <p>
+ * Ogni scrittura sul catalogo invalida anche le statistiche in cache dell'azienda ({@link AnalisiMagazzinoService}).
+ * </p>
  *
  * @author Modulink Team
- * @version 1.6.2
+ * @version 1.9.0
  * @since 1.2.0
  */
 @Service
@@ -28,24 +53,45 @@ public class ProdottoService {
      * @since 1.2.0
      */
     private final ProdottoRepository prodottoRepository;
+    private final ContatoreService contatoreService;
+    private final CategorieProdottoCache categorieProdottoCache;
+    private final AnalisiMagazzinoService analisiMagazzinoService;
+    private final int dimensionePagina;
+    private final int dimensioneLotto;
 
     /**
      * Costruttore per Dependency Injection.
      *
-     * @param prodottoRepository L'istanza iniettata del repository prodotti.
+     * @param prodottoRepository     L'istanza iniettata del repository prodotti.
+     * @param contatoreService       Il service che assegna gli ID locali per azienda.
+     * @param categorieProdottoCache La cache delle categorie per azienda.
+     * @param analisiMagazzinoService Il service delle statistiche di magazzino, da invalidare a ogni modifica.
+     * @param dimensionePagina       Numero di prodotti per pagina del catalogo.
+     * @param dimensioneLotto        Numero di prodotti per lotto di importazione e per blocco di esportazione.
+     * @throws IllegalArgumentException se la dimensione della pagina o del lotto non è positiva.
      * @since 1.2.0
      */
-    public ProdottoService(ProdottoRepository prodottoRepository) {
+    public ProdottoService(ProdottoRepository prodottoRepository, ContatoreService contatoreService, CategorieProdottoCache categorieProdottoCache,
+                           AnalisiMagazzinoService analisiMagazzinoService,
+                           @Value("${modulink.gdm.page-size:50}") int dimensionePagina,
+                           @Value("${modulink.gdm.csv.batch-size:1000}") int dimensioneLotto) {
+        if (dimensionePagina < 1) throw new IllegalArgumentException("La dimensione della pagina del catalogo deve essere positiva");
+        if (dimensioneLotto < 1) throw new IllegalArgumentException("La dimensione del lotto di importazione deve essere positiva");
         this.prodottoRepository = prodottoRepository;
+        this.contatoreService = contatoreService;
+        this.categorieProdottoCache = categorieProdottoCache;
+        this.analisiMagazzinoService = analisiMagazzinoService;
+        this.dimensionePagina = dimensionePagina;
+        this.dimensioneLotto = dimensioneLotto;
     }
 
     /**
      * Crea e persiste un nuovo prodotto, calcolando automaticamente il prossimo ID disponibile.
      * <p>
      * Questo metodo implementa una logica di autoincremento personalizzata per tenant.
-     * Esegue una query per trovare l'ID massimo corrente per l'azienda specificata e assegna
-     * al nuovo prodotto il valore <code>MAX(ID) + 1</code>. Se non esistono prodotti, l'ID parte da 0.
-     * L'operazione è atomica grazie all'annotazione {@link Transactional}.
+     * L'ID viene richiesto alla sequenza dell'azienda gestita da {@link ContatoreService}, che lo distribuisce
+     * da un blocco riservato in memoria: l'assegnazione è O(1) e sicura anche con inserimenti concorrenti.
+     * Se non esistono prodotti, l'ID parte da 0.
      * </p>
      *
      * @param prodotto L'entità prodotto da salvare (con ID ancora non assegnato).
@@ -53,10 +99,70 @@ public class ProdottoService {
      */
     @Transactional
     public void save(ProdottoEntity prodotto) {
-        ProdottoEntity pMax=prodottoRepository.findMaxByAzienda(prodotto.getAzienda());
-        if(pMax==null) prodotto.setId_prodotto(0);
-        else prodotto.setId_prodotto(pMax.getId_prodotto()+1);
+        prodotto.setId_prodotto(contatoreService.prossimoId(prodotto.getAzienda().getId_azienda(), TipoContatore.PRODOTTO));
         prodottoRepository.save(prodotto);
+        categorieProdottoCache.invalidaSeNuove(prodotto.getAzienda().getId_azienda(), Collections.singletonList(prodotto.getCategoria()));
+        analisiMagazzinoService.invalida(prodotto.getAzienda().getId_azienda());
+    }
+
+    /**
+     * Importa un insieme di prodotti in un'unica transazione.
+     * <p>
+     * Le righe vengono consumate man mano e accumulate in lotti di <code>modulink.gdm.csv.batch-size</code> elementi:
+     * per ogni lotto viene riservato un intervallo di ID ({@link ContatoreService#riservaIntervallo}) e le righe vengono
+     * scritte con un unico batch JDBC. In memoria resta al più un lotto, qualunque sia il numero di righe.
+     * Se l'iteratore solleva un'eccezione (ad esempio per una riga non valida) l'intera importazione viene annullata.
+     * </p>
+     *
+     * @param azienda L'azienda proprietaria dei prodotti.
+     * @param righe   Le righe da importare; l'ID indicato in ciascuna riga viene ignorato e riassegnato.
+     * @return Il numero di prodotti importati.
+     * @since 3.7.0
+     */
+    @Transactional
+    public int importa(AziendaEntity azienda, Iterator<RigaProdotto> righe) {
+        int idAzienda = azienda.getId_azienda();
+        List<RigaProdotto> lotto = new ArrayList<>(dimensioneLotto);
+        Set<String> categorie = new HashSet<>();
+        int importati = 0;
+        while (righe.hasNext()) {
+            lotto.add(righe.next());
+            if (lotto.size() == dimensioneLotto || !righe.hasNext()) {
+                int primoId = contatoreService.riservaIntervallo(idAzienda, TipoContatore.PRODOTTO, lotto.size());
+                List<RigaProdotto> conId = new ArrayList<>(lotto.size());
+                for (RigaProdotto riga : lotto) {
+                    conId.add(riga.conId(primoId++));
+                    categorie.add(riga.categoria());
+                }
+                prodottoRepository.insertAll(idAzienda, conId);
+                importati += lotto.size();
+                lotto.clear();
+            }
+        }
+        categorieProdottoCache.invalidaSeNuove(idAzienda, categorie);
+        analisiMagazzinoService.invalida(idAzienda);
+        return importati;
+    }
+
+    /**
+     * Recupera il blocco successivo del catalogo per l'esportazione, in ordine di ID.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param dopo      L'ultimo ID già letto; {@code -1} per il primo blocco.
+     * @return Al più <code>modulink.gdm.csv.batch-size</code> righe; una lista più corta indica l'ultimo blocco.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public List<RigaProdotto> findRighe(int idAzienda, int dopo) {
+        return prodottoRepository.findRighe(idAzienda, dopo, Limit.of(dimensioneLotto));
+    }
+
+    /**
+     * @return Il numero di prodotti per lotto di importazione e per blocco di esportazione.
+     * @since 3.7.0
+     */
+    public int getDimensioneLotto() {
+        return dimensioneLotto;
     }
 
     /**
@@ -76,13 +182,16 @@ public class ProdottoService {
         Optional<ProdottoEntity> prodotto = prodottoRepository.findById(new ProdottoID(idProdotto, azienda.getId_azienda()));
         if(prodotto.isEmpty()) throw new ProdottoNotFoundException();
         prodottoRepository.delete(prodotto.get());
+        if (prodotto.get().getCategoria() != null) categorieProdottoCache.invalida(azienda.getId_azienda());
+        analisiMagazzinoService.invalida(azienda.getId_azienda());
     }
 
     /**
      * Aggiorna i dati di un prodotto esistente.
      * <p>
      * Utilizza {@link ProdottoRepository#save(Object)} che, in presenza di una chiave primaria valorizzata,
-     * esegue un <code>merge</code> dell'entità nel contesto di persistenza.
+     * esegue un <code>merge</code> dell'entità nel contesto di persistenza. Se la categoria cambia, l'elenco
+     * delle categorie in cache viene invalidato.
      * </p>
      *
      * @param prodotto L'entità prodotto con i dati aggiornati.
@@ -90,7 +199,11 @@ public class ProdottoService {
      */
     @Transactional
     public void updateProdotto(ProdottoEntity prodotto) {
+        int idAzienda = prodotto.getAzienda().getId_azienda();
+        String precedente = prodottoRepository.findCategoriaById(prodotto.getId_prodotto(), idAzienda).orElse(null);
         prodottoRepository.save(prodotto);
+        if (!Objects.equals(precedente, prodotto.getCategoria())) categorieProdottoCache.invalida(idAzienda);
+        analisiMagazzinoService.invalida(idAzienda);
     }
 
     /**
@@ -104,15 +217,41 @@ public class ProdottoService {
         return prodottoRepository.findAllByAzienda(azienda);
     }
 
+    /**
+     * Recupera una pagina del catalogo di un'azienda, filtrata e ordinata dal database.
+     * <p>
+     * Il numero di pagina viene limitato in modo che l'offset della query resti rappresentabile come {@code int}:
+     * una pagina oltre la fine restituisce una pagina vuota.
+     * </p>
+     *
+     * @param azienda     L'azienda di riferimento.
+     * @param filtro      I criteri di ricerca.
+     * @param ordinamento Il campo di ordinamento.
+     * @param discendente {@code true} per l'ordine decrescente.
+     * @param pagina      Il numero della pagina, a partire da 0.
+     * @return La pagina di prodotti, con il numero totale di risultati.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public Page<ProdottoEntity> findPagina(AziendaEntity azienda, FiltroProdotti filtro, OrdinamentoProdotti ordinamento, boolean discendente, int pagina) {
+        int numero = Math.min(Math.max(pagina, 0), Integer.MAX_VALUE / dimensionePagina);
+        Pageable pageable = PageRequest.of(numero, dimensionePagina, ordinamento.toSort(discendente));
+        return prodottoRepository.findPagina(azienda.getId_azienda(), filtro.patternNome(), filtro.categoria(),
+                filtro.quantitaMin(), filtro.quantitaMax(), filtro.prezzoMin(), filtro.prezzoMax(), pageable);
+    }
+
     /**
      * Recupera l'elenco delle categorie merceologiche definite da un'azienda.
+     * <p>
+     * L'elenco è servito da {@link CategorieProdottoCache} ed è ordinato alfabeticamente; le categorie vuote sono escluse.
+     * </p>
      *
      * @param azienda L'azienda di riferimento.
      * @return Lista di stringhe univoche rappresentanti le categorie.
      * @since 1.3.0
      */
     public List<String> findAllCategoriesByAzienda(AziendaEntity azienda) {
-        return prodottoRepository.findAllCategoriesByAzienda(azienda);
+        return categorieProdottoCache.getCategorie(azienda.getId_azienda());
     }
 
     /**
@@ -143,5 +282,7 @@ public class ProdottoService {
     public void deleteAllByAzienda(AziendaEntity azienda) {
         prodottoRepository.deleteAllByAzienda(azienda);
         prodottoRepository.flush();
+        categorieProdottoCache.invalida(azienda.getId_azienda());
+        analisiMagazzinoService.invalida(azienda.getId_azienda());
     }
 }
@@ -0,0 +1,16 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Totali di magazzino di una categoria, calcolati dal database con un'unica aggregazione <code>GROUP BY</code>.
+ *
+ * @param categoria   La categoria; {@code null} per i prodotti senza categoria.
+ * @param prodotti    Il numero di prodotti della categoria.
+ * @param pezzi       La giacenza complessiva.
+ * @param valore      Il valore della giacenza (somma di quantità per prezzo).
+ * @param sottoScorta Il numero di prodotti con giacenza pari o inferiore alla soglia di scorta minima.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record RiepilogoCategoria(String categoria, long prodotti, long pezzi, double valore, long sottoScorta) {
+}
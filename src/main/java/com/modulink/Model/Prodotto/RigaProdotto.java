@@ -0,0 +1,32 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Riga del catalogo prodotti usata dall'importazione e dall'esportazione massiva.
+ * <p>
+ * Contiene i soli campi anagrafici del prodotto, senza il riferimento all'azienda: l'esportazione la costruisce
+ * direttamente dalla query (constructor expression JPQL), senza caricare entità nel contesto di persistenza.
+ * </p>
+ *
+ * @param idProdotto  L'ID locale del prodotto.
+ * @param nome        Il nome del prodotto.
+ * @param quantita    La giacenza.
+ * @param prezzo      Il prezzo unitario.
+ * @param descrizione La descrizione.
+ * @param categoria   La categoria.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record RigaProdotto(int idProdotto, String nome, int quantita, double prezzo, String descrizione, String categoria) {
+
+    /**
+     * Restituisce la stessa riga con l'ID indicato.
+     *
+     * @param idProdotto Il nuovo ID locale.
+     * @return Una nuova riga con l'ID assegnato.
+     * @since 3.7.0
+     */
+    public RigaProdotto conId(int idProdotto) {
+        return new RigaProdotto(idProdotto, nome, quantita, prezzo, descrizione, categoria);
+    }
+}
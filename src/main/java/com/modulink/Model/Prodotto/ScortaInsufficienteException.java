@@ -0,0 +1,32 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Eccezione controllata (Checked Exception) sollevata quando uno scarico porterebbe la giacenza di un prodotto sotto zero.
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class ScortaInsufficienteException extends Exception {
+
+    private final int idProdotto;
+
+    /**
+     * Costruisce l'eccezione per il prodotto indicato.
+     *
+     * @param idProdotto L'ID locale del prodotto con giacenza insufficiente.
+     * @since 3.7.0
+     */
+    public ScortaInsufficienteException(int idProdotto) {
+        super("Giacenza insufficiente per il prodotto " + idProdotto);
+        this.idProdotto = idProdotto;
+    }
+
+    /**
+     * @return L'ID locale del prodotto con giacenza insufficiente.
+     * @since 3.7.0
+     */
+    public int getIdProdotto() {
+        return idProdotto;
+    }
+}
@@ -0,0 +1,13 @@
+package com.modulink.Model.Prodotto;
+
+/**
+ * Variazione di giacenza richiesta per un prodotto.
+ *
+ * @param idProdotto L'ID locale del prodotto.
+ * @param delta      La variazione: positiva per un carico, negativa per uno scarico.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record VariazioneScorta(int idProdotto, int delta) {
+}
@@ -0,0 +1,27 @@
+package com.modulink.Model.Relazioni.Assegnazione;
+
+import java.util.Collection;
+
+/**
+ * Frammento di repository per la scrittura massiva delle assegnazioni.
+ * <p>
+ * Viene composto in {@link AssegnazioneRepository} da Spring Data, che ne individua l'implementazione
+ * ({@link AssegnazioneBatchRepositoryImpl}) tramite il suffisso <code>Impl</code>.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public interface AssegnazioneBatchRepository {
+
+    /**
+     * Inserisce le assegnazioni di un Task a più Utenti con un unico batch JDBC.
+     *
+     * @param idTask    L'ID del Task.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param idUtenti  Gli ID degli Utenti a cui assegnare il Task.
+     * @since 3.7.0
+     */
+    void insertAll(int idTask, int idAzienda, Collection<Integer> idUtenti);
+}
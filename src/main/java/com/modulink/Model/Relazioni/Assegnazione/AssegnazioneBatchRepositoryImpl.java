@@ -0,0 +1,47 @@
+package com.modulink.Model.Relazioni.Assegnazione;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementazione JDBC di {@link AssegnazioneBatchRepository}.
+ * <p>
+ * Le righe vengono inviate con {@link JdbcTemplate#batchUpdate(String, List)}: un solo statement preparato
+ * e un solo round-trip per blocco, invece di un <code>INSERT</code> per utente. Con MySQL, aggiungendo
+ * <code>rewriteBatchedStatements=true</code> all'URL del datasource, il driver riscrive il batch come
+ * <code>INSERT</code> multi-riga.
+ * </p>
+ * <p>
+ * Lo statement usa la connessione della transazione in corso, quindi gli inserimenti vengono confermati
+ * o annullati insieme al resto dell'operazione.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class AssegnazioneBatchRepositoryImpl implements AssegnazioneBatchRepository {
+
+    private static final String INSERT = "INSERT INTO modulink.assegnazione (ID_Task, ID_Azienda, ID_Utente) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param jdbcTemplate Il template JDBC sul datasource dell'applicazione.
+     * @since 3.7.0
+     */
+    public AssegnazioneBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void insertAll(int idTask, int idAzienda, Collection<Integer> idUtenti) {
+        if (idUtenti.isEmpty()) return;
+        List<Object[]> righe = idUtenti.stream().map(idUtente -> new Object[]{idTask, idAzienda, idUtente}).toList();
+        jdbcTemplate.batchUpdate(INSERT, righe);
+    }
+}
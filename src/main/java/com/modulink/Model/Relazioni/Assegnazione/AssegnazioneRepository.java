@@ -1,5 +1,6 @@
 package com.modulink.Model.Relazioni.Assegnazione;
 
+import com.modulink.Model.Eventi.VoceCalendario;
 import com.modulink.Model.Task.TaskEntity;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -7,6 +8,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,14 +17,14 @@ import java.util.Optional;
  * Repository JPA per la gestione delle operazioni CRUD e delle query personalizzate sull'entità {@link AssegnazioneEntity}.
  * <p>
  * Fornisce metodi per trovare assegnazioni per utente, eliminare assegnazioni specifiche o basate su task e azienda,
- * e inserire nuove assegnazioni.
+ * e inserire nuove assegnazioni. L'inserimento massivo è fornito dal frammento {@link AssegnazioneBatchRepository}.
  * </p>
  *
  * @author Modulink Team
- * @version 2.1.0
+ * @version 2.4.0
  * @since 1.0.5
  */
-public interface AssegnazioneRepository extends JpaRepository<AssegnazioneEntity, AssegnazioneID> {
+public interface AssegnazioneRepository extends JpaRepository<AssegnazioneEntity, AssegnazioneID>, AssegnazioneBatchRepository {
 
     /**
      * Trova tutte le assegnazioni associate a uno specifico utente.
@@ -53,6 +56,64 @@ public interface AssegnazioneRepository extends JpaRepository<AssegnazioneEntity
     @Query(value = "DELETE FROM assegnazione WHERE ID_Task = :idTask AND ID_Azienda = :idAzienda AND ID_Utente = :idUtente", nativeQuery = true)
     void deleteByIds(@Param("idTask") int idTask, @Param("idAzienda") int idAzienda, @Param("idUtente") int idUtente);
 
+    /**
+     * Elimina le assegnazioni di un Task agli Utenti indicati.
+     *
+     * @param idTask    L'ID del Task.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param idUtenti  Gli ID degli Utenti da rimuovere dal Task.
+     * @since 3.7.0
+     */
+    @Modifying
+    @Query("DELETE FROM AssegnazioneEntity a WHERE a.id_task = :idTask AND a.id_azienda = :idAzienda AND a.id_utente IN :idUtenti")
+    void deleteByTaskIdAndUtenti(@Param("idTask") int idTask, @Param("idAzienda") int idAzienda, @Param("idUtenti") Collection<Integer> idUtenti);
+
+    /**
+     * Recupera gli ID degli Utenti a cui è assegnato un Task.
+     *
+     * @param idTask    L'ID del Task.
+     * @param idAzienda L'ID dell'Azienda.
+     * @return Gli ID degli Utenti assegnatari.
+     * @since 3.7.0
+     */
+    @Query("SELECT a.id_utente FROM AssegnazioneEntity a WHERE a.id_task = :idTask AND a.id_azienda = :idAzienda")
+    List<Integer> findIdUtentiByTaskId(@Param("idTask") int idTask, @Param("idAzienda") int idAzienda);
+
+    /**
+     * Rilegge, tra i Task indicati, quelli ancora assegnati a un Utente.
+     *
+     * @param idUtente  L'ID dell'Utente.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param idTask    Gli ID dei Task da rileggere.
+     * @return I Task indicati assegnati all'Utente.
+     * @since 3.7.0
+     */
+    @Query("SELECT a.task FROM AssegnazioneEntity a WHERE a.id_utente = :idUtente AND a.id_azienda = :idAzienda AND a.id_task IN :idTask")
+    List<TaskEntity> findTaskByUtenteAndIdIn(@Param("idUtente") int idUtente, @Param("idAzienda") int idAzienda, @Param("idTask") Collection<Integer> idTask);
+
+    /**
+     * Proietta i Task non completati assegnati a un Utente che ricadono nel periodo indicato.
+     * <p>
+     * Un Task ricade nel periodo se è stato creato entro la sua fine e scade dopo il suo inizio; i Task senza
+     * scadenza restano visibili in ogni periodo successivo alla creazione. Il filtro sul
+     * completamento e sulle date è applicato dal database e ogni riga viene costruita direttamente come
+     * {@link VoceCalendario}, senza caricare le entità.
+     * </p>
+     *
+     * @param idUtente  L'ID dell'Utente.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param dal       Primo giorno del periodo.
+     * @param al        Ultimo giorno del periodo.
+     * @return Le voci dei Task assegnati visibili nel periodo.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Eventi.VoceCalendario(t.id_task, t.titolo, t.dataCreazione, t.scadenza) " +
+            "FROM AssegnazioneEntity a JOIN a.task t " +
+            "WHERE a.id_utente = :idUtente AND a.id_azienda = :idAzienda AND t.dataCompletamento IS NULL " +
+            "AND (t.scadenza IS NULL OR t.scadenza >= :dal) AND t.dataCreazione <= :al")
+    List<VoceCalendario> findVociTaskByUtenteInPeriodo(@Param("idUtente") int idUtente, @Param("idAzienda") int idAzienda,
+                                                       @Param("dal") LocalDate dal, @Param("al") LocalDate al);
+
     /**
      * Inserisce una nuova assegnazione nel database utilizzando una query nativa.
      *
@@ -5,7 +5,11 @@ import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service per la gestione della logica di business relativa alle assegnazioni dei Task agli Utenti.
@@ -15,7 +19,7 @@ import java.util.List;
  * </p>
  *
  * @author Modulink Team
- * @version 1.3.2
+ * @version 1.4.0
  * @since 1.1.0
  */
 @Service
@@ -43,6 +47,47 @@ public class AssegnazioneService {
         assegnazioneRepository.insertAssegnazione(idTask, idAzienda, idUtente);
     }
 
+    /**
+     * Assegna un Task a più Utenti con un unico batch di inserimenti.
+     * <p>
+     * Gli ID duplicati vengono inseriti una sola volta.
+     * </p>
+     *
+     * @param idTask    L'ID del Task.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param idUtenti  Gli ID degli Utenti a cui assegnare il Task.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void saveAll(int idTask, int idAzienda, Collection<Integer> idUtenti) {
+        assegnazioneRepository.insertAll(idTask, idAzienda, new LinkedHashSet<>(idUtenti));
+    }
+
+    /**
+     * Allinea le assegnazioni di un Task all'insieme di Utenti indicato.
+     * <p>
+     * Vengono rimosse solo le assegnazioni non più presenti e inserite solo quelle nuove (in batch);
+     * le assegnazioni invariate non vengono toccate.
+     * </p>
+     *
+     * @param idTask    L'ID del Task.
+     * @param idAzienda L'ID dell'Azienda.
+     * @param idUtenti  Gli ID degli Utenti che devono risultare assegnatari.
+     * @since 3.7.0
+     */
+    @Transactional
+    public void sincronizza(int idTask, int idAzienda, Collection<Integer> idUtenti) {
+        Set<Integer> attuali = new HashSet<>(assegnazioneRepository.findIdUtentiByTaskId(idTask, idAzienda));
+        Set<Integer> nuovi = new LinkedHashSet<>(idUtenti);
+
+        Set<Integer> rimossi = new HashSet<>(attuali);
+        rimossi.removeAll(nuovi);
+        nuovi.removeAll(attuali);
+
+        if (!rimossi.isEmpty()) assegnazioneRepository.deleteByTaskIdAndUtenti(idTask, idAzienda, rimossi);
+        assegnazioneRepository.insertAll(idTask, idAzienda, nuovi);
+    }
+
     /**
      * Elimina un'assegnazione specifica basata sugli ID forniti.
      *
@@ -4,9 +4,11 @@ import com.modulink.Model.Modulo.ModuloEntity;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,7 +23,7 @@ import java.util.List;
  * @see AssocazioneID
  * @see JpaRepository
  * @author Modulink Team
- * @version 2.0.4
+ * @version 2.2.0
  * @since 1.0.0
  */
 public interface AssociazioneRepository extends JpaRepository<AssociazioneEntity, AssocazioneID> {
@@ -53,4 +55,73 @@ public interface AssociazioneRepository extends JpaRepository<AssociazioneEntity
      * @since 1.1.0
      */
     List<AssociazioneEntity> findByRuolo(RuoloEntity ruolo);
-}
\ No newline at end of file
+
+    /**
+     * Recupera con un'unica query gli utenti che possiedono almeno uno dei ruoli indicati.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idRuoli   Gli ID locali dei ruoli.
+     * @return Gli utenti distinti associati ad almeno uno dei ruoli.
+     * @since 3.7.0
+     */
+    @Query("SELECT DISTINCT a.utente FROM AssociazioneEntity a WHERE a.id_azienda = :idAzienda AND a.id_ruolo IN :idRuoli")
+    List<UtenteEntity> findUtentiByRuoli(@Param("idAzienda") int idAzienda, @Param("idRuoli") Collection<Integer> idRuoli);
+
+    /**
+     * Recupera ID ed email dei membri attuali di un ruolo, senza caricare le entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idRuolo   L'ID locale del ruolo.
+     * @return Coppie <code>[id_utente, email]</code>.
+     * @since 3.7.0
+     */
+    @Query("SELECT a.id_utente, a.utente.email FROM AssociazioneEntity a WHERE a.id_azienda = :idAzienda AND a.id_ruolo = :idRuolo")
+    List<Object[]> findMembriByRuolo(@Param("idAzienda") int idAzienda, @Param("idRuolo") int idRuolo);
+
+    /**
+     * Recupera i ruoli di un insieme di utenti, senza caricare le entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idUtenti  Gli ID locali degli utenti.
+     * @return Quadruple <code>[id_utente, id_ruolo, nome, colore]</code>, in ordine di ruolo.
+     * @since 3.7.0
+     */
+    @Query("SELECT a.id_utente, r.id_ruolo, r.nome, r.colore FROM AssociazioneEntity a JOIN a.ruolo r " +
+            "WHERE a.id_azienda = :idAzienda AND a.id_utente IN :idUtenti ORDER BY r.id_ruolo")
+    List<Object[]> findRuoliByUtenti(@Param("idAzienda") int idAzienda, @Param("idUtenti") Collection<Integer> idUtenti);
+
+    /**
+     * Rimuove con un'unica istruzione il ruolo dagli utenti indicati.
+     * <p>
+     * Il contesto di persistenza viene svuotato dopo l'esecuzione, così le entità ruolo e utente
+     * caricate successivamente riflettono le associazioni aggiornate.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idRuolo   L'ID locale del ruolo.
+     * @param idUtenti  Gli ID degli utenti da rimuovere dal ruolo.
+     * @return Il numero di associazioni eliminate.
+     * @since 3.7.0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM AssociazioneEntity a WHERE a.id_azienda = :idAzienda AND a.id_ruolo = :idRuolo AND a.id_utente IN :idUtenti")
+    int deleteByRuoloAndUtenti(@Param("idAzienda") int idAzienda, @Param("idRuolo") int idRuolo, @Param("idUtenti") Collection<Integer> idUtenti);
+
+    /**
+     * Assegna con un'unica istruzione <code>INSERT ... SELECT</code> il ruolo agli utenti indicati.
+     * <p>
+     * Vengono inseriti solo gli utenti che appartengono all'azienda; il contesto di persistenza viene svuotato
+     * dopo l'esecuzione.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idRuolo   L'ID locale del ruolo.
+     * @param idUtenti  Gli ID degli utenti a cui assegnare il ruolo.
+     * @return Il numero di associazioni inserite.
+     * @since 3.7.0
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("INSERT INTO AssociazioneEntity (id_utente, id_ruolo, id_azienda) " +
+            "SELECT u.id_utente, :idRuolo, u.azienda.id_azienda FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda AND u.id_utente IN :idUtenti")
+    int insertByRuoloAndUtenti(@Param("idAzienda") int idAzienda, @Param("idRuolo") int idRuolo, @Param("idUtenti") Collection<Integer> idUtenti);
+}
@@ -5,6 +5,7 @@ import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,7 +17,7 @@ import java.util.List;
  * </p>
  *
  * @author Modulink Team
- * @version 1.2.0
+ * @version 1.3.0
  * @since 1.1.0
  */
 @Service
@@ -74,4 +75,20 @@ public class AssociazioneService {
         List<AssociazioneEntity> associazioni = associazioneRepository.findByRuolo(ruolo);
         return associazioni.stream().map(AssociazioneEntity::getUtente).toList();
     }
+
+    /**
+     * Recupera con un'unica query gli utenti che possiedono almeno uno dei ruoli indicati.
+     * <p>
+     * Usato per espandere in un solo passaggio le assegnazioni "a ruolo" di GTM.
+     * </p>
+     *
+     * @param idRuoli   Gli ID dei ruoli (già verificati).
+     * @param idAzienda L'ID dell'azienda.
+     * @return Lista degli utenti distinti associati ai ruoli; vuota se non ci sono ruoli.
+     * @since 3.7.0
+     */
+    public List<UtenteEntity> getAllByRoleIds(Collection<Integer> idRuoli, int idAzienda) {
+        if (idRuoli.isEmpty()) return List.of();
+        return associazioneRepository.findUtentiByRuoli(idAzienda, idRuoli);
+    }
 }
@@ -2,13 +2,13 @@ package com.modulink.Model.Relazioni.Attivazione;
 
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Azienda.AziendaRepository;
+import com.modulink.Model.Modulo.ModuloCacheEvictor;
 import com.modulink.Model.Modulo.ModuloEntity;
 import com.modulink.Model.Modulo.ModuloRepository;
 import com.modulink.Model.Relazioni.Pertinenza.PertinenzaEntity;
 import com.modulink.Model.Relazioni.Pertinenza.PertinenzaRepository;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Ruolo.RuoloService;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +36,7 @@ public class AttivazioneService {
     private final PertinenzaRepository pertinenzaRepository;
     private final RuoloService ruoloService;
     private final AziendaRepository aziendaRepository;
+    private final ModuloCacheEvictor moduloCacheEvictor;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
@@ -45,14 +46,16 @@ public class AttivazioneService {
      * @param pertinenzaRepository  Repository delle pertinenze (permessi).
      * @param ruoloService          Service per la gestione ruoli.
      * @param aziendaRepository     Repository delle aziende.
+     * @param moduloCacheEvictor    Componente per l'invalidazione delle cache dei permessi per azienda.
      * @since 1.2.0
      */
-    public AttivazioneService(AttivazioneRepository attivazioneRepository, ModuloRepository moduloRepository, PertinenzaRepository pertinenzaRepository, RuoloService ruoloService, AziendaRepository aziendaRepository) {
+    public AttivazioneService(AttivazioneRepository attivazioneRepository, ModuloRepository moduloRepository, PertinenzaRepository pertinenzaRepository, RuoloService ruoloService, AziendaRepository aziendaRepository, ModuloCacheEvictor moduloCacheEvictor) {
         this.attivazioneRepository=attivazioneRepository;
         this.moduloRepository=moduloRepository;
         this.pertinenzaRepository = pertinenzaRepository;
         this.ruoloService=ruoloService;
         this.aziendaRepository=aziendaRepository;
+        this.moduloCacheEvictor=moduloCacheEvictor;
 
     }
 
@@ -131,7 +134,7 @@ public class AttivazioneService {
      *     <li>Crea e salva l'entità {@link AttivazioneEntity}.</li>
      *     <li>Assegna automaticamente i permessi di gestione (Pertinenza) al Ruolo Responsabile dell'azienda.</li>
      * </ol>
-     * Invalida le cache relative ai moduli utente.
+     * Invalida le cache relative ai moduli degli utenti della sola azienda acquirente.
      *
      *
      * @param azienda   L'azienda acquirente.
@@ -140,7 +143,6 @@ public class AttivazioneService {
      * @since 2.0.0
      */
     @Transactional
-    @CacheEvict(value = {"moduliByUtente", "moduloAccess", "modulo"}, allEntries = true)
     public boolean purchaseModulo(AziendaEntity azienda, int moduloId) {
         if (azienda == null) {
             return false;
@@ -182,6 +184,7 @@ public class AttivazioneService {
             pertinenzaRepository.save(pertinenzaEntity);
         }
 
+        moduloCacheEvictor.evictAzienda(managedAzienda.getId_azienda(), moduloId);
         return true;
     }
 
@@ -195,6 +198,7 @@ public class AttivazioneService {
      *     <li>Rimuove l'attivazione stessa.</li>
      * </ol>
      * Gestisce con attenzione le collezioni Hibernate per evitare {@code TransientObjectException}.
+     * Invalida le cache relative ai moduli degli utenti della sola azienda interessata.
      *
      *
      * @param azienda   L'azienda che dismette il modulo.
@@ -203,7 +207,6 @@ public class AttivazioneService {
      * @since 2.1.0
      */
     @Transactional
-    @CacheEvict(value = {"moduliByUtente", "moduloAccess", "modulo"}, allEntries = true)
     public boolean sellModulo(AziendaEntity azienda, int moduloId) {
         if (azienda == null) {
             return false;
@@ -266,6 +269,7 @@ public class AttivazioneService {
         attivazioneRepository.delete(attivazioneEntity);
         attivazioneRepository.flush();
 
+        moduloCacheEvictor.evictAzienda(managedAzienda.getId_azienda(), moduloId);
         return true;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.modulink.Model.Relazioni.Partecipazione;
 
+import com.modulink.Model.Eventi.CalendarioSyncService;
 import com.modulink.Model.Eventi.EventoEntity;
 import com.modulink.Model.Eventi.EventoRepository;
 import com.modulink.Model.Utente.UtenteEntity;
@@ -15,25 +16,29 @@ import java.util.Optional;
  * Service Layer per la gestione della logica di business relativa alle partecipazioni agli eventi.
  * <p>
  * Permette di iscrivere utenti agli eventi, recuperare la lista dei partecipanti e annullare le iscrizioni.
+ * Inviti e rimozioni vengono registrati come modifiche dell'evento tramite {@link CalendarioSyncService}.
  * </p>
  *
  * @author Modulink Team
- * @version 1.8.2
+ * @version 1.9.0
  * @since 1.3.0
  */
 @Service
 public class PartecipazioneService {
     private final PartecipazioneRepository partecipazioneRepository;
+    private final CalendarioSyncService calendarioSyncService;
 
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
      * @param partecipazioneRepository Repository partecipazioni.
+     * @param calendarioSyncService    Service che registra le modifiche per la sincronizzazione del calendario.
      * @since 1.3.0
      */
-    public PartecipazioneService(PartecipazioneRepository partecipazioneRepository) {
+    public PartecipazioneService(PartecipazioneRepository partecipazioneRepository, CalendarioSyncService calendarioSyncService) {
         this.partecipazioneRepository = partecipazioneRepository;
+        this.calendarioSyncService = calendarioSyncService;
     }
 
     /**
@@ -48,6 +53,7 @@ public class PartecipazioneService {
     public void Invita(EventoEntity eventoEntity, UtenteEntity utenteEntity){
         PartecipazioneEntity partecipazioneEntity = new PartecipazioneEntity(utenteEntity.getId_utente(), eventoEntity.getId_evento(), utenteEntity.getAzienda().getId_azienda());
         partecipazioneRepository.save(partecipazioneEntity);
+        calendarioSyncService.registraEvento(partecipazioneEntity.getId_azienda(), eventoEntity.getId_evento());
     }
 
     /**
@@ -72,8 +78,10 @@ public class PartecipazioneService {
      * @param utenteEntity L'utente da disiscrivere.
      * @since 1.3.0
      */
+    @Transactional
     public void RimuoviInvito(EventoEntity eventoEntity, UtenteEntity utenteEntity){
         partecipazioneRepository.removeByUtenteAndEvento(utenteEntity, eventoEntity);
+        calendarioSyncService.registraEvento(eventoEntity.getAzienda().getId_azienda(), eventoEntity.getId_evento());
     }
 
 }
\ No newline at end of file
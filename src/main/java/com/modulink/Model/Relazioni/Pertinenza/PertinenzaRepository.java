@@ -13,7 +13,7 @@ import java.util.List;
  * Repository JPA per gestire i permessi di accesso (Pertinenze).
  *
  * @author Modulink Team
- * @version 2.1.0
+ * @version 2.2.0
  * @since 1.1.0
  */
 public interface PertinenzaRepository extends JpaRepository<PertinenzaEntity, PertinenzaID> {
@@ -50,4 +50,14 @@ public interface PertinenzaRepository extends JpaRepository<PertinenzaEntity, Pe
      * @since 1.2.0
      */
     List<PertinenzaEntity> findAllByAttivazione(AttivazioneEntity attivazione);
+
+    /**
+     * Recupera le coppie (ID modulo, ID ruolo) dei permessi di un'azienda, senza caricare entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Lista di array <code>[id_modulo, id_ruolo]</code>.
+     * @since 3.7.0
+     */
+    @Query("SELECT p.id_modulo, p.id_ruolo FROM PertinenzaEntity p WHERE p.id_azienda = :idAzienda")
+    List<Object[]> findModuliERuoliByAzienda(@Param("idAzienda") int idAzienda);
 }
@@ -6,13 +6,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service Layer per la gestione dei permessi (Pertinenze) sui moduli.
  *
  * @author Modulink Team
- * @version 1.6.5
+ * @version 1.7.0
  * @since 1.1.5
  */
 @Service
@@ -62,4 +64,23 @@ public class PertinenzaService {
     public List<PertinenzaEntity> findAllByAttivazione(AttivazioneEntity attivazione) {
         return pertinenzaRepository.findAllByAttivazione(attivazione);
     }
+
+    /**
+     * Raggruppa per modulo gli ID dei ruoli di un'azienda che vi hanno accesso.
+     * <p>
+     * Sostituisce la lettura di {@code ModuloEntity#getAffiliazioni()}, che contiene le pertinenze
+     * di tutte le aziende: qui si legge una sola proiezione limitata al tenant.
+     * </p>
+     *
+     * @param azienda L'azienda di riferimento.
+     * @return Mappa ID modulo → ID dei ruoli autorizzati; i moduli senza ruoli non compaiono.
+     * @since 3.7.0
+     */
+    public Map<Integer, List<Integer>> getRuoliPerModulo(AziendaEntity azienda) {
+        Map<Integer, List<Integer>> ruoliPerModulo = new HashMap<>();
+        for (Object[] riga : pertinenzaRepository.findModuliERuoliByAzienda(azienda.getId_azienda())) {
+            ruoliPerModulo.computeIfAbsent((Integer) riga[0], k -> new ArrayList<>()).add((Integer) riga[1]);
+        }
+        return ruoliPerModulo;
+    }
 }
@@ -25,14 +25,24 @@ import java.util.Set;
  * @see RuoloID
  * @see AziendaEntity
  * @author Modulink Team
- * @version 1.5.0
+ * @version 1.6.0
  * @since 1.0.0
  */
 @Entity
 @Table(name="Ruolo", schema="modulink")
 @IdClass(RuoloID.class)
+@NamedEntityGraph(name = RuoloEntity.GRAFO_CON_MEMBRI,
+        attributeNodes = @NamedAttributeNode(value = "associazioni", subgraph = "associazione"),
+        subgraphs = @NamedSubgraph(name = "associazione", attributeNodes = @NamedAttributeNode("utente")))
 public class RuoloEntity {
 
+    /**
+     * Nome del grafo di caricamento "ruolo con membri" (associazioni e relativi utenti), usato da GRU.
+     *
+     * @since 3.7.0
+     */
+    public static final String GRAFO_CON_MEMBRI = "Ruolo.conMembri";
+
     /**
      * Identificativo numerico locale del ruolo.
      * <p>
@@ -98,25 +108,25 @@ public class RuoloEntity {
      * Insieme delle associazioni Utente-Ruolo attive.
      * <p>
      * Relazione One-To-Many bidirezionale verso {@link AssociazioneEntity}.
-     * Configurato con <code>FetchType.EAGER</code> per caricare immediatamente gli utenti associati
+     * Configurato con <code>FetchType.LAZY</code> (i membri si caricano con il grafo {@value #GRAFO_CON_MEMBRI})
      * e <code>CascadeType.ALL</code> per propagare le operazioni di persistenza/rimozione.
      * </p>
      *
      * @since 1.0.0
      */
-    @OneToMany(mappedBy = "ruolo", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "ruolo", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<AssociazioneEntity> associazioni = new HashSet<>();
 
     /**
      * Insieme delle affiliazioni o pertinenze ai Moduli.
      * <p>
      * Relazione One-To-Many verso {@link PertinenzaEntity}, definisce quali moduli funzionali
-     * sono accessibili agli utenti che possiedono questo ruolo.
+     * sono accessibili agli utenti che possiedono questo ruolo. Caricata in modo lazy.
      * </p>
      *
      * @since 1.2.0
      */
-    @OneToMany(mappedBy = "ruolo", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "ruolo", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<PertinenzaEntity> affiliazioni = new HashSet<>();
 
     /**
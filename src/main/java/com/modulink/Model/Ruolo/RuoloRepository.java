@@ -1,11 +1,13 @@
 package com.modulink.Model.Ruolo;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,7 +28,7 @@ import java.util.List;
  * @see RuoloID
  * @see JpaRepository
  * @author Modulink Team
- * @version 1.0
+ * @version 1.3
  */
 @Repository
 public interface RuoloRepository extends JpaRepository<RuoloEntity, RuoloID> {
@@ -45,17 +47,37 @@ public interface RuoloRepository extends JpaRepository<RuoloEntity, RuoloID> {
     List<RuoloEntity> findAllByAzienda(AziendaEntity azienda);
 
     /**
-     * Individua l'identificativo numerico massimo (ID_Ruolo) attualmente in uso per una determinata azienda.
+     * Recupera i ruoli di un'azienda insieme ai rispettivi membri.
      * <p>
-     * Utilizza una query JPQL custom per aggregare i dati. La funzione <code>COALESCE</code> garantisce che,
-     * qualora l'azienda non abbia ancora alcun ruolo registrato, venga restituito il valore predefinito <code>0</code>
-     * anziché <code>null</code>, prevenendo potenziali errori di unboxing.
+     * Usa il grafo {@link RuoloEntity#GRAFO_CON_MEMBRI}: associazioni e utenti vengono caricati
+     * nella stessa query dei ruoli, invece di una query per ruolo.
      * </p>
      *
-     * @param idAzienda L'identificativo primario dell'azienda su cui effettuare la ricerca.
-     * @return L'ID numerico massimo trovato, o 0 se non sono presenti record.
-     * @since 1.1.0
+     * @param azienda L'entità {@link AziendaEntity} di cui si vogliono ottenere i ruoli.
+     * @return Una {@link List} di {@link RuoloEntity} con le associazioni inizializzate.
+     * @since 3.7.0
+     */
+    @EntityGraph(RuoloEntity.GRAFO_CON_MEMBRI)
+    List<RuoloEntity> findConMembriByAzienda(AziendaEntity azienda);
+
+    /**
+     * Recupera con un'unica query i ruoli di un'azienda corrispondenti a un insieme di ID.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param ids       Gli ID locali dei ruoli da recuperare.
+     * @return I ruoli trovati, in ordine non specificato; gli ID inesistenti vengono ignorati.
+     * @since 3.7.0
+     */
+    @Query("SELECT r FROM RuoloEntity r WHERE r.azienda.id_azienda = :idAzienda AND r.id_ruolo IN :ids")
+    List<RuoloEntity> findAllByAziendaAndIdIn(@Param("idAzienda") int idAzienda, @Param("ids") Collection<Integer> ids);
+
+    /**
+     * Proietta nome e colore di tutti i ruoli di un'azienda, senza caricare le entità e le loro associazioni.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return I dati di presentazione dei ruoli.
+     * @since 3.7.0
      */
-    @Query("SELECT COALESCE(MAX(r.id_ruolo), 0) FROM RuoloEntity r WHERE r.azienda.id_azienda = :idAzienda")
-    int findMaxIdByAzienda(@Param("idAzienda") int idAzienda);
-}
\ No newline at end of file
+    @Query("SELECT new com.modulink.Model.Ruolo.RuoloSintesi(r.id_ruolo, r.nome, r.colore) FROM RuoloEntity r WHERE r.azienda.id_azienda = :idAzienda")
+    List<RuoloSintesi> findSintesiByAzienda(@Param("idAzienda") int idAzienda);
+}
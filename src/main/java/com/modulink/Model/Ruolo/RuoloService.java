@@ -1,16 +1,24 @@
 package com.modulink.Model.Ruolo;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import com.modulink.Model.Modulo.ModuloCacheEvictor;
 import com.modulink.Model.Relazioni.Associazione.AssociazioneEntity;
+import com.modulink.Model.Relazioni.Associazione.AssociazioneRepository;
+import com.modulink.Model.Utente.UtenteCacheEvictor;
 import com.modulink.Model.Utente.UtenteEntity;
-import com.modulink.Model.Utente.CustomUserDetailsService;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service layer responsabile della gestione della logica di business per l'entità {@link RuoloEntity}.
@@ -21,97 +29,95 @@ import java.util.Optional;
  * </p>
  * <p>
  * La classe gestisce la coerenza dei dati attraverso transazioni database ({@link Transactional})
- * e si interfaccia con {@link CustomUserDetailsService} per l'aggiornamento della sicurezza utente.
+ * e si interfaccia con {@link UtenteCacheEvictor} per invalidare i dati in cache degli utenti i cui ruoli cambiano.
  * </p>
  *
  * @author Modulink Team
- * @version 2.3.1
+ * @version 2.7.0
  * @since 1.0.0
  */
 @Service
 public class RuoloService {
     private final RuoloRepository ruoloRepository;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final AssociazioneRepository associazioneRepository;
+    private final UtenteCacheEvictor utenteCacheEvictor;
+    private final ModuloCacheEvictor moduloCacheEvictor;
+    private final ContatoreService contatoreService;
+
+    /**
+     * Numero massimo di ID per singola query <code>IN</code> (<code>modulink.jpa.in-clause-block-size</code>);
+     * le liste più lunghe vengono suddivise.
+     */
+    private final int dimensioneBloccoIn;
 
     /**
      * Costruttore per la Dependency Injection.
-     * <p>
-     * Utilizza l'annotazione {@link Lazy} per {@link CustomUserDetailsService} per evitare
-     * problemi di dipendenze circolari durante il bootstrap del contesto Spring.
-     * </p>
      *
      * @param ruoloRepository           Repository per l'accesso ai dati dei ruoli.
-     * @param customUserDetailsService Servizio per la gestione dei dettagli di sicurezza degli utenti.
+     * @param associazioneRepository   Repository delle associazioni utente-ruolo.
+     * @param utenteCacheEvictor       Componente per l'invalidazione in blocco delle cache degli utenti.
+     * @param moduloCacheEvictor       Componente per l'invalidazione dei permessi sui moduli per azienda.
+     * @param contatoreService         Servizio che assegna gli ID locali per azienda.
+     * @param dimensioneBloccoIn       Numero massimo di ID per singola query <code>IN</code>.
+     * @throws IllegalArgumentException se la dimensione del blocco non è positiva.
      * @since 1.0.0
      */
-    public RuoloService(RuoloRepository ruoloRepository, @Lazy CustomUserDetailsService customUserDetailsService) {
+    public RuoloService(RuoloRepository ruoloRepository, AssociazioneRepository associazioneRepository, UtenteCacheEvictor utenteCacheEvictor, ModuloCacheEvictor moduloCacheEvictor, ContatoreService contatoreService,
+                        @Value("${modulink.jpa.in-clause-block-size:500}") int dimensioneBloccoIn) {
+        if (dimensioneBloccoIn < 1) throw new IllegalArgumentException("La dimensione dei blocchi IN deve essere positiva");
         this.ruoloRepository = ruoloRepository;
-        this.customUserDetailsService = customUserDetailsService;
+        this.associazioneRepository = associazioneRepository;
+        this.utenteCacheEvictor = utenteCacheEvictor;
+        this.moduloCacheEvictor = moduloCacheEvictor;
+        this.contatoreService = contatoreService;
+        this.dimensioneBloccoIn = dimensioneBloccoIn;
     }
     
     /**
      * Sincronizza le associazioni tra un ruolo specifico e una lista di utenti fornita.
      * <p>
-     * Il metodo esegue una logica di aggiornamento completa:
-     * 1. Rimuove tutte le associazioni preesistenti per il ruolo indicato.
-     * 2. Pulisce i riferimenti incrociati nelle entità {@link UtenteEntity}.
-     * 3. Crea nuove istanze di {@link AssociazioneEntity} per ogni utente nella lista.
-     * 4. Notifica il servizio di sicurezza per ricaricare i permessi degli utenti coinvolti.
+     * Il metodo applica solo la differenza tra i membri attuali e quelli richiesti:
+     * 1. Legge ID ed email dei membri attuali con una query scalare.
+     * 2. Calcola con insiemi hash gli utenti aggiunti e quelli rimossi.
+     * 3. Rimuove e inserisce le associazioni con due istruzioni set-based.
+     * 4. Invalida al commit le cache dei soli utenti modificati ({@link UtenteCacheEvictor}).
+     * 5. Invalida al commit i permessi sui moduli in cache per l'azienda ({@link ModuloCacheEvictor}).
      * </p>
      *
      * @param azienda L'azienda in cui opera il ruolo.
      * @param idRole  L'identificativo locale del ruolo da aggiornare.
      * @param users   La lista aggiornata di utenti da associare al ruolo.
+     * @throws IllegalArgumentException Se il ruolo non esiste nell'azienda.
      * @since 1.5.0
      */
     @Transactional
     public void updateRoleAssociations(AziendaEntity azienda, int idRole, List<UtenteEntity> users) {
         RuoloEntity role = getRoleById(idRole, azienda);
-        
-        List<UtenteEntity> usersToUpdate = new ArrayList<>();
+        int idAzienda = azienda.getId_azienda();
 
-        // Trovo gli utenti da rimuovere le associazioni
-        List<AssociazioneEntity> currentAssocs = new ArrayList<>(role.getAssociazioni());
-        for (AssociazioneEntity assoc : currentAssocs) {
-            UtenteEntity user = assoc.getUtente();
-            if (user != null) {
-                //Trovo le specifiche associazioni da rimuovere
-                AssociazioneEntity toRemove = null;
-                for (AssociazioneEntity ua : user.getAssociazioni()) {
-                    if (ua.getId_ruolo() == role.getId_ruolo() && ua.getId_azienda() == azienda.getId_azienda()) {
-                        toRemove = ua;
-                        break;
-                    }
-                }
-                if (toRemove != null) {
-                    user.getAssociazioni().remove(toRemove);
-                }
-                usersToUpdate.add(user);
-            }
+        // Membri attuali, indicizzati per ID
+        Map<Integer, String> attuali = new HashMap<>();
+        for (Object[] membro : associazioneRepository.findMembriByRuolo(idAzienda, role.getId_ruolo())) {
+            attuali.put((Integer) membro[0], (String) membro[1]);
         }
-        
-        // Puliamo le associazioni al ruolo
-        role.getAssociazioni().clear();
-        
-        // Aggiungo le nuove associazioni
-        for (UtenteEntity user : users) {
-            AssociazioneEntity newAssoc = new AssociazioneEntity(user, role);
-            role.getAssociazioni().add(newAssoc);
-            
-            // Aggiorno gli utenti
-            user.getAssociazioni().add(newAssoc);
-            
-            if (!usersToUpdate.contains(user)) {
-                usersToUpdate.add(user);
-            }
-        }
-        
-        ruoloRepository.save(role);
 
-        // Avvio l'aggiornamento della cache degli utenti col metodo dell'userService
-        for (UtenteEntity user : usersToUpdate) {
-            customUserDetailsService.aggiornaUtente(user);
-        }
+        // Differenza tra membri attuali e richiesti
+        Map<Integer, String> richiesti = new HashMap<>();
+        for (UtenteEntity user : users) richiesti.put(user.getId_utente(), user.getEmail());
+        Set<Integer> rimossi = new HashSet<>(attuali.keySet());
+        rimossi.removeAll(richiesti.keySet());
+        Set<Integer> aggiunti = new HashSet<>(richiesti.keySet());
+        aggiunti.removeAll(attuali.keySet());
+        if (rimossi.isEmpty() && aggiunti.isEmpty()) return;
+
+        if (!rimossi.isEmpty()) associazioneRepository.deleteByRuoloAndUtenti(idAzienda, role.getId_ruolo(), rimossi);
+        if (!aggiunti.isEmpty()) associazioneRepository.insertByRuoloAndUtenti(idAzienda, role.getId_ruolo(), aggiunti);
+
+        List<String> modificati = new ArrayList<>(rimossi.size() + aggiunti.size());
+        for (Integer id : rimossi) modificati.add(attuali.get(id));
+        for (Integer id : aggiunti) modificati.add(richiesti.get(id));
+        utenteCacheEvictor.evictUtenti(idAzienda, modificati);
+        moduloCacheEvictor.evictAzienda(idAzienda);
     }
 
     /**
@@ -183,10 +189,33 @@ public class RuoloService {
         return ruoloRepository.findAllByAzienda(azienda);
     }
 
+    /**
+     * Restituisce nome e colore dei ruoli di un'azienda, proiettati dalla query senza caricare le entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return I dati di presentazione dei ruoli.
+     * @since 3.7.0
+     */
+    public List<RuoloSintesi> getSintesiByAzienda(int idAzienda) {
+        return ruoloRepository.findSintesiByAzienda(idAzienda);
+    }
+
+    /**
+     * Restituisce tutti i ruoli di un'azienda con i rispettivi membri già caricati (vista di GRU).
+     *
+     * @param azienda L'azienda proprietaria.
+     * @return Lista dei ruoli con le associazioni agli utenti inizializzate.
+     * @since 3.7.0
+     */
+    public List<RuoloEntity> getAllRolesWithMembersByAzienda(AziendaEntity azienda) {
+        return ruoloRepository.findConMembriByAzienda(azienda);
+    }
+
     /**
      * Crea un nuovo ruolo personalizzato generandone l'ID in modo sequenziale.
      * <p>
-     * Calcola il nuovo ID incrementando il valore massimo attualmente presente per l'azienda.
+     * Il nuovo ID viene assegnato dalla sequenza dell'azienda gestita da {@link ContatoreService};
+     * gli ID 0-2, riservati ai ruoli di sistema, non vengono mai assegnati.
      * </p>
      *
      * @param azienda L'azienda in cui creare il ruolo.
@@ -196,8 +225,7 @@ public class RuoloService {
      */
     @Transactional
     public RuoloEntity createRole(AziendaEntity azienda, RuoloEntity ruolo) {
-        int newId = ruoloRepository.findMaxIdByAzienda(azienda.getId_azienda()) + 1;
-        ruolo.setId_ruolo(newId);
+        ruolo.setId_ruolo(contatoreService.prossimoId(azienda.getId_azienda(), TipoContatore.RUOLO));
         return ruoloRepository.save(ruolo);
     }
 
@@ -227,6 +255,7 @@ public class RuoloService {
      * Impedisce la cancellazione dei ruoli di sistema (ID &lt;= 2) per garantire la stabilità operativa.
      * Prima dell'eliminazione, rimuove tutte le associazioni con gli utenti per evitare violazioni
      * di integrità referenziale o eccezioni di tipo {@code TransientObjectException}.
+     * Al commit vengono invalidati i permessi sui moduli in cache per l'azienda.
      * </p>
      *
      * @param azienda L'azienda proprietaria.
@@ -251,6 +280,7 @@ public class RuoloService {
         role.getAssociazioni().clear();
 
         ruoloRepository.delete(role);
+        moduloCacheEvictor.evictAzienda(azienda.getId_azienda());
     }
 
     /**
@@ -270,6 +300,11 @@ public class RuoloService {
     /**
      * Recupera una lista di entità ruolo a partire da una collezione di ID.
      *
+     * <p>
+     * I ruoli vengono caricati con una query <code>IN</code> ogni <code>modulink.jpa.in-clause-block-size</code> ID distinti,
+     * invece di una query per ID. La lista restituita rispetta l'ordine di {@code ids}.
+     * </p>
+     *
      * @param ids        Collezione di identificativi numerici dei ruoli.
      * @param id_azienda L'ID dell'azienda di riferimento.
      * @return Lista di {@link RuoloEntity} corrispondenti agli ID forniti.
@@ -277,11 +312,19 @@ public class RuoloService {
      * @since 1.2.0
      */
     public List<RuoloEntity> getAllRolesFromIds(List<Integer> ids, int id_azienda) throws RuoloNotFoundException {
-        List<RuoloEntity> ruoli=new ArrayList<>();
+        List<Integer> distinti = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, RuoloEntity> trovati = new HashMap<>();
+        for (int inizio = 0; inizio < distinti.size(); inizio += dimensioneBloccoIn) {
+            List<Integer> blocco = distinti.subList(inizio, Math.min(inizio + dimensioneBloccoIn, distinti.size()));
+            for (RuoloEntity ruolo : ruoloRepository.findAllByAziendaAndIdIn(id_azienda, blocco)) {
+                trovati.put(ruolo.getId_ruolo(), ruolo);
+            }
+        }
+        List<RuoloEntity> ruoli=new ArrayList<>(ids.size());
         for(int id:ids) {
-            Optional<RuoloEntity> ruoloOpt=ruoloRepository.findById(new RuoloID(id,id_azienda));
-            if(ruoloOpt.isEmpty()) throw new RuoloNotFoundException();
-            else ruoli.add(ruoloOpt.get());
+            RuoloEntity ruolo=trovati.get(id);
+            if(ruolo==null) throw new RuoloNotFoundException();
+            else ruoli.add(ruolo);
         }
         return ruoli;
     }
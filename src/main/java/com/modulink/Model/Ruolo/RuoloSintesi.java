@@ -0,0 +1,15 @@
+package com.modulink.Model.Ruolo;
+
+/**
+ * Proiezione dei soli dati di presentazione di un ruolo (nome e colore), costruita direttamente dalla query
+ * senza istanziare {@link RuoloEntity} né caricarne membri e permessi.
+ *
+ * @param id_ruolo ID locale del ruolo.
+ * @param nome     Nome del ruolo.
+ * @param colore   Colore del badge del ruolo.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record RuoloSintesi(int id_ruolo, String nome, String colore) {
+}
@@ -20,13 +20,23 @@ import java.util.List;
  * </p>
  *
  * @author Modulink Team
- * @version 1.3.4
+ * @version 1.4.0
  */
 @Entity
 @Table(name = "task", schema = "modulink")
 @IdClass(TaskID.class)
+@NamedEntityGraph(name = TaskEntity.GRAFO_CON_ASSEGNATARI,
+        attributeNodes = @NamedAttributeNode(value = "assegnazioni", subgraph = "assegnazione"),
+        subgraphs = @NamedSubgraph(name = "assegnazione", attributeNodes = @NamedAttributeNode("utente")))
 public class TaskEntity {
 
+    /**
+     * Nome del grafo di caricamento "task con assegnatari" (assegnazioni e relativi utenti), usato da GTM.
+     *
+     * @since 3.7.0
+     */
+    public static final String GRAFO_CON_ASSEGNATARI = "Task.conAssegnatari";
+
     /**
      * Identificativo univoco del task all'interno dell'azienda.
      * Parte della chiave primaria composta.
@@ -99,9 +109,10 @@ public class TaskEntity {
 
     /**
      * Lista delle assegnazioni associate a questo task.
-     * Rappresenta la relazione One-to-Many verso {@link AssegnazioneEntity}.
+     * Rappresenta la relazione One-to-Many verso {@link AssegnazioneEntity}, caricata in modo lazy
+     * (grafo {@value #GRAFO_CON_ASSEGNATARI} per gli elenchi di GTM).
      */
-    @OneToMany(mappedBy = "task", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "task", fetch = FetchType.LAZY)
     private List<AssegnazioneEntity> assegnazioni;
 
     /**
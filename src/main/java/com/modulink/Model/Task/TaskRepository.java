@@ -1,7 +1,7 @@
 package com.modulink.Model.Task;
 
-import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Utente.UtenteEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,36 +13,24 @@ import java.util.List;
  * Repository JPA per la gestione dell'entità {@link TaskEntity}.
  * <p>
  * Questa interfaccia fornisce metodi per eseguire operazioni CRUD e query personalizzate
- * sulla tabella "task", inclusa la ricerca per utente creatore, il recupero dell'ultimo task
- * inserito per un'azienda e operazioni di cancellazione native.
+ * sulla tabella "task", inclusa la ricerca per utente creatore e operazioni di cancellazione native.
  * </p>
  *
  * @author Modulink Team
- * @version 1.4.2
+ * @version 1.5.0
  */
 public interface TaskRepository extends JpaRepository<TaskEntity, TaskID> {
 
     /**
-     * Trova tutti i task creati da uno specifico utente.
+     * Trova tutti i task creati da uno specifico utente, con i rispettivi assegnatari
+     * (grafo {@link TaskEntity#GRAFO_CON_ASSEGNATARI}).
      *
      * @param utenteCreatore L'entità dell'utente che ha creato i task.
      * @return Una lista di task creati dall'utente specificato.
      */
+    @EntityGraph(TaskEntity.GRAFO_CON_ASSEGNATARI)
     List<TaskEntity> findByUtenteCreatore(UtenteEntity utenteCreatore);
 
-    /**
-     * Recupera il task con l'ID più alto associato a una specifica azienda.
-     * <p>
-     * Questo metodo è utile per determinare l'ultimo task inserito per un'azienda.
-     * Utilizza una query JPQL personalizzata.
-     * </p>
-     *
-     * @param azienda L'entità dell'azienda per cui cercare il task.
-     * @return Il task con l'ID massimo per l'azienda data, o null se non presente.
-     */
-    @Query("SELECT t FROM TaskEntity t WHERE t.azienda = :azienda AND t.id_task = (SELECT MAX(t2.id_task) FROM TaskEntity t2 WHERE t2.azienda = :azienda)")
-    TaskEntity findMaxByAzienda(@Param("azienda") AziendaEntity azienda);
-
     /**
      * Elimina un task specifico dal database utilizzando una query nativa SQL.
      * <p>
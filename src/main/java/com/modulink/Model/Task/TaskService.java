@@ -1,12 +1,18 @@
 package com.modulink.Model.Task;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import com.modulink.Model.Eventi.CalendarioSyncService;
 import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneService;
 import com.modulink.Model.Utente.UtenteEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import com.modulink.Model.Task.TaskID;
 
 /**
@@ -17,67 +23,76 @@ import com.modulink.Model.Task.TaskID;
  * degli identificativi incrementali per azienda. Interagisce con {@link TaskRepository}
  * e {@link AssegnazioneService}.
  * </p>
+ * <p>
+ * Ogni scrittura viene registrata tramite {@link CalendarioSyncService}, così i task assegnati
+ * mostrati nel calendario vengono aggiornati dalla sincronizzazione incrementale.
+ * </p>
  *
  * @author Modulink Team
- * @version 1.5.7
+ * @version 1.7.0
  */
 @Service
 public class
 TaskService {
     private final TaskRepository taskRepository;
     private final AssegnazioneService assegnazioneService;
+    private final ContatoreService contatoreService;
+    private final CalendarioSyncService calendarioSyncService;
 
     /**
      * Costruttore per l'iniezione delle dipendenze.
      *
-     * @param taskRepository      Il repository per le operazioni sui dati dei task.
-     * @param assegnazioneService Il service per gestire le assegnazioni dei task agli utenti.
+     * @param taskRepository        Il repository per le operazioni sui dati dei task.
+     * @param assegnazioneService   Il service per gestire le assegnazioni dei task agli utenti.
+     * @param contatoreService      Il service che assegna gli ID locali per azienda.
+     * @param calendarioSyncService Il service che registra le modifiche per la sincronizzazione del calendario.
      */
-    public TaskService(TaskRepository taskRepository, AssegnazioneService assegnazioneService) {
+    public TaskService(TaskRepository taskRepository, AssegnazioneService assegnazioneService, ContatoreService contatoreService,
+                       CalendarioSyncService calendarioSyncService) {
         this.taskRepository = taskRepository;
         this.assegnazioneService = assegnazioneService;
+        this.contatoreService = contatoreService;
+        this.calendarioSyncService = calendarioSyncService;
     }
 
     /**
      * Salva un nuovo task nel database.
      * <p>
-     * Questo metodo calcola automaticamente il prossimo ID task disponibile per l'azienda
-     * specificata (logica di auto-incremento per azienda). Inoltre, gestisce il salvataggio
-     * separato delle assegnazioni associate al task.
+     * Questo metodo assegna automaticamente il prossimo ID task disponibile per l'azienda
+     * specificata tramite la sequenza per tenant di {@link ContatoreService}. Inoltre, gestisce il salvataggio
+     * separato delle assegnazioni associate al task, inserite con un unico batch JDBC.
      * </p>
      *
      * @param taskEntity L'entità task da salvare.
      */
     @Transactional
     public void save(TaskEntity taskEntity) {
-        TaskEntity tmax=taskRepository.findMaxByAzienda(taskEntity.getAzienda());
-        if(tmax==null) taskEntity.setId_task(0);
-        else taskEntity.setId_task(tmax.getId_task()+1);
+        taskEntity.setId_task(contatoreService.prossimoId(taskEntity.getAzienda().getId_azienda(), TipoContatore.TASK));
 
         // Salva le assegnazioni temporaneamente
         List<com.modulink.Model.Relazioni.Assegnazione.AssegnazioneEntity> assegnazioniTemp = taskEntity.getAssegnazioni();
         taskEntity.setAssegnazioni(null);
 
-        // Salva il task
-        taskRepository.save(taskEntity);
+        // Salva il task e lo scrive subito: le assegnazioni vengono inserite via JDBC, fuori dal contesto di persistenza
+        taskRepository.saveAndFlush(taskEntity);
 
-        // Ora salva le assegnazioni manualmente usando solo gli ID
+        // Inserisce tutte le assegnazioni con un unico batch usando solo gli ID
         if (assegnazioniTemp != null && !assegnazioniTemp.isEmpty()) {
-            for (com.modulink.Model.Relazioni.Assegnazione.AssegnazioneEntity ass : assegnazioniTemp) {
-                assegnazioneService.save(
-                    taskEntity.getId_task(),
-                    taskEntity.getAzienda().getId_azienda(),
-                    ass.getUtente().getId_utente()
-                );
-            }
+            assegnazioneService.saveAll(
+                taskEntity.getId_task(),
+                taskEntity.getAzienda().getId_azienda(),
+                idUtenti(assegnazioniTemp)
+            );
         }
+        calendarioSyncService.registraTask(taskEntity.getAzienda().getId_azienda(), taskEntity.getId_task());
     }
 
     /**
      * Aggiorna un task esistente e le relative assegnazioni.
      * <p>
      * Questo metodo aggiorna i dettagli del task (titolo, priorità, scadenze, ecc.)
-     * ed elimina tutte le assegnazioni precedenti per sostituirle con quelle nuove fornite.
+     * e allinea le assegnazioni a quelle fornite, rimuovendo solo gli utenti esclusi e inserendo
+     * in batch solo quelli aggiunti.
      * </p>
      *
      * @param taskId         L'ID del task da aggiornare.
@@ -93,21 +108,17 @@ TaskService {
             managedTask.setScadenza(updateData.getScadenza());
             managedTask.setCompletato(updateData.getDataCompletamento());
 
-            // Elimina tutte le assegnazioni esistenti
-            assegnazioneService.deleteByTaskId(managedTask.getId_task(), managedTask.getAzienda().getId_azienda());
-
             // Salva il task aggiornato
             taskRepository.save(managedTask);
             taskRepository.flush();
 
-            // Crea le nuove assegnazioni usando solo gli ID
-            for (com.modulink.Model.Relazioni.Assegnazione.AssegnazioneEntity newOne : newAssignments) {
-                assegnazioneService.save(
-                    managedTask.getId_task(),
-                    managedTask.getAzienda().getId_azienda(),
-                    newOne.getUtente().getId_utente()
-                );
-            }
+            // Applica solo la differenza tra le assegnazioni esistenti e quelle nuove
+            assegnazioneService.sincronizza(
+                managedTask.getId_task(),
+                managedTask.getAzienda().getId_azienda(),
+                idUtenti(newAssignments)
+            );
+            calendarioSyncService.registraTask(managedTask.getAzienda().getId_azienda(), managedTask.getId_task());
         }
     }
 
@@ -128,6 +139,7 @@ TaskService {
 
         // Poi elimina il task con query nativa SQL
         taskRepository.deleteByIdNative(idTask, idAzienda);
+        calendarioSyncService.registraTask(idAzienda, idTask);
     }
 
     /**
@@ -162,6 +174,7 @@ TaskService {
     @Transactional
     public void classicUpdate(TaskEntity taskEntity) {
         taskRepository.save(taskEntity);
+        calendarioSyncService.registraTask(taskEntity.getAzienda().getId_azienda(), taskEntity.getId_task());
     }
 
     /**
@@ -180,5 +193,16 @@ TaskService {
         
         // Elimina tutti i task dell'azienda usando query nativa per evitare caricamento in memoria
         taskRepository.deleteAllByAziendaNative(azienda.getId_azienda());
+        calendarioSyncService.registraReset(azienda.getId_azienda());
+    }
+
+    /**
+     * Estrae gli ID degli utenti da una lista di assegnazioni.
+     *
+     * @param assegnazioni Le assegnazioni.
+     * @return Gli ID degli utenti assegnatari, senza duplicati.
+     */
+    private static Set<Integer> idUtenti(List<com.modulink.Model.Relazioni.Assegnazione.AssegnazioneEntity> assegnazioni) {
+        return assegnazioni.stream().map(a -> a.getUtente().getId_utente()).collect(Collectors.toCollection(LinkedHashSet::new));
     }
 }
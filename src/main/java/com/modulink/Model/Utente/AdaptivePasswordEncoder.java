@@ -0,0 +1,137 @@
+package com.modulink.Model.Utente;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PasswordEncoder} dell'applicazione: BCrypt con costo configurabile, migrazione trasparente degli hash
+ * e limite alle computazioni concorrenti.
+ * <p>
+ * La codifica è delegata a un {@link DelegatingPasswordEncoder}: i nuovi hash sono prefissati con l'algoritmo
+ * (<code>{bcrypt}$2a$NN$...</code>), mentre gli hash storici senza prefisso vengono verificati come BCrypt.
+ * {@link #upgradeEncoding(String)} segnala come da ricalcolare ogni hash senza prefisso o con un costo diverso
+ * da quello configurato (sia inferiore sia superiore): il {@code DaoAuthenticationProvider} lo ricalcola
+ * al successivo login riuscito, così un cambio del costo si propaga senza reset delle password.
+ * </p>
+ * <p>
+ * Ogni hash BCrypt occupa un core per decine di millisecondi: un semaforo limita il numero di
+ * calcoli simultanei, così un picco di login (es. inizio turno) si accoda invece di saturare la CPU
+ * e rallentare il rendering delle pagine degli utenti già autenticati.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public class AdaptivePasswordEncoder implements PasswordEncoder {
+
+    /**
+     * Identificativo dell'algoritmo usato per i nuovi hash.
+     */
+    private static final String ID_BCRYPT = "bcrypt";
+
+    /**
+     * Costo BCrypt predefinito (lo stesso di {@link BCryptPasswordEncoder}).
+     */
+    public static final int COSTO_PREDEFINITO = 10;
+
+    /**
+     * Estrae il costo da un hash BCrypt, con o senza prefisso.
+     */
+    private static final Pattern COSTO_BCRYPT = Pattern.compile("^(?:\\{bcrypt})?\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder delegate;
+    private final int costo;
+    private final Semaphore permessi;
+
+    /**
+     * Crea l'encoder con il costo e il limite di concorrenza indicati.
+     *
+     * @param costo            Costo (log2 delle iterazioni) BCrypt per i nuovi hash, tra 4 e 31.
+     * @param maxConcorrenti   Numero massimo di hash calcolati contemporaneamente.
+     * @throws IllegalArgumentException se i parametri non sono validi.
+     * @since 3.7.0
+     */
+    public AdaptivePasswordEncoder(int costo, int maxConcorrenti) {
+        if (costo < 4 || costo > 31) throw new IllegalArgumentException("Il costo BCrypt deve essere compreso tra 4 e 31");
+        if (maxConcorrenti < 1) throw new IllegalArgumentException("Il limite di hash concorrenti deve essere positivo");
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(costo);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(ID_BCRYPT, Map.of(ID_BCRYPT, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        this.delegate = delegating;
+        this.costo = costo;
+        this.permessi = new Semaphore(maxConcorrenti, true);
+    }
+
+    /**
+     * Crea l'encoder con il costo predefinito e un calcolo concorrente per core.
+     *
+     * @return L'encoder con la configurazione predefinita.
+     * @since 3.7.0
+     */
+    public static AdaptivePasswordEncoder predefinito() {
+        return new AdaptivePasswordEncoder(COSTO_PREDEFINITO, Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        acquisisci();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permessi.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null || encodedPassword.isEmpty()) return false;
+        acquisisci();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permessi.release();
+        }
+    }
+
+    /**
+     * Indica se l'hash va ricalcolato: hash senza prefisso di algoritmo o con costo diverso da quello configurato.
+     *
+     * @param encodedPassword L'hash memorizzato.
+     * @return {@code true} se l'hash va ricalcolato al prossimo login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{" + ID_BCRYPT + "}")) return true;
+        Matcher matcher = COSTO_BCRYPT.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != costo;
+    }
+
+    /**
+     * @return Il costo BCrypt usato per i nuovi hash.
+     * @since 3.7.0
+     */
+    public int getCosto() {
+        return costo;
+    }
+
+    /**
+     * Attende un permesso di calcolo.
+     *
+     * @throws IllegalStateException se il thread viene interrotto durante l'attesa.
+     */
+    private void acquisisci() {
+        try {
+            permessi.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrotto in attesa del calcolo dell'hash della password", e);
+        }
+    }
+}
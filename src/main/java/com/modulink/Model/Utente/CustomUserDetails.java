@@ -5,10 +5,10 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.io.Serial;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Implementazione personalizzata dell'interfaccia {@link UserDetails} di Spring Security.
@@ -18,61 +18,85 @@ import java.util.stream.Collectors;
  * le credenziali (email/password) e le autorizzazioni (ruoli) dell'utente per gestire
  * il contesto di sicurezza (SecurityContext).
  * </p>
+ * <p>
+ * L'oggetto è una forma compatta e immutabile dell'utente: contiene soltanto la chiave composta, l'email e i
+ * nomi delle autorità, estratti alla costruzione, e non l'entità JPA con le sue associazioni. Poiché il
+ * SecurityContext viene serializzato nella sessione condivisa (Spring Session JDBC), questo mantiene piccola
+ * la riga di sessione ed evita di serializzare grafi JPA. L'hash della password è {@code transient}:
+ * serve solo durante l'autenticazione e non viene mai scritto nella sessione.
+ * </p>
  *
  * @see UserDetails
  * @see UtenteEntity
  * @author Modulink Team
- * @version 1.2.5
+ * @version 2.0.0
  */
 public class CustomUserDetails implements UserDetails {
 
-    private final UtenteEntity user;
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Chiave composta dell'utente (ID utente, ID azienda).
+     */
+    private final UtenteID id;
+
+    /**
+     * Email dell'utente, usata come username.
+     */
+    private final String email;
+
+    /**
+     * Hash della password, escluso dalla serializzazione.
+     */
+    private final transient String hashPassword;
+
+    /**
+     * Nomi delle autorità concesse (es. "ROLE_ADMIN").
+     */
+    private final List<String> authorities;
 
     /**
-     * Costruttore che incapsula l'entità Utente.
+     * Costruttore che estrae dall'entità Utente i dati necessari all'autenticazione.
+     * <p>
+     * Ogni {@link RuoloEntity} dell'utente viene convertito nel nome dell'autorità corrispondente, con il prefisso
+     * "ROLE_" e il nome in maiuscolo. Questo è lo standard di Spring Security (es. se il ruolo è "admin",
+     * diventa "ROLE_ADMIN") necessario per l'utilizzo corretto di espressioni come {@code hasRole('ADMIN')}.
+     * </p>
      *
      * @param user L'oggetto utente recuperato dal database.
      */
     public CustomUserDetails(UtenteEntity user) {
-        this.user = user;
+        this.id = new UtenteID(user.getId_utente(), user.getAzienda() != null ? user.getAzienda().getId_azienda() : 0);
+        this.email = user.getEmail();
+        this.hashPassword = user.getHash_password();
+        Set<RuoloEntity> ruoli = user.getRuoli();
+        this.authorities = ruoli == null ? List.of() : ruoli.stream()
+                .map(ruolo -> "ROLE_" + ruolo.getNome().toUpperCase())
+                .toList();
     }
 
     /**
      * Restituisce le autorizzazioni concesse all'utente.
-     * <p>
-     * Il metodo itera sul {@code Set<RuoloEntity>} dell'utente e converte ogni ruolo
-     * in un oggetto {@link SimpleGrantedAuthority}.
-     * </p>
-     * <p>
-     * <strong>Nota:</strong> Viene aggiunto il prefisso "ROLE_" al nome del ruolo (convertito in maiuscolo).
-     * Questo è lo standard di Spring Security (es. se il ruolo è "admin", diventa "ROLE_ADMIN")
-     * necessario per l'utilizzo corretto di espressioni come {@code hasRole('ADMIN')}.
-     * </p>
      *
      * @return Una collezione di autorità (ruoli) derivate dai ruoli dell'entità.
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // Usiamo il metodo helper che estrae i ruoli dalle associazioni
-        Set<RuoloEntity> ruoli = user.getRuoli();
-
-        if (ruoli == null) {
-            return Collections.emptyList();
-        }
-
-        return ruoli.stream()
-                .map(ruolo -> new SimpleGrantedAuthority("ROLE_" + ruolo.getNome().toUpperCase()))
-                .collect(Collectors.toList());
+        return authorities.stream().map(SimpleGrantedAuthority::new).toList();
     }
 
     /**
      * Restituisce la password dell'utente utilizzata per l'autenticazione.
+     * <p>
+     * Dopo la deserializzazione da una sessione condivisa il valore è {@code null}.
+     * </p>
      *
      * @return L'hash della password memorizzato nel database.
      */
     @Override
     public String getPassword() {
-        return user.getHash_password();
+        return hashPassword;
     }
 
     /**
@@ -85,7 +109,7 @@ public class CustomUserDetails implements UserDetails {
      */
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     /**
@@ -146,16 +170,16 @@ public class CustomUserDetails implements UserDetails {
     }
 
     /**
-     * Metodo getter aggiuntivo per recuperare l'entità Utente originale.
+     * Metodo getter aggiuntivo per recuperare la chiave dell'utente autenticato.
      * <p>
      * Utile nei Controller o Service layer quando si accede al {@code Principal}
-     * e si ha bisogno di accedere a dati non standard di {@code UserDetails}
-     * (es. ID Azienda, Nome, Cognome, Immagine Profilo).
+     * e si ha bisogno dell'ID utente o dell'ID azienda senza interrogare il database.
+     * Per i dati completi dell'utente usare {@code @UtenteLoggato}.
      * </p>
      *
-     * @return L'oggetto {@link UtenteEntity} originale completo.
+     * @return La chiave composta {@link UtenteID} dell'utente.
      */
-    public UtenteEntity getUser() {
-        return user;
+    public UtenteID getId() {
+        return id;
     }
-}
\ No newline at end of file
+}
@@ -2,20 +2,28 @@ package com.modulink.Model.Utente;
 
 import com.modulink.Model.Azienda.AziendaEntity;
 import com.modulink.Model.Azienda.AziendaRepository;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
 import com.modulink.Model.Relazioni.Associazione.AssociazioneEntity;
 import com.modulink.Model.Ruolo.RuoloEntity;
 import com.modulink.Model.Ruolo.RuoloService;
 import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -31,15 +39,19 @@ import java.util.Set;
  * comprensibili dal framework di sicurezza. Utilizza anche meccanismi di caching
  * per ottimizzare le prestazioni in lettura.
  * </p>
+ * <p>
+ * Implementa inoltre {@link UserDetailsPasswordService}, così il provider di autenticazione può
+ * ricalcolare al login gli hash prodotti con un costo BCrypt obsoleto (vedi {@link AdaptivePasswordEncoder}).
+ * </p>
  *
  * @see UserDetailsService
  * @see CustomUserDetails
  * @see UserRepository
  * @author Modulink Team
- * @version 1.3.1
+ * @version 1.6.0
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     /**
      * Repository per l'accesso ai dati persistenti dell'utente.
@@ -53,6 +65,17 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     private final AziendaRepository aziendaRepository;
 
+    /**
+     * Service che assegna gli ID utente locali a ciascuna azienda.
+     */
+    private final ContatoreService contatoreService;
+
+    /**
+     * Numero massimo di ID per singola query <code>IN</code> (<code>modulink.jpa.in-clause-block-size</code>);
+     * le liste più lunghe vengono suddivise.
+     */
+    private final int dimensioneBloccoIn;
+
     /**
      * Costruttore per l'iniezione delle dipendenze (Dependency Injection).
      * <p>
@@ -62,10 +85,17 @@ public class CustomUserDetailsService implements UserDetailsService {
      *
      * @param userRepository    L'istanza del repository Utente gestita dal container.
      * @param aziendaRepository L'istanza del repository Azienda gestita dal container.
+     * @param contatoreService  Il service delle sequenze di ID per azienda.
+     * @param dimensioneBloccoIn Numero massimo di ID per singola query <code>IN</code>.
+     * @throws IllegalArgumentException se la dimensione del blocco non è positiva.
      */
-    public CustomUserDetailsService(UserRepository userRepository, AziendaRepository aziendaRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, AziendaRepository aziendaRepository, ContatoreService contatoreService,
+                                    @Value("${modulink.jpa.in-clause-block-size:500}") int dimensioneBloccoIn) {
+        if (dimensioneBloccoIn < 1) throw new IllegalArgumentException("La dimensione dei blocchi IN deve essere positiva");
         this.userRepository = userRepository;
         this.aziendaRepository = aziendaRepository;
+        this.contatoreService = contatoreService;
+        this.dimensioneBloccoIn = dimensioneBloccoIn;
     }
 
     /**
@@ -94,6 +124,31 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new CustomUserDetails(user);
     }
 
+    /**
+     * Sostituisce l'hash della password di un utente appena autenticato.
+     * <p>
+     * Invocato dal {@code DaoAuthenticationProvider} quando l'hash memorizzato va aggiornato
+     * (hash storico senza prefisso o costo BCrypt diverso da quello configurato). Invalida le cache
+     * che contengono l'hash precedente.
+     * </p>
+     *
+     * @param user        I dettagli dell'utente autenticato.
+     * @param newPassword Il nuovo hash, già calcolato dall'encoder.
+     * @return I dettagli dell'utente con il nuovo hash, o quelli ricevuti se l'utente non esiste più.
+     * @since 3.7.0
+     */
+    @Caching(evict = {
+            @CacheEvict(value = {"users", "userDetails"}, key = "#user.username")
+    })
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Optional<UtenteEntity> utente = userRepository.findByEmail(user.getUsername());
+        if (utente.isEmpty()) return user;
+        utente.get().setHash_password(newPassword);
+        return new CustomUserDetails(userRepository.save(utente.get()));
+    }
+
     /**
      * Gestisce la registrazione di un nuovo utente con ID calcolato manualmente.
      * <p>
@@ -101,13 +156,12 @@ public class CustomUserDetailsService implements UserDetailsService {
      * senza auto-increment globale, questo metodo:
      * <ol>
      * <li>Verifica l'esistenza dell'azienda specificata nel database.</li>
-     * <li>Interroga il database per trovare l'ID utente massimo corrente per quell'azienda specifica.</li>
-     * <li>Assegna al nuovo utente l'ID calcolato (MAX + 1).</li>
+     * <li>Richiede il prossimo ID utente della sequenza di quell'azienda ({@link ContatoreService}).</li>
+     * <li>Assegna al nuovo utente l'ID ottenuto.</li>
      * <li>Salva l'utente nel database rendendo persistente la relazione.</li>
      * </ol>
      * <p>
-     * L'annotazione {@link Transactional} garantisce che tutte le operazioni (lettura MAX ID e salvataggio)
-     * avvengano atomicamente. Invalida le cache pertinenti per garantire coerenza.
+     * La sequenza garantisce ID univoci anche con registrazioni concorrenti, senza scandire gli utenti esistenti. Invalida le cache pertinenti per garantire coerenza.
      * </p>
      *
      * @param nuovoUtente L'oggetto {@link UtenteEntity} popolato con i dati anagrafici (Nome, Email, Password Hash).
@@ -124,10 +178,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         AziendaEntity aziendaRecuperata = aziendaRepository.findById(idAzienda)
                 .orElseThrow(() -> new IllegalArgumentException("Impossibile registrare l'utente: Azienda non trovata con ID " + idAzienda));
 
-        // 2. Calcola il prossimo ID per QUESTA specifica azienda
-        // Utilizza la query custom definita nel repository per ottenere il MAX(ID) attuale.
-        int currentMaxId = userRepository.findMaxIdByAzienda(idAzienda);
-        int nextId = currentMaxId + 1;
+        // 2. Ottiene il prossimo ID per QUESTA specifica azienda dalla sequenza per tenant
+        int nextId = contatoreService.prossimoId(idAzienda, TipoContatore.UTENTE);
 
         // 3. Assegna l'ID manuale e la relazione
         nuovoUtente.setId_utente(nextId);
@@ -173,21 +225,38 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findAllByAziendaAndIdUtenteNot(azienda, idUtente);
     }
 
+    /**
+     * Recupera i soli dati anagrafici degli utenti di un'azienda, proiettati dalla query senza caricare le entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return I dati degli utenti dell'azienda.
+     * @since 3.7.0
+     */
+    public List<UtenteSintesi> getSintesiByAzienda(int idAzienda) {
+        return userRepository.findSintesiByAzienda(idAzienda);
+    }
+
     /**
      * Rimuove un utente dal sistema e pulisce le cache associate.
      * <p>
      * Prima dell'eliminazione, disaccoppia le associazioni ai ruoli per mantenere
      * la coerenza del grafo degli oggetti e prevenire errori di integrità referenziale.
+     * L'utente viene riletto nella transazione corrente: l'istanza ricevuta può provenire dalla cache
+     * e le associazioni dei suoi ruoli, caricate in modo lazy, non sarebbero accessibili.
      * </p>
      *
      * @param utente L'entità utente da rimuovere.
      */
     @Caching(evict = {
             @CacheEvict(value = {"users", "userDetails"}, key = "#utente.email"),
-            @CacheEvict(value = "usersByAzienda", key = "#utente.azienda.id_azienda")
+            @CacheEvict(value = "usersByAzienda", key = "#utente.azienda.id_azienda"),
+            @CacheEvict(value = "permessiUtente", keyGenerator = "tenantKeyGenerator")
     })
     @Transactional
     public void rimuoviUtente(UtenteEntity utente) {
+        Optional<UtenteEntity> gestito = userRepository.findById(new UtenteID(utente.getId_utente(), utente.getAzienda().getId_azienda()));
+        if (gestito.isEmpty()) return;
+        utente = gestito.get();
         // Disaccoppia le associazioni dai ruoli per mantenere la coerenza del grafo oggetti
         if (utente.getAssociazioni() != null) {
             List<AssociazioneEntity> associazioni = new ArrayList<>(utente.getAssociazioni());
@@ -208,7 +277,8 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Caching(evict = {
             @CacheEvict(value = {"users", "userDetails"}, key = "#utente.email"),
-            @CacheEvict(value = "usersByAzienda", key = "#utente.azienda.id_azienda")
+            @CacheEvict(value = "usersByAzienda", key = "#utente.azienda.id_azienda"),
+            @CacheEvict(value = "permessiUtente", keyGenerator = "tenantKeyGenerator")
     })
     @Transactional
     public void aggiornaUtente(UtenteEntity utente) {
@@ -233,6 +303,10 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * Recupera una lista di utenti a partire da una lista di ID, verificando l'appartenenza all'azienda.
+     * <p>
+     * Gli utenti vengono caricati con query <code>IN</code> a blocchi (vedi {@link #findAllByIds(Collection, int)})
+     * invece di una query per ID. La lista restituita rispetta l'ordine (e gli eventuali duplicati) di {@code ids}.
+     * </p>
      *
      * @param ids       Lista degli ID utenti da recuperare.
      * @param id_azienda L'ID dell'azienda per contestualizzare la ricerca.
@@ -240,15 +314,40 @@ public class CustomUserDetailsService implements UserDetailsService {
      * @throws UserNotFoundException Se uno degli ID non corrisponde a nessun utente nell'azienda specificata.
      */
     public List<UtenteEntity> getAllUsersFromIDs(List<Integer> ids, int id_azienda) throws UserNotFoundException {
-        List<UtenteEntity> utenti=new ArrayList<>();
+        Map<Integer, UtenteEntity> trovati = findAllByIds(ids, id_azienda);
+        List<UtenteEntity> utenti=new ArrayList<>(ids.size());
         for(int id:ids) {
-            Optional<UtenteEntity> utenteOpt=userRepository.findById(new UtenteID(id,id_azienda));
-            if(utenteOpt.isEmpty()) throw new UserNotFoundException();
-            else utenti.add(utenteOpt.get());
+            UtenteEntity utente=trovati.get(id);
+            if(utente==null) throw new UserNotFoundException();
+            else utenti.add(utente);
         }
         return utenti;
     }
 
+    /**
+     * Recupera gli utenti di un'azienda corrispondenti a un insieme di ID, con una query <code>IN</code>
+     * ogni <code>modulink.jpa.in-clause-block-size</code> ID distinti.
+     * <p>
+     * Gli ID inesistenti non compaiono nella mappa: il chiamante decide se ignorarli o segnalarli.
+     * </p>
+     *
+     * @param ids        Gli ID degli utenti da recuperare.
+     * @param id_azienda L'ID dell'azienda per contestualizzare la ricerca.
+     * @return Mappa ID utente → utente per gli ID trovati.
+     * @since 3.7.0
+     */
+    public Map<Integer, UtenteEntity> findAllByIds(Collection<Integer> ids, int id_azienda) {
+        List<Integer> distinti = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, UtenteEntity> trovati = new HashMap<>();
+        for (int inizio = 0; inizio < distinti.size(); inizio += dimensioneBloccoIn) {
+            List<Integer> blocco = distinti.subList(inizio, Math.min(inizio + dimensioneBloccoIn, distinti.size()));
+            for (UtenteEntity utente : userRepository.findAllByAziendaAndIdIn(id_azienda, blocco)) {
+                trovati.put(utente.getId_utente(), utente);
+            }
+        }
+        return trovati;
+    }
+
     /**
      * Recupera un singolo utente tramite ID e ID azienda.
      *
@@ -0,0 +1,15 @@
+package com.modulink.Model.Utente;
+
+import java.util.List;
+
+/**
+ * Pagina della rubrica utenti, letta con paginazione keyset su <code>(id_azienda, id_utente)</code>.
+ *
+ * @param utenti   Gli utenti della pagina, in ordine di ID.
+ * @param prossimo Il cursore da passare per la pagina successiva (ID dell'ultimo utente), o {@code null} se è l'ultima.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record PaginaRubrica(List<UtenteRubrica> utenti, Integer prossimo) {
+}
@@ -1,6 +1,8 @@
 package com.modulink.Model.Utente;
 
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Objects;
 
 /**
  * Classe di utilità per la gestione della crittografia e verifica delle password.
@@ -18,13 +20,24 @@ import org.springframework.security.crypto.bcrypt.BCrypt;
  * <p>
  * Utilizzare questa classe durante le fasi di registrazione (per l'hashing) e di login (per la verifica).
  * </p>
+ * <p>
+ * Dalla versione 1.2.0 i metodi delegano all'{@link AdaptivePasswordEncoder} configurato da
+ * {@link com.modulink.SecurityConfig}, lo stesso usato dal login: costo BCrypt e limite di concorrenza
+ * sono quindi unici in tutta l'applicazione e gli hash prodotti qui sono riconosciuti dalla migrazione automatica.
+ * </p>
  *
- * @see org.springframework.security.crypto.bcrypt.BCrypt
+ * @see AdaptivePasswordEncoder
  * @author Modulink Team
- * @version 1.1.8
+ * @version 1.2.0
  */
 public class PasswordUtility {
 
+    /**
+     * Encoder a cui sono delegati hashing e verifica; quello predefinito vale finché
+     * il contesto Spring non ne registra uno configurato.
+     */
+    private static volatile PasswordEncoder encoder = AdaptivePasswordEncoder.predefinito();
+
     /**
      * Costruttore privato per prevenire l'istanziazione della classe utility.
      * <p>
@@ -36,11 +49,20 @@ public class PasswordUtility {
         throw new IllegalStateException("Utility class");
     }
 
+    /**
+     * Registra l'encoder da usare per hashing e verifica.
+     *
+     * @param passwordEncoder L'encoder configurato dell'applicazione.
+     * @since 3.7.0
+     */
+    public static void configura(PasswordEncoder passwordEncoder) {
+        encoder = Objects.requireNonNull(passwordEncoder);
+    }
+
     /**
      * Genera un hash sicuro a partire da una password in chiaro.
      * <p>
-     * Questo metodo utilizza <code>BCrypt.gensalt()</code> per generare un salt casuale
-     * e applicarlo alla password. Di conseguenza, chiamando questo metodo più volte
+     * Questo metodo genera un salt casuale e lo applica alla password, con il costo BCrypt configurato. Di conseguenza, chiamando questo metodo più volte
      * con la stessa password, si otterranno hash differenti ogni volta.
      * </p>
      * <p>
@@ -49,10 +71,10 @@ public class PasswordUtility {
      * </p>
      *
      * @param plainPassword La password in chiaro inserita dall'utente.
-     * @return Una stringa contenente l'hash cifrato della password (lunghezza tipica 60 caratteri).
+     * @return Una stringa contenente l'hash cifrato della password, prefissato dall'algoritmo (es. <code>{bcrypt}$2a$10$...</code>).
      */
     public static String hashPassword(String plainPassword) {
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return encoder.encode(plainPassword);
     }
 
     /**
@@ -63,7 +85,8 @@ public class PasswordUtility {
      * la complessità del confronto sicuro contro attacchi temporali (timing attacks).
      * </p>
      * <p>
-     * Da utilizzare in fase di autenticazione (Login).
+     * Da utilizzare in fase di autenticazione (Login). Sono accettati sia gli hash prefissati
+     * sia quelli storici senza prefisso.
      * </p>
      *
      * @param plainPassword  La password in chiaro inserita dall'utente al momento del login.
@@ -71,6 +94,6 @@ public class PasswordUtility {
      * @return <code>true</code> se la password in chiaro corrisponde all'hash memorizzato, <code>false</code> altrimenti.
      */
     public static boolean checkPassword(String plainPassword, String hashedPassword) {
-        return BCrypt.checkpw(plainPassword, hashedPassword);
+        return encoder.matches(plainPassword, hashedPassword);
     }
 }
\ No newline at end of file
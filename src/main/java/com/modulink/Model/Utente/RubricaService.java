@@ -0,0 +1,120 @@
+package com.modulink.Model.Utente;
+
+import com.modulink.Model.Relazioni.Associazione.AssociazioneRepository;
+import com.modulink.Model.Ruolo.RuoloSintesi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Service per la consultazione paginata della rubrica utenti del modulo GDU.
+ * <p>
+ * Le pagine sono lette con paginazione <em>keyset</em> su <code>(id_azienda, id_utente)</code>: il client passa
+ * l'ID dell'ultimo utente ricevuto invece di un offset, così ogni pagina costa quanto la sua dimensione anche per
+ * aziende con migliaia di dipendenti. La ricerca per nome, email o ruolo è eseguita dal database.
+ * </p>
+ * <p>
+ * Ogni pagina richiede due query: una per i dati degli utenti, proiettati senza caricare le entità, e una per i
+ * ruoli dei soli utenti della pagina.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Service
+public class RubricaService {
+
+    /**
+     * Dimensione massima di una pagina richiesta dal client.
+     */
+    public static final int DIMENSIONE_MASSIMA = 100;
+
+    private final UserRepository userRepository;
+    private final AssociazioneRepository associazioneRepository;
+    private final int dimensionePagina;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param userRepository         Repository degli utenti.
+     * @param associazioneRepository Repository delle associazioni utente-ruolo.
+     * @param dimensionePagina       Dimensione predefinita delle pagine.
+     * @throws IllegalArgumentException se la dimensione predefinita non è compresa tra 1 e {@value #DIMENSIONE_MASSIMA}.
+     * @since 3.7.0
+     */
+    public RubricaService(UserRepository userRepository, AssociazioneRepository associazioneRepository,
+                          @Value("${modulink.gdu.page-size:30}") int dimensionePagina) {
+        if (dimensionePagina < 1 || dimensionePagina > DIMENSIONE_MASSIMA) {
+            throw new IllegalArgumentException("La dimensione della pagina della rubrica deve essere compresa tra 1 e " + DIMENSIONE_MASSIMA);
+        }
+        this.userRepository = userRepository;
+        this.associazioneRepository = associazioneRepository;
+        this.dimensionePagina = dimensionePagina;
+    }
+
+    /**
+     * Legge una pagina della rubrica di un'azienda.
+     *
+     * @param idAzienda  L'ID dell'azienda.
+     * @param dopo       ID dell'ultimo utente della pagina precedente, o {@code null} per la prima pagina.
+     * @param ricerca    Testo da cercare in nome, cognome, email e ruoli, o {@code null}/vuoto per nessun filtro.
+     * @param dimensione Dimensione richiesta, o {@code null} per quella predefinita; limitata a {@value #DIMENSIONE_MASSIMA}.
+     * @return La pagina, con il cursore per la successiva.
+     * @since 3.7.0
+     */
+    @Transactional(readOnly = true)
+    public PaginaRubrica getPagina(int idAzienda, Integer dopo, String ricerca, Integer dimensione) {
+        int size = dimensione == null ? dimensionePagina : Math.max(1, Math.min(dimensione, DIMENSIONE_MASSIMA));
+        // Una riga in più indica se esiste una pagina successiva senza una query di conteggio
+        List<UtenteRubrica> righe = userRepository.findRubrica(idAzienda, dopo == null ? -1 : dopo, toPattern(ricerca), Limit.of(size + 1));
+        boolean altre = righe.size() > size;
+        List<UtenteRubrica> pagina = altre ? righe.subList(0, size) : righe;
+        if (pagina.isEmpty()) return new PaginaRubrica(List.of(), null);
+
+        Map<Integer, List<RuoloSintesi>> ruoli = new HashMap<>();
+        List<Integer> ids = pagina.stream().map(UtenteRubrica::id_utente).toList();
+        for (Object[] riga : associazioneRepository.findRuoliByUtenti(idAzienda, ids)) {
+            ruoli.computeIfAbsent((Integer) riga[0], k -> new ArrayList<>())
+                    .add(new RuoloSintesi((Integer) riga[1], (String) riga[2], (String) riga[3]));
+        }
+        List<UtenteRubrica> utenti = pagina.stream()
+                .map(u -> u.conRuoli(ruoli.getOrDefault(u.id_utente(), List.of())))
+                .toList();
+        return new PaginaRubrica(utenti, altre ? utenti.get(utenti.size() - 1).id_utente() : null);
+    }
+
+    /**
+     * Conta gli utenti di un'azienda.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Il numero di utenti.
+     * @since 3.7.0
+     */
+    public long contaUtenti(int idAzienda) {
+        return userRepository.countByIdAzienda(idAzienda);
+    }
+
+    /**
+     * Converte il testo di ricerca in un pattern <code>LIKE</code> "contiene", in minuscolo e con i caratteri
+     * speciali protetti dal carattere di escape <code>!</code>.
+     *
+     * @param ricerca Il testo cercato.
+     * @return Il pattern, o {@code null} se il testo è vuoto.
+     */
+    static String toPattern(String ricerca) {
+        if (ricerca == null || ricerca.isBlank()) return null;
+        String escaped = ricerca.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
@@ -1,11 +1,14 @@
 package com.modulink.Model.Utente;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,7 +27,7 @@ import java.util.Optional;
  * @see UtenteEntity
  * @see UtenteID
  * @author Modulink Team
- * @version 1.4.1
+ * @version 1.8.0
  */
 @Repository
 public interface UserRepository extends JpaRepository<UtenteEntity, UtenteID> {
@@ -35,38 +38,24 @@ public interface UserRepository extends JpaRepository<UtenteEntity, UtenteID> {
      * Questo è un "Query Method" derivato: Spring Data JPA analizza il nome del metodo
      * e crea automaticamente la query SQL corrispondente (es. <code>SELECT * FROM Utente WHERE Email = ?</code>).
      * Utilizzato principalmente durante le fasi di login e recupero credenziali.
+     * L'utente è caricato con il grafo {@link UtenteEntity#GRAFO_CON_RUOLI}, necessario ad autenticazione e sidebar.
      * </p>
      *
      * @param email L'indirizzo email univoco dell'utente da cercare.
      * @return Un {@link Optional} contenente l'utente se trovato, oppure un Optional vuoto se nessun utente corrisponde all'email fornita.
      */
+    @EntityGraph(value = UtenteEntity.GRAFO_CON_RUOLI, type = EntityGraph.EntityGraphType.LOAD)
     Optional<UtenteEntity> findByEmail(String email);
 
-    /**
-     * Trova il valore massimo attuale dell'ID Utente all'interno di una specifica azienda.
-     * <p>
-     * Questo metodo è fondamentale per la strategia di generazione manuale degli ID:
-     * permette di conoscere l'ultimo ID assegnato per calcolare il successivo (<code>MAX + 1</code>).
-     * </p>
-     * <p>
-     * La funzione JPQL <code>COALESCE(MAX(u.id_utente), 0)</code> garantisce che, se l'azienda
-     * non ha ancora utenti (e quindi MAX restituisce <code>null</code>), il metodo ritorni <code>0</code>
-     * invece di lanciare un'eccezione o restituire null.
-     * </p>
-     *
-     * @param idAzienda L'ID dell'azienda di cui si vuole trovare il massimo ID utente corrente.
-     * @return L'ID più alto presente (o 0 se l'azienda è vuota).
-     */
-    @Query("SELECT COALESCE(MAX(u.id_utente), 0) FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda")
-    int findMaxIdByAzienda(@Param("idAzienda") int idAzienda);
-
 
     /**
-     * Recupera tutti gli utenti appartenenti ad una specifica azienda.
+     * Recupera tutti gli utenti appartenenti ad una specifica azienda, con i rispettivi ruoli
+     * (grafo {@link UtenteEntity#GRAFO_CON_RUOLI}) mostrati nell'elenco di GDU.
      *
      * @param azienda L'entità Azienda per cui filtrare gli utenti.
      * @return Una lista di tutti gli utenti associati all'azienda data.
      */
+    @EntityGraph(value = UtenteEntity.GRAFO_CON_RUOLI, type = EntityGraph.EntityGraphType.LOAD)
     List<UtenteEntity> getAllByAziendaIs(AziendaEntity azienda);
 
     /**
@@ -80,4 +69,104 @@ public interface UserRepository extends JpaRepository<UtenteEntity, UtenteID> {
     @Query("SELECT u FROM UtenteEntity u WHERE u.azienda = :azienda AND u.id_utente <> :idUtente")
     List<UtenteEntity> findAllByAziendaAndIdUtenteNot(@Param("azienda") AziendaEntity azienda, @Param("idUtente") int idUtente);
 
+    /**
+     * Recupera con un'unica query gli utenti di un'azienda corrispondenti a un insieme di ID.
+     * <p>
+     * Gli ID inesistenti vengono semplicemente ignorati: la verifica è responsabilità del chiamante.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param ids       Gli ID locali degli utenti da recuperare.
+     * @return Gli utenti trovati, in ordine non specificato.
+     * @since 3.7.0
+     */
+    @Query("SELECT u FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda AND u.id_utente IN :ids")
+    List<UtenteEntity> findAllByAziendaAndIdIn(@Param("idAzienda") int idAzienda, @Param("ids") Collection<Integer> ids);
+
+    /**
+     * Proietta i dati anagrafici di tutti gli utenti di un'azienda, senza caricare le entità.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return I dati degli utenti dell'azienda.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Utente.UtenteSintesi(u.id_utente, u.nome, u.cognome, u.email) " +
+            "FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda")
+    List<UtenteSintesi> findSintesiByAzienda(@Param("idAzienda") int idAzienda);
+
+    /**
+     * Proietta i dati anagrafici degli utenti di un'azienda escludendo un utente (solitamente quello corrente).
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idUtente  L'ID dell'utente da escludere.
+     * @return I dati dei colleghi dell'utente.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Utente.UtenteSintesi(u.id_utente, u.nome, u.cognome, u.email) " +
+            "FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda AND u.id_utente <> :idUtente")
+    List<UtenteSintesi> findSintesiByAziendaEscluso(@Param("idAzienda") int idAzienda, @Param("idUtente") int idUtente);
+
+    /**
+     * Proietta una pagina dei colleghi di un utente, in ordine di ID, a partire dal cursore indicato (paginazione keyset).
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param idUtente  L'ID dell'utente da escludere.
+     * @param dopo      ID dell'ultimo utente della pagina precedente (-1 per la prima pagina).
+     * @param limit     Dimensione della pagina.
+     * @return I dati dei colleghi della pagina.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Utente.UtenteSintesi(u.id_utente, u.nome, u.cognome, u.email) " +
+            "FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda AND u.id_utente > :dopo AND u.id_utente <> :idUtente " +
+            "ORDER BY u.id_utente")
+    List<UtenteSintesi> findSintesiByAziendaEscluso(@Param("idAzienda") int idAzienda, @Param("idUtente") int idUtente,
+                                                    @Param("dopo") int dopo, Limit limit);
+
+    /**
+     * Proietta una pagina della rubrica di un'azienda, in ordine di ID, a partire dal cursore indicato.
+     * <p>
+     * La condizione <code>id_utente &gt; :dopo</code> con <code>ORDER BY id_utente</code> è servita dall'indice
+     * <code>(ID_Azienda, ID_Utente)</code>: ogni pagina costa quanto la sua dimensione, indipendentemente dalla posizione.
+     * Il filtro, se presente, è un pattern <code>LIKE</code> già in minuscolo e con i caratteri speciali protetti da
+     * <code>!</code>; viene confrontato con nome, cognome, nome completo, email e nomi dei ruoli dell'utente.
+     * </p>
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @param dopo      ID dell'ultimo utente della pagina precedente (-1 per la prima pagina).
+     * @param filtro    Pattern di ricerca, o {@code null} per nessun filtro.
+     * @param limit     Numero massimo di righe.
+     * @return Le voci della pagina, senza ruoli.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Utente.UtenteRubrica(u.id_utente, u.nome, u.cognome, u.email, u.telefono, u.path_immagine_profilo) " +
+            "FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda AND u.id_utente > :dopo " +
+            "AND (:filtro IS NULL OR LOWER(u.nome) LIKE :filtro ESCAPE '!' OR LOWER(u.cognome) LIKE :filtro ESCAPE '!' " +
+            "OR LOWER(CONCAT(u.nome, ' ', u.cognome)) LIKE :filtro ESCAPE '!' OR LOWER(u.email) LIKE :filtro ESCAPE '!' " +
+            "OR EXISTS (SELECT 1 FROM AssociazioneEntity a JOIN a.ruolo r WHERE a.id_azienda = :idAzienda AND a.id_utente = u.id_utente " +
+            "AND LOWER(r.nome) LIKE :filtro ESCAPE '!')) " +
+            "ORDER BY u.id_utente")
+    List<UtenteRubrica> findRubrica(@Param("idAzienda") int idAzienda, @Param("dopo") int dopo, @Param("filtro") String filtro, Limit limit);
+
+    /**
+     * Conta gli utenti di un'azienda.
+     *
+     * @param idAzienda L'ID dell'azienda.
+     * @return Il numero di utenti.
+     * @since 3.7.0
+     */
+    @Query("SELECT COUNT(u) FROM UtenteEntity u WHERE u.azienda.id_azienda = :idAzienda")
+    long countByIdAzienda(@Param("idAzienda") int idAzienda);
+
+    /**
+     * Proietta i dati anagrafici dei partecipanti a un evento.
+     *
+     * @param idAzienda L'ID dell'azienda dell'evento.
+     * @param idEvento  L'ID locale dell'evento.
+     * @return I dati dei partecipanti.
+     * @since 3.7.0
+     */
+    @Query("SELECT new com.modulink.Model.Utente.UtenteSintesi(u.id_utente, u.nome, u.cognome, u.email) " +
+            "FROM PartecipazioneEntity p JOIN p.utente u WHERE p.id_azienda = :idAzienda AND p.id_evento = :idEvento")
+    List<UtenteSintesi> findSintesiPartecipanti(@Param("idAzienda") int idAzienda, @Param("idEvento") int idEvento);
+
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.modulink.Model.Utente;
+
+import com.modulink.TransazioniUtil;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Componente responsabile dell'invalidazione in blocco delle cache degli utenti.
+ * <p>
+ * Le operazioni massive (es. l'aggiornamento dei membri di un ruolo) modificano molti utenti con poche
+ * istruzioni SQL: invece di invalidare le cache un utente alla volta tramite {@code @CacheEvict}, questo
+ * componente rimuove in un solo passaggio le entry di <code>users</code> e <code>userDetails</code> dei soli
+ * utenti coinvolti e la lista <code>usersByAzienda</code> della loro azienda.
+ * </p>
+ * <p>
+ * Se invocata all'interno di una transazione, l'invalidazione viene posticipata al commit
+ * ({@link com.modulink.TransazioniUtil#dopoCommit(Runnable)}).
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Component
+public class UtenteCacheEvictor {
+
+    /**
+     * Cache degli utenti con chiave email.
+     */
+    private static final String[] EMAIL_CACHES = {"users", "userDetails"};
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param cacheManager Il gestore delle cache applicative.
+     * @since 3.7.0
+     */
+    public UtenteCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Invalida le cache degli utenti indicati e l'elenco utenti della loro azienda.
+     *
+     * @param idAzienda L'ID dell'azienda degli utenti.
+     * @param emails    Le email degli utenti modificati.
+     * @since 3.7.0
+     */
+    public void evictUtenti(int idAzienda, Collection<String> emails) {
+        if (emails.isEmpty()) return;
+        TransazioniUtil.dopoCommit(() -> {
+            for (String name : EMAIL_CACHES) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache == null) continue;
+                for (String email : emails) cache.evict(email);
+            }
+            Cache usersByAzienda = cacheManager.getCache("usersByAzienda");
+            if (usersByAzienda != null) usersByAzienda.evict(idAzienda);
+        });
+    }
+}
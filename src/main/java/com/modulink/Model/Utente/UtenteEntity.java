@@ -24,26 +24,43 @@ import java.util.Set;
  * A differenza di un approccio standard con ID autoincrementale globale, qui l'identificativo dell'utente
  * è sequenziale e univoco solo all'interno della specifica azienda di appartenenza.
  * </p>
+ * <p>
+ * Le associazioni ai ruoli sono caricate in modo lazy. I casi d'uso che le leggono (autenticazione,
+ * sidebar, elenco utenti di GDU) caricano l'utente con il grafo {@value #GRAFO_CON_RUOLI}, che recupera
+ * azienda, associazioni e ruoli con un'unica query; gli utenti conservati nelle cache applicative vengono
+ * sempre caricati con questo grafo (come <em>load graph</em>, così gli altri attributi mantengono il fetch
+ * dichiarato), per cui azienda e ruoli restano leggibili anche fuori dalla sessione JPA.
+ * </p>
  *
  * @see UtenteID
  * @see AziendaEntity
  * @see RuoloEntity
  * @see AssociazioneEntity
  * @author Modulink Team
- * @version 1.3.3
+ * @version 1.5.0
  */
 @Entity
-@Table(name="Utente", schema="modulink")
+@Table(name="Utente", schema="modulink", indexes = @Index(name = "idx_utente_azienda_id", columnList = "ID_Azienda, ID_Utente"))
 @IdClass(UtenteID.class)
+@NamedEntityGraph(name = UtenteEntity.GRAFO_CON_RUOLI,
+        attributeNodes = {@NamedAttributeNode("azienda"), @NamedAttributeNode(value = "associazioni", subgraph = "associazione")},
+        subgraphs = @NamedSubgraph(name = "associazione", attributeNodes = @NamedAttributeNode("ruolo")))
 public class UtenteEntity {
 
+    /**
+     * Nome del grafo di caricamento "utente con ruoli" (associazioni e relativi ruoli).
+     *
+     * @since 3.7.0
+     */
+    public static final String GRAFO_CON_RUOLI = "Utente.conRuoli";
+
     /**
      * Identificativo numerico dell'utente.
      * <p>
      * Questo campo è parte della chiave primaria composta.
      * <strong>Nota Importante:</strong> Non è annotato con <code>@GeneratedValue</code>.
      * Il valore deve essere calcolato e assegnato manualmente dall'applicazione (Service Layer)
-     * prima del salvataggio (es. <code>MAX(ID) + 1</code> per l'azienda corrente).
+     * prima del salvataggio (sequenza per azienda di <code>ContatoreService</code>).
      * </p>
      */
     @Id
@@ -70,9 +87,10 @@ public class UtenteEntity {
      * Questa struttura sostituisce la classica annotazione <code>@ManyToMany</code> per risolvere
      * i conflitti generati dalla condivisione della colonna <code>ID_Azienda</code> nelle chiavi composte
      * di Utente e Ruolo.
+     * Caricata in modo lazy: usare il grafo {@value #GRAFO_CON_RUOLI} quando servono i ruoli.
      * </p>
      */
-    @OneToMany(mappedBy = "utente", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "utente", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<AssociazioneEntity> associazioni = new HashSet<>();
 
     /**
@@ -31,7 +31,7 @@ public class UtenteID implements Serializable {
      * Identificativo numerico dell'utente.
      * <p>
      * Corrisponde all'attributo {@code private int id_utente} in {@link UtenteEntity}.
-     * Questo valore viene solitamente calcolato manualmente (es. MAX ID + 1) in fase di registrazione
+     * Questo valore viene assegnato dalla sequenza per azienda (<code>ContatoreService</code>) in fase di registrazione
      * per garantire la sequenzialità specifica per azienda.
      * </p>
      */
@@ -0,0 +1,53 @@
+package com.modulink.Model.Utente;
+
+import com.modulink.Model.Ruolo.RuoloSintesi;
+
+import java.util.List;
+
+/**
+ * Voce della rubrica utenti di GDU: dati anagrafici e di contatto, con i ruoli da mostrare come badge.
+ * <p>
+ * I dati dell'utente sono proiettati dalla query di pagina con una <em>constructor expression</em>; i ruoli vengono
+ * aggiunti con {@link #conRuoli(List)} da una seconda query limitata agli utenti della pagina.
+ * </p>
+ *
+ * @param id_utente             ID locale dell'utente (chiave della paginazione).
+ * @param nome                  Nome.
+ * @param cognome               Cognome.
+ * @param email                 Email.
+ * @param telefono              Telefono, o {@code null}.
+ * @param path_immagine_profilo Percorso dell'immagine del profilo, o {@code null}.
+ * @param ruoli                 Ruoli dell'utente.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record UtenteRubrica(int id_utente, String nome, String cognome, String email, String telefono,
+                            String path_immagine_profilo, List<RuoloSintesi> ruoli) {
+
+    /**
+     * Costruttore usato dalla query di pagina, senza ruoli.
+     *
+     * @param id_utente             ID locale dell'utente.
+     * @param nome                  Nome.
+     * @param cognome               Cognome.
+     * @param email                 Email.
+     * @param telefono              Telefono.
+     * @param path_immagine_profilo Percorso dell'immagine del profilo.
+     * @since 3.7.0
+     */
+    public UtenteRubrica(int id_utente, String nome, String cognome, String email, String telefono, String path_immagine_profilo) {
+        this(id_utente, nome, cognome, email, telefono, path_immagine_profilo, List.of());
+    }
+
+    /**
+     * Restituisce una copia della voce con i ruoli indicati.
+     *
+     * @param ruoli I ruoli dell'utente.
+     * @return La voce completa.
+     * @since 3.7.0
+     */
+    public UtenteRubrica conRuoli(List<RuoloSintesi> ruoli) {
+        return new UtenteRubrica(id_utente, nome, cognome, email, telefono, path_immagine_profilo, List.copyOf(ruoli));
+    }
+}
@@ -0,0 +1,19 @@
+package com.modulink.Model.Utente;
+
+/**
+ * Proiezione dei soli dati anagrafici di un utente, usata dalle API JSON che elencano colleghi o partecipanti.
+ * <p>
+ * Viene costruita con una <em>constructor expression</em> JPQL: la query legge solo queste colonne, senza
+ * istanziare {@link UtenteEntity}, caricarne le associazioni o registrarla nel contesto di persistenza.
+ * </p>
+ *
+ * @param id_utente ID locale dell'utente.
+ * @param nome      Nome dell'utente.
+ * @param cognome   Cognome dell'utente.
+ * @param email     Email dell'utente.
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public record UtenteSintesi(int id_utente, String nome, String cognome, String email) {
+}
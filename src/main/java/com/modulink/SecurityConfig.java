@@ -1,5 +1,8 @@
 package com.modulink;
 
+import com.modulink.Model.Utente.AdaptivePasswordEncoder;
+import com.modulink.Model.Utente.PasswordUtility;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,8 +11,9 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.filter.ForwardedHeaderFilter;
@@ -22,7 +26,7 @@ import org.springframework.web.filter.ForwardedHeaderFilter;
  * </p>
  *
  * @author Modulink Team
- * @version 2.1.3
+ * @version 2.2.0
  * @since 1.0.0
  */
 @Configuration
@@ -96,16 +100,25 @@ public class SecurityConfig {
      * Configura il provider di autenticazione DAO.
      * <p>
      * Collega il {@link UserDetailsService} custom e il {@link PasswordEncoder} per la verifica delle credenziali.
+     * Se il servizio utenti supporta l'aggiornamento delle password, dopo ogni login riuscito gli hash
+     * segnalati da {@link PasswordEncoder#upgradeEncoding(String)} vengono ricalcolati e salvati.
      * </p>
      *
+     * @param passwordEncoder L'encoder delle password dell'applicazione.
      * @return Il provider configurato.
      * @since 1.0.0
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            authProvider.setUserDetailsPasswordService((user, nuovoHash) -> {
+                UserDetails aggiornato = passwordService.updatePassword(user, nuovoHash);
+                return aggiornato != null ? aggiornato : user;
+            });
+        }
         return authProvider;
     }
 
@@ -124,13 +137,26 @@ public class SecurityConfig {
 
     /**
      * Definisce l'algoritmo di hashing per le password.
+     * <p>
+     * Il costo BCrypt (<code>modulink.password.bcrypt-strength</code>) va scelto con il benchmark
+     * <code>PasswordEncoderBenchmarkTest</code> sull'hardware di produzione; il numero di hash calcolati
+     * in parallelo è limitato da <code>modulink.password.max-concurrent-hashes</code> (0 = numero di core).
+     * L'encoder viene registrato anche in {@link PasswordUtility}, così registrazione, cambio password e login
+     * usano la stessa configurazione.
+     * </p>
      *
-     * @return Un'istanza di {@link BCryptPasswordEncoder}.
+     * @param costo          Costo BCrypt dei nuovi hash.
+     * @param maxConcorrenti Numero massimo di hash calcolati contemporaneamente.
+     * @return Un'istanza di {@link AdaptivePasswordEncoder}.
      * @since 1.0.0
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${modulink.password.bcrypt-strength:10}") int costo,
+                                           @Value("${modulink.password.max-concurrent-hashes:0}") int maxConcorrenti) {
+        AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(costo,
+                maxConcorrenti > 0 ? maxConcorrenti : Runtime.getRuntime().availableProcessors());
+        PasswordUtility.configura(encoder);
+        return encoder;
     }
 
     /**
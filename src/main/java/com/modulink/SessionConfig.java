@@ -0,0 +1,68 @@
+package com.modulink;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.SessionRepositoryCustomizer;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.session.jdbc.config.annotation.web.http.EnableJdbcHttpSession;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Classe di configurazione delle sessioni HTTP condivise tra più istanze dell'applicazione.
+ * <p>
+ * Con <code>modulink.session.store=jdbc</code> la sessione servlet (<code>JSESSIONID</code> locale al nodo)
+ * viene sostituita da Spring Session JDBC: sessione e SecurityContext sono persistiti nelle tabelle
+ * <code>SPRING_SESSION</code> del datasource esistente, per cui qualsiasi istanza dietro a un load balancer
+ * round-robin può servire qualsiasi richiesta e il riavvio di un nodo non disconnette gli utenti.
+ * Con qualunque altro valore resta attiva la normale sessione servlet (installazione a nodo singolo).
+ * </p>
+ * <p>
+ * L'auto-configurazione di Spring Boot per Spring Session è esclusa in <code>application.properties</code>,
+ * così che l'attivazione dipenda soltanto da questa proprietà. Lo schema viene creato all'avvio con uno script
+ * idempotente (<code>db/spring-session-schema.sql</code>) e le sessioni scadute vengono rimosse ogni minuto.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "modulink.session.store", havingValue = "jdbc")
+@EnableJdbcHttpSession
+public class SessionConfig {
+
+    /**
+     * Applica al repository delle sessioni la durata di inattività configurata.
+     *
+     * @param timeout Durata massima di inattività di una sessione.
+     * @return Il customizer del repository JDBC.
+     * @since 3.7.0
+     */
+    @Bean
+    public SessionRepositoryCustomizer<JdbcIndexedSessionRepository> sessionTimeoutCustomizer(@Value("${modulink.session.timeout:30m}") Duration timeout) {
+        return repository -> repository.setDefaultMaxInactiveInterval(timeout);
+    }
+
+    /**
+     * Crea, se assenti, le tabelle di Spring Session sul datasource dell'applicazione.
+     *
+     * @param dataSource Il datasource condiviso.
+     * @return L'inizializzatore dello schema delle sessioni.
+     * @since 3.7.0
+     */
+    @Bean
+    public DataSourceScriptDatabaseInitializer sessionSchemaInitializer(DataSource dataSource) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of("classpath:db/spring-session-schema.sql"));
+        settings.setMode(DatabaseInitializationMode.ALWAYS);
+        return new DataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+}
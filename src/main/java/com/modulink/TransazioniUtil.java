@@ -0,0 +1,43 @@
+package com.modulink;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Classe di utilità per eseguire azioni collegate all'esito della transazione corrente.
+ * <p>
+ * Usata dai componenti che invalidano cache o sollecitano elaborazioni asincrone dopo una scrittura:
+ * eseguendo l'azione al commit, una lettura concorrente non può ripopolare la cache con i dati precedenti
+ * alla modifica e nessuna elaborazione parte per dati poi annullati da un rollback.
+ * </p>
+ *
+ * @author Modulink Team
+ * @version 1.0.0
+ * @since 3.7.0
+ */
+public final class TransazioniUtil {
+
+    private TransazioniUtil() {}
+
+    /**
+     * Esegue l'azione dopo il commit della transazione corrente, oppure subito se non c'è transazione attiva.
+     * <p>
+     * In caso di rollback l'azione non viene eseguita.
+     * </p>
+     *
+     * @param azione L'azione da eseguire.
+     * @since 3.7.0
+     */
+    public static void dopoCommit(Runnable azione) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    azione.run();
+                }
+            });
+        } else {
+            azione.run();
+        }
+    }
+}
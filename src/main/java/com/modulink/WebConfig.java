@@ -1,26 +1,53 @@
 package com.modulink;
 
+import com.modulink.Controller.UtenteLoggatoResolver;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 
 /**
  * Classe di configurazione per Spring Web MVC.
  * <p>
  * Personalizza il comportamento di default di Spring MVC, in particolare per quanto riguarda
- * la gestione delle risorse statiche esterne al classpath (es. loghi caricati dagli utenti).
+ * la gestione delle risorse statiche esterne al classpath (es. loghi caricati dagli utenti)
+ * e la risoluzione dell'utente autenticato come argomento dei Controller.
  * </p>
  *
  * @author Modulink Team
- * @version 1.1.0
+ * @version 1.2.0
  * @since 1.0.0
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final UtenteLoggatoResolver utenteLoggatoResolver;
+
+    /**
+     * Costruttore per Dependency Injection.
+     *
+     * @param utenteLoggatoResolver Risolutore dei parametri annotati con {@code @UtenteLoggato}.
+     * @since 3.7.0
+     */
+    public WebConfig(UtenteLoggatoResolver utenteLoggatoResolver) {
+        this.utenteLoggatoResolver = utenteLoggatoResolver;
+    }
+
+    /**
+     * Registra i risolutori di argomenti personalizzati per i metodi dei Controller.
+     *
+     * @param resolvers La lista dei risolutori configurati.
+     * @since 3.7.0
+     */
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(utenteLoggatoResolver);
+    }
+
     /**
      * Mappa percorsi URL virtuali a directory fisiche sul server.
      * <p>
@@ -10,6 +10,8 @@ let selectedEvent = null;
 let storedEvents = [];
 let storedTasks = [];
 let eventsData = []; // Array finale renderizzato
+let loadedRangeKey = null; // Mese (griglia di 6 settimane) per cui sono stati caricati gli eventi
+let syncToken = null; // Ultimo token di sincronizzazione ricevuto dal server
 
 // Scroll sync per mobile
 let isScrollingProgrammatically = false;
@@ -28,6 +30,7 @@ document.addEventListener('DOMContentLoaded', function () {
 function initializeCalendar() {
     fetchEvents();
     setupEventListeners();
+    setInterval(() => { if (!document.hidden) syncChanges(); }, 60000);
 
     if (currentView === 'week') {
         updateCurrentTimeLine();
@@ -162,15 +165,22 @@ function fetchEvents() {
         icon.style.transform = 'rotate(180deg)';
     }
 
-    const p1 = fetch('/dashboard/calendar/api/get')
+    // Il server restituisce solo gli eventi della griglia del mese corrente, che copre anche la vista settimanale
+    const range = getVisibleRange(currentDate);
+    loadedRangeKey = getRangeKey(currentDate);
+    const params = new URLSearchParams({ start: formatDateTimeLocal(range.start), end: formatDateTimeLocal(range.end) });
+    // Il token va richiesto prima del caricamento: le modifiche concorrenti verranno riproposte da syncChanges
+    const token = syncToken !== null ? Promise.resolve() : fetch('/dashboard/calendar/api/sync')
+        .then(r => r.ok ? r.json() : null)
+        .then(d => { if (d) syncToken = d.token; });
+
+    // Eventi e task arrivano in un'unica risposta, distinti dal campo type
+    token
+        .then(() => fetch(`/dashboard/calendar/api/feed?${params}`))
         .then(r => r.ok ? r.json() : [])
-        .then(d => storedEvents = d.map(e => ({ ...e, type: 'event' })));
-    const p2 = fetch('/dashboard/calendar/api/getet')
-        .then(r => r.ok ? r.json() : [])
-        .then(d => storedTasks = d.map(t => ({ ...t, type: 'task' })));
-
-    Promise.all([p1, p2])
-        .then(() => {
+        .then(d => {
+            storedEvents = d.filter(v => v.type === 'event');
+            storedTasks = d.filter(v => v.type === 'task');
             mergeEventsAndTasks();
             renderView();
         })
@@ -180,6 +190,35 @@ function fetchEvents() {
         });
 }
 
+// Applica solo eventi e task modificati dopo l'ultimo token; se il server non può calcolarli ricarica tutto
+function syncChanges() {
+    if (syncToken === null) {
+        fetchEvents();
+        return;
+    }
+    fetch(`/dashboard/calendar/api/sync?token=${syncToken}`)
+        .then(r => r.ok ? r.json() : null)
+        .then(d => {
+            if (!d) return;
+            syncToken = d.token;
+            if (d.reset) {
+                fetchEvents();
+                return;
+            }
+            const eventIds = new Set(d.eventi.map(e => e.id_evento).concat(d.eventiRimossi));
+            storedEvents = storedEvents
+                .filter(e => !e.temp && !eventIds.has(e.id_evento))
+                .concat(d.eventi.map(e => ({ ...e, type: 'event' })));
+            const taskIds = new Set(d.task.map(t => t.id_evento).concat(d.taskRimossi));
+            storedTasks = storedTasks
+                .filter(t => !taskIds.has(t.id_evento))
+                .concat(d.task.map(t => ({ ...t, type: 'task' })));
+            mergeEventsAndTasks();
+            renderView();
+        })
+        .catch(e => console.error("Errore nella sincronizzazione:", e));
+}
+
 function mergeEventsAndTasks() {
     eventsData = [];
     const showEvents = document.getElementById('filterEvents')?.checked ?? true;
@@ -217,6 +256,10 @@ function isEventActiveInDay(ev, dateObj) {
 
 // RENDERING
 function renderView() {
+    if (loadedRangeKey !== null && loadedRangeKey !== getRangeKey(currentDate)) {
+        fetchEvents(); // richiama renderView al termine del caricamento
+        return;
+    }
     updateHeaderLabel();
     if (currentView === 'week') renderWeekView();
     else renderMonthView();
@@ -842,7 +885,7 @@ function saveEvent() {
                     if (data.status === 'success') {
                         bootstrap.Modal.getInstance(document.getElementById('createEventModal')).hide();
                         showToast('Evento creato con successo', 'success');
-                        setTimeout(() => fetchEvents(), 300);
+                        syncChanges();
                     }
             
         })
@@ -911,7 +954,7 @@ function updateEvent() {
         if (data.status === 'updated') {
             bootstrap.Modal.getInstance(document.getElementById('editEventModal')).hide();
             showToast('Evento aggiornato con successo', 'success');
-            setTimeout(() => fetchEvents(), 300);
+            syncChanges();
         }
     }).catch(e => {
         if (oldEvent && eventIndex >= 0) {
@@ -950,7 +993,7 @@ function deleteEventFromEdit() {
         }
         bootstrap.Modal.getInstance(document.getElementById('editEventModal')).hide();
         showToast('Evento cancellato con successo', 'success');
-        setTimeout(() => fetchEvents(), 300);
+        syncChanges();
     }).catch(e => {
         if (oldEvent && eventIndex >= 0) {
             storedEvents.splice(eventIndex, 0, oldEvent);
@@ -1112,6 +1155,18 @@ function updateHeaderLabel() {
     }
 }
 
+// Intervallo della griglia mensile (6 settimane da lunedì) che contiene la data: copre anche la sua settimana
+function getVisibleRange(d) {
+    const start = getStartOfWeek(new Date(d.getFullYear(), d.getMonth(), 1));
+    const end = new Date(start);
+    end.setDate(end.getDate() + 42);
+    return { start, end };
+}
+
+function getRangeKey(d) {
+    return `${d.getFullYear()}-${d.getMonth()}`;
+}
+
 function getStartOfWeek(d) {
     const t = new Date(d);
     const day = t.getDay();
@@ -0,0 +1,129 @@
+/**
+ * Rubrica utenti GDU: le card vengono caricate a pagine dall'endpoint /dashboard/gdu/api/directory
+ * (paginazione keyset) e la ricerca per nome, email o ruolo è eseguita dal server.
+ */
+document.addEventListener('DOMContentLoaded', function() {
+    const grid = document.getElementById('userGrid');
+    const template = document.getElementById('userCardTemplate');
+    const searchInput = document.getElementById('userSearchInput');
+    const sentinel = document.getElementById('userGridSentinel');
+    const loadMoreBtn = document.getElementById('loadMoreUsersBtn');
+    const defaultEmptyState = document.getElementById('defaultEmptyState');
+    const searchEmptyState = document.getElementById('searchEmptyState');
+    if (!grid || !template) return;
+
+    let cursor = null;       // ID dell'ultimo utente ricevuto, null = nessuna pagina successiva
+    let query = '';
+    let loading = false;
+    let generation = 0;      // scarta le risposte di ricerche superate
+    let debounceTimer = null;
+
+    function renderCard(utente) {
+        const node = template.content.cloneNode(true);
+        const avatar = node.querySelector('.user-avatar-large');
+        if (utente.path_immagine_profilo) {
+            const img = document.createElement('img');
+            img.src = '/' + utente.path_immagine_profilo;
+            img.alt = 'Avatar';
+            img.className = 'w-100 h-100 object-fit-cover';
+            avatar.appendChild(img);
+        } else {
+            const initials = document.createElement('span');
+            initials.textContent = (utente.nome || '').charAt(0) + (utente.cognome || '').charAt(0);
+            avatar.appendChild(initials);
+        }
+        node.querySelector('.user-name').textContent = utente.nome + ' ' + utente.cognome;
+
+        const roles = node.querySelector('.user-roles');
+        (utente.ruoli || []).forEach(function(ruolo) {
+            const badge = document.createElement('span');
+            badge.className = 'badge-role';
+            badge.textContent = ruolo.nome;
+            badge.style.backgroundColor = ruolo.colore;
+            roles.appendChild(badge);
+        });
+
+        const email = node.querySelector('.user-email');
+        email.textContent = utente.email;
+        email.href = 'mailto:' + utente.email;
+
+        const phone = node.querySelector('.user-phone');
+        if (utente.telefono) {
+            const link = document.createElement('a');
+            link.href = 'tel:' + utente.telefono;
+            link.className = 'text-truncate contact-link';
+            link.style.fontSize = '0.95rem';
+            link.textContent = utente.telefono;
+            phone.appendChild(link);
+        } else {
+            const na = document.createElement('span');
+            na.style.fontSize = '0.95rem';
+            na.textContent = 'N/D';
+            phone.appendChild(na);
+        }
+
+        node.querySelectorAll('.user-action').forEach(function(button) {
+            button.setAttribute('data-email', utente.email);
+            button.setAttribute('data-nome', utente.nome);
+            button.setAttribute('data-cognome', utente.cognome);
+            button.setAttribute('data-telefono', utente.telefono || '');
+        });
+        return node;
+    }
+
+    function updateStates() {
+        const empty = grid.children.length === 0;
+        grid.style.display = empty ? 'none' : '';
+        if (defaultEmptyState) defaultEmptyState.style.display = empty && !query ? 'block' : 'none';
+        if (searchEmptyState) searchEmptyState.style.display = empty && query ? 'block' : 'none';
+        if (loadMoreBtn) loadMoreBtn.style.display = cursor !== null ? '' : 'none';
+    }
+
+    function loadPage(reset) {
+        if (loading && !reset) return;
+        if (!reset && cursor === null) return;
+        const current = reset ? ++generation : generation;
+        const params = new URLSearchParams();
+        if (!reset) params.set('dopo', cursor);
+        if (query) params.set('q', query);
+        loading = true;
+        fetch('/dashboard/gdu/api/directory?' + params)
+            .then(function(response) {
+                if (!response.ok) throw new Error('HTTP ' + response.status);
+                return response.json();
+            })
+            .then(function(pagina) {
+                if (current !== generation) return;
+                if (reset) grid.replaceChildren();
+                const fragment = document.createDocumentFragment();
+                pagina.utenti.forEach(function(utente) { fragment.appendChild(renderCard(utente)); });
+                grid.appendChild(fragment);
+                cursor = pagina.prossimo;
+                updateStates();
+            })
+            .catch(function(error) { console.error('Errore nel caricamento degli utenti:', error); })
+            .finally(function() { if (current === generation) loading = false; });
+    }
+
+    if (searchInput) {
+        searchInput.addEventListener('input', function() {
+            clearTimeout(debounceTimer);
+            debounceTimer = setTimeout(function() {
+                const value = searchInput.value.trim();
+                if (value === query) return;
+                query = value;
+                loadPage(true);
+            }, 300);
+        });
+    }
+
+    if (loadMoreBtn) loadMoreBtn.addEventListener('click', function() { loadPage(false); });
+
+    if (sentinel && 'IntersectionObserver' in window) {
+        new IntersectionObserver(function(entries) {
+            if (entries.some(function(entry) { return entry.isIntersecting; })) loadPage(false);
+        }, { rootMargin: '400px' }).observe(sentinel);
+    }
+
+    loadPage(true);
+});
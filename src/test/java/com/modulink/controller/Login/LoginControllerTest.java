@@ -3,6 +3,8 @@ package com.modulink.controller.Login;
 import com.modulink.Controller.Login.LoginController;
 import com.modulink.Model.Email.EmailService;
 import com.modulink.Model.Modulo.ModuloService;
+import com.modulink.Model.OTP.InMemoryOTPStore;
+import com.modulink.Model.OTP.OTPManager;
 import com.modulink.Model.Utente.CustomUserDetailsService;
 import com.modulink.Model.Utente.UtenteEntity;
 import com.modulink.Model.Utente.PasswordUtility;
@@ -31,7 +33,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(LoginController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, OTPManager.class, InMemoryOTPStore.class})
 @AutoConfigureMockMvc
 @TestPropertySource(properties = "spring.mail.properties.mail.smtp.from=test@modulink.com")
 public class LoginControllerTest {
@@ -5,7 +5,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockMultipartFile;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
@@ -21,8 +20,7 @@ public class RegisterAziendaFormCase {
         form.setCap("20100");
         form.setTelefono("+39 02 1234567");
         
-        byte[] bytes = "logo content".getBytes();
-        form.setLogoBytes(bytes);
+        form.setLogoTemporaneo("upload-123.png");
         form.setLogoFileName("logo.png");
 
         byte[] content = new byte[1024 * 1024 * 13];
@@ -40,7 +38,7 @@ public class RegisterAziendaFormCase {
         assertEquals("Milano", form.getCitta());
         assertEquals("20100", form.getCap());
         assertEquals("+39 02 1234567", form.getTelefono());
-        assertArrayEquals(bytes, form.getLogoBytes());
+        assertEquals("upload-123.png", form.getLogoTemporaneo());
         assertEquals("logo.png", form.getLogoFileName());
         assertEquals(file, form.getLogo());
     }
@@ -868,12 +868,12 @@ public class RegisterControllerTest {
     @Test
     @Order(22)
     public void testTC22_GDU1_RegistrazioneSuccesso() throws Exception {
-        // Immagine valida piccola
+        // Immagine valida piccola (il formato è verificato sui primi byte: intestazione JPEG/JFIF)
         MockMultipartFile immagine = new MockMultipartFile(
                 "immagineProfilo",
                 "Foto.jpg",
                 "image/jpeg",
-                "small image".getBytes()
+                new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F', 0}
         );
 
         // Dati azienda (P.IVA e Telefono devono essere unici se controllati, usiamo dati dummy unici per questo test)
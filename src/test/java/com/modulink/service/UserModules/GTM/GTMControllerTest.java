@@ -24,6 +24,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -207,7 +208,7 @@ public class GTMControllerTest {
     @Test
     @Order(7)
     public void TC7_GTM1_UtenteAssegnatoNonEsiste() throws Exception {
-        when(customUserDetailsService.getByID(eq(99), any(Integer.class))).thenThrow(new UserNotFoundException());
+        when(customUserDetailsService.getAllUsersFromIDs(eq(List.of(99)), any(Integer.class))).thenThrow(new UserNotFoundException());
 
         mockMvc.perform(MockMvcRequestBuilders.post("/dashboard/gtm")
                         .with(user("robbencito@gmail.com"))
@@ -232,7 +233,7 @@ public class GTMControllerTest {
     public void TC8_GTM1_CreazioneSuccessoConScadenza() throws Exception {
         UtenteEntity mario = new UtenteEntity();
         mario.setId_utente(2);
-        when(customUserDetailsService.getByID(eq(2), any(Integer.class))).thenReturn(mario);
+        when(customUserDetailsService.getAllUsersFromIDs(eq(List.of(2)), any(Integer.class))).thenReturn(List.of(mario));
 
         mockMvc.perform(MockMvcRequestBuilders.post("/dashboard/gtm")
                         .with(user("robbencito@gmail.com"))
@@ -0,0 +1,46 @@
+package com.modulink.util;
+
+import com.modulink.Model.Utente.AdaptivePasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptivePasswordEncoderTest {
+
+    private final AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(5, 2);
+
+    @Test
+    public void testEncodeUsesPrefixAndConfiguredCost() {
+        String hash = encoder.encode("Password1!");
+
+        assertThat(hash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("Password1!", hash)).isTrue();
+        assertThat(encoder.matches("Sbagliata1!", hash)).isFalse();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    public void testLegacyHashMatchesAndIsUpgraded() {
+        String legacy = BCrypt.hashpw("Password1!", BCrypt.gensalt(4));
+
+        assertThat(encoder.matches("Password1!", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    public void testDifferentCostIsUpgraded() {
+        String hash = new AdaptivePasswordEncoder(4, 1).encode("Password1!");
+
+        assertThat(encoder.matches("Password1!", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isTrue();
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        assertThat(encoder.matches("Password1!", null)).isFalse();
+        assertThatThrownBy(() -> new AdaptivePasswordEncoder(3, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptivePasswordEncoder(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
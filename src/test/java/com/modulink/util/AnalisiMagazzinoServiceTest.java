@@ -0,0 +1,65 @@
+package com.modulink.util;
+
+import com.modulink.Model.Prodotto.AnalisiMagazzino;
+import com.modulink.Model.Prodotto.AnalisiMagazzinoService;
+import com.modulink.Model.Prodotto.MovimentoMagazzinoRepository;
+import com.modulink.Model.Prodotto.ProdottoMovimentato;
+import com.modulink.Model.Prodotto.ProdottoRepository;
+import com.modulink.Model.Prodotto.RiepilogoCategoria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnalisiMagazzinoServiceTest {
+
+    private final ProdottoRepository prodottoRepository = mock(ProdottoRepository.class);
+    private final MovimentoMagazzinoRepository movimentoRepository = mock(MovimentoMagazzinoRepository.class);
+    private final AnalisiMagazzinoService service = new AnalisiMagazzinoService(new ConcurrentMapCacheManager(), prodottoRepository, movimentoRepository, 5, 30, 10);
+
+    @BeforeEach
+    public void setUp() {
+        when(prodottoRepository.findRiepilogoCategorie(2, 5)).thenReturn(List.of(
+                new RiepilogoCategoria(null, 1, 3, 30.0, 1),
+                new RiepilogoCategoria("Accessori", 2, 60, 1500.5, 0)));
+        when(movimentoRepository.findPiuMovimentati(eq(2), any(), eq(Limit.of(10)))).thenReturn(List.of(new ProdottoMovimentato(1, "Mouse", 5, 3, 2)));
+    }
+
+    @Test
+    public void testTotalsAreDerivedFromCategoryRollup() {
+        AnalisiMagazzino analisi = service.getAnalisi(2);
+
+        assertEquals(3, analisi.getProdotti());
+        assertEquals(63, analisi.getPezzi());
+        assertEquals(1530.5, analisi.getValore());
+        assertEquals(1, analisi.getSottoScorta());
+        assertEquals(1, analisi.piuMovimentati().size());
+    }
+
+    @Test
+    public void testSnapshotIsCachedPerTenantUntilInvalidated() {
+        service.getAnalisi(2);
+        service.getAnalisi(2);
+        verify(prodottoRepository, times(1)).findRiepilogoCategorie(2, 5);
+
+        service.invalida(2);
+        service.getAnalisi(2);
+        verify(prodottoRepository, times(2)).findRiepilogoCategorie(2, 5);
+    }
+
+    @Test
+    public void testInvalidConfigurationIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AnalisiMagazzinoService(new ConcurrentMapCacheManager(), prodottoRepository, movimentoRepository, 5, 0, 10));
+    }
+}
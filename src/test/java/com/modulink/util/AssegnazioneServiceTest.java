@@ -0,0 +1,48 @@
+package com.modulink.util;
+
+import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneRepository;
+import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AssegnazioneServiceTest {
+
+    private final AssegnazioneRepository assegnazioneRepository = mock(AssegnazioneRepository.class);
+    private final AssegnazioneService service = new AssegnazioneService(assegnazioneRepository);
+
+    @Test
+    public void testSaveAllInsertsDistinctUsersInOneBatch() {
+        service.saveAll(7, 1, List.of(3, 1, 3));
+
+        verify(assegnazioneRepository).insertAll(7, 1, Set.of(3, 1));
+    }
+
+    @Test
+    public void testSincronizzaTouchesOnlyChangedAssignments() {
+        when(assegnazioneRepository.findIdUtentiByTaskId(7, 1)).thenReturn(List.of(1, 2, 3));
+
+        service.sincronizza(7, 1, List.of(2, 3, 4));
+
+        verify(assegnazioneRepository).deleteByTaskIdAndUtenti(7, 1, Set.of(1));
+        verify(assegnazioneRepository).insertAll(7, 1, Set.of(4));
+    }
+
+    @Test
+    public void testSincronizzaWithoutRemovalsSkipsDelete() {
+        when(assegnazioneRepository.findIdUtentiByTaskId(7, 1)).thenReturn(List.of(1));
+
+        service.sincronizza(7, 1, List.of(1));
+
+        verify(assegnazioneRepository, never()).deleteByTaskIdAndUtenti(anyInt(), anyInt(), anyCollection());
+        verify(assegnazioneRepository).insertAll(7, 1, Set.of());
+    }
+}
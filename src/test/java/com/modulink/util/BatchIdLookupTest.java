@@ -0,0 +1,69 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Azienda.AziendaRepository;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.UserNotFoundException;
+import com.modulink.Model.Utente.UserRepository;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchIdLookupTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final CustomUserDetailsService service = new CustomUserDetailsService(userRepository, mock(AziendaRepository.class), mock(ContatoreService.class), 500);
+
+    private static UtenteEntity utente(int id) {
+        AziendaEntity azienda = new AziendaEntity();
+        azienda.setId_azienda(1);
+        UtenteEntity utente = new UtenteEntity();
+        utente.setId_utente(id);
+        utente.setAzienda(azienda);
+        return utente;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void rispondiConIdRichiesti() {
+        when(userRepository.findAllByAziendaAndIdIn(eq(1), anyCollection())).thenAnswer(invocation ->
+                ((Collection<Integer>) invocation.getArgument(1)).stream().filter(id -> id < 1000).map(BatchIdLookupTest::utente).toList());
+    }
+
+    @Test
+    public void testUsersAreReturnedInRequestOrderWithOneQuery() throws Exception {
+        rispondiConIdRichiesti();
+
+        List<UtenteEntity> utenti = service.getAllUsersFromIDs(List.of(3, 1, 3, 2), 1);
+
+        assertThat(utenti).extracting(UtenteEntity::getId_utente).containsExactly(3, 1, 3, 2);
+        verify(userRepository).findAllByAziendaAndIdIn(1, List.of(3, 1, 2));
+    }
+
+    @Test
+    public void testMissingUserStillThrows() {
+        rispondiConIdRichiesti();
+
+        assertThatThrownBy(() -> service.getAllUsersFromIDs(List.of(1, 1000), 1)).isInstanceOf(UserNotFoundException.class);
+    }
+
+    @Test
+    public void testLongListsAreSplitIntoChunks() {
+        rispondiConIdRichiesti();
+
+        assertThat(service.findAllByIds(IntStream.range(0, 1200).boxed().toList(), 1)).hasSize(1000);
+        verify(userRepository, times(3)).findAllByAziendaAndIdIn(eq(1), anyCollection());
+    }
+}
@@ -0,0 +1,58 @@
+package com.modulink.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.modulink.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheConfigTest {
+
+    private CacheManager buildManager() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("modulink.cache.default", "maximumSize=10,recordStats")
+                .withProperty("modulink.cache.users", "maximumSize=100,expireAfterAccess=30m,recordStats")
+                .withProperty("modulink.cache.usersByAzienda", "maximumWeight=5,recordStats");
+        return new CacheConfig().cacheManager(environment);
+    }
+
+    @Test
+    public void testConfiguredCachesAreRegistered() {
+        CacheManager cacheManager = buildManager();
+        assertThat(cacheManager.getCacheNames()).contains("users", "usersByAzienda");
+        assertThat(cacheManager.getCacheNames()).doesNotContain("default");
+    }
+
+    @Test
+    public void testStatsAreRecorded() {
+        CaffeineCache cache = (CaffeineCache) buildManager().getCache("users");
+        cache.put("mario@example.com", "Mario");
+        cache.get("mario@example.com");
+        cache.get("luigi@example.com");
+        Cache<Object, Object> nativeCache = cache.getNativeCache();
+        assertThat(nativeCache.stats().hitCount()).isEqualTo(1);
+        assertThat(nativeCache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testListValuedCacheIsBoundedByWeight() {
+        CaffeineCache cache = (CaffeineCache) buildManager().getCache("usersByAzienda");
+        cache.put(1, List.of(1, 2, 3));
+        cache.put(2, List.of(4, 5, 6));
+        Cache<Object, Object> nativeCache = cache.getNativeCache();
+        nativeCache.cleanUp();
+        assertThat(nativeCache.policy().eviction().orElseThrow().weightedSize().orElseThrow()).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    public void testUnknownCacheUsesDefaultSpec() {
+        CaffeineCache cache = (CaffeineCache) buildManager().getCache("unknown");
+        assertThat(cache).isNotNull();
+        assertThat(cache.getNativeCache().policy().eviction().orElseThrow().getMaximum()).isEqualTo(10);
+    }
+}
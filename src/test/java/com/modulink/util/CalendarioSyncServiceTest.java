@@ -0,0 +1,108 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Eventi.CalendarioSyncService;
+import com.modulink.Model.Eventi.DeltaCalendario;
+import com.modulink.Model.Eventi.EventoEntity;
+import com.modulink.Model.Eventi.EventoRepository;
+import com.modulink.Model.Eventi.ModificaCalendarioEntity;
+import com.modulink.Model.Eventi.ModificaCalendarioRepository;
+import com.modulink.Model.Eventi.TipoModificaCalendario;
+import com.modulink.Model.Relazioni.Assegnazione.AssegnazioneRepository;
+import com.modulink.Model.Task.TaskEntity;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CalendarioSyncServiceTest {
+
+    private final ModificaCalendarioRepository modificaRepository = mock(ModificaCalendarioRepository.class);
+    private final EventoRepository eventoRepository = mock(EventoRepository.class);
+    private final AssegnazioneRepository assegnazioneRepository = mock(AssegnazioneRepository.class);
+    private final CalendarioSyncService service = new CalendarioSyncService(modificaRepository, eventoRepository, assegnazioneRepository,
+            Duration.ofDays(7), 3, Duration.ofSeconds(10));
+    private final UtenteEntity utente = mock(UtenteEntity.class);
+
+    @BeforeEach
+    public void setUp() {
+        AziendaEntity azienda = mock(AziendaEntity.class);
+        when(azienda.getId_azienda()).thenReturn(2);
+        when(utente.getAzienda()).thenReturn(azienda);
+        when(utente.getId_utente()).thenReturn(5);
+        when(modificaRepository.findUltimoIdEntro(any())).thenReturn(8L);
+        when(modificaRepository.findPrimoId()).thenReturn(1L);
+        when(modificaRepository.findUltimoId()).thenReturn(10L);
+    }
+
+    @Test
+    public void testWithoutTokenRequiresReset() {
+        DeltaCalendario delta = service.calcolaDelta(utente, null);
+
+        assertTrue(delta.reset());
+        assertEquals(8L, delta.token());
+        verify(modificaRepository, never()).findDopo(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    public void testTokenOutsideLogRequiresReset() {
+        when(modificaRepository.findPrimoId()).thenReturn(6L);
+
+        assertTrue(service.calcolaDelta(utente, 3L).reset());
+        assertTrue(service.calcolaDelta(utente, 11L).reset());
+        assertFalse(service.calcolaDelta(utente, 5L).reset());
+    }
+
+    @Test
+    public void testDeltaReloadsTouchedObjectsForUser() {
+        when(modificaRepository.findDopo(eq(2), eq(4L), any(Limit.class))).thenReturn(List.of(
+                modifica(TipoModificaCalendario.EVENTO, 1), modifica(TipoModificaCalendario.EVENTO, 2),
+                modifica(TipoModificaCalendario.TASK, 3)));
+        EventoEntity evento = mock(EventoEntity.class);
+        when(evento.getId_evento()).thenReturn(1);
+        when(eventoRepository.findAllByUtenteAndIdIn(utente, Set.of(1, 2))).thenReturn(List.of(evento));
+        TaskEntity completato = mock(TaskEntity.class);
+        when(completato.getId_task()).thenReturn(3);
+        when(completato.isCompletato()).thenReturn(true);
+        when(assegnazioneRepository.findTaskByUtenteAndIdIn(5, 2, Set.of(3))).thenReturn(List.of(completato));
+
+        DeltaCalendario delta = service.calcolaDelta(utente, 4L);
+
+        assertFalse(delta.reset());
+        assertEquals(8L, delta.token());
+        assertEquals(List.of(evento), delta.eventi());
+        assertEquals(Set.of(2), delta.eventiRimossi());
+        assertTrue(delta.task().isEmpty());
+        assertEquals(Set.of(3), delta.taskRimossi());
+    }
+
+    @Test
+    public void testTooManyChangesOrBulkResetRequireReset() {
+        ModificaCalendarioEntity m = modifica(TipoModificaCalendario.EVENTO, 1);
+        when(modificaRepository.findDopo(eq(2), eq(4L), any(Limit.class))).thenReturn(List.of(m, m, m, m));
+        assertTrue(service.calcolaDelta(utente, 4L).reset());
+
+        when(modificaRepository.findDopo(eq(2), eq(4L), any(Limit.class))).thenReturn(List.of(m, modifica(TipoModificaCalendario.RESET, 0)));
+        assertTrue(service.calcolaDelta(utente, 4L).reset());
+    }
+
+    private static ModificaCalendarioEntity modifica(TipoModificaCalendario tipo, int idOggetto) {
+        return new ModificaCalendarioEntity(2, tipo, idOggetto);
+    }
+}
@@ -0,0 +1,106 @@
+package com.modulink.util;
+
+import com.modulink.Model.Immagine.CaricamentoImmaginiService;
+import com.modulink.Model.Immagine.ImmagineNonValidaException;
+import com.modulink.Model.Immagine.MiniatureService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CaricamentoImmaginiServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @TempDir
+    Path radice;
+
+    private CaricamentoImmaginiService service(long dimensioneMassima) {
+        return new CaricamentoImmaginiService(new MiniatureService(0.85f), radice.resolve("tmp").toString(), dimensioneMassima, Duration.ofHours(2));
+    }
+
+    @Test
+    public void testImageIsStreamedAndMovedWithDetectedExtension() throws Exception {
+        CaricamentoImmaginiService service = service(1024);
+        String cartella = radice.resolve("user-logos").toString();
+
+        String percorso = service.salva(new MockMultipartFile("immagineProfilo", "../../Foto profilo.jpeg", "image/jpeg", PNG), cartella, "mario@rossi.it");
+
+        assertEquals(cartella + "/mario@rossi.itFoto_profilo.png", percorso);
+        assertArrayEquals(PNG, Files.readAllBytes(Path.of(percorso)));
+        try (var temporanei = Files.list(radice.resolve("tmp"))) {
+            assertEquals(0, temporanei.count());
+        }
+    }
+
+    @Test
+    public void testContentIsCheckedInsteadOfDeclaredType() {
+        CaricamentoImmaginiService service = service(1024);
+
+        ImmagineNonValidaException e = assertThrows(ImmagineNonValidaException.class, () ->
+                service.prepara(new MockMultipartFile("logo", "logo.png", "image/png", "%PDF-1.5...".getBytes())));
+
+        assertEquals(ImmagineNonValidaException.Motivo.FORMATO, e.getMotivo());
+        assertEquals("error.logo", e.getCodice("logo"));
+    }
+
+    @Test
+    public void testSizeIsEnforcedWhileStreamingAndPartialFileIsRemoved() throws Exception {
+        CaricamentoImmaginiService service = service(100);
+        byte[] contenuto = Arrays.copyOf(PNG, 500);
+        // Dimensione dichiarata non affidabile: il limite deve scattare durante la copia
+        MockMultipartFile file = new MockMultipartFile("logo", "logo.png", "image/png", contenuto) {
+            @Override
+            public long getSize() {
+                return 10;
+            }
+
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(contenuto);
+            }
+        };
+
+        ImmagineNonValidaException e = assertThrows(ImmagineNonValidaException.class, () -> service.prepara(file));
+
+        assertEquals("size.exceeded", e.getCodice("logo"));
+        try (var temporanei = Files.list(radice.resolve("tmp"))) {
+            assertEquals(0, temporanei.count());
+        }
+    }
+
+    @Test
+    public void testOnlyStagedFilesCanBePublished() {
+        CaricamentoImmaginiService service = service(1024);
+
+        assertThrows(IllegalArgumentException.class, () -> service.pubblica("../../etc/passwd", radice.toString(), "x", "a.png"));
+        assertThrows(IllegalArgumentException.class, () -> service.pubblica("upload-1.html", radice.toString(), "x", "a.png"));
+    }
+
+    @Test
+    public void testStaleStagedFilesAreCleanedUp() throws Exception {
+        CaricamentoImmaginiService service = service(1024);
+        String vecchio = service.prepara(new MockMultipartFile("logo", "a.png", "image/png", PNG));
+        String recente = service.prepara(new MockMultipartFile("logo", "b.png", "image/png", PNG));
+        Files.setLastModifiedTime(radice.resolve("tmp").resolve(vecchio), FileTime.from(Instant.now().minus(Duration.ofHours(3))));
+
+        service.pulisciTemporanei();
+
+        assertFalse(Files.exists(radice.resolve("tmp").resolve(vecchio)));
+        assertTrue(Files.exists(radice.resolve("tmp").resolve(recente)));
+    }
+}
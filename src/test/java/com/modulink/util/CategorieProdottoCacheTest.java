@@ -0,0 +1,119 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Prodotto.AnalisiMagazzinoService;
+import com.modulink.Model.Prodotto.CategorieProdottoCache;
+import com.modulink.Model.Prodotto.FiltroProdotti;
+import com.modulink.Model.Prodotto.OrdinamentoProdotti;
+import com.modulink.Model.Prodotto.ProdottoEntity;
+import com.modulink.Model.Prodotto.ProdottoRepository;
+import com.modulink.Model.Prodotto.ProdottoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CategorieProdottoCacheTest {
+
+    private final ProdottoRepository prodottoRepository = mock(ProdottoRepository.class);
+    private final CategorieProdottoCache cache = new CategorieProdottoCache(new ConcurrentMapCacheManager(), prodottoRepository);
+    private final ProdottoService prodottoService = new ProdottoService(prodottoRepository, mock(ContatoreService.class), cache, mock(AnalisiMagazzinoService.class), 50, 1000);
+    private final AziendaEntity azienda = new AziendaEntity();
+
+    @BeforeEach
+    public void setUp() {
+        azienda.setId_azienda(3);
+        when(prodottoRepository.findCategorieByIdAzienda(3)).thenReturn(Arrays.asList("Software", null, "Hardware", " "));
+    }
+
+    @Test
+    public void testCategoriesAreLoadedOnceSortedAndWithoutBlanks() {
+        assertEquals(List.of("Hardware", "Software"), prodottoService.findAllCategoriesByAzienda(azienda));
+        assertEquals(List.of("Hardware", "Software"), prodottoService.findAllCategoriesByAzienda(azienda));
+        verify(prodottoRepository, times(1)).findCategorieByIdAzienda(3);
+    }
+
+    @Test
+    public void testNewCategoryInvalidatesTheList() {
+        prodottoService.findAllCategoriesByAzienda(azienda);
+        when(prodottoRepository.findCategorieByIdAzienda(3)).thenReturn(List.of("Accessori", "Hardware", "Software"));
+
+        prodottoService.save(new ProdottoEntity(azienda, "Mouse", 5, 10.0, "", "Accessori"));
+
+        assertEquals(List.of("Accessori", "Hardware", "Software"), prodottoService.findAllCategoriesByAzienda(azienda));
+        verify(prodottoRepository, times(2)).findCategorieByIdAzienda(3);
+    }
+
+    @Test
+    public void testKnownCategoryKeepsTheCachedList() {
+        prodottoService.findAllCategoriesByAzienda(azienda);
+
+        prodottoService.save(new ProdottoEntity(azienda, "Tastiera", 5, 20.0, "", "Hardware"));
+        prodottoService.save(new ProdottoEntity(azienda, "Cavo", 5, 2.0, "", null));
+
+        assertEquals(List.of("Hardware", "Software"), prodottoService.findAllCategoriesByAzienda(azienda));
+        verify(prodottoRepository, times(1)).findCategorieByIdAzienda(3);
+    }
+
+    @Test
+    public void testCategoryChangeReloadsTheList() {
+        prodottoService.findAllCategoriesByAzienda(azienda);
+        ProdottoEntity prodotto = new ProdottoEntity(azienda, "Licenza", 1, 99.0, "", "Servizi");
+        prodotto.setId_prodotto(7);
+        when(prodottoRepository.findCategoriaById(7, 3)).thenReturn(Optional.of("Software"));
+        when(prodottoRepository.findCategorieByIdAzienda(3)).thenReturn(List.of("Hardware", "Servizi"));
+
+        prodottoService.updateProdotto(prodotto);
+
+        assertEquals(List.of("Hardware", "Servizi"), prodottoService.findAllCategoriesByAzienda(azienda));
+    }
+
+    @Test
+    public void testPageNumberIsClampedToARepresentableOffset() {
+        prodottoService.findPagina(azienda, FiltroProdotti.NESSUNO, OrdinamentoProdotti.parse(null), false, 99999999);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(prodottoRepository).findPagina(eq(3), any(), any(), any(), any(), any(), any(), pageable.capture());
+        assertTrue(pageable.getValue().getOffset() <= Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testQuantityOperatorsBecomeInclusiveBounds() {
+        FiltroProdotti minore = FiltroProdotti.of(" ", "", "lt", 10, null, null);
+        assertNull(minore.quantitaMin());
+        assertEquals(9, minore.quantitaMax());
+        assertFalse(minore.isVuoto());
+
+        FiltroProdotti uguale = FiltroProdotti.of("50%_a", null, "eq", 3, null, null);
+        assertEquals(3, uguale.quantitaMin());
+        assertEquals(3, uguale.quantitaMax());
+        assertEquals("50!%!_a%", uguale.patternNome());
+
+        assertTrue(FiltroProdotti.of(null, null, "gt", null, null, null).isVuoto());
+
+        // Confronti impossibili: intervallo vuoto invece di un overflow che includerebbe tutto
+        FiltroProdotti sottoMinimo = FiltroProdotti.of(null, null, "lt", Integer.MIN_VALUE, null, null);
+        assertTrue(sottoMinimo.quantitaMin() > sottoMinimo.quantitaMax());
+        FiltroProdotti sopraMassimo = FiltroProdotti.of(null, null, "gt", Integer.MAX_VALUE, null, null);
+        assertTrue(sopraMassimo.quantitaMin() > sopraMassimo.quantitaMax());
+        assertThrows(IllegalArgumentException.class, () -> FiltroProdotti.of(null, null, "ne", 1, null, null));
+    }
+}
@@ -0,0 +1,66 @@
+package com.modulink.util;
+
+import com.modulink.Model.Contatore.ContatoreAllocatore;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContatoreServiceTest {
+
+    @Test
+    public void testIdsAreServedFromReservedBlocks() {
+        ContatoreAllocatore allocatore = mock(ContatoreAllocatore.class);
+        when(allocatore.riservaBlocco(1, TipoContatore.TASK, 3)).thenReturn(0, 3);
+        ContatoreService service = new ContatoreService(allocatore, 3);
+
+        for (int atteso = 0; atteso < 5; atteso++) {
+            assertThat(service.prossimoId(1, TipoContatore.TASK)).isEqualTo(atteso);
+        }
+        verify(allocatore, times(2)).riservaBlocco(1, TipoContatore.TASK, 3);
+    }
+
+    @Test
+    public void testSequencesAreIndependentPerAziendaAndTipo() {
+        ContatoreAllocatore allocatore = mock(ContatoreAllocatore.class);
+        when(allocatore.riservaBlocco(anyInt(), eq(TipoContatore.RUOLO), anyInt())).thenReturn(3);
+        when(allocatore.riservaBlocco(anyInt(), eq(TipoContatore.UTENTE), anyInt())).thenReturn(1);
+        ContatoreService service = new ContatoreService(allocatore, 10);
+
+        assertThat(service.prossimoId(1, TipoContatore.RUOLO)).isEqualTo(3);
+        assertThat(service.prossimoId(2, TipoContatore.RUOLO)).isEqualTo(3);
+        assertThat(service.prossimoId(1, TipoContatore.UTENTE)).isEqualTo(1);
+        assertThat(service.prossimoId(1, TipoContatore.RUOLO)).isEqualTo(4);
+    }
+
+    @Test
+    public void testConcurrentCallersNeverShareAnId() throws InterruptedException {
+        AtomicInteger hi = new AtomicInteger();
+        ContatoreAllocatore allocatore = mock(ContatoreAllocatore.class);
+        when(allocatore.riservaBlocco(anyInt(), eq(TipoContatore.PRODOTTO), eq(7))).thenAnswer(inv -> hi.getAndAdd(7));
+        ContatoreService service = new ContatoreService(allocatore, 7);
+
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(() -> ids.add(service.prossimoId(5, TipoContatore.PRODOTTO)));
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(1000);
+    }
+}
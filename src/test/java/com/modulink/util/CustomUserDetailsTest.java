@@ -0,0 +1,43 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Utente.CustomUserDetails;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CustomUserDetailsTest {
+
+    @Test
+    public void testSerializedFormIsCompactAndWithoutPassword() throws Exception {
+        AziendaEntity azienda = new AziendaEntity();
+        azienda.setId_azienda(4);
+        UtenteEntity utente = new UtenteEntity();
+        utente.setId_utente(7);
+        utente.setAzienda(azienda);
+        utente.setEmail("mario@example.com");
+        utente.setHash_password("$2a$10$hash");
+        CustomUserDetails details = new CustomUserDetails(utente);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(details);
+        }
+        CustomUserDetails copia;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copia = (CustomUserDetails) in.readObject();
+        }
+
+        assertThat(copia.getUsername()).isEqualTo("mario@example.com");
+        assertThat(copia.getId().getId_utente()).isEqualTo(7);
+        assertThat(copia.getId().getAzienda()).isEqualTo(4);
+        assertThat(copia.getPassword()).isNull();
+        assertThat(details.getPassword()).isEqualTo("$2a$10$hash");
+    }
+}
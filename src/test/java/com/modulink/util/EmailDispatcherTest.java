@@ -0,0 +1,148 @@
+package com.modulink.util;
+
+import com.modulink.Model.Email.EmailDispatcher;
+import com.modulink.Model.Email.EmailOutboxEntity;
+import com.modulink.Model.Email.EmailOutboxPrenotazione;
+import com.modulink.Model.Email.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EmailDispatcherTest {
+
+    private EmailOutboxEntity riga(String email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email);
+        message.setSubject("OTP");
+        message.setText("123456");
+        return new EmailOutboxEntity(message);
+    }
+
+    private EmailDispatcher dispatcher(EmailOutboxRepository repository, JavaMailSenderImpl sender, int maxTentativi) {
+        return new EmailDispatcher(repository, new EmailOutboxPrenotazione(repository, Duration.ofMinutes(5)), sender,
+                Runnable::run, new SimpleMeterRegistry(), 10, maxTentativi, 60000, Duration.ofDays(7));
+    }
+
+    @Test
+    public void testDueMessagesAreLeasedBeforeSending() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        EmailOutboxEntity riga = riga("a@example.com");
+        when(repository.findDaConsegnare(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(riga));
+
+        List<EmailOutboxEntity> riservati = new EmailOutboxPrenotazione(repository, Duration.ofMinutes(5)).prenota(10);
+
+        // Fino alla scadenza della prenotazione il messaggio non è più dovuto per le altre istanze
+        assertThat(riservati).containsExactly(riga);
+        assertThat(riga.getProssimo_tentativo()).isAfter(LocalDateTime.now().plusMinutes(4));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchIsSentOnOneConnectionAndRemoved() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        JavaMailSenderImpl sender = mock(JavaMailSenderImpl.class);
+        List<EmailOutboxEntity> batch = List.of(riga("a@example.com"), riga("b@example.com"));
+        when(repository.findDaConsegnare(any(LocalDateTime.class), any(Limit.class))).thenReturn(batch);
+
+        dispatcher(repository, sender, 3).consegna();
+
+        verify(sender, times(1)).send(any(SimpleMailMessage[].class));
+        ArgumentCaptor<List<EmailOutboxEntity>> inviati = ArgumentCaptor.forClass(List.class);
+        verify(repository).deleteAllInBatch(inviati.capture());
+        assertThat(inviati.getValue()).containsExactlyElementsOf(batch);
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOnlyRejectedMessagesAreRescheduled() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        JavaMailSenderImpl sender = mock(JavaMailSenderImpl.class);
+        EmailOutboxEntity ok = riga("a@example.com");
+        EmailOutboxEntity ko = riga("b@example.com");
+        when(repository.findDaConsegnare(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(ok, ko));
+        doThrow(new MailSendException(Map.of(ko.toMessage(), new RuntimeException("mailbox piena"))))
+                .when(sender).send(any(SimpleMailMessage[].class));
+
+        dispatcher(repository, sender, 3).consegna();
+
+        ArgumentCaptor<List<EmailOutboxEntity>> inviati = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<EmailOutboxEntity>> respinti = ArgumentCaptor.forClass(List.class);
+        verify(repository).deleteAllInBatch(inviati.capture());
+        verify(repository).saveAll(respinti.capture());
+        assertThat(inviati.getValue()).containsExactly(ok);
+        assertThat(respinti.getValue()).containsExactly(ko);
+        assertThat(ko.getTentativi()).isEqualTo(1);
+        assertThat(ko.getProssimo_tentativo()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    public void testMessageIsAbandonedAfterMaxAttempts() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        JavaMailSenderImpl sender = mock(JavaMailSenderImpl.class);
+        EmailOutboxEntity riga = riga("a@example.com");
+        when(repository.findDaConsegnare(any(LocalDateTime.class), any(Limit.class))).thenReturn(List.of(riga));
+        doThrow(new MailSendException("relay non raggiungibile")).when(sender).send(any(SimpleMailMessage[].class));
+
+        EmailDispatcher dispatcher = dispatcher(repository, sender, 2);
+        dispatcher.consegna();
+        assertThat(riga.getProssimo_tentativo()).isNotNull();
+        dispatcher.consegna();
+
+        assertThat(riga.getTentativi()).isEqualTo(2);
+        assertThat(riga.getProssimo_tentativo()).isNull();
+        assertThat(riga.getUltimo_errore()).isEqualTo("relay non raggiungibile");
+        // Il corpo (password temporanee, OTP) non resta in tabella dopo l'abbandono
+        assertThat(riga.getCorpo()).isNull();
+        assertThat(riga.getAbbandonato_il()).isNotNull();
+    }
+
+    @Test
+    public void testAbandonedMessagesArePurgedAfterRetention() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+
+        dispatcher(repository, mock(JavaMailSenderImpl.class), 3).pulisciAbbandonati();
+
+        ArgumentCaptor<LocalDateTime> limite = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).deleteAbbandonatiPrimaDi(limite.capture());
+        assertThat(limite.getValue()).isBetween(LocalDateTime.now().minusDays(7).minusMinutes(1), LocalDateTime.now().minusDays(7));
+    }
+
+    @Test
+    public void testRejectedNudgeIsDroppedAndCanBeRetried() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class);
+        JavaMailSenderImpl sender = mock(JavaMailSenderImpl.class);
+        int[] esecuzioni = {0};
+        EmailDispatcher dispatcher = new EmailDispatcher(repository, new EmailOutboxPrenotazione(repository, Duration.ofMinutes(5)), sender, task -> {
+            esecuzioni[0]++;
+            throw new RejectedExecutionException("coda piena");
+        }, new SimpleMeterRegistry(), 10, 3, 60000, Duration.ofDays(7));
+
+        dispatcher.sollecita();
+        dispatcher.sollecita();
+
+        // Il sollecito scartato non viene eseguito sul thread chiamante e non blocca i successivi
+        assertThat(esecuzioni[0]).isEqualTo(2);
+        verify(sender, never()).send(any(SimpleMailMessage[].class));
+    }
+}
@@ -0,0 +1,46 @@
+package com.modulink.util;
+
+import com.modulink.Model.Prodotto.MagazzinoService;
+import com.modulink.Model.Prodotto.ProdottoEntity;
+import com.modulink.Model.Prodotto.ProdottoRepository;
+import com.modulink.Model.Prodotto.VariazioneScorta;
+import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class GiacenzaMassimaTest {
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private ProdottoRepository prodottoRepository;
+
+    @Autowired
+    private MagazzinoService magazzinoService;
+
+    @Test
+    public void testLoadBeyondIntegerMaxIsRejectedWithoutTouchingStock() {
+        UtenteEntity admin = customUserDetailsService.findByEmail("admin@techsolutions.com").orElseThrow();
+        int idAzienda = admin.getAzienda().getId_azienda();
+        ProdottoEntity prodotto = prodottoRepository.findAllByAzienda(admin.getAzienda()).get(0);
+        int giacenza = prodotto.getQuantita();
+
+        assertThrows(IllegalStateException.class, () -> magazzinoService.registraMovimenti(idAzienda,
+                List.of(new VariazioneScorta(prodotto.getId_prodotto(), Integer.MAX_VALUE)), admin.getId_utente()));
+        assertThrows(IllegalStateException.class, () -> magazzinoService.registraMovimento(idAzienda,
+                prodotto.getId_prodotto(), Integer.MAX_VALUE, admin.getId_utente()));
+
+        int finale = prodottoRepository.findAllByAzienda(admin.getAzienda()).stream()
+                .filter(p -> p.getId_prodotto() == prodotto.getId_prodotto()).findFirst().orElseThrow().getQuantita();
+        assertEquals(giacenza, finale);
+    }
+}
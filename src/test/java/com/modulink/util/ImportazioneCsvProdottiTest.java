@@ -0,0 +1,144 @@
+package com.modulink.util;
+
+import com.modulink.Controller.UserModules.GDM.CatalogoCsv;
+import com.modulink.Controller.UserModules.GDM.ImportazioneCsvProdotti;
+import com.modulink.Controller.UserModules.GDM.LettoreCsv;
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Contatore.TipoContatore;
+import com.modulink.Model.Prodotto.AnalisiMagazzinoService;
+import com.modulink.Model.Prodotto.CategorieProdottoCache;
+import com.modulink.Model.Prodotto.ProdottoRepository;
+import com.modulink.Model.Prodotto.ProdottoService;
+import com.modulink.Model.Prodotto.RigaProdotto;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ImportazioneCsvProdottiTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    public void testReaderHandlesQuotesEmbeddedNewlinesAndBlankLines() throws Exception {
+        LettoreCsv lettore = new LettoreCsv(new StringReader("a,\"b,\"\"c\"\"\",\r\n\r\n\"riga\nsuccessiva\",x\n"), ',');
+
+        assertEquals(List.of("a", "b,\"c\"", ""), lettore.leggiRecord());
+        assertEquals(List.of("riga\nsuccessiva", "x"), lettore.leggiRecord());
+        assertNull(lettore.leggiRecord());
+        assertEquals(2, lettore.getNumeroRecord());
+    }
+
+    @Test
+    public void testExportedFileCanBeImportedBack() throws Exception {
+        StringWriter csv = new StringWriter();
+        CatalogoCsv.scriviIntestazione(csv);
+        CatalogoCsv.scriviRiga(csv, new RigaProdotto(7, "Cavo, HDMI", 3, 9.5, "Lungo \"2m\"", null));
+
+        ImportazioneCsvProdotti righe = new ImportazioneCsvProdotti(new StringReader(csv.toString()), validator);
+
+        assertEquals(new RigaProdotto(0, "Cavo, HDMI", 3, 9.5, "Lungo \"2m\"", null), righe.next());
+        assertFalse(righe.hasNext());
+    }
+
+    @Test
+    public void testFormulaCellsAreNeutralisedOnExport() throws Exception {
+        StringWriter csv = new StringWriter();
+        CatalogoCsv.scriviRiga(csv, new RigaProdotto(1, "=HYPERLINK(\"http://x\")", 1, 1.0, "-2+3", "@SUM(A1)"));
+        CatalogoCsv.scriviRiga(csv, new RigaProdotto(2, "'citato", 1, 1.0, "+39 081", "Normale"));
+
+        assertEquals("1,\"'=HYPERLINK(\"\"http://x\"\")\",1,1.0,\"'-2+3\",\"'@SUM(A1)\"\r\n"
+                + "2,\"''citato\",1,1.0,\"'+39 081\",Normale\r\n", csv.toString());
+    }
+
+    @Test
+    public void testNeutralisedCellsRoundTripAndPlainApostrophesAreKept() throws Exception {
+        List<RigaProdotto> originali = List.of(
+                new RigaProdotto(1, "=1+1", 1, 1.0, "\tTab", "@Cat"),
+                new RigaProdotto(2, "'=citato", 1, 1.0, "'", "-Sconti"));
+        StringWriter csv = new StringWriter();
+        CatalogoCsv.scriviIntestazione(csv);
+        for (RigaProdotto riga : originali) CatalogoCsv.scriviRiga(csv, riga);
+
+        ImportazioneCsvProdotti righe = new ImportazioneCsvProdotti(new StringReader(csv.toString()), validator);
+        assertEquals(new RigaProdotto(0, "=1+1", 1, 1.0, "\tTab", "@Cat"), righe.next());
+        assertEquals(new RigaProdotto(0, "'=citato", 1, 1.0, "'", "-Sconti"), righe.next());
+        assertFalse(righe.hasNext());
+
+        // Un apice scritto a mano davanti a un testo normale non è una protezione e resta nel valore
+        ImportazioneCsvProdotti manuale = new ImportazioneCsvProdotti(new StringReader("nome,quantita,prezzo\n'Penna,1,1\n"), validator);
+        assertEquals("'Penna", manuale.next().nome());
+    }
+
+    @Test
+    public void testSemicolonSeparatorAndColumnOrderAreDetected() throws Exception {
+        ImportazioneCsvProdotti righe = new ImportazioneCsvProdotti(new StringReader("categoria;prezzo;Quantità;nome\nUfficio;\"2,50\";10;Penna\n"), validator);
+
+        assertEquals(new RigaProdotto(0, "Penna", 10, 2.5, null, "Ufficio"), righe.next());
+        assertFalse(righe.hasNext());
+    }
+
+    @Test
+    public void testInvalidRowsStopTheImportAndAreReported() throws Exception {
+        ImportazioneCsvProdotti righe = new ImportazioneCsvProdotti(new StringReader("nome,quantita,prezzo\nPenna,1,1\nX,1,1\nMatita,-2,abc\nGomma,1,1\n"), validator);
+
+        assertEquals("Penna", righe.next().nome());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, righe::hasNext);
+        assertTrue(e.getMessage().contains("Riga 3: Il nome deve essere compreso tra i 2 e i 50 caratteri"));
+        assertTrue(e.getMessage().contains("Riga 4: prezzo non valido (abc)"));
+        assertThrows(IllegalArgumentException.class, () -> new ImportazioneCsvProdotti(new StringReader("nome,prezzo\n"), validator));
+    }
+
+    @Test
+    public void testErrorReportStaysShortWithLongInvalidCells() throws Exception {
+        StringBuilder csv = new StringBuilder("nome,quantita,prezzo\n");
+        String lungo = "x".repeat(3000);
+        for (int i = 0; i < 12; i++) csv.append("Penna,").append(lungo).append(",1\n");
+
+        ImportazioneCsvProdotti righe = new ImportazioneCsvProdotti(new StringReader(csv.toString()), validator);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, righe::hasNext);
+
+        assertTrue(e.getMessage().startsWith("Importazione annullata. Riga 2: quantità non valida (" + "x".repeat(50) + "...)"));
+        assertTrue(e.getMessage().length() <= ImportazioneCsvProdotti.MAX_LUNGHEZZA_MESSAGGIO);
+    }
+
+    @Test
+    public void testImportReservesOneIdRangePerBatch() {
+        ProdottoRepository prodottoRepository = mock(ProdottoRepository.class);
+        ContatoreService contatoreService = mock(ContatoreService.class);
+        CategorieProdottoCache cache = new CategorieProdottoCache(new ConcurrentMapCacheManager(), prodottoRepository);
+        ProdottoService service = new ProdottoService(prodottoRepository, contatoreService, cache, mock(AnalisiMagazzinoService.class), 50, 2);
+        AziendaEntity azienda = new AziendaEntity();
+        azienda.setId_azienda(4);
+        when(contatoreService.riservaIntervallo(4, TipoContatore.PRODOTTO, 2)).thenReturn(10);
+        when(contatoreService.riservaIntervallo(4, TipoContatore.PRODOTTO, 1)).thenReturn(12);
+        List<RigaProdotto> righe = new ArrayList<>();
+        for (int i = 0; i < 3; i++) righe.add(new RigaProdotto(0, "Prodotto " + i, i, 1.0, null, "Cat"));
+
+        assertEquals(3, service.importa(azienda, righe.iterator()));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RigaProdotto>> lotti = ArgumentCaptor.forClass(List.class);
+        verify(prodottoRepository, times(2)).insertAll(eq(4), lotti.capture());
+        assertEquals(List.of(10, 11), lotti.getAllValues().get(0).stream().map(RigaProdotto::idProdotto).toList());
+        assertEquals(List.of(12), lotti.getAllValues().get(1).stream().map(RigaProdotto::idProdotto).toList());
+    }
+}
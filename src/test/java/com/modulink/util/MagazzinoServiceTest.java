@@ -0,0 +1,88 @@
+package com.modulink.util;
+
+import com.modulink.Model.Prodotto.AnalisiMagazzinoService;
+import com.modulink.Model.Prodotto.MagazzinoService;
+import com.modulink.Model.Prodotto.MovimentoMagazzinoEntity;
+import com.modulink.Model.Prodotto.MovimentoMagazzinoRepository;
+import com.modulink.Model.Prodotto.ProdottoID;
+import com.modulink.Model.Prodotto.ProdottoNotFoundException;
+import com.modulink.Model.Prodotto.ProdottoRepository;
+import com.modulink.Model.Prodotto.ScortaInsufficienteException;
+import com.modulink.Model.Prodotto.VariazioneScorta;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MagazzinoServiceTest {
+
+    private final ProdottoRepository prodottoRepository = mock(ProdottoRepository.class);
+    private final MovimentoMagazzinoRepository movimentoRepository = mock(MovimentoMagazzinoRepository.class);
+    private final MagazzinoService service = new MagazzinoService(prodottoRepository, movimentoRepository, mock(AnalisiMagazzinoService.class), 3);
+
+    @Test
+    public void testSaleIsAppliedAndRecorded() throws Exception {
+        when(prodottoRepository.applicaVariazione(1, 2, -4)).thenReturn(1);
+        when(prodottoRepository.findPrezzoById(1, 2)).thenReturn(Optional.of(2.5));
+
+        assertEquals(10.0, service.registraMovimento(2, 1, -4, 7));
+
+        ArgumentCaptor<MovimentoMagazzinoEntity> movimento = ArgumentCaptor.forClass(MovimentoMagazzinoEntity.class);
+        verify(movimentoRepository).save(movimento.capture());
+        assertEquals(-4, movimento.getValue().getDelta());
+        assertEquals(7, movimento.getValue().getId_utente());
+    }
+
+    @Test
+    public void testRejectedUpdateDistinguishesMissingProductFromInsufficientStock() {
+        when(prodottoRepository.applicaVariazione(anyInt(), anyInt(), anyInt())).thenReturn(0);
+        when(prodottoRepository.existsById(new ProdottoID(1, 2))).thenReturn(true);
+
+        assertThrows(ScortaInsufficienteException.class, () -> service.registraMovimento(2, 1, -100, 7));
+        assertThrows(ProdottoNotFoundException.class, () -> service.registraMovimento(2, 9, -1, 7));
+        verify(movimentoRepository, never()).save(any());
+    }
+
+    @Test
+    public void testRejectedLoadOnExistingProductReportsMaximumExceeded() {
+        when(prodottoRepository.applicaVariazione(anyInt(), anyInt(), anyInt())).thenReturn(0);
+        when(prodottoRepository.existsById(new ProdottoID(1, 2))).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> service.registraMovimenti(2, List.of(new VariazioneScorta(1, Integer.MAX_VALUE)), 7));
+        verify(movimentoRepository, never()).saveAll(any());
+    }
+
+    @Test
+    public void testBatchNetsDeltasPerProductInIdOrder() throws Exception {
+        when(prodottoRepository.applicaVariazione(anyInt(), anyInt(), anyInt())).thenReturn(1);
+
+        int applicati = service.registraMovimenti(2, List.of(new VariazioneScorta(5, -2), new VariazioneScorta(1, 3), new VariazioneScorta(5, 4)), 7);
+
+        assertEquals(3, applicati);
+        InOrder ordine = inOrder(prodottoRepository);
+        ordine.verify(prodottoRepository).applicaVariazione(1, 2, 3);
+        ordine.verify(prodottoRepository).applicaVariazione(5, 2, 2);
+        verify(movimentoRepository).saveAll(any());
+    }
+
+    @Test
+    public void testInvalidBatchesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.registraMovimenti(2, List.of(), 7));
+        assertThrows(IllegalArgumentException.class, () -> service.registraMovimenti(2, List.of(new VariazioneScorta(1, 0)), 7));
+        assertThrows(IllegalArgumentException.class, () -> service.registraMovimenti(2,
+                List.of(new VariazioneScorta(1, 1), new VariazioneScorta(2, 1), new VariazioneScorta(3, 1), new VariazioneScorta(4, 1)), 7));
+        verify(prodottoRepository, never()).applicaVariazione(anyInt(), anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,79 @@
+package com.modulink.util;
+
+import com.modulink.Model.Immagine.MiniatureService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MiniatureServiceTest {
+
+    @TempDir
+    Path cartella;
+
+    private final MiniatureService service = new MiniatureService(0.85f);
+
+    @Test
+    public void testVariantsKeepAspectRatioAndTransparency() throws Exception {
+        Path originale = cartella.resolve("logo.png");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB), "png", originale.toFile());
+
+        service.genera(originale);
+
+        BufferedImage media = ImageIO.read(cartella.resolve("logo_128.png").toFile());
+        assertEquals(128, media.getWidth());
+        assertEquals(64, media.getHeight());
+        assertTrue(media.getColorModel().hasAlpha());
+        assertEquals(512, ImageIO.read(cartella.resolve("logo_512.png").toFile()).getWidth());
+        assertEquals(64, ImageIO.read(cartella.resolve("logo_64.png").toFile()).getWidth());
+    }
+
+    @Test
+    public void testJpegVariantsAreJpegAndSmallImagesAreNotEnlarged() throws Exception {
+        Path originale = cartella.resolve("foto.jpg");
+        ImageIO.write(new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB), "jpeg", originale.toFile());
+
+        service.genera(originale);
+
+        BufferedImage grande = ImageIO.read(cartella.resolve("foto_512.jpg").toFile());
+        assertEquals(100, grande.getWidth());
+        assertEquals(80, grande.getHeight());
+        assertEquals(64, ImageIO.read(cartella.resolve("foto_64.jpg").toFile()).getWidth());
+    }
+
+    @Test
+    public void testVariantFallsBackToOriginalWhenMissing() throws Exception {
+        Path originale = cartella.resolve("logo.png");
+        ImageIO.write(new BufferedImage(300, 300, BufferedImage.TYPE_INT_ARGB), "png", originale.toFile());
+        String percorso = originale.toString();
+
+        assertEquals(percorso, service.variante(percorso, 128));
+
+        service.genera(originale);
+        assertEquals(cartella.resolve("logo_128.png").toString(), service.variante(percorso, 128));
+        assertEquals(percorso, service.variante(percorso, 100));
+
+        service.elimina(percorso);
+        assertFalse(Files.exists(cartella.resolve("logo_128.png")));
+        assertEquals(percorso, service.variante(percorso, 128));
+    }
+
+    @Test
+    public void testUndecodableImageIsLeftWithoutVariants() throws Exception {
+        Path originale = cartella.resolve("logo.webp");
+        Files.write(originale, new byte[]{'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P'});
+
+        service.genera(originale);
+
+        try (var file = Files.list(cartella)) {
+            assertEquals(1, file.count());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Modulo.ModuloCacheEvictor;
+import com.modulink.Model.Modulo.PermessiModuliService;
+import com.modulink.Model.Modulo.TenantCacheKey;
+import com.modulink.Model.Modulo.TenantKeyGenerator;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ModuloCacheEvictorTest {
+
+    private UtenteEntity utente(int idAzienda, String email) {
+        AziendaEntity azienda = new AziendaEntity();
+        azienda.setId_azienda(idAzienda);
+        UtenteEntity utente = new UtenteEntity();
+        utente.setAzienda(azienda);
+        utente.setEmail(email);
+        return utente;
+    }
+
+    @Test
+    public void testKeyIsPartitionedByAzienda() throws NoSuchMethodException {
+        TenantKeyGenerator generator = new TenantKeyGenerator();
+        Object key = generator.generate(null, PermessiModuliService.class.getMethod("getPermessi", UtenteEntity.class), utente(3, "mario@example.com"));
+        assertThat(key).isInstanceOf(TenantCacheKey.class);
+        assertThat(((TenantCacheKey) key).idAzienda()).isEqualTo(3);
+        assertThat(key).isEqualTo(generator.generate(null, PermessiModuliService.class.getMethod("getPermessi", UtenteEntity.class), utente(3, "mario@example.com")));
+    }
+
+    @Test
+    public void testEvictOnlyAffectedAzienda() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("permessiUtente", "modulo");
+        Cache access = cacheManager.getCache("permessiUtente");
+        Cache modulo = cacheManager.getCache("modulo");
+        access.put(new TenantCacheKey(1, "a"), true);
+        access.put(new TenantCacheKey(2, "b"), true);
+        modulo.put(6, "GDM");
+        modulo.put(7, "GTM");
+
+        new ModuloCacheEvictor(cacheManager).evictAzienda(1, 6);
+
+        assertThat(access.get(new TenantCacheKey(1, "a"))).isNull();
+        assertThat(access.get(new TenantCacheKey(2, "b"))).isNotNull();
+        assertThat(modulo.get(6)).isNull();
+        assertThat(modulo.get(7)).isNotNull();
+    }
+
+    @Test
+    public void testEvictAziendaKeepsModuloMetadata() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("permessiUtente", "modulo");
+        Cache permessi = cacheManager.getCache("permessiUtente");
+        Cache modulo = cacheManager.getCache("modulo");
+        permessi.put(new TenantCacheKey(1, "a"), true);
+        permessi.put(new TenantCacheKey(2, "b"), true);
+        modulo.put(6, "GDM");
+
+        new ModuloCacheEvictor(cacheManager).evictAzienda(1);
+
+        assertThat(permessi.get(new TenantCacheKey(1, "a"))).isNull();
+        assertThat(permessi.get(new TenantCacheKey(2, "b"))).isNotNull();
+        assertThat(modulo.get(6)).isNotNull();
+    }
+}
@@ -1,10 +1,14 @@
 package com.modulink.util;
 
 import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.OTP.InMemoryOTPStore;
 import com.modulink.Model.OTP.OTPManager;
 import com.modulink.Model.Utente.UtenteEntity;
+import com.modulink.Model.Utente.UtenteID;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class OTPTest {
@@ -15,10 +19,13 @@ public class OTPTest {
         UtenteEntity utente=new UtenteEntity();
         utente.setNome("Roberto");
         utente.setCognome("Cito");
-        utente.setAzienda(new AziendaEntity());
+        utente.setId_utente(7);
+        AziendaEntity azienda=new AziendaEntity();
+        azienda.setId_azienda(3);
+        utente.setAzienda(azienda);
         otpManager.addOTP("ciao@mail.com",utente);
         assertThat(otpManager.getOTPEmail("ciao@mail.com").length()).isEqualTo(6);
-        assertThat(otpManager.getOTPUser("ciao@mail.com")).isEqualTo(utente);
+        assertThat(otpManager.getOTPUserId("ciao@mail.com")).contains(new UtenteID(7,3));
     }
 
     @Test
@@ -31,7 +38,7 @@ public class OTPTest {
         String oldOtp=otpManager.getOTPEmail("ciao2@mail.com");
         otpManager.addOTP("ciao2@mail.com",utente);
         assertThat(otpManager.getOTPEmail("ciao2@mail.com").length()).isEqualTo(6);
-        assertThat(otpManager.getOTPUser("ciao2@mail.com")).isEqualTo(utente);
+        assertThat(otpManager.getOTPUserId("ciao2@mail.com")).contains(new UtenteID(0,0));
         assertThat(otpManager.getOTPEmail("ciao2@mail.com")).isNotEqualTo(oldOtp);
     }
 
@@ -42,7 +49,30 @@ public class OTPTest {
         utente.setCognome("Cito");
         utente.setAzienda(new AziendaEntity());
         otpManager.addOTP("ciao3@mail.com",utente);
-        otpManager.removeOTPEmail("ciao3@gmail.com");
-        assertThat(otpManager.getOTPEmail("ciao3@gmail.com")).isEqualTo(null);
+        otpManager.removeOTPEmail("ciao3@mail.com");
+        assertThat(otpManager.getOTPEmail("ciao3@mail.com")).isEqualTo(null);
+        assertThat(otpManager.getOTPUserId("ciao3@mail.com")).isEmpty();
+    }
+
+    @Test
+    public void testVerifyOTP() {
+        UtenteEntity utente=new UtenteEntity();
+        utente.setAzienda(new AziendaEntity());
+        otpManager.addOTP("ciao4@mail.com",utente);
+        String otp=otpManager.getOTPEmail("ciao4@mail.com");
+        assertThat(otpManager.verificaOTP("ciao4@mail.com",otp)).isTrue();
+        assertThat(otpManager.verificaOTP("ciao4@mail.com","XXXXXXX")).isFalse();
+        assertThat(otpManager.verificaOTP("altro@mail.com",otp)).isFalse();
+    }
+
+    @Test
+    public void testExpiredOTP() throws InterruptedException {
+        OTPManager shortLived=new OTPManager(new InMemoryOTPStore(10), Duration.ofMillis(1));
+        UtenteEntity utente=new UtenteEntity();
+        utente.setAzienda(new AziendaEntity());
+        shortLived.addOTP("ciao5@mail.com",utente);
+        Thread.sleep(20);
+        assertThat(shortLived.getOTPEmail("ciao5@mail.com")).isNull();
+        assertThat(shortLived.getOTPUserId("ciao5@mail.com")).isEmpty();
     }
 }
@@ -0,0 +1,64 @@
+package com.modulink.util;
+
+import com.modulink.Model.Utente.AdaptivePasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Misura il throughput di login (verifiche BCrypt al secondo) per diversi costi, con un thread per core.
+ * <p>
+ * Escluso dalla build ordinaria; si esegue sull'hardware di produzione con
+ * <code>mvn test -Dtest=PasswordEncoderBenchmarkTest -Dbenchmark=true</code>
+ * (opzionalmente <code>-Dbenchmark.costi=10,11,12</code>) e si sceglie per
+ * <code>modulink.password.bcrypt-strength</code> il costo più alto che regge il picco di login atteso.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PasswordEncoderBenchmarkTest {
+
+    private static final long DURATA_MS = 5000;
+
+    @Test
+    public void testLoginThroughput() throws Exception {
+        int core = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(core);
+        try {
+            for (String valore : System.getProperty("benchmark.costi", "8,9,10,11,12").split(",")) {
+                int costo = Integer.parseInt(valore.trim());
+                AdaptivePasswordEncoder encoder = new AdaptivePasswordEncoder(costo, core);
+                String hash = encoder.encode("Password1!");
+                encoder.matches("Password1!", hash); // riscaldamento
+
+                long fine = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATA_MS);
+                List<Future<Integer>> risultati = new ArrayList<>();
+                for (int i = 0; i < core; i++) {
+                    risultati.add(pool.submit(() -> {
+                        int verifiche = 0;
+                        while (System.nanoTime() < fine) {
+                            if (encoder.matches("Password1!", hash)) verifiche++;
+                        }
+                        return verifiche;
+                    }));
+                }
+                int totale = 0;
+                for (Future<Integer> risultato : risultati) totale += risultato.get();
+
+                double alSecondo = totale * 1000.0 / DURATA_MS;
+                System.out.printf("BCrypt costo %2d: %8.1f login/s (%6.1f per core, %6.1f ms per verifica)%n",
+                        costo, alSecondo, alSecondo / core, core * 1000.0 / alSecondo);
+                assertThat(totale).isPositive();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.modulink.util;
+
+import com.modulink.Model.Relazioni.Associazione.AssociazioneRepository;
+import com.modulink.Model.Utente.PaginaRubrica;
+import com.modulink.Model.Utente.RubricaService;
+import com.modulink.Model.Utente.UserRepository;
+import com.modulink.Model.Utente.UtenteRubrica;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RubricaServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final AssociazioneRepository associazioneRepository = mock(AssociazioneRepository.class);
+    private final RubricaService service = new RubricaService(userRepository, associazioneRepository, 2);
+
+    private static UtenteRubrica utente(int id) {
+        return new UtenteRubrica(id, "Nome" + id, "Cognome" + id, "u" + id + "@test.it", null, null);
+    }
+
+    @Test
+    public void testFullPageReturnsCursorAndRoles() {
+        when(userRepository.findRubrica(2, -1, null, Limit.of(3))).thenReturn(List.of(utente(1), utente(4), utente(7)));
+        when(associazioneRepository.findRuoliByUtenti(2, List.of(1, 4)))
+                .thenReturn(List.<Object[]>of(new Object[]{4, 0, "Amministratore", "#ff0000"}, new Object[]{4, 1, "Dipendente", "#00ff00"}));
+
+        PaginaRubrica pagina = service.getPagina(2, null, "  ", null);
+
+        assertEquals(2, pagina.utenti().size());
+        assertEquals(4, pagina.prossimo());
+        assertTrue(pagina.utenti().get(0).ruoli().isEmpty());
+        assertEquals(List.of("Amministratore", "Dipendente"), pagina.utenti().get(1).ruoli().stream().map(r -> r.nome()).toList());
+    }
+
+    @Test
+    public void testLastPageHasNoCursor() {
+        when(userRepository.findRubrica(2, 4, null, Limit.of(3))).thenReturn(List.of(utente(7)));
+        when(associazioneRepository.findRuoliByUtenti(2, List.of(7))).thenReturn(List.of());
+
+        PaginaRubrica pagina = service.getPagina(2, 4, null, null);
+
+        assertEquals(1, pagina.utenti().size());
+        assertNull(pagina.prossimo());
+    }
+
+    @Test
+    public void testSearchIsEscapedAndSizeCapped() {
+        when(userRepository.findRubrica(anyInt(), anyInt(), any(), any())).thenReturn(List.of());
+
+        PaginaRubrica pagina = service.getPagina(2, null, " 50%_Off! ", 1000);
+
+        assertTrue(pagina.utenti().isEmpty());
+        verify(userRepository).findRubrica(2, -1, "%50!%!_off!!%", Limit.of(RubricaService.DIMENSIONE_MASSIMA + 1));
+        verify(associazioneRepository, never()).findRuoliByUtenti(anyInt(), any());
+    }
+
+    @Test
+    public void testInvalidPageSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RubricaService(userRepository, associazioneRepository, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RubricaService(userRepository, associazioneRepository, RubricaService.DIMENSIONE_MASSIMA + 1));
+    }
+}
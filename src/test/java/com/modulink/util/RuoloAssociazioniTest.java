@@ -0,0 +1,85 @@
+package com.modulink.util;
+
+import com.modulink.Model.Azienda.AziendaEntity;
+import com.modulink.Model.Contatore.ContatoreService;
+import com.modulink.Model.Modulo.ModuloCacheEvictor;
+import com.modulink.Model.Relazioni.Associazione.AssociazioneRepository;
+import com.modulink.Model.Ruolo.RuoloEntity;
+import com.modulink.Model.Ruolo.RuoloID;
+import com.modulink.Model.Ruolo.RuoloRepository;
+import com.modulink.Model.Ruolo.RuoloService;
+import com.modulink.Model.Utente.UtenteCacheEvictor;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class RuoloAssociazioniTest {
+
+    private final RuoloRepository ruoloRepository = mock(RuoloRepository.class);
+    private final AssociazioneRepository associazioneRepository = mock(AssociazioneRepository.class);
+    private final UtenteCacheEvictor utenteCacheEvictor = mock(UtenteCacheEvictor.class);
+    private final ModuloCacheEvictor moduloCacheEvictor = mock(ModuloCacheEvictor.class);
+    private final RuoloService service = new RuoloService(ruoloRepository, associazioneRepository, utenteCacheEvictor, moduloCacheEvictor, mock(ContatoreService.class), 500);
+    private final AziendaEntity azienda = new AziendaEntity();
+
+    @BeforeEach
+    public void setUp() {
+        azienda.setId_azienda(1);
+        when(ruoloRepository.findById(new RuoloID(5, 1))).thenReturn(Optional.of(new RuoloEntity(5, azienda, "Ruolo", "#000000", "")));
+        when(associazioneRepository.findMembriByRuolo(1, 5)).thenReturn(List.of(new Object[]{1, "a@x.it"}, new Object[]{2, "b@x.it"}));
+    }
+
+    private UtenteEntity utente(int id, String email) {
+        UtenteEntity utente = new UtenteEntity();
+        utente.setId_utente(id);
+        utente.setEmail(email);
+        utente.setAzienda(azienda);
+        return utente;
+    }
+
+    @Test
+    public void testOnlyChangedMembersAreWrittenAndEvicted() {
+        service.updateRoleAssociations(azienda, 5, List.of(utente(2, "b@x.it"), utente(3, "c@x.it")));
+
+        verify(associazioneRepository).deleteByRuoloAndUtenti(1, 5, Set.of(1));
+        verify(associazioneRepository).insertByRuoloAndUtenti(1, 5, Set.of(3));
+        verify(utenteCacheEvictor).evictUtenti(eq(1), any());
+        verify(moduloCacheEvictor).evictAzienda(1);
+    }
+
+    @Test
+    public void testEvictedEmailsAreTheChangedOnes() {
+        List<String> evicted = new ArrayList<>();
+        doAnswer(inv -> evicted.addAll(inv.getArgument(1))).when(utenteCacheEvictor).evictUtenti(anyInt(), anyCollection());
+
+        service.updateRoleAssociations(azienda, 5, List.of(utente(2, "b@x.it"), utente(3, "c@x.it")));
+
+        assertThat(evicted).containsExactlyInAnyOrder("a@x.it", "c@x.it");
+    }
+
+    @Test
+    public void testUnchangedMembershipDoesNothing() {
+        service.updateRoleAssociations(azienda, 5, List.of(utente(1, "a@x.it"), utente(2, "b@x.it")));
+
+        verify(associazioneRepository, never()).deleteByRuoloAndUtenti(anyInt(), anyInt(), anyCollection());
+        verify(associazioneRepository, never()).insertByRuoloAndUtenti(anyInt(), anyInt(), anyCollection());
+        verifyNoInteractions(utenteCacheEvictor, moduloCacheEvictor);
+    }
+}
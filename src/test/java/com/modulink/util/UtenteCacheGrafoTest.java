@@ -0,0 +1,48 @@
+package com.modulink.util;
+
+import com.modulink.Model.Utente.CustomUserDetailsService;
+import com.modulink.Model.Utente.UtenteEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class UtenteCacheGrafoTest {
+
+    private static final String EMAIL = "admin@techsolutions.com";
+
+    @Autowired
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    public void testCachedUserKeepsCompanyReadableOutsideTheSession() {
+        cacheManager.getCache("users").evict(EMAIL);
+
+        customUserDetailsService.findByEmail(EMAIL);
+        UtenteEntity utente = customUserDetailsService.findByEmail(EMAIL).orElseThrow();
+
+        // Letture della sidebar su un utente servito dalla cache, senza sessione JPA aperta
+        assertThat(utente.getAzienda().getLogo()).isNotNull();
+        assertThat(utente.getAzienda().getNome()).isEqualTo("Tech Solutions");
+        assertThat(utente.getRuoli()).isNotEmpty();
+    }
+
+    @Test
+    public void testCachedCompanyUsersKeepCompanyReadableOutsideTheSession() {
+        UtenteEntity admin = customUserDetailsService.findByEmail(EMAIL).orElseThrow();
+        cacheManager.getCache("usersByAzienda").evict(admin.getAzienda().getId_azienda());
+
+        List<UtenteEntity> utenti = customUserDetailsService.getAllByAzienda(admin.getAzienda());
+
+        assertThat(utenti).isNotEmpty();
+        assertThat(utenti).allSatisfy(utente -> assertThat(utente.getAzienda().getNome()).isEqualTo("Tech Solutions"));
+    }
+}